@@ -6,11 +6,11 @@ import com.vpstycoon.config.GameConfig;
 import com.vpstycoon.event.GameEventBus;
 import com.vpstycoon.event.SettingsChangedEvent;
 import com.vpstycoon.game.GameManager;
-import com.vpstycoon.game.GameObject;
 import com.vpstycoon.game.GameSaveManager;
 import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.manager.RequestManager;
+import com.vpstycoon.game.persistence.PersistenceService;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.game.thread.RequestGenerator;
 import com.vpstycoon.game.thread.GameTimeController;
@@ -41,7 +41,6 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 
 public class GameApplication extends Application implements Navigator, ResourceManager.ResourceLoadingListener {
@@ -297,7 +296,7 @@ public class GameApplication extends Application implements Navigator, ResourceM
     public void showMainMenu() {
         if (ResourceManager.getInstance().getGameTimeController() != null) {
             System.out.println("หยุด GameTimeController ก่อนไปเมนูหลัก");
-            ResourceManager.getInstance().getGameTimeController().stopTime();
+            ResourceManager.getInstance().getGameTimeController().shutdownTime();
         }
 
         mainMenuScreen.show();
@@ -321,7 +320,7 @@ public class GameApplication extends Application implements Navigator, ResourceM
 
         if (ResourceManager.getInstance().getGameTimeController() != null) {
             System.out.println("หยุด GameTimeController ก่อนเริ่มเกมใหม่");
-            ResourceManager.getInstance().getGameTimeController().stopTime();
+            ResourceManager.getInstance().getGameTimeController().shutdownTime();
         }
 
         new Thread(() -> {
@@ -685,14 +684,7 @@ public class GameApplication extends Application implements Navigator, ResourceM
 
                     Company company = ResourceManager.getInstance().getCompany();
                     if (company != null) {
-                        List<GameObject> gameObjects = 
-                            ResourceManager.getInstance().getCurrentState().getGameObjects();
-                        
-                        GameState state = new GameState(company, gameObjects);
-                        state.setLocalDateTime(ResourceManager.getInstance().getGameTimeController().getGameTimeManager().getGameDateTime());
-                        
-
-                        ResourceManager.getInstance().saveGameState(state);
+                        PersistenceService.getInstance().commitSnapshot(null);
                         System.out.println("บันทึกเกมเรียบร้อยแล้ว");
                     }
                 } catch (Exception saveEx) {
@@ -1,19 +1,19 @@
 package com.vpstycoon.game;
 
 import com.vpstycoon.game.company.Company;
-import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.manager.RequestManager;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
+import com.vpstycoon.game.persistence.PersistenceService;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.game.thread.GameTimeManager;
 import com.vpstycoon.game.thread.RequestGenerator;
 import com.vpstycoon.game.vps.VPSInventory;
 import com.vpstycoon.game.vps.VPSOptimization;
-import com.vpstycoon.ui.game.rack.Rack;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class GameManager {
     private static GameManager instance;
@@ -107,180 +107,13 @@ public class GameManager {
     
     
     public void saveState() {
-        GameState currentState = new GameState();
-        
-        
-        if (requestManager != null) {
-            currentState.setCompany(requestManager.getVmProvisioningManager().getCompany());
-            
-            
-            List<CustomerRequest> pendingRequests = new ArrayList<>(requestManager.getRequests());
-            List<CustomerRequest> completedRequests = new ArrayList<>(requestManager.getCompletedRequests());
-            
-            currentState.setPendingRequests(pendingRequests);
-            currentState.setCompletedRequests(completedRequests);
-            
-            System.out.println("บันทึกข้อมูล Requests: pending=" + pendingRequests.size() + 
-                              ", completed=" + completedRequests.size());
-            
-            
-            Map<String, String> vmAssignments = new HashMap<>();
-            
-            
-            for (CustomerRequest request : pendingRequests) {
-                if (request.isAssignedToVM()) {
-                    vmAssignments.put(request.getAssignedVmId(), String.valueOf(request.getId()));
-                    System.out.println("บันทึกการ assign VM " + request.getAssignedVmId() + 
-                                      " ให้กับ request " + request.getName());
-                }
-            }
-            
-            for (CustomerRequest request : completedRequests) {
-                if (request.isAssignedToVM()) {
-                    vmAssignments.put(request.getAssignedVmId(), String.valueOf(request.getId()));
-                    System.out.println("บันทึกการ assign VM " + request.getAssignedVmId() + 
-                                      " ให้กับ request " + request.getName() + " (completed)");
-                }
-            }
-            
-            currentState.setVmAssignments(vmAssignments);
-            System.out.println("บันทึกข้อมูลการ assign VM: " + vmAssignments.size() + " รายการ");
-        }
-        
-        
-        if (timeManager != null) {
-            currentState.setLocalDateTime(timeManager.getGameDateTime());
-        }
-        
-        
-        for (VPSOptimization server : installedServers) {
-            
-            currentState.addGameObject(server);
-        }
-        
-        
-        if (vpsInventory != null && !vpsInventory.isEmpty()) {
-            System.out.println("บันทึก VPS ใน inventory: " + vpsInventory.getSize() + " รายการ");
-            
-            
-            for (VPSOptimization vps : vpsInventory.getAllVPS()) {
-                
-                boolean isDuplicate = false;
-                for (GameObject obj : currentState.getGameObjects()) {
-                    if (obj instanceof VPSOptimization && 
-                        ((VPSOptimization) obj).getVpsId() != null && 
-                        ((VPSOptimization) obj).getVpsId().equals(vps.getVpsId())) {
-                        isDuplicate = true;
-                        break;
-                    }
-                }
-                
-                
-                if (!isDuplicate) {
-                    vps.setInstalled(false); 
-                    currentState.addGameObject(vps);
-                    System.out.println("เพิ่ม VPS จาก inventory ไปยัง GameState: " + vps.getVpsId());
-                }
-            }
-            
-            
-            Map<String, Object> inventoryData = new HashMap<>();
-            List<String> vpsIds = vpsInventory.getAllVPSIds();
-            inventoryData.put("vpsIds", vpsIds);
-            
-            
-            Map<String, Map<String, Object>> vpsDetails = new HashMap<>();
-            for (String vpsId : vpsIds) {
-                VPSOptimization vps = vpsInventory.getVPS(vpsId);
-                Map<String, Object> details = new HashMap<>();
-                details.put("vCPUs", vps.getVCPUs());
-                details.put("ramInGB", vps.getRamInGB());
-                details.put("diskInGB", vps.getDiskInGB());
-                details.put("size", vps.getSize().toString());
-                details.put("name", vps.getName());
-                vpsDetails.put(vpsId, details);
-            }
-            inventoryData.put("vpsDetails", vpsDetails);
-            
-            
-            currentState.setVpsInventoryData(inventoryData);
-        }
-        
-        
-        Rack rack = ResourceManager.getInstance().getRack();
-        if (rack != null) {
-            try {
-                
-                Map<String, Object> rackConfig = new HashMap<>();
-                rackConfig.put("maxRacks", rack.getMaxRacks());
-                rackConfig.put("currentRackIndex", rack.getCurrentRackIndex());
-                rackConfig.put("maxSlotUnits", rack.getMaxSlotUnits());
-                rackConfig.put("unlockedSlotUnits", rack.getUnlockedSlotUnits());
-                rackConfig.put("occupiedSlotUnits", rack.getOccupiedSlotUnits());
-                
-                
-                List<String> installedVpsIds = new ArrayList<>();
-                
-                
-                for (VPSOptimization vps : rack.getAllInstalledVPS()) {
-                    if (vps != null && vps.getVpsId() != null) {
-                        installedVpsIds.add(vps.getVpsId());
-                        System.out.println("บันทึก VPS ที่ติดตั้งใน Rack: " + vps.getVpsId());
-                        
-                        
-                        boolean found = false;
-                        for (GameObject obj : currentState.getGameObjects()) {
-                            if (obj instanceof VPSOptimization && 
-                                ((VPSOptimization) obj).getVpsId() != null && 
-                                ((VPSOptimization) obj).getVpsId().equals(vps.getVpsId())) {
-                                found = true;
-                                
-                                ((VPSOptimization) obj).setInstalled(true);
-                                break;
-                            }
-                        }
-                        
-                        if (!found) {
-                            vps.setInstalled(true);
-                            currentState.addGameObject(vps);
-                            System.out.println("เพิ่ม VPS จาก Rack เข้า GameObjects: " + vps.getVpsId());
-                        }
-                    }
-                }
-                rackConfig.put("installedVpsIds", installedVpsIds);
-                
-                
-                
-                List<Integer> slotCounts = new ArrayList<>();
-                for (int i = 0; i < rack.getMaxRacks(); i++) {
-                    slotCounts.add(10); 
-                }
-                rackConfig.put("slotCounts", slotCounts);
-                
-                
-                rackConfig.put("unlockedSlotUnitsList", rack.getUnlockedSlotUnitsList());
-                
-                
-                currentState.setRackConfiguration(rackConfig);
-                System.out.println("บันทึกข้อมูล Rack สำเร็จ: " + installedVpsIds.size() + " VPS ที่ติดตั้ง");
-            } catch (Exception e) {
-                System.err.println("เกิดข้อผิดพลาดในการบันทึกข้อมูล Rack: " + e.getMessage());
-                e.printStackTrace();
-            }
-        } else {
-            System.out.println("ไม่พบข้อมูล Rack ที่จะบันทึก");
-        }
-        
-        
-        if (requestManager != null && requestManager.getVmProvisioningManager() != null 
-            && requestManager.getVmProvisioningManager().getCompany() != null) {
-            int freeVMCount = requestManager.getVmProvisioningManager().getCompany().getAvailableVMs();
-            currentState.setFreeVmCount(freeVMCount);
-            System.out.println("บันทึกจำนวน Free VM: " + freeVMCount);
+        try {
+            PersistenceService.getInstance().commitSnapshot(null);
+            System.out.println("บันทึกข้อมูลเกมสำเร็จ");
+        } catch (IOException e) {
+            System.err.println("บันทึกข้อมูลเกมล้มเหลว: " + e.getMessage());
+            e.printStackTrace();
         }
-        
-        ResourceManager.getInstance().saveGameState(currentState);
-        System.out.println("บันทึกข้อมูลเกมสำเร็จ");
     }
 
     
@@ -312,11 +145,7 @@ public class GameManager {
                     }
                     
                     
-                    if (savedState.getCompletedRequests() != null && !savedState.getCompletedRequests().isEmpty()) {
-                        
-                        this.requestManager.addCompletedRequests(savedState.getCompletedRequests());
-                        System.out.println("โหลด completedRequests: " + savedState.getCompletedRequests().size() + " รายการ");
-                    }
+                    this.requestManager.addCompletedRequestsFrom(savedState);
                 }
                 
                 
@@ -455,6 +284,7 @@ public class GameManager {
         
         
         vpsInventory.addVPS("server-" + System.currentTimeMillis(), server);
+        CommandJournal.record(time -> JournalCommand.buyServer(time, server, cost));
         
         return true;
     }
@@ -36,8 +36,6 @@ public class GameObject implements Serializable {
         this.level = 1;
         this.name = "";
         this.status = "Active";
-
-        this.company = ResourceManager.getInstance().getCompany();
     }
 
     
@@ -50,8 +48,6 @@ public class GameObject implements Serializable {
         this.name = type;
         this.status = "Active";
 
-        this.company = ResourceManager.getInstance().getCompany();
-
         
         setGridPosition(gridX, gridY);
     }
@@ -153,6 +149,9 @@ public class GameObject implements Serializable {
     }
 
     public Company getCompany() {
+        if (company == null) {
+            company = ResourceManager.getInstance().getCompany();
+        }
         return company;
     }
     public void setCompany(Company company) {
@@ -0,0 +1,103 @@
+package com.vpstycoon.game;
+
+import com.vpstycoon.game.vps.VPSOptimization;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class GameObjectRegistry {
+    private final Map<String, GameObject> objectsById = new HashMap<>();
+    private final Map<String, VPSOptimization> vpsById = new HashMap<>();
+    private List<GameObject> source;
+    private int indexedSize = -1;
+
+    public GameObjectRegistry() {
+    }
+
+
+    public synchronized void attach(List<GameObject> objects) {
+        source = objects;
+        rebuild();
+    }
+
+    public synchronized void added(GameObject object) {
+        if (!isCurrent(1)) {
+            rebuild();
+            return;
+        }
+        index(object);
+        indexedSize++;
+    }
+
+    public synchronized void removed(GameObject object) {
+        if (!isCurrent(-1)) {
+            rebuild();
+            return;
+        }
+        if (object != null) {
+            objectsById.remove(object.getId(), object);
+            if (object instanceof VPSOptimization vps && vps.getVpsId() != null) {
+                vpsById.remove(vps.getVpsId(), vps);
+            }
+        }
+        indexedSize--;
+    }
+
+
+    public synchronized VPSOptimization findVps(String vpsId) {
+        ensureIndexed();
+        return vpsId != null ? vpsById.get(vpsId) : null;
+    }
+
+    public synchronized boolean containsVps(String vpsId) {
+        return findVps(vpsId) != null;
+    }
+
+    public synchronized GameObject find(String id) {
+        ensureIndexed();
+        return id != null ? objectsById.get(id) : null;
+    }
+
+    public synchronized int size() {
+        ensureIndexed();
+        return indexedSize;
+    }
+
+
+    private void ensureIndexed() {
+        if (!isCurrent(0)) {
+            rebuild();
+        }
+    }
+
+    private boolean isCurrent(int sizeChange) {
+        return source != null && indexedSize >= 0 && source.size() == indexedSize + sizeChange;
+    }
+
+    private void rebuild() {
+        objectsById.clear();
+        vpsById.clear();
+        if (source == null) {
+            indexedSize = 0;
+            return;
+        }
+        for (GameObject object : source) {
+            index(object);
+        }
+        indexedSize = source.size();
+    }
+
+    private void index(GameObject object) {
+        if (object == null) {
+            return;
+        }
+        if (object.getId() != null && !object.getId().isEmpty()) {
+            objectsById.putIfAbsent(object.getId(), object);
+        }
+        if (object instanceof VPSOptimization vps && vps.getVpsId() != null) {
+            vpsById.putIfAbsent(vps.getVpsId(), vps);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.vpstycoon.game;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+
+public class GameRandom {
+
+    public enum Stream {
+        CUSTOMERS,
+        REQUESTS,
+        ARRIVALS,
+        NAMES,
+        RESOURCES,
+        NETWORK,
+        PROVISIONING,
+        RENTALS,
+        EVENTS
+    }
+
+    private static final GameRandom GLOBAL = new GameRandom(newSeed());
+    private static final ThreadLocal<GameRandom> BOUND = new ThreadLocal<>();
+
+    private final StreamGenerator[] streams = new StreamGenerator[Stream.values().length];
+    private final long[] streamSeeds = new long[Stream.values().length];
+    private long seed;
+
+    public GameRandom(long seed) {
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = new StreamGenerator();
+        }
+        initStreams(seed);
+    }
+
+
+    public static GameRandom getInstance() {
+        GameRandom bound = BOUND.get();
+        return bound != null ? bound : GLOBAL;
+    }
+
+    public static GameRandom getGlobal() {
+        return GLOBAL;
+    }
+
+    public static RandomGenerator stream(Stream stream) {
+        return getInstance().get(stream);
+    }
+
+
+    public static <T> T callWith(GameRandom random, Supplier<T> action) {
+        GameRandom previous = BOUND.get();
+        BOUND.set(random);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                BOUND.set(previous);
+            } else {
+                BOUND.remove();
+            }
+        }
+    }
+
+    public static void runWith(GameRandom random, Runnable action) {
+        callWith(random, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static long newSeed() {
+        return new SplittableRandom(System.nanoTime() ^ System.currentTimeMillis()).nextLong();
+    }
+
+    public RandomGenerator get(Stream stream) {
+        return streams[stream.ordinal()];
+    }
+
+
+    public SplittableRandom fork(Stream stream) {
+        return new SplittableRandom(streamSeeds[stream.ordinal()]).split();
+    }
+
+
+    public synchronized void reseed(long seed) {
+        initStreams(seed);
+    }
+
+    private void initStreams(long seed) {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < streams.length; i++) {
+            streamSeeds[i] = root.nextLong();
+            streams[i].reset(streamSeeds[i]);
+        }
+    }
+
+
+    public synchronized void restore(long seed, Map<String, Long> positions) {
+        reseed(seed);
+        if (positions == null) {
+            return;
+        }
+        for (Stream stream : Stream.values()) {
+            Long position = positions.get(stream.name());
+            if (position != null && position > 0) {
+                streams[stream.ordinal()].skip(position);
+            }
+        }
+    }
+
+
+    public synchronized Map<String, Long> getStreamPositions() {
+        Map<String, Long> positions = new LinkedHashMap<>();
+        for (Stream stream : Stream.values()) {
+            positions.put(stream.name(), streams[stream.ordinal()].getDraws());
+        }
+        return positions;
+    }
+
+    public synchronized long getSeed() {
+        return seed;
+    }
+
+
+    public static final class StreamGenerator implements RandomGenerator {
+        private SplittableRandom random;
+        private long draws;
+
+        private StreamGenerator() {
+        }
+
+        @Override
+        public synchronized long nextLong() {
+            draws++;
+            return random.nextLong();
+        }
+
+        public synchronized long getDraws() {
+            return draws;
+        }
+
+        private synchronized void reset(long streamSeed) {
+            random = new SplittableRandom(streamSeed);
+            draws = 0;
+        }
+
+        private synchronized void skip(long count) {
+            for (long i = 0; i < count; i++) {
+                random.nextLong();
+            }
+            draws = count;
+        }
+    }
+}
@@ -1,19 +1,24 @@
 package com.vpstycoon.game;
 
+import com.vpstycoon.game.persistence.BackupStore;
+import com.vpstycoon.game.persistence.PersistenceService;
+import com.vpstycoon.game.persistence.SaveSlotInfo;
+import com.vpstycoon.game.persistence.SaveStore;
+import com.vpstycoon.game.persistence.SaveWriter;
 import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistoryManager;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 public class GameSaveManager {
-    private static final String GAME_FOLDER = System.getProperty("user.home") + File.separator + "Documents" + File.separator + "VpsTycoon";
-    private static final String SAVE_FILE = GAME_FOLDER + File.separator + "savegame.dat"; 
-    private static final String CHAT_SAVE_FILE = GAME_FOLDER + File.separator + "save.dat"; 
+    private static final String GAME_FOLDER = PersistenceService.GAME_FOLDER;
     private static final String BACKUP_DIR = GAME_FOLDER + File.separator + "backups";     
 
     public GameSaveManager() {
@@ -51,22 +56,8 @@ public class GameSaveManager {
     
     public void saveGame(GameState state) {
         try {
-            File saveFile = new File(SAVE_FILE);
-
-            
-            if (saveFile.exists() && saveFile.length() > 0) {
-                createBackup();
-            }
-
-            
-            saveChatHistory(state);
-
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(saveFile))) {
-                oos.writeObject(state);
-            }
-            System.out.println("บันทึกเกมสำเร็จ: " + saveFile.getAbsolutePath());
-
+            PersistenceService.getInstance().commitSnapshot(state);
+            System.out.println("บันทึกเกมสำเร็จ: " + PersistenceService.getInstance().getSaveFile().getAbsolutePath());
         } catch (IOException e) {
             System.err.println("บันทึกเกมล้มเหลว: " + e.getMessage());
             e.printStackTrace();
@@ -74,62 +65,62 @@ public class GameSaveManager {
     }
 
     
-    private void saveChatHistory(GameState state) {
-        
-        ChatHistoryManager chatManager = ChatHistoryManager.getInstance();
-        if (chatManager != null) {
-            
-            chatManager.saveChatHistory();
-            System.out.println("บันทึกประวัติแชทสำเร็จ: " + new File(CHAT_SAVE_FILE).getAbsolutePath());
-        }
-    }
-
-    
     public void deleteGame() {
-        File saveFile = new File(SAVE_FILE);
-        if (saveFile.exists()) {
-            boolean deleted = saveFile.delete();
+        SaveWriter.getInstance().discardPending();
+        File saveFile = PersistenceService.getInstance().getSaveFile();
+        boolean existed = saveFile.exists();
+        PersistenceService.getInstance().delete();
+        if (existed) {
+            boolean deleted = !saveFile.exists();
             if (deleted) {
                 System.out.println("ลบไฟล์บันทึกสำเร็จ: " + saveFile.getAbsolutePath());
             } else {
                 System.err.println("ลบไฟล์บันทึกไม่สำเร็จ: " + saveFile.getAbsolutePath());
             }
         }
-        
-        
-        File chatSaveFile = new File(CHAT_SAVE_FILE);
-        if (chatSaveFile.exists()) {
-            boolean deleted = chatSaveFile.delete();
-            if (deleted) {
-                System.out.println("ลบไฟล์บันทึกประวัติแชทสำเร็จ: " + chatSaveFile.getAbsolutePath());
-            } else {
-                System.err.println("ลบไฟล์บันทึกประวัติแชทไม่สำเร็จ: " + chatSaveFile.getAbsolutePath());
-            }
-        }
     }
 
     
-    private void createBackup() {
+    public List<BackupStore.Backup> listBackups() {
+        return BackupStore.forDirectory(PersistenceService.getInstance().getBackupDirectory()).listBackups();
+    }
+
+
+    public boolean restoreBackup(LocalDateTime dateTime) {
+        return restoreBackup(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public boolean restoreBackup(long timestamp) {
+        SaveWriter.getInstance().discardPending();
+        SaveStore saveStore = SaveStore.forFile(PersistenceService.getInstance().getSaveFile());
         try {
-            File sourceFile = new File(SAVE_FILE);
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            File backupFile = new File(BACKUP_DIR + "/savegame_" + timestamp + ".bak");
-            Files.copy(sourceFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            
-            
-            File chatSourceFile = new File(CHAT_SAVE_FILE);
-            if (chatSourceFile.exists()) {
-                File chatBackupFile = new File(BACKUP_DIR + "/save_" + timestamp + ".bak");
-                Files.copy(chatSourceFile.toPath(), chatBackupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if (BackupStore.forDirectory(PersistenceService.getInstance().getBackupDirectory()).findBackup(timestamp) == null) {
+                System.err.println("ไม่พบข้อมูลสำรองก่อนเวลา " + timestamp);
+                return false;
             }
+            ChatHistoryManager.resetInstance();
+
+            BackupStore.Backup backup;
+            synchronized (PersistenceService.getInstance().getTransactionLock()) {
+                saveStore.close();
+                backup = BackupStore.forDirectory(PersistenceService.getInstance().getBackupDirectory()).restore(timestamp, new File(GAME_FOLDER));
+            }
+            if (backup == null) {
+                System.err.println("ไม่พบข้อมูลสำรองก่อนเวลา " + timestamp);
+                return false;
+            }
+            System.out.println("กู้คืนข้อมูลสำรองสำเร็จ: " + backup.getTimestamp());
+            return true;
         } catch (IOException e) {
+            System.err.println("กู้คืนข้อมูลสำรองล้มเหลว: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
     }
 
     
     public GameState loadGame() {
-        File saveFile = new File(SAVE_FILE);
+        File saveFile = PersistenceService.getInstance().getSaveFile();
 
         try {
             
@@ -139,23 +130,21 @@ public class GameSaveManager {
             }
 
             
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
-                GameState state = (GameState) ois.readObject();
-                if (state == null) {
-                    System.err.println("ข้อมูลบันทึกว่างเปล่า สร้างเกมใหม่");
-                    return new GameState();
-                }
-                System.out.println("โหลดเกมสำเร็จ: " + saveFile.getAbsolutePath());
-                
-                
-                System.out.println("กำลังโหลดประวัติแชทจาก " + CHAT_SAVE_FILE);
-                ChatHistoryManager.resetInstance(); 
-                ChatHistoryManager chatManager = ChatHistoryManager.getInstance();
-                
-                return state;
+            GameState state = SaveStore.forFile(saveFile).load();
+            if (state == null) {
+                System.err.println("ข้อมูลบันทึกว่างเปล่า สร้างเกมใหม่");
+                return new GameState();
             }
+            System.out.println("โหลดเกมสำเร็จ: " + saveFile.getAbsolutePath());
+            
+            
+            System.out.println("กำลังโหลดประวัติแชทจาก " + saveFile.getAbsolutePath());
+            ChatHistoryManager.resetInstance(); 
+            ChatHistoryManager chatManager = ChatHistoryManager.getInstance();
+            
+            return state;
 
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             System.err.println("โหลดเกมล้มเหลว: " + e.getMessage());
             e.printStackTrace();
             createCorruptedFileBackup(saveFile); 
@@ -176,7 +165,20 @@ public class GameSaveManager {
 
     
     public boolean saveExists() {
-        return new File(SAVE_FILE).exists();
+        return PersistenceService.getInstance().getSaveFile().exists();
+    }
+
+    
+    public List<SaveSlotInfo> listSaveSlots() {
+        return PersistenceService.getInstance().listSlots();
+    }
+
+    public SaveSlotInfo getSaveInfo() {
+        return PersistenceService.getInstance().getSlotInfo(PersistenceService.getInstance().getSlot());
+    }
+
+    public void selectSlot(int slot) {
+        PersistenceService.getInstance().selectSlot(slot);
     }
 }
 
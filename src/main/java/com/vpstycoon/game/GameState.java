@@ -3,7 +3,10 @@ package com.vpstycoon.game;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.company.SkillPointsSystem.SkillType;
 import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.persistence.SaveSection;
+import com.vpstycoon.game.persistence.SectionLoader;
 import com.vpstycoon.game.resource.ResourceManager;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistory;
 import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -14,11 +17,14 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class GameState implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -837857264665998132L;
 
     private transient ObjectProperty<LocalDateTime> localDateTime = new SimpleObjectProperty<>();
     private long gameTimeMs;
@@ -50,6 +56,18 @@ public class GameState implements Serializable {
     
     
     private Map<SkillType, Integer> skillLevels;
+    
+    
+    private Map<String, Long> timerCheckpoint;
+    
+    
+    private Long randomSeed;
+    private Map<String, Long> randomStreamPositions;
+
+
+    private transient Map<SaveSection, SectionLoader> deferredSections;
+    private transient Object sectionLoadLock = new Object();
+    private transient GameObjectRegistry objectRegistry;
 
     public GameState() {
         this.company = ResourceManager.getInstance().getCompany();
@@ -63,7 +81,7 @@ public class GameState implements Serializable {
         this.rackConfiguration = new HashMap<>();
         this.vpsInventoryData = new HashMap<>();
         this.freeVmCount = 0;
-        this.chatHistory = new HashMap<>();
+        this.chatHistory = new ChatHistory();
         this.pendingRequests = new ArrayList<>();
         this.completedRequests = new ArrayList<>();
         this.vmAssignments = new HashMap<>();
@@ -91,7 +109,7 @@ public class GameState implements Serializable {
         this.rackConfiguration = new HashMap<>();
         this.vpsInventoryData = new HashMap<>();
         this.freeVmCount = 0;
-        this.chatHistory = new HashMap<>();
+        this.chatHistory = new ChatHistory();
         this.pendingRequests = new ArrayList<>();
         this.completedRequests = new ArrayList<>();
         this.vmAssignments = new HashMap<>();
@@ -112,7 +130,7 @@ public class GameState implements Serializable {
         this.rackConfiguration = new HashMap<>();
         this.vpsInventoryData = new HashMap<>();
         this.freeVmCount = 0;
-        this.chatHistory = new HashMap<>();
+        this.chatHistory = new ChatHistory();
         this.pendingRequests = new ArrayList<>();
         this.completedRequests = new ArrayList<>();
         this.vmAssignments = new HashMap<>();
@@ -151,10 +169,12 @@ public class GameState implements Serializable {
     
     
     public Map<CustomerRequest, List<ChatMessage>> getChatHistory() {
+        resolveSection(SaveSection.CHAT);
         return chatHistory;
     }
     
     public void setChatHistory(Map<CustomerRequest, List<ChatMessage>> chatHistory) {
+        cancelDeferred(SaveSection.CHAT);
         this.chatHistory = chatHistory;
     }
 
@@ -173,11 +193,12 @@ public class GameState implements Serializable {
     }
     
     public List<CustomerRequest> getCompletedRequests() {
+        resolveSection(SaveSection.COMPLETED);
         return completedRequests;
     }
     
     public void setCompletedRequests(List<CustomerRequest> completedRequests) {
-        
+        cancelDeferred(SaveSection.COMPLETED);
         if (completedRequests != null) {
             this.completedRequests = new ArrayList<>(completedRequests);
         } else {
@@ -196,9 +217,12 @@ public class GameState implements Serializable {
 
     public void addGameObject(GameObject obj) {
         if (gameObjects == null) {
-            gameObjects = new ArrayList<>();
+            setGameObjects(new ArrayList<>());
         }
         gameObjects.add(obj);
+        if (objectRegistry != null) {
+            objectRegistry.added(obj);
+        }
     }
 
     
@@ -208,13 +232,30 @@ public class GameState implements Serializable {
 
     public void setGameObjects(List<GameObject> gameObjects) {
         this.gameObjects = gameObjects;
+        if (objectRegistry != null) {
+            objectRegistry.attach(gameObjects);
+        }
     }
 
 
     public void removeGameObject(GameObject obj) {
-        if (gameObjects != null) {
-            gameObjects.remove(obj);
+        if (gameObjects != null && gameObjects.remove(obj) && objectRegistry != null) {
+            objectRegistry.removed(obj);
+        }
+    }
+
+
+    public GameObjectRegistry getObjectRegistry() {
+        if (objectRegistry == null) {
+            GameObjectRegistry registry = new GameObjectRegistry();
+            registry.attach(gameObjects);
+            objectRegistry = registry;
         }
+        return objectRegistry;
+    }
+
+    public boolean containsVps(String vpsId) {
+        return getObjectRegistry().containsVps(vpsId);
     }
     
     public Map<String, Integer> getResources() {
@@ -263,6 +304,7 @@ public class GameState implements Serializable {
     private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         localDateTime = new SimpleObjectProperty<>((LocalDateTime) in.readObject());
+        sectionLoadLock = new Object();
     }
 
     public void setGameTimeMs(long gameTimeMs) {
@@ -283,7 +325,105 @@ public class GameState implements Serializable {
     }
     
     
+    public Map<String, Long> getTimerCheckpoint() {
+        return timerCheckpoint;
+    }
+    
+    public void setTimerCheckpoint(Map<String, Long> timerCheckpoint) {
+        this.timerCheckpoint = timerCheckpoint;
+    }
+    
+    
+    public Long getRandomSeed() {
+        return randomSeed;
+    }
+    
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+    
+    public Map<String, Long> getRandomStreamPositions() {
+        return randomStreamPositions;
+    }
+    
+    public void setRandomStreamPositions(Map<String, Long> randomStreamPositions) {
+        this.randomStreamPositions = randomStreamPositions;
+    }
+    
+    
+    public synchronized void deferSection(SaveSection section, SectionLoader loader) {
+        if (deferredSections == null) {
+            deferredSections = new EnumMap<>(SaveSection.class);
+        }
+        deferredSections.put(section, loader);
+    }
+
+    public synchronized SectionLoader getDeferredLoader(SaveSection section) {
+        return deferredSections != null ? deferredSections.get(section) : null;
+    }
+
+    public synchronized boolean isDeferred(SaveSection section) {
+        return deferredSections != null && deferredSections.containsKey(section);
+    }
+
+    private synchronized void cancelDeferred(SaveSection section) {
+        if (deferredSections != null) {
+            deferredSections.remove(section);
+        }
+    }
+
+    private void resolveSection(SaveSection section) {
+        if (!isDeferred(section)) {
+            return;
+        }
+        synchronized (sectionLoadLock) {
+            SectionLoader loader = getDeferredLoader(section);
+            if (loader == null) {
+                return;
+            }
+            try {
+                loader.load(this, section);
+            } catch (IOException e) {
+                System.err.println("ไม่สามารถโหลดข้อมูลส่วน " + section + " จากไฟล์บันทึก: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                cancelDeferred(section);
+            }
+        }
+    }
+
+
+    public GameState snapshot() {
+        GameState copy = new GameState(company, gameObjects);
+        copy.gameTimeMs = gameTimeMs;
+        copy.localDateTime.set(getLocalDateTime());
+        copy.resources.putAll(resources);
+        copy.upgrades.putAll(upgrades);
+        copy.lastSaveTime = lastSaveTime;
+        copy.rackConfiguration = rackConfiguration != null ? new HashMap<>(rackConfiguration) : null;
+        copy.vpsInventoryData = vpsInventoryData != null ? new HashMap<>(vpsInventoryData) : null;
+        copy.freeVmCount = freeVmCount;
+        copy.chatHistory = chatHistory;
+        copy.pendingRequests = pendingRequests != null ? new ArrayList<>(pendingRequests) : null;
+        copy.completedRequests = completedRequests != null ? new ArrayList<>(completedRequests) : null;
+        copy.vmAssignments = vmAssignments != null ? new HashMap<>(vmAssignments) : null;
+        copy.skillLevels = skillLevels != null ? new HashMap<>(skillLevels) : null;
+        copy.timerCheckpoint = timerCheckpoint != null ? new HashMap<>(timerCheckpoint) : null;
+        copy.randomSeed = randomSeed;
+        copy.randomStreamPositions = randomStreamPositions != null ? new HashMap<>(randomStreamPositions) : null;
+        synchronized (this) {
+            if (deferredSections != null) {
+                copy.deferredSections = new EnumMap<>(deferredSections);
+            }
+        }
+        return copy;
+    }
+
+
     public void clearState() {
+        synchronized (this) {
+            deferredSections = null;
+        }
         
         resources.clear();
         upgrades.clear();
@@ -315,7 +455,7 @@ public class GameState implements Serializable {
         if (chatHistory != null) {
             chatHistory.clear();
         } else {
-            chatHistory = new HashMap<>();
+            chatHistory = new ChatHistory();
         }
         
         
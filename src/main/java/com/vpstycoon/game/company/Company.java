@@ -33,6 +33,7 @@ public class Company implements Serializable {
     
     private final transient List<RatingObserver> ratingObservers = new ArrayList<>();
     private final transient List<MoneyTransactionObserver> moneyObservers = new ArrayList<>();
+    private transient boolean headless = false;
 
     public Company() {
         this.name = "New Company";
@@ -48,6 +49,23 @@ public class Company implements Serializable {
         this.availableVMs = 0;
     }
 
+    
+    public Company(String name, double rating, int marketingPoints, int skillPointsAvailable, int availableVMs,
+                   long money, long totalRevenue, long totalExpenses, int customerSatisfaction,
+                   int completedRequests, int failedRequests) {
+        this.name = name;
+        this.rating = rating;
+        this.marketingPoints = marketingPoints;
+        this.skillPointsAvailable = skillPointsAvailable;
+        this.availableVMs = availableVMs;
+        this.money = money;
+        this.totalRevenue = totalRevenue;
+        this.totalExpenses = totalExpenses;
+        this.customerSatisfaction = customerSatisfaction;
+        this.completedRequests = completedRequests;
+        this.failedRequests = failedRequests;
+    }
+
     public int getSkillPointsAvailable() {
         return skillPointsAvailable;
     }
@@ -154,6 +172,15 @@ public class Company implements Serializable {
         this.marketingPoints = marketingPoints;
     }
 
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
     public long getMoney() {
         return money;
     }
@@ -182,7 +209,7 @@ public class Company implements Serializable {
     
     
     private void pushMoneyNotification(long amount, long newBalance, boolean isIncome) {
-        if (amount == 0) return;
+        if (amount == 0 || headless) return;
         
         
         com.vpstycoon.game.resource.ResourceManager resourceManager = com.vpstycoon.game.resource.ResourceManager.getInstance();
@@ -1,5 +1,7 @@
 package com.vpstycoon.game.company;
 
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
 import com.vpstycoon.game.vps.enums.VPSProduct;
 
 import java.io.IOException;
@@ -126,6 +128,9 @@ public class SkillPointsSystem implements Serializable {
             if (skillType == SkillType.MARKETING) {
                 addPoints(5);
             }
+            if (!company.isHeadless()) {
+                CommandJournal.record(time -> JournalCommand.upgradeSkill(time, skillType));
+            }
             return true;
         }
         return false;
@@ -2,22 +2,43 @@ package com.vpstycoon.game.customer;
 
 import com.vpstycoon.game.customer.enums.CustomerType;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Customer implements Serializable {
-    private static int nextId = 1; 
+    @Serial
+    private static final long serialVersionUID = 7868577258384251977L;
+    private static final AtomicInteger nextId = new AtomicInteger(1);
     private final int id;          
     private String name;
     protected CustomerType customerType; 
     protected double budget;
 
     public Customer(String name, CustomerType customerType, double budget) {
-        this.id = nextId++;        
+        this.id = nextId.getAndIncrement();        
         this.name = name;
         this.customerType = customerType;
         this.budget = budget;
     }
 
+    
+    protected Customer(int id, String name, CustomerType customerType, double budget) {
+        this.id = id;
+        this.name = name;
+        this.customerType = customerType;
+        this.budget = budget;
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        nextId.accumulateAndGet(id + 1, Math::max);
+    }
+
     public int getId() {
         return id;
     }
@@ -0,0 +1,195 @@
+package com.vpstycoon.game.manager;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+
+public class ContractScheduler {
+    public static final long NOT_SCHEDULED = Long.MAX_VALUE;
+
+    private final ToLongFunction<CustomerRequest> dueTimeFunction;
+    private final List<Entry> heap = new ArrayList<>();
+    private final Map<CustomerRequest, Entry> index = new IdentityHashMap<>();
+    private long sequence = 0;
+
+    public ContractScheduler(ToLongFunction<CustomerRequest> dueTimeFunction) {
+        this.dueTimeFunction = dueTimeFunction;
+    }
+
+
+    public static long nextPaymentTime(CustomerRequest request) {
+        if (!request.isActive() || request.getLastPaymentTime() == 0 || request.getRentalPeriodType() == null) {
+            return NOT_SCHEDULED;
+        }
+        return request.getLastPaymentTime() + request.getPaymentIntervalMs();
+    }
+
+
+    public static long nextRentalEventTime(CustomerRequest request) {
+        long nextPayment = nextPaymentTime(request);
+        if (nextPayment == NOT_SCHEDULED || request.getLastPaymentTime() <= 0) {
+            return NOT_SCHEDULED;
+        }
+        long expiry = request.getLastPaymentTime() + request.getRentalPeriodDurationMs();
+        return Math.min(nextPayment, expiry);
+    }
+
+
+    public synchronized void schedule(CustomerRequest request) {
+        if (request == null) {
+            return;
+        }
+        request.attachScheduler(this);
+
+        long dueTime = dueTimeFunction.applyAsLong(request);
+        Entry entry = index.get(request);
+
+        if (dueTime == NOT_SCHEDULED) {
+            if (entry != null) {
+                removeAt(entry.position);
+            }
+            return;
+        }
+
+        if (entry == null) {
+            entry = new Entry(request, dueTime, sequence++);
+            entry.position = heap.size();
+            heap.add(entry);
+            index.put(request, entry);
+            siftUp(entry.position);
+        } else if (dueTime != entry.dueTime) {
+            long previous = entry.dueTime;
+            entry.dueTime = dueTime;
+            if (dueTime < previous) {
+                siftUp(entry.position);
+            } else {
+                siftDown(entry.position);
+            }
+        }
+    }
+
+
+    public synchronized void remove(CustomerRequest request) {
+        if (request == null) {
+            return;
+        }
+        request.detachScheduler(this);
+        Entry entry = index.get(request);
+        if (entry != null) {
+            removeAt(entry.position);
+        }
+    }
+
+
+    public synchronized List<CustomerRequest> pollDue(long currentGameTimeMs) {
+        List<CustomerRequest> due = new ArrayList<>();
+        while (!heap.isEmpty() && heap.get(0).dueTime <= currentGameTimeMs) {
+            Entry entry = heap.get(0);
+            removeAt(0);
+            due.add(entry.request);
+        }
+        return due;
+    }
+
+    public synchronized long peekDueTime() {
+        return heap.isEmpty() ? NOT_SCHEDULED : heap.get(0).dueTime;
+    }
+
+    public synchronized boolean contains(CustomerRequest request) {
+        return index.containsKey(request);
+    }
+
+    public synchronized int size() {
+        return heap.size();
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : heap) {
+            entry.request.detachScheduler(this);
+        }
+        heap.clear();
+        index.clear();
+    }
+
+    private void removeAt(int position) {
+        Entry removed = heap.get(position);
+        index.remove(removed.request);
+
+        int last = heap.size() - 1;
+        if (position == last) {
+            heap.remove(last);
+            return;
+        }
+
+        Entry moved = heap.remove(last);
+        heap.set(position, moved);
+        moved.position = position;
+        if (position > 0 && less(moved, heap.get((position - 1) / 2))) {
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+    }
+
+    private void siftUp(int position) {
+        Entry entry = heap.get(position);
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            Entry parentEntry = heap.get(parent);
+            if (!less(entry, parentEntry)) {
+                break;
+            }
+            heap.set(position, parentEntry);
+            parentEntry.position = position;
+            position = parent;
+        }
+        heap.set(position, entry);
+        entry.position = position;
+    }
+
+    private void siftDown(int position) {
+        Entry entry = heap.get(position);
+        int size = heap.size();
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap.get(child + 1), heap.get(child))) {
+                child++;
+            }
+            Entry childEntry = heap.get(child);
+            if (!less(childEntry, entry)) {
+                break;
+            }
+            heap.set(position, childEntry);
+            childEntry.position = position;
+            position = child;
+        }
+        heap.set(position, entry);
+        entry.position = position;
+    }
+
+    private static boolean less(Entry a, Entry b) {
+        if (a.dueTime != b.dueTime) {
+            return a.dueTime < b.dueTime;
+        }
+        return a.sequence < b.sequence;
+    }
+
+    private static final class Entry {
+        private final CustomerRequest request;
+        private final long sequence;
+        private long dueTime;
+        private int position;
+
+        private Entry(CustomerRequest request, long dueTime, long sequence) {
+            this.request = request;
+            this.dueTime = dueTime;
+            this.sequence = sequence;
+        }
+    }
+}
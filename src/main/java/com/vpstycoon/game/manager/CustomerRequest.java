@@ -1,14 +1,21 @@
 package com.vpstycoon.game.manager;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.customer.Customer;
 import com.vpstycoon.game.customer.enums.CustomerType;
 import com.vpstycoon.game.thread.GameTimeManager;
 import com.vpstycoon.game.vps.enums.RequestType;
 
+import java.io.Serial;
 import java.io.Serializable;
-import java.util.Random;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.random.RandomGenerator;
 
 public class CustomerRequest extends Customer implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -4233310558152320891L;
+
     private final RequestType requestType;
     private final int duration;
     private final int requiredVCPUs;
@@ -24,6 +31,8 @@ public class CustomerRequest extends Customer implements Serializable {
     
     private String assignedToVmId;
 
+    private transient List<ContractScheduler> schedulers;
+
     public enum RentalPeriodType {
         DAILY(1, "Daily"),
         WEEKLY(7, "Weekly"),
@@ -68,7 +77,7 @@ public class CustomerRequest extends Customer implements Serializable {
         this.requestType = requestType;
         this.duration = duration;
 
-        Random random = new Random();
+        RandomGenerator random = GameRandom.stream(GameRandom.Stream.CUSTOMERS);
         switch (customerType) {
             case INDIVIDUAL:
                 this.requiredVCPUs = random.nextInt(2) + 1;
@@ -110,6 +119,27 @@ public class CustomerRequest extends Customer implements Serializable {
         this.lastPaymentTime = 0;
     }
 
+    
+    public CustomerRequest(int id, String name, CustomerType customerType, RequestType requestType,
+                           double budget, int duration, int requiredVCPUs, int requiredRamGB,
+                           int requiredDiskGB, RentalPeriodType rentalPeriodType, double monthlyPayment,
+                           boolean active, boolean expired, long creationTime, long lastPaymentTime,
+                           String assignedToVmId) {
+        super(id, name, customerType, budget);
+        this.requestType = requestType;
+        this.duration = duration;
+        this.requiredVCPUs = requiredVCPUs;
+        this.requiredRamGB = requiredRamGB;
+        this.requiredDiskGB = requiredDiskGB;
+        this.rentalPeriodType = rentalPeriodType;
+        this.monthlyPayment = monthlyPayment;
+        this.isActive = active;
+        this.isExpired = expired;
+        this.creationTime = creationTime;
+        this.lastPaymentTime = lastPaymentTime;
+        this.assignedToVmId = assignedToVmId;
+    }
+
     private double calculateMonthlyPayment() {
         double basePrice = (requiredVCPUs * 500) + (requiredRamGB * 100) + (requiredDiskGB * 2);
 
@@ -171,49 +201,75 @@ public class CustomerRequest extends Customer implements Serializable {
         }
 
         long timeSinceLastPaymentMs = currentGameTimeMs - lastPaymentTime;
-        long paymentIntervalMs;
+        return timeSinceLastPaymentMs >= getPaymentIntervalMs();
+    }
 
-        
+    
+    public long getPaymentIntervalMs() {
         switch (rentalPeriodType) {
             case DAILY:
-                paymentIntervalMs = GameTimeManager.GAME_DAY_MS;
-                break;
+                return GameTimeManager.GAME_DAY_MS;
             case WEEKLY:
-                paymentIntervalMs = GameTimeManager.GAME_WEEK_MS;
-                break;
+                return GameTimeManager.GAME_WEEK_MS;
             case MONTHLY:
-                paymentIntervalMs = GameTimeManager.GAME_MONTH_MS;
-                break;
+                return GameTimeManager.GAME_MONTH_MS;
             case YEARLY:
-                paymentIntervalMs = GameTimeManager.GAME_YEAR_MS;
-                break;
+                return GameTimeManager.GAME_YEAR_MS;
             default:
-                paymentIntervalMs = GameTimeManager.GAME_MONTH_MS;
+                return GameTimeManager.GAME_MONTH_MS;
         }
-
-        System.out.println("isPaymentDue for " + getName() +
-                " | Time since last: " + timeSinceLastPaymentMs +
-                "ms | Interval: " + paymentIntervalMs + "ms | Due: " + (timeSinceLastPaymentMs >= paymentIntervalMs));
-
-        return timeSinceLastPaymentMs >= paymentIntervalMs;
     }
 
     public void recordPayment(long currentGameTimeMs) {
         this.lastPaymentTime = currentGameTimeMs;
+        reschedule();
     }
 
     public void activate(long currentGameTimeMs) {
         this.isActive = true;
         this.lastPaymentTime = currentGameTimeMs;
+        reschedule();
     }
 
     public void deactivate() {
         this.isActive = false;
+        reschedule();
     }
 
     public void markAsExpired() {
         this.isActive = false;
         this.isExpired = true;
+        reschedule();
+    }
+
+    public long getRentalPeriodDurationMs() {
+        return rentalPeriodType.getDays() * GameTimeManager.GAME_DAY_MS;
+    }
+
+    
+    void attachScheduler(ContractScheduler scheduler) {
+        if (schedulers == null) {
+            schedulers = new CopyOnWriteArrayList<>();
+        }
+        if (!schedulers.contains(scheduler)) {
+            schedulers.add(scheduler);
+        }
+    }
+
+    
+    void detachScheduler(ContractScheduler scheduler) {
+        if (schedulers != null) {
+            schedulers.remove(scheduler);
+        }
+    }
+
+    private void reschedule() {
+        if (schedulers == null) {
+            return;
+        }
+        for (ContractScheduler scheduler : schedulers) {
+            scheduler.schedule(this);
+        }
     }
 
     public boolean isExpired() {
@@ -223,6 +279,7 @@ public class CustomerRequest extends Customer implements Serializable {
     
     public void setRentalPeriodType(RentalPeriodType rentalPeriodType) {
         this.rentalPeriodType = rentalPeriodType;
+        reschedule();
     }
 
     
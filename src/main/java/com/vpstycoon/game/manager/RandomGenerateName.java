@@ -1,8 +1,13 @@
 package com.vpstycoon.game.manager;
 
+import com.vpstycoon.game.GameRandom;
+
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.WeakHashMap;
+import java.util.random.RandomGenerator;
 
 public class RandomGenerateName {
     private static final String CONSONANTS = "BCDFGHJKLMNPQRSTVWXYZ";
@@ -11,20 +16,27 @@ public class RandomGenerateName {
     private static final int MAX_LENGTH = 10;
     private static final int NAME_POOL_SIZE = 100; 
 
-    private static List<String> namePool = new ArrayList<>();
+    private static final Map<GameRandom, NamePool> namePools = new WeakHashMap<>();
 
     
-    static {
-        Random random = new Random();
-        for (int i = 0; i < NAME_POOL_SIZE; i++) {
-            int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
-            namePool.add(generateRealisticName(length));
+    private static synchronized List<String> getNamePool() {
+        GameRandom gameRandom = GameRandom.getInstance();
+        NamePool namePool = namePools.get(gameRandom);
+        if (namePool == null || namePool.seed != gameRandom.getSeed()) {
+            SplittableRandom random = gameRandom.fork(GameRandom.Stream.NAMES);
+            List<String> pool = new ArrayList<>();
+            for (int i = 0; i < NAME_POOL_SIZE; i++) {
+                int length = MIN_LENGTH + random.nextInt(MAX_LENGTH - MIN_LENGTH + 1);
+                pool.add(generateRealisticName(random, length));
+            }
+            namePool = new NamePool(gameRandom.getSeed(), pool);
+            namePools.put(gameRandom, namePool);
         }
+        return namePool.names;
     }
 
     
-    private static String generateRealisticName(int length) {
-        Random random = new Random();
+    private static String generateRealisticName(RandomGenerator random, int length) {
         StringBuilder name = new StringBuilder();
         boolean useConsonant = random.nextBoolean(); 
 
@@ -44,9 +56,19 @@ public class RandomGenerateName {
 
     
     public static String generateRandomName() {
-        Random random = new Random();
-        int index = random.nextInt(namePool.size());
-        return namePool.get(index);
+        List<String> pool = getNamePool();
+        int index = GameRandom.stream(GameRandom.Stream.NAMES).nextInt(pool.size());
+        return pool.get(index);
+    }
+
+    private static final class NamePool {
+        private final long seed;
+        private final List<String> names;
+
+        private NamePool(long seed, List<String> names) {
+            this.seed = seed;
+            this.names = names;
+        }
     }
 }
 
@@ -1,27 +1,40 @@
 package com.vpstycoon.game.manager;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.Company;
+import com.vpstycoon.game.company.SkillPointsSystem;
 import com.vpstycoon.game.customer.enums.CustomerType;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
+import com.vpstycoon.game.persistence.SaveSection;
+import com.vpstycoon.game.persistence.SaveWriter;
 import com.vpstycoon.game.resource.ResourceManager;
+import com.vpstycoon.game.thread.GameTimeManager;
 import com.vpstycoon.game.vps.VPSOptimization;
 import com.vpstycoon.game.vps.enums.RequestType;
 import com.vpstycoon.ui.game.desktop.messenger.models.VMProvisioningManagerImpl;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
 
 public class RequestManager implements Serializable {
     private final ObservableList<CustomerRequest> pendingRequests;
     private final List<CustomerRequest> completedRequests;
+    private transient GameState completedRequestsSource;
     private final VMProvisioningManagerImpl vmProvisioningManager;
     private final Company company;
-    private final Random random = new Random();
+    private transient ContractScheduler rentalSchedule;
     
     
     private static final long GAME_MONTH_MS = 15 * 60 * 1000;
@@ -31,6 +44,7 @@ public class RequestManager implements Serializable {
         this.completedRequests = new ArrayList<>();
         this.company = company;
         this.vmProvisioningManager = new VMProvisioningManagerImpl(company);
+        trackRentalSchedule();
         
         
         GameState currentState = ResourceManager.getInstance().getCurrentState();
@@ -42,17 +56,63 @@ public class RequestManager implements Serializable {
             System.out.println("โหลด pendingRequests จาก GameState: " + pendingRequests.size() + " รายการ");
             
             
-            if (currentState.getCompletedRequests() != null) {
-                completedRequests.addAll(currentState.getCompletedRequests());
-                System.out.println("โหลด completedRequests จาก GameState: " + completedRequests.size() + " รายการ");
+            completedRequestsSource = currentState;
+        }
+    }
+
+    
+    public RequestManager(Company company, SkillPointsSystem skillPointsSystem) {
+        this.pendingRequests = FXCollections.observableArrayList();
+        this.completedRequests = new ArrayList<>();
+        this.company = company;
+        this.vmProvisioningManager = new VMProvisioningManagerImpl(company, skillPointsSystem);
+        trackRentalSchedule();
+    }
+
+    
+    private void trackRentalSchedule() {
+        rentalSchedule = new ContractScheduler(ContractScheduler::nextRentalEventTime);
+        for (CustomerRequest request : pendingRequests) {
+            rentalSchedule.schedule(request);
+        }
+        pendingRequests.addListener((ListChangeListener<CustomerRequest>) change -> {
+            while (change.next()) {
+                for (CustomerRequest removed : change.getRemoved()) {
+                    if (!pendingRequests.contains(removed)) {
+                        rentalSchedule.remove(removed);
+                    }
+                }
+                for (CustomerRequest added : change.getAddedSubList()) {
+                    rentalSchedule.schedule(added);
+                }
             }
+        });
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        synchronized (this) {
+            out.writeBoolean(completedRequestsSource != null);
+        }
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (in.readBoolean()) {
+            completedRequestsSource = ResourceManager.getInstance().getCurrentState();
         }
+        trackRentalSchedule();
     }
 
     
     public void addRequest(CustomerRequest request) {
         pendingRequests.add(request);
-        System.out.println("New request added: " + request.getTitle());
+        if (isInteractive()) {
+            System.out.println("New request added: " + request.getTitle());
+            CommandJournal.record(time -> JournalCommand.requestArrived(time, request));
+        }
     }
 
     
@@ -75,6 +135,9 @@ public class RequestManager implements Serializable {
         }
 
         request.activate(ResourceManager.getInstance().getGameTimeManager().getGameTimeMs());
+        if (isInteractive()) {
+            CommandJournal.record(time -> JournalCommand.acceptRequest(time, request, vps, vcpus, ramGB, diskGB));
+        }
         
         
         return vmProvisioningManager.provisionVM(request, vps, vcpus, ramGB, diskGB);
@@ -90,8 +153,12 @@ public class RequestManager implements Serializable {
             
             if (success) {
                 
-                completedRequests.add(request);
-                System.out.println("Completed request: " + request.getTitle());
+                completedRequests().add(request);
+                if (isInteractive()) {
+                    System.out.println("Completed request: " + request.getTitle());
+                    SaveWriter.getInstance().markDirty(SaveSection.REQUESTS, SaveSection.COMPLETED);
+                    CommandJournal.record(time -> JournalCommand.completeRequest(time, request));
+                }
                 return true;
             }
         }
@@ -105,13 +172,13 @@ public class RequestManager implements Serializable {
         CustomerType selectedType = getRandomCustomerType();
         
         
-        RequestType selectedRequestType = RequestType.values()[random.nextInt(RequestType.values().length)];
+        RequestType selectedRequestType = RequestType.values()[random().nextInt(RequestType.values().length)];
         
         
         double budget = getRandomBudget(selectedType);
         
         
-        int requestDuration = 30 + random.nextInt(336);
+        int requestDuration = 30 + random().nextInt(336);
         
         
         CustomerRequest newRequest = new CustomerRequest(
@@ -125,9 +192,17 @@ public class RequestManager implements Serializable {
     }
     
     
+    private boolean isInteractive() {
+        return company == null || !company.isHeadless();
+    }
+
+    private RandomGenerator random() {
+        return GameRandom.stream(GameRandom.Stream.REQUESTS);
+    }
+
     private CustomerType getRandomCustomerType() {
         double rating = company.getRating();
-        double rand = random.nextDouble() * 100;
+        double rand = random().nextDouble() * 100;
         
         
         if (rating < 2.0) {
@@ -162,16 +237,16 @@ public class RequestManager implements Serializable {
     private double getRandomBudget(CustomerType customerType) {
         switch (customerType) {
             case INDIVIDUAL:
-                return 100 + random.nextDouble() * 400;
+                return 100 + random().nextDouble() * 400;
             case SMALL_BUSINESS:
-                return 500 + random.nextDouble() * 1500;
+                return 500 + random().nextDouble() * 1500;
             case MEDIUM_BUSINESS:
-                return 2000 + random.nextDouble() * 3000;
+                return 2000 + random().nextDouble() * 3000;
             case LARGE_BUSINESS:
-                return 5000 + random.nextDouble() * 5000;
+                return 5000 + random().nextDouble() * 5000;
             case ENTERPRISE:
             case BUSINESS:
-                return 10000 + random.nextDouble() * 10000;
+                return 10000 + random().nextDouble() * 10000;
             default:
                 return 1000;
         }
@@ -183,13 +258,71 @@ public class RequestManager implements Serializable {
     }
     
     
+    public List<CustomerRequest> checkRentalExpirations(long currentGameTimeMs) {
+        List<CustomerRequest> expired = new ArrayList<>();
+
+        for (CustomerRequest request : rentalSchedule.pollDue(currentGameTimeMs)) {
+            long rentalStartTime = request.getLastPaymentTime();
+            CustomerRequest.RentalPeriodType period = request.getRentalPeriodType();
+            if (!request.isActive() || period == null || rentalStartTime <= 0) {
+                continue;
+            }
+            long durationMs = period.getDays() * GameTimeManager.GAME_DAY_MS;
+
+            if (request.isPaymentDue(currentGameTimeMs)) {
+                double payment = request.getPaymentAmount();
+                company.addMoney(payment);
+                request.recordPayment(currentGameTimeMs);
+                if (isInteractive()) {
+                    System.out.println("Payment received from " + request.getName() + ": $" + payment +
+                            " | Game time: " + currentGameTimeMs);
+                }
+            }
+
+            if (currentGameTimeMs >= rentalStartTime + durationMs) {
+                request.markAsExpired();
+                expired.add(request);
+            }
+
+            rentalSchedule.schedule(request);
+        }
+
+        return expired;
+    }
+    
+    
     public java.util.Map<CustomerRequest, VPSOptimization.VM> getActiveRequests() {
         return vmProvisioningManager.getActiveRequests();
     }
     
     
     public List<CustomerRequest> getCompletedRequests() {
-        return new ArrayList<>(completedRequests);
+        return new ArrayList<>(completedRequests());
+    }
+
+
+    private synchronized List<CustomerRequest> completedRequests() {
+        if (completedRequestsSource != null) {
+            GameState source = completedRequestsSource;
+            completedRequestsSource = null;
+            if (source.getCompletedRequests() != null) {
+                completedRequests.addAll(source.getCompletedRequests());
+                System.out.println("โหลด completedRequests จาก GameState: "
+                        + source.getCompletedRequests().size() + " รายการ");
+            }
+        }
+        return completedRequests;
+    }
+
+
+    public synchronized void addCompletedRequestsFrom(GameState state) {
+        if (state == null) {
+            return;
+        }
+        if (completedRequestsSource != null && completedRequestsSource != state) {
+            completedRequests();
+        }
+        completedRequestsSource = state;
     }
     
     
@@ -210,7 +343,7 @@ public class RequestManager implements Serializable {
     
     public void addCompletedRequests(List<CustomerRequest> requests) {
         if (requests != null) {
-            this.completedRequests.addAll(requests);
+            completedRequests().addAll(requests);
             System.out.println("เพิ่ม " + requests.size() + " รายการลงใน completedRequests");
         }
     }
@@ -230,6 +363,9 @@ public class RequestManager implements Serializable {
         if (requests == null) {
             return;
         }
+        synchronized (this) {
+            completedRequestsSource = null;
+        }
         completedRequests.clear();
         completedRequests.addAll(requests);
         System.out.println("Updated completedRequests: " + completedRequests.size() + " requests");
@@ -243,6 +379,9 @@ public class RequestManager implements Serializable {
         }
         
         if (completedRequests != null) {
+            synchronized (this) {
+                completedRequestsSource = null;
+            }
             completedRequests.clear();
             System.out.println("รีเซ็ต completedRequests เรียบร้อย");
         }
@@ -0,0 +1,83 @@
+package com.vpstycoon.game.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+
+public final class AtomicFiles {
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    private AtomicFiles() {
+    }
+
+    public interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+
+    public static long write(File target, Writer writer) throws IOException {
+        File directory = target.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        File temp = new File(directory, target.getName() + TEMP_SUFFIX);
+        CRC32 checksum = new CRC32();
+        try (FileOutputStream file = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(new CheckedOutputStream(file, checksum), 1 << 16))) {
+            writer.write(out);
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            if (temp.exists() && !temp.delete()) {
+                System.err.println("ไม่สามารถลบไฟล์ชั่วคราว: " + temp.getAbsolutePath());
+            }
+            throw e;
+        }
+        move(temp, target);
+        syncDirectory(directory);
+        return checksum.getValue();
+    }
+
+
+    public static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+
+    public static void deleteStaleTemp(File target) {
+        File temp = new File(target.getAbsoluteFile().getParentFile(), target.getName() + TEMP_SUFFIX);
+        if (temp.exists()) {
+            System.out.println("ลบไฟล์บันทึกที่เขียนไม่สำเร็จ: " + temp.getAbsolutePath());
+            if (!temp.delete()) {
+                System.err.println("ไม่สามารถลบไฟล์ชั่วคราว: " + temp.getAbsolutePath());
+            }
+        }
+    }
+
+    private static void syncDirectory(File directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.vpstycoon.game.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+
+public class BackupRetention {
+    private static final long HOUR_MS = Duration.ofHours(1).toMillis();
+
+    private final int keepLatest;
+    private final Duration hourlyFor;
+    private final Duration dailyFor;
+    private final ZoneId zone;
+
+    public BackupRetention(int keepLatest, Duration hourlyFor, Duration dailyFor) {
+        this(keepLatest, hourlyFor, dailyFor, ZoneId.systemDefault());
+    }
+
+    public BackupRetention(int keepLatest, Duration hourlyFor, Duration dailyFor, ZoneId zone) {
+        this.keepLatest = Math.max(1, keepLatest);
+        this.hourlyFor = hourlyFor;
+        this.dailyFor = dailyFor;
+        this.zone = zone;
+    }
+
+    public static BackupRetention standard() {
+        return new BackupRetention(5, Duration.ofDays(1), Duration.ofDays(30));
+    }
+
+
+    public Set<Long> select(List<Long> timestamps, long now) {
+        List<Long> newestFirst = new ArrayList<>(timestamps);
+        newestFirst.sort((a, b) -> Long.compare(b, a));
+
+        Set<Long> keep = new LinkedHashSet<>();
+        Set<Long> hours = new HashSet<>();
+        Set<LocalDate> days = new HashSet<>();
+        for (int i = 0; i < newestFirst.size(); i++) {
+            long timestamp = newestFirst.get(i);
+            long age = now - timestamp;
+            if (i < keepLatest) {
+                keep.add(timestamp);
+                hours.add(timestamp / HOUR_MS);
+                days.add(day(timestamp));
+            } else if (age <= hourlyFor.toMillis()) {
+                if (hours.add(timestamp / HOUR_MS)) {
+                    keep.add(timestamp);
+                    days.add(day(timestamp));
+                }
+            } else if (age <= hourlyFor.toMillis() + dailyFor.toMillis()) {
+                if (days.add(day(timestamp))) {
+                    keep.add(timestamp);
+                }
+            }
+        }
+        return keep;
+    }
+
+    private LocalDate day(long timestamp) {
+        return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+    }
+
+    public int getKeepLatest() {
+        return keepLatest;
+    }
+
+    public Duration getHourlyFor() {
+        return hourlyFor;
+    }
+
+    public Duration getDailyFor() {
+        return dailyFor;
+    }
+}
@@ -0,0 +1,460 @@
+package com.vpstycoon.game.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+public class BackupStore {
+    public static final int MAGIC = 0x56505442;
+    public static final int VERSION = 1;
+
+    private static final String CHUNK_DIR = "chunks";
+    private static final String MANIFEST_DIR = "manifests";
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    private static final String CHUNK_SUFFIX = ".z";
+
+    private static final int MIN_CHUNK = 2 * 1024;
+    private static final int MAX_CHUNK = 64 * 1024;
+    private static final long CHUNK_MASK = (1L << 13) - 1;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x56505442L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private static final Map<String, BackupStore> STORES = new ConcurrentHashMap<>();
+
+    private final File directory;
+    private final File chunkDirectory;
+    private final File manifestDirectory;
+    private BackupRetention retention = BackupRetention.standard();
+    private long lastNewChunks = 0;
+    private long lastNewBytes = 0;
+
+    public BackupStore(File directory) {
+        this.directory = directory;
+        this.chunkDirectory = new File(directory, CHUNK_DIR);
+        this.manifestDirectory = new File(directory, MANIFEST_DIR);
+    }
+
+
+    public static BackupStore forDirectory(File directory) {
+        return STORES.computeIfAbsent(directory.getAbsolutePath(), path -> new BackupStore(new File(path)));
+    }
+
+
+    public synchronized Backup backup(List<File> files) throws IOException {
+        return backup(files, System.currentTimeMillis());
+    }
+
+    public synchronized Backup backup(List<File> files, long timestamp) throws IOException {
+        ensureDirectory(chunkDirectory);
+        ensureDirectory(manifestDirectory);
+        lastNewChunks = 0;
+        lastNewBytes = 0;
+
+        List<BackupFile> entries = new ArrayList<>();
+        for (File file : files) {
+            if (file == null || !file.exists()) {
+                continue;
+            }
+            byte[] content = Files.readAllBytes(file.toPath());
+            List<Chunk> chunks = new ArrayList<>();
+            int start = 0;
+            while (start < content.length) {
+                int end = nextBoundary(content, start);
+                chunks.add(storeChunk(content, start, end - start));
+                start = end;
+            }
+            entries.add(new BackupFile(file.getName(), content.length, chunks));
+        }
+
+        while (manifestFile(timestamp).exists()) {
+            timestamp++;
+        }
+        long createdAt = timestamp;
+        AtomicFiles.write(manifestFile(createdAt), out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(createdAt);
+            VarInts.writeVarInt(out, entries.size());
+            for (BackupFile entry : entries) {
+                BinaryFields.writeString(out, entry.name);
+                VarInts.writeVarLong(out, entry.size);
+                VarInts.writeVarInt(out, entry.chunks.size());
+                for (Chunk chunk : entry.chunks) {
+                    out.write(chunk.hash);
+                    VarInts.writeVarInt(out, chunk.length);
+                }
+            }
+        });
+        return new Backup(createdAt, manifestFile(createdAt), entries);
+    }
+
+
+    public synchronized List<Backup> listBackups() {
+        List<Backup> backups = new ArrayList<>();
+        File[] manifests = manifestDirectory.listFiles((dir, name) -> name.endsWith(MANIFEST_SUFFIX));
+        if (manifests == null) {
+            return backups;
+        }
+        for (File manifest : manifests) {
+            String name = manifest.getName();
+            try {
+                long timestamp = Long.parseLong(name.substring(0, name.length() - MANIFEST_SUFFIX.length()));
+                backups.add(new Backup(timestamp, manifest, null));
+            } catch (NumberFormatException e) {
+                System.err.println("ข้ามไฟล์สำรองที่ไม่รู้จัก: " + name);
+            }
+        }
+        backups.sort((a, b) -> Long.compare(a.timestamp, b.timestamp));
+        return backups;
+    }
+
+
+    public synchronized Backup findBackup(long timestamp) {
+        List<Backup> backups = listBackups();
+        int low = 0;
+        int high = backups.size() - 1;
+        Backup found = null;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (backups.get(mid).timestamp <= timestamp) {
+                found = backups.get(mid);
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+
+    public synchronized Backup restore(long timestamp, File targetDirectory) throws IOException {
+        Backup backup = findBackup(timestamp);
+        if (backup == null) {
+            return null;
+        }
+        ensureDirectory(targetDirectory);
+        for (BackupFile entry : backup.getFiles()) {
+            AtomicFiles.write(new File(targetDirectory, entry.name), out -> {
+                for (Chunk chunk : entry.chunks) {
+                    out.write(loadChunk(chunk));
+                }
+            });
+        }
+        return backup;
+    }
+
+
+    public synchronized int prune() throws IOException {
+        return prune(System.currentTimeMillis());
+    }
+
+    public synchronized int prune(long now) throws IOException {
+        List<Backup> backups = listBackups();
+        List<Long> timestamps = new ArrayList<>(backups.size());
+        for (Backup backup : backups) {
+            timestamps.add(backup.timestamp);
+        }
+        Set<Long> keep = retention.select(timestamps, now);
+
+        int removed = 0;
+        Set<String> referenced = new HashSet<>();
+        for (Backup backup : backups) {
+            if (!keep.contains(backup.timestamp)) {
+                if (backup.manifest.delete()) {
+                    removed++;
+                } else {
+                    System.err.println("ไม่สามารถลบข้อมูลสำรอง: " + backup.manifest.getAbsolutePath());
+                }
+                continue;
+            }
+            try {
+                for (BackupFile entry : backup.getFiles()) {
+                    for (Chunk chunk : entry.chunks) {
+                        referenced.add(HexFormat.of().formatHex(chunk.hash));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("อ่านข้อมูลสำรองไม่สำเร็จ " + backup.manifest.getName() + ": " + e.getMessage());
+                return removed;
+            }
+        }
+
+        File[] prefixes = chunkDirectory.listFiles(File::isDirectory);
+        if (prefixes != null) {
+            for (File prefix : prefixes) {
+                File[] chunks = prefix.listFiles((dir, name) -> name.endsWith(CHUNK_SUFFIX));
+                if (chunks == null) {
+                    continue;
+                }
+                for (File chunk : chunks) {
+                    String hash = chunk.getName().substring(0, chunk.getName().length() - CHUNK_SUFFIX.length());
+                    if (!referenced.contains(hash) && !chunk.delete()) {
+                        System.err.println("ไม่สามารถลบ chunk: " + chunk.getAbsolutePath());
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+
+    public synchronized long getStoredBytes() {
+        long total = 0;
+        File[] prefixes = chunkDirectory.listFiles(File::isDirectory);
+        if (prefixes != null) {
+            for (File prefix : prefixes) {
+                File[] chunks = prefix.listFiles();
+                for (int i = 0; chunks != null && i < chunks.length; i++) {
+                    total += chunks[i].length();
+                }
+            }
+        }
+        for (Backup backup : listBackups()) {
+            total += backup.manifest.length();
+        }
+        return total;
+    }
+
+    public synchronized BackupRetention getRetention() {
+        return retention;
+    }
+
+    public synchronized void setRetention(BackupRetention retention) {
+        this.retention = retention;
+    }
+
+    public synchronized long getLastNewChunks() {
+        return lastNewChunks;
+    }
+
+    public synchronized long getLastNewBytes() {
+        return lastNewBytes;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+
+    private static int nextBoundary(byte[] content, int start) {
+        int limit = Math.min(content.length, start + MAX_CHUNK);
+        int position = Math.min(limit, start + MIN_CHUNK);
+        long hash = 0;
+        while (position < limit) {
+            hash = (hash << 1) + GEAR[content[position] & 0xFF];
+            position++;
+            if ((hash & CHUNK_MASK) == 0) {
+                return position;
+            }
+        }
+        return limit;
+    }
+
+    private Chunk storeChunk(byte[] content, int offset, int length) throws IOException {
+        byte[] hash = sha256(content, offset, length);
+        File file = chunkFile(hash);
+        if (!file.exists()) {
+            ensureDirectory(file.getParentFile());
+            byte[] compressed = deflate(content, offset, length);
+            File temp = new File(file.getParentFile(), file.getName() + AtomicFiles.TEMP_SUFFIX);
+            Files.write(temp.toPath(), compressed);
+            AtomicFiles.move(temp, file);
+            lastNewChunks++;
+            lastNewBytes += compressed.length;
+        }
+        return new Chunk(hash, length);
+    }
+
+    private byte[] loadChunk(Chunk chunk) throws IOException {
+        File file = chunkFile(chunk.hash);
+        if (!file.exists()) {
+            throw new IOException("Missing backup chunk " + file.getName());
+        }
+        byte[] content = inflate(Files.readAllBytes(file.toPath()), chunk.length);
+        if (!MessageDigest.isEqual(chunk.hash, sha256(content, 0, content.length))) {
+            throw new IOException("Backup chunk " + file.getName() + " is corrupted");
+        }
+        return content;
+    }
+
+    private File chunkFile(byte[] hash) {
+        String hex = HexFormat.of().formatHex(hash);
+        return new File(new File(chunkDirectory, hex.substring(0, 2)), hex + CHUNK_SUFFIX);
+    }
+
+    private File manifestFile(long timestamp) {
+        return new File(manifestDirectory, timestamp + MANIFEST_SUFFIX);
+    }
+
+    private static byte[] sha256(byte[] content, int offset, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content, offset, length);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] content, int offset, int length) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(content, offset, length);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] content = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int count = inflater.inflate(content, read, length - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new IOException("Backup chunk has " + read + " bytes, expected " + length);
+            }
+            return content;
+        } catch (DataFormatException e) {
+            throw new IOException("Backup chunk is not valid deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void ensureDirectory(File directory) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+    }
+
+
+    public static final class Backup {
+        private final long timestamp;
+        private final File manifest;
+        private List<BackupFile> files;
+
+        private Backup(long timestamp, File manifest, List<BackupFile> files) {
+            this.timestamp = timestamp;
+            this.manifest = manifest;
+            this.files = files;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public synchronized List<BackupFile> getFiles() throws IOException {
+            if (files == null) {
+                files = readManifest(manifest);
+            }
+            return Collections.unmodifiableList(files);
+        }
+
+        public long getManifestBytes() {
+            return manifest.length();
+        }
+
+        private static List<BackupFile> readManifest(File manifest) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(manifest)))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a backup manifest: " + manifest.getName());
+                }
+                int version = in.readInt();
+                if (version > VERSION) {
+                    throw new IOException("Backup manifest version " + version + " is newer than supported");
+                }
+                in.readLong();
+                int fileCount = VarInts.readVarInt(in);
+                List<BackupFile> files = new ArrayList<>(fileCount);
+                for (int i = 0; i < fileCount; i++) {
+                    String name = BinaryFields.readString(in);
+                    long size = VarInts.readVarLong(in);
+                    int chunkCount = VarInts.readVarInt(in);
+                    List<Chunk> chunks = new ArrayList<>(chunkCount);
+                    for (int c = 0; c < chunkCount; c++) {
+                        byte[] hash = new byte[32];
+                        in.readFully(hash);
+                        chunks.add(new Chunk(hash, VarInts.readVarInt(in)));
+                    }
+                    files.add(new BackupFile(name, size, chunks));
+                }
+                return files;
+            }
+        }
+    }
+
+    public static final class BackupFile {
+        private final String name;
+        private final long size;
+        private final List<Chunk> chunks;
+
+        private BackupFile(String name, long size, List<Chunk> chunks) {
+            this.name = name;
+            this.size = size;
+            this.chunks = chunks;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public int getChunkCount() {
+            return chunks.size();
+        }
+    }
+
+    private static final class Chunk {
+        private final byte[] hash;
+        private final int length;
+
+        private Chunk(byte[] hash, int length) {
+            this.hash = hash;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.vpstycoon.game.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public final class BinaryFields {
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_LIST = 7;
+    private static final int TAG_MAP = 8;
+    private static final int TAG_SERIALIZED = 9;
+
+    private BinaryFields() {
+    }
+
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            VarInts.writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        VarInts.writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = VarInts.readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    public static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            VarInts.writeSignedVarLong(out, value.toEpochSecond(ZoneOffset.UTC));
+            VarInts.writeVarInt(out, value.getNano());
+        }
+    }
+
+    public static LocalDateTime readDateTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = VarInts.readSignedVarLong(in);
+        int nano = VarInts.readVarInt(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+
+    public static void writeLongMap(DataOutput out, Map<String, Long> map, StringTable strings) throws IOException {
+        if (map == null) {
+            VarInts.writeVarInt(out, 0);
+            return;
+        }
+        VarInts.writeVarInt(out, map.size() + 1);
+        for (Map.Entry<String, Long> entry : map.entrySet()) {
+            strings.write(out, entry.getKey());
+            VarInts.writeSignedVarLong(out, entry.getValue() != null ? entry.getValue() : 0L);
+        }
+    }
+
+    public static Map<String, Long> readLongMap(DataInput in, StringTable strings) throws IOException {
+        int size = VarInts.readVarInt(in);
+        if (size == 0) {
+            return null;
+        }
+        Map<String, Long> map = new HashMap<>();
+        for (int i = 0; i < size - 1; i++) {
+            map.put(strings.read(in), VarInts.readSignedVarLong(in));
+        }
+        return map;
+    }
+
+
+    public static void writeValue(DataOutput out, Object value, StringTable strings) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INT);
+            VarInts.writeSignedVarLong(out, (Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            VarInts.writeSignedVarLong(out, (Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            strings.write(out, (String) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(TAG_LIST);
+            VarInts.writeVarInt(out, list.size());
+            for (Object element : list) {
+                writeValue(out, element, strings);
+            }
+        } else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(TAG_MAP);
+            VarInts.writeVarInt(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                strings.write(out, (String) entry.getKey());
+                writeValue(out, entry.getValue(), strings);
+            }
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(value);
+            }
+            out.writeByte(TAG_SERIALIZED);
+            VarInts.writeVarInt(out, bytes.size());
+            out.write(bytes.toByteArray());
+        } else {
+            System.err.println("BinaryFields: ข้ามค่าที่บันทึกไม่ได้ประเภท " + value.getClass().getName());
+            out.writeByte(TAG_NULL);
+        }
+    }
+
+    public static Object readValue(DataInput in, StringTable strings) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_INT:
+                return (int) VarInts.readSignedVarLong(in);
+            case TAG_LONG:
+                return VarInts.readSignedVarLong(in);
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_STRING:
+                return strings.read(in);
+            case TAG_LIST: {
+                int size = VarInts.readVarInt(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in, strings));
+                }
+                return list;
+            }
+            case TAG_MAP: {
+                int size = VarInts.readVarInt(in);
+                Map<String, Object> map = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = strings.read(in);
+                    map.put(key, readValue(in, strings));
+                }
+                return map;
+            }
+            case TAG_SERIALIZED: {
+                byte[] bytes = new byte[VarInts.readVarInt(in)];
+                in.readFully(bytes);
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return ois.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Unknown serialized value class: " + e.getMessage(), e);
+                }
+            }
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+
+    public static void writeValueMap(DataOutput out, Map<String, Object> map, StringTable strings) throws IOException {
+        VarInts.writeVarInt(out, map != null ? map.size() : 0);
+        if (map != null) {
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                strings.write(out, entry.getKey());
+                writeValue(out, entry.getValue(), strings);
+            }
+        }
+    }
+
+    public static void readValueMap(DataInput in, Map<String, Object> target, StringTable strings) throws IOException {
+        int size = VarInts.readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            String key = strings.read(in);
+            target.put(key, readValue(in, strings));
+        }
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,261 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.ui.game.desktop.messenger.MessageType;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+
+public class ChatArchive {
+    public static final int MAGIC = 0x56504341;
+    public static final int VERSION = 1;
+    public static final String SUFFIX = ".chat-archive";
+    public static final String ARCHIVED_KEY = "chatArchived";
+    public static final String OFFSET_KEY = "archiveOffset";
+    public static final String LENGTH_KEY = "archiveLength";
+    public static final String COUNT_KEY = "messageCount";
+    public static final String FIRST_TIMESTAMP_KEY = "firstTimestamp";
+
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 12;
+    private static final Map<String, ChatArchive> ARCHIVES = new ConcurrentHashMap<>();
+
+    private final File file;
+    private long storedConversations = 0;
+
+    public ChatArchive(File file) {
+        this.file = file;
+    }
+
+
+    public static ChatArchive forSave(File saveFile) {
+        String name = saveFile.getName();
+        int extension = name.lastIndexOf('.');
+        File archive = new File(saveFile.getAbsoluteFile().getParentFile(),
+                (extension > 0 ? name.substring(0, extension) : name) + SUFFIX);
+        return ARCHIVES.computeIfAbsent(archive.getAbsolutePath(), path -> new ChatArchive(new File(path)));
+    }
+
+
+    public static boolean isSummary(ChatMessage message) {
+        return message != null && message.getMetadata() != null
+                && Boolean.TRUE.equals(message.getMetadata().get(ARCHIVED_KEY));
+    }
+
+    public static boolean isArchived(List<ChatMessage> messages) {
+        return messages != null && !messages.isEmpty() && isSummary(messages.get(0));
+    }
+
+
+    public synchronized Map<CustomerRequest, ChatMessage> store(Map<CustomerRequest, List<ChatMessage>> conversations)
+            throws IOException {
+        Map<CustomerRequest, ChatMessage> summaries = new LinkedHashMap<>();
+        if (conversations.isEmpty()) {
+            return summaries;
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long offset = channel.size();
+            if (offset < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC);
+                header.putInt(VERSION);
+                header.flip();
+                writeFully(channel, header, 0);
+                offset = HEADER_BYTES;
+            }
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                for (Map.Entry<CustomerRequest, List<ChatMessage>> entry : conversations.entrySet()) {
+                    List<ChatMessage> messages = entry.getValue();
+                    byte[] raw = encode(entry.getKey(), messages);
+                    byte[] compressed = deflate(deflater, raw);
+                    CRC32 crc = new CRC32();
+                    crc.update(compressed);
+
+                    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + compressed.length);
+                    record.putInt(raw.length);
+                    record.putInt(compressed.length);
+                    record.putInt((int) crc.getValue());
+                    record.put(compressed);
+                    record.flip();
+                    writeFully(channel, record, offset);
+
+                    summaries.put(entry.getKey(), summarize(messages, offset, record.capacity()));
+                    offset += record.capacity();
+                }
+            } finally {
+                deflater.end();
+            }
+            channel.force(false);
+        }
+        storedConversations += summaries.size();
+        return summaries;
+    }
+
+
+    public synchronized List<ChatMessage> load(ChatMessage summary) throws IOException {
+        if (!isSummary(summary)) {
+            throw new IOException("Message is not an archived conversation summary");
+        }
+        long offset = ((Number) summary.getMetadata().get(OFFSET_KEY)).longValue();
+        int length = ((Number) summary.getMetadata().get(LENGTH_KEY)).intValue();
+        ByteBuffer record = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (offset + length > channel.size()) {
+                throw new IOException("Archived conversation is beyond the end of " + file.getName());
+            }
+            while (record.hasRemaining()) {
+                if (channel.read(record, offset + record.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file.getName());
+                }
+            }
+        }
+        record.flip();
+        int rawLength = record.getInt();
+        int compressedLength = record.getInt();
+        int expected = record.getInt();
+        if (compressedLength != length - RECORD_HEADER_BYTES) {
+            throw new IOException("Invalid archived conversation at " + offset);
+        }
+        byte[] compressed = new byte[compressedLength];
+        record.get(compressed);
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        if ((int) crc.getValue() != expected) {
+            throw new IOException("Archived conversation at " + offset + " is corrupted");
+        }
+        return decode(inflate(compressed, rawLength));
+    }
+
+
+    public synchronized void delete() {
+        if (file.exists() && !file.delete()) {
+            System.err.println("ไม่สามารถลบไฟล์แชทเก็บถาวร: " + file.getAbsolutePath());
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized long getStoredConversations() {
+        return storedConversations;
+    }
+
+
+    private static ChatMessage summarize(List<ChatMessage> messages, long offset, int length) {
+        ChatMessage first = messages.get(0);
+        ChatMessage last = messages.get(messages.size() - 1);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put(ARCHIVED_KEY, true);
+        metadata.put(OFFSET_KEY, offset);
+        metadata.put(LENGTH_KEY, length);
+        metadata.put(COUNT_KEY, messages.size());
+        metadata.put(FIRST_TIMESTAMP_KEY, first.getTimestamp());
+        return new ChatMessage(MessageType.SYSTEM, "Conversation archived (" + messages.size() + " messages)",
+                last.getTimestamp(), metadata);
+    }
+
+    private static byte[] encode(CustomerRequest request, List<ChatMessage> messages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 10);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            StringTable strings = new StringTable();
+            GameStateCodec.writeRequest(request, out, strings);
+            VarInts.writeVarInt(out, messages.size());
+            long previous = 0;
+            for (ChatMessage message : messages) {
+                VarInts.writeOrdinal(out, message.getType());
+                strings.write(out, message.getContent());
+                VarInts.writeSignedVarLong(out, message.getTimestamp() - previous);
+                previous = message.getTimestamp();
+                BinaryFields.writeValueMap(out, message.getMetadata(), strings);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ChatMessage> decode(byte[] raw) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        StringTable strings = new StringTable();
+        GameStateCodec.readRequest(in, strings);
+        int count = VarInts.readVarInt(in);
+        List<ChatMessage> messages = new ArrayList<>(count);
+        long timestamp = 0;
+        for (int i = 0; i < count; i++) {
+            MessageType type = VarInts.readOrdinal(in, MessageType.values());
+            String content = strings.read(in);
+            timestamp += VarInts.readSignedVarLong(in);
+            Map<String, Object> metadata = new HashMap<>();
+            BinaryFields.readValueMap(in, metadata, strings);
+            messages.add(new ChatMessage(type, content, timestamp, metadata));
+        }
+        return messages;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int count = deflater.deflate(buffer);
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int count = inflater.inflate(raw, read, rawLength - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != rawLength) {
+                throw new IOException("Archived conversation is truncated");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Archived conversation cannot be decompressed: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+}
@@ -0,0 +1,601 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistory;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+
+public class ChatIndex {
+    public static final int MAGIC = 0x56504349;
+    public static final int VERSION = 1;
+    public static final String SUFFIX = ".chat-index";
+
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final int SNAPSHOT_DOCS = 4096;
+    private static final Map<String, ChatIndex> INDEXES = new ConcurrentHashMap<>();
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Chat-Index-Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File file;
+    private final File saveFile;
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Postings> docsByRequest = new HashMap<>();
+    private final Map<Long, Integer> indexedCounts = new HashMap<>();
+    private long[] requestIds = new long[1024];
+    private int[] positions = new int[1024];
+    private long[] timestamps = new long[1024];
+    private int docCount = 0;
+    private int savedDocCount = -1;
+    private boolean loaded = false;
+
+    public ChatIndex(File saveFile) {
+        String name = saveFile.getName();
+        int extension = name.lastIndexOf('.');
+        this.saveFile = saveFile;
+        this.file = new File(saveFile.getAbsoluteFile().getParentFile(),
+                (extension > 0 ? name.substring(0, extension) : name) + SUFFIX);
+    }
+
+
+    public static ChatIndex forSave(File saveFile) {
+        return INDEXES.computeIfAbsent(saveFile.getAbsolutePath(), path -> new ChatIndex(new File(path)));
+    }
+
+
+    public static int viewSize(List<ChatMessage> messages) {
+        if (messages == null) {
+            return 0;
+        }
+        if (ChatArchive.isArchived(messages)) {
+            Object count = messages.get(0).getMetadata().get(ChatArchive.COUNT_KEY);
+            return (count instanceof Number number ? number.intValue() : 0) + messages.size() - 1;
+        }
+        return messages.size();
+    }
+
+
+    public synchronized void add(CustomerRequest request, int position, ChatMessage message) {
+        if (request == null || request.getId() == 0 || message == null) {
+            return;
+        }
+        long requestId = ChatHistory.keyOf(request);
+        int indexed = indexedCounts.getOrDefault(requestId, 0);
+        if (position < indexed) {
+            return;
+        }
+        indexedCounts.put(requestId, position + 1);
+
+        int doc = docCount++;
+        if (doc == requestIds.length) {
+            int capacity = requestIds.length * 2;
+            requestIds = Arrays.copyOf(requestIds, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+        requestIds[doc] = requestId;
+        positions[doc] = position;
+        timestamps[doc] = message.getTimestamp();
+        docsByRequest.computeIfAbsent(requestId, k -> new Postings()).add(doc);
+        for (String token : tokenize(message.getContent())) {
+            terms.computeIfAbsent(token, k -> new Postings()).add(doc);
+        }
+    }
+
+
+    public synchronized void clear() {
+        terms.clear();
+        docsByRequest.clear();
+        indexedCounts.clear();
+        docCount = 0;
+        savedDocCount = -1;
+        loaded = true;
+    }
+
+
+    public synchronized void synchronize(ChatHistory history) {
+        if (!loaded) {
+            loaded = true;
+            readSnapshot();
+        }
+        for (Long requestId : indexedCounts.keySet()) {
+            List<ChatMessage> messages = history.getMessages(requestId);
+            if (indexedCounts.get(requestId) > viewSize(messages)) {
+                System.out.println("ดัชนีค้นหาแชทไม่ตรงกับประวัติแชท สร้างดัชนีใหม่");
+                clear();
+                break;
+            }
+        }
+
+        int added = docCount;
+        for (Map.Entry<CustomerRequest, List<ChatMessage>> entry : history.entrySet()) {
+            CustomerRequest request = entry.getKey();
+            List<ChatMessage> messages = entry.getValue();
+            if (request.getId() == 0 || messages == null) {
+                continue;
+            }
+            int indexed = indexedCounts.getOrDefault(ChatHistory.keyOf(request), 0);
+            int size = viewSize(messages);
+            if (indexed >= size) {
+                continue;
+            }
+            List<ChatMessage> view = messages;
+            if (ChatArchive.isArchived(messages)) {
+                int hotStart = size - (messages.size() - 1);
+                if (indexed >= hotStart) {
+                    for (int i = indexed; i < size; i++) {
+                        add(request, i, messages.get(1 + i - hotStart));
+                    }
+                    continue;
+                }
+                view = restore(messages);
+                if (view == null) {
+                    continue;
+                }
+            }
+            for (int i = indexed; i < view.size(); i++) {
+                add(request, i, view.get(i));
+            }
+        }
+        if (docCount > added) {
+            System.out.println("เพิ่มข้อความลงดัชนีค้นหาแชท " + (docCount - added) + " รายการ");
+        }
+    }
+
+    private List<ChatMessage> restore(List<ChatMessage> messages) {
+        try {
+            List<ChatMessage> view = new ArrayList<>(ChatArchive.forSave(saveFile).load(messages.get(0)));
+            view.addAll(messages.subList(1, messages.size()));
+            return view;
+        } catch (IOException e) {
+            System.err.println("ไม่สามารถโหลดแชทที่เก็บถาวรเพื่อสร้างดัชนี: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    public synchronized List<Hit> search(Query query, ChatHistory history, int limit) {
+        BitSet candidates = null;
+        if (!query.getKeywords().isEmpty()) {
+            candidates = matchAll(query.getKeywords());
+        }
+        if (query.getCustomer() != null) {
+            String customer = query.getCustomer().toLowerCase(Locale.ROOT);
+            BitSet docs = new BitSet(docCount);
+            for (CustomerRequest request : history.keySet()) {
+                if (request.getName() != null && request.getName().toLowerCase(Locale.ROOT).contains(customer)) {
+                    addRequestDocs(docs, request);
+                }
+            }
+            candidates = intersect(candidates, docs);
+        }
+        if (query.getVmId() != null) {
+            String vmId = query.getVmId();
+            BitSet docs = matchAll(tokenize(vmId));
+            for (CustomerRequest request : history.keySet()) {
+                if (vmId.equalsIgnoreCase(request.getAssignedVmId())) {
+                    addRequestDocs(docs, request);
+                }
+            }
+            candidates = intersect(candidates, docs);
+        }
+        if (candidates == null) {
+            candidates = new BitSet(docCount);
+            candidates.set(0, docCount);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int doc = candidates.previousSetBit(docCount - 1); doc >= 0 && hits.size() < limit;
+             doc = candidates.previousSetBit(doc - 1)) {
+            long timestamp = timestamps[doc];
+            if (timestamp < query.getFrom() || timestamp > query.getTo()) {
+                continue;
+            }
+            CustomerRequest request = history.getRequest(requestIds[doc]);
+            if (request != null) {
+                hits.add(new Hit(request, positions[doc], timestamp));
+            }
+        }
+        return hits;
+    }
+
+    private BitSet matchAll(Set<String> tokens) {
+        BitSet result = null;
+        for (String token : tokens) {
+            BitSet docs = new BitSet(docCount);
+            NavigableMap<String, Postings> matches = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Postings postings : matches.values()) {
+                postings.addTo(docs);
+            }
+            result = intersect(result, docs);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    private void addRequestDocs(BitSet docs, CustomerRequest request) {
+        if (request.getId() == 0) {
+            return;
+        }
+        Postings postings = docsByRequest.get(ChatHistory.keyOf(request));
+        if (postings != null) {
+            postings.addTo(docs);
+        }
+    }
+
+    private static BitSet intersect(BitSet candidates, BitSet docs) {
+        if (candidates == null) {
+            return docs;
+        }
+        candidates.and(docs);
+        return candidates;
+    }
+
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String token = text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH));
+                tokens.add(token.toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+
+    public void committed() {
+        synchronized (this) {
+            if (!loaded || (savedDocCount >= 0 && docCount - savedDocCount < SNAPSHOT_DOCS)) {
+                return;
+            }
+        }
+        WRITER.execute(this::writeSnapshot);
+    }
+
+    private void writeSnapshot() {
+        byte[] snapshot;
+        int snapshotDocs;
+        synchronized (this) {
+            if (docCount == savedDocCount) {
+                return;
+            }
+            try {
+                snapshot = encode();
+            } catch (IOException e) {
+                System.err.println("ไม่สามารถเข้ารหัสดัชนีค้นหาแชท: " + e.getMessage());
+                e.printStackTrace();
+                return;
+            }
+            snapshotDocs = docCount;
+        }
+        try {
+            AtomicFiles.write(file, out -> out.write(snapshot));
+            synchronized (this) {
+                savedDocCount = snapshotDocs;
+            }
+        } catch (IOException e) {
+            System.err.println("ไม่สามารถบันทึกดัชนีค้นหาแชท: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(1024, docCount * 16));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            VarInts.writeVarInt(out, docCount);
+            long previous = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                VarInts.writeVarLong(out, requestIds[doc]);
+                VarInts.writeVarInt(out, positions[doc]);
+                VarInts.writeSignedVarLong(out, timestamps[doc] - previous);
+                previous = timestamps[doc];
+            }
+            VarInts.writeVarInt(out, indexedCounts.size());
+            for (Map.Entry<Long, Integer> entry : indexedCounts.entrySet()) {
+                VarInts.writeVarLong(out, entry.getKey());
+                VarInts.writeVarInt(out, entry.getValue());
+            }
+            VarInts.writeVarInt(out, terms.size());
+            String previousTerm = "";
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                String term = entry.getKey();
+                int shared = 0;
+                int max = Math.min(term.length(), previousTerm.length());
+                while (shared < max && term.charAt(shared) == previousTerm.charAt(shared)) {
+                    shared++;
+                }
+                VarInts.writeVarInt(out, shared);
+                BinaryFields.writeString(out, term.substring(shared));
+                entry.getValue().write(out);
+                previousTerm = term;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        new DataOutputStream(bytes).writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    private void readSnapshot() {
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            if (bytes.length < 12) {
+                throw new IOException("Chat index is truncated");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 4);
+            int expected = ((bytes[bytes.length - 4] & 0xFF) << 24) | ((bytes[bytes.length - 3] & 0xFF) << 16)
+                    | ((bytes[bytes.length - 2] & 0xFF) << 8) | (bytes[bytes.length - 1] & 0xFF);
+            if ((int) crc.getValue() != expected) {
+                throw new IOException("Chat index checksum mismatch");
+            }
+            decode(new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4)));
+            savedDocCount = docCount;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("ไม่สามารถโหลดดัชนีค้นหาแชท จะสร้างใหม่: " + e.getMessage());
+            clear();
+        }
+    }
+
+    private void decode(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Unsupported chat index format");
+        }
+        int count = VarInts.readVarInt(in);
+        requestIds = new long[Math.max(1024, count)];
+        positions = new int[requestIds.length];
+        timestamps = new long[requestIds.length];
+        long timestamp = 0;
+        for (int doc = 0; doc < count; doc++) {
+            requestIds[doc] = VarInts.readVarLong(in);
+            positions[doc] = VarInts.readVarInt(in);
+            timestamp += VarInts.readSignedVarLong(in);
+            timestamps[doc] = timestamp;
+            docsByRequest.computeIfAbsent(requestIds[doc], k -> new Postings()).add(doc);
+        }
+        docCount = count;
+        int requests = VarInts.readVarInt(in);
+        for (int i = 0; i < requests; i++) {
+            indexedCounts.put(VarInts.readVarLong(in), VarInts.readVarInt(in));
+        }
+        int termCount = VarInts.readVarInt(in);
+        String previous = "";
+        for (int i = 0; i < termCount; i++) {
+            int shared = VarInts.readVarInt(in);
+            String term = previous.substring(0, shared) + BinaryFields.readString(in);
+            terms.put(term, Postings.read(in, count));
+            previous = term;
+        }
+    }
+
+
+    public void close() {
+        synchronized (this) {
+            clear();
+            loaded = false;
+        }
+    }
+
+    public void delete() {
+        close();
+        if (file.exists() && !file.delete()) {
+            System.err.println("ไม่สามารถลบดัชนีค้นหาแชท: " + file.getAbsolutePath());
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized int getDocumentCount() {
+        return docCount;
+    }
+
+    public synchronized int getTermCount() {
+        return terms.size();
+    }
+
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size = 0;
+
+        private void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        private void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(docs[i]);
+            }
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            VarInts.writeVarInt(out, size);
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                VarInts.writeVarInt(out, docs[i] - previous);
+                previous = docs[i];
+            }
+        }
+
+        private static Postings read(DataInputStream in, int docCount) throws IOException {
+            Postings postings = new Postings();
+            int size = VarInts.readVarInt(in);
+            postings.docs = new int[Math.max(4, size)];
+            int doc = 0;
+            for (int i = 0; i < size; i++) {
+                doc += VarInts.readVarInt(in);
+                if (doc >= docCount) {
+                    throw new IOException("Chat index posting is out of range");
+                }
+                postings.docs[i] = doc;
+            }
+            postings.size = size;
+            return postings;
+        }
+    }
+
+
+    public static class Hit {
+        private final CustomerRequest request;
+        private final int position;
+        private final long timestamp;
+
+        public Hit(CustomerRequest request, int position, long timestamp) {
+            this.request = request;
+            this.position = position;
+            this.timestamp = timestamp;
+        }
+
+        public CustomerRequest getRequest() {
+            return request;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+
+
+    public static class Query {
+        private final Set<String> keywords;
+        private final String customer;
+        private final String vmId;
+        private final long from;
+        private final long to;
+
+        public Query(String keywords, String customer, String vmId, long from, long to) {
+            this.keywords = tokenize(keywords);
+            this.customer = customer == null || customer.isBlank() ? null : customer.trim();
+            this.vmId = vmId == null || vmId.isBlank() ? null : vmId.trim();
+            this.from = from;
+            this.to = to;
+        }
+
+
+        public static Query parse(String text) {
+            StringBuilder keywords = new StringBuilder();
+            String customer = null;
+            String vmId = null;
+            long from = Long.MIN_VALUE;
+            long to = Long.MAX_VALUE;
+            for (String part : text.trim().split("\\s+")) {
+                int colon = part.indexOf(':');
+                String key = colon > 0 ? part.substring(0, colon).toLowerCase(Locale.ROOT) : "";
+                String value = colon > 0 ? part.substring(colon + 1) : part;
+                switch (key) {
+                    case "name":
+                    case "customer":
+                        customer = value;
+                        break;
+                    case "vm":
+                        vmId = value;
+                        break;
+                    case "from":
+                        from = parseDate(value, from, false);
+                        break;
+                    case "to":
+                        to = parseDate(value, to, true);
+                        break;
+                    default:
+                        keywords.append(part).append(' ');
+                        break;
+                }
+            }
+            return new Query(keywords.toString(), customer, vmId, from, to);
+        }
+
+        private static long parseDate(String value, long fallback, boolean endOfDay) {
+            try {
+                LocalDate date = LocalDate.parse(value);
+                if (endOfDay) {
+                    date = date.plusDays(1);
+                }
+                long millis = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                return endOfDay ? millis - 1 : millis;
+            } catch (DateTimeParseException e) {
+                System.err.println("รูปแบบวันที่ไม่ถูกต้อง (ต้องเป็น yyyy-MM-dd): " + value);
+                return fallback;
+            }
+        }
+
+
+        public boolean isEmpty() {
+            return keywords.isEmpty() && customer == null && vmId == null
+                    && from == Long.MIN_VALUE && to == Long.MAX_VALUE;
+        }
+
+        public Set<String> getKeywords() {
+            return keywords;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public String getVmId() {
+            return vmId;
+        }
+
+        public long getFrom() {
+            return from;
+        }
+
+        public long getTo() {
+            return to;
+        }
+    }
+}
@@ -0,0 +1,712 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.ui.game.desktop.messenger.MessageType;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistory;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+
+public class ChatLog {
+    public static final int FORMAT = 2;
+    public static final int MAGIC = 0x5650434C;
+    public static final int VERSION = 1;
+    public static final String SEGMENT_INFIX = ".chat.";
+
+    private static final int HEADER_BYTES = 28;
+    private static final int CHECKPOINT_BYTES = 24;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int SEQUENCE_DIGITS = 8;
+    private static final int FLAG_BASE = 1;
+    private static final int RECORD_REQUEST = 1;
+    private static final int RECORD_MESSAGE = 2;
+    private static final int RECORD_CLEAR = 3;
+    private static final long SEGMENT_BYTES = 1L << 20;
+    private static final int BATCH_BYTES = 1 << 16;
+    private static final int COMPACT_SEGMENTS = 8;
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    private static final Map<String, ChatLog> LOGS = new ConcurrentHashMap<>();
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Chat-Log-Compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File folder;
+    private final String prefix;
+    private final Object compactionLock = new Object();
+    private final Map<CustomerRequest, Integer> loggedKeys = new HashMap<>();
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream(BATCH_BYTES);
+    private Map<CustomerRequest, List<ChatMessage>> tracked;
+    private FileChannel active;
+    private long logId = 0;
+    private long baseSeq = 0;
+    private long activeSeq = 0;
+    private long activeLength = 0;
+    private int nextKey = 1;
+    private Checkpoint pending;
+    private Checkpoint committed;
+    private long appendedRecords = 0;
+
+    public ChatLog(File saveFile) {
+        File parent = saveFile.getAbsoluteFile().getParentFile();
+        String name = saveFile.getName();
+        int extension = name.lastIndexOf('.');
+        this.folder = parent != null ? parent : new File(".");
+        this.prefix = (extension > 0 ? name.substring(0, extension) : name) + SEGMENT_INFIX;
+    }
+
+
+    public static ChatLog forSave(File saveFile) {
+        return LOGS.computeIfAbsent(saveFile.getAbsolutePath(), path -> new ChatLog(new File(path)));
+    }
+
+
+    public synchronized void append(Map<CustomerRequest, List<ChatMessage>> history, CustomerRequest request,
+                                    ChatMessage message) {
+        history.computeIfAbsent(request, k -> new ArrayList<>()).add(message);
+        if (history != tracked || active == null) {
+            return;
+        }
+        try {
+            Integer key = loggedKeys.get(request);
+            if (key == null) {
+                key = nextKey++;
+                loggedKeys.put(request, key);
+                writeRecord(encodeRequest(key, request));
+            }
+            writeRecord(encodeMessage(key, message));
+            flushBatch();
+            if (activeLength >= SEGMENT_BYTES) {
+                seal();
+            }
+        } catch (IOException e) {
+            System.err.println("เขียนข้อความแชทลง log ไม่สำเร็จ จะเขียนประวัติแชทใหม่ทั้งหมดในการบันทึกครั้งถัดไป: "
+                    + e.getMessage());
+            e.printStackTrace();
+            detach();
+        }
+    }
+
+
+    public synchronized void clear(Map<CustomerRequest, List<ChatMessage>> history) {
+        history.clear();
+        if (history != tracked || active == null) {
+            return;
+        }
+        try {
+            writeRecord(new byte[]{RECORD_CLEAR});
+            flushBatch();
+            loggedKeys.clear();
+        } catch (IOException e) {
+            System.err.println("เขียนการล้างแชทลง log ไม่สำเร็จ: " + e.getMessage());
+            e.printStackTrace();
+            detach();
+        }
+    }
+
+
+    public synchronized void replace(Map<CustomerRequest, List<ChatMessage>> history,
+                                     Map<CustomerRequest, List<ChatMessage>> replacements) {
+        if (replacements.isEmpty()) {
+            return;
+        }
+        history.putAll(replacements);
+        if (history == tracked) {
+            detach();
+        }
+    }
+
+
+    public synchronized void detach() {
+        tracked = null;
+    }
+
+
+    public synchronized byte[] checkpoint(GameState state) throws IOException {
+        Map<CustomerRequest, List<ChatMessage>> history = state.getChatHistory();
+        if (active == null || history == null || history != tracked) {
+            rebase(history);
+        } else {
+            active.force(false);
+        }
+        pending = new Checkpoint(logId, activeSeq, activeLength);
+        return pending.encode();
+    }
+
+
+    public void committed() {
+        Checkpoint checkpoint;
+        synchronized (this) {
+            if (pending == null) {
+                return;
+            }
+            committed = pending;
+            pending = null;
+            checkpoint = committed;
+        }
+        COMPACTOR.execute(() -> maintain(checkpoint));
+    }
+
+
+    public synchronized void load(GameState state, ByteBuffer payload) throws IOException {
+        Checkpoint checkpoint = Checkpoint.decode(payload);
+        closeActive();
+
+        List<Segment> segments = listSegments();
+        List<Segment> chain = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.seq > checkpoint.seq) {
+                System.out.println("ลบ chat log ที่ยังไม่ถูกบันทึก: " + segment.file.getName());
+                deleteFile(segment.file);
+            } else if (segment.logId == checkpoint.logId) {
+                chain.add(segment);
+            }
+        }
+        int start = chain.size() - 1;
+        if (start < 0 || chain.get(start).seq != checkpoint.seq) {
+            throw new IOException("Chat log segment " + checkpoint.seq + " is missing");
+        }
+        while (!chain.get(start).isBase()) {
+            if (start == 0 || chain.get(start - 1).seq != chain.get(start).seq - 1) {
+                throw new IOException("Chat log is missing segment " + (chain.get(start).seq - 1));
+            }
+            start--;
+        }
+
+        Replay replay = new Replay();
+        for (int i = start; i < chain.size(); i++) {
+            Segment segment = chain.get(i);
+            replay(segment.file, segment.seq == checkpoint.seq ? checkpoint.offset : Long.MAX_VALUE, replay);
+        }
+
+        Segment last = chain.get(chain.size() - 1);
+        active = FileChannel.open(last.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (active.size() > checkpoint.offset) {
+            System.out.println("ตัด chat log ที่เขียนหลังการบันทึกล่าสุด: " + (active.size() - checkpoint.offset)
+                    + " bytes");
+            active.truncate(checkpoint.offset);
+        }
+        logId = checkpoint.logId;
+        baseSeq = chain.get(start).seq;
+        activeSeq = checkpoint.seq;
+        activeLength = checkpoint.offset;
+        committed = checkpoint;
+        pending = null;
+
+        Map<CustomerRequest, List<ChatMessage>> history = replay.resolve(state, loggedKeys);
+        nextKey = replay.maxKey + 1;
+        tracked = history;
+        state.setChatHistory(history);
+    }
+
+
+    public void close() {
+        synchronized (compactionLock) {
+            synchronized (this) {
+                closeActive();
+                committed = null;
+                pending = null;
+            }
+        }
+    }
+
+
+    public void delete() {
+        synchronized (compactionLock) {
+            synchronized (this) {
+                closeActive();
+                committed = null;
+                pending = null;
+                logId = 0;
+                File[] files = folder.listFiles((dir, name) -> name.startsWith(prefix));
+                if (files != null) {
+                    for (File file : files) {
+                        deleteFile(file);
+                    }
+                }
+            }
+        }
+    }
+
+
+    public List<File> getSegmentFiles() {
+        List<File> files = new ArrayList<>();
+        for (Segment segment : listSegments()) {
+            files.add(segment.file);
+        }
+        return files;
+    }
+
+    public Object getCompactionLock() {
+        return compactionLock;
+    }
+
+    public synchronized boolean isTracking(Map<CustomerRequest, List<ChatMessage>> history) {
+        return history != null && history == tracked && active != null;
+    }
+
+    public synchronized long getAppendedRecords() {
+        return appendedRecords;
+    }
+
+
+    private void rebase(Map<CustomerRequest, List<ChatMessage>> history) throws IOException {
+        closeActive();
+        if (logId == 0) {
+            logId = newLogId();
+        }
+        long seq = 1;
+        for (Segment segment : listSegments()) {
+            seq = Math.max(seq, segment.seq + 1);
+        }
+        openSegment(seq, FLAG_BASE);
+        baseSeq = seq;
+        if (history != null) {
+            for (Map.Entry<CustomerRequest, List<ChatMessage>> entry : history.entrySet()) {
+                int key = nextKey++;
+                loggedKeys.put(entry.getKey(), key);
+                writeRecord(encodeRequest(key, entry.getKey()));
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                for (ChatMessage message : entry.getValue()) {
+                    writeRecord(encodeMessage(key, message));
+                }
+            }
+        }
+        flushBatch();
+        active.force(false);
+        tracked = history;
+    }
+
+    private void seal() throws IOException {
+        active.force(false);
+        active.close();
+        active = null;
+        openSegment(activeSeq + 1, 0);
+    }
+
+    private void openSegment(long seq, int flags) throws IOException {
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Cannot create directory " + folder);
+        }
+        FileChannel channel = FileChannel.open(segmentFile(seq).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(logId);
+        header.putLong(seq);
+        header.putInt(flags);
+        header.flip();
+        writeFully(channel, header, 0);
+        active = channel;
+        activeSeq = seq;
+        activeLength = HEADER_BYTES;
+        if ((flags & FLAG_BASE) != 0) {
+            loggedKeys.clear();
+            nextKey = 1;
+        }
+    }
+
+    private void closeActive() {
+        batch.reset();
+        tracked = null;
+        loggedKeys.clear();
+        if (active == null) {
+            return;
+        }
+        try {
+            active.close();
+        } catch (IOException e) {
+            System.err.println("ปิด chat log ไม่สำเร็จ: " + e.getMessage());
+        }
+        active = null;
+    }
+
+    private void writeRecord(byte[] body) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        DataOutputStream out = new DataOutputStream(batch);
+        out.writeInt(body.length);
+        out.writeInt((int) crc.getValue());
+        out.write(body);
+        appendedRecords++;
+        if (batch.size() >= BATCH_BYTES) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() throws IOException {
+        if (batch.size() == 0) {
+            return;
+        }
+        byte[] bytes = batch.toByteArray();
+        batch.reset();
+        writeFully(active, ByteBuffer.wrap(bytes), activeLength);
+        activeLength += bytes.length;
+    }
+
+
+    private void maintain(Checkpoint checkpoint) {
+        synchronized (compactionLock) {
+            synchronized (this) {
+                if (checkpoint != committed) {
+                    return;
+                }
+            }
+            try {
+                List<Segment> chain = new ArrayList<>();
+                for (Segment segment : listSegments()) {
+                    if (segment.logId == checkpoint.logId && segment.seq <= checkpoint.seq) {
+                        chain.add(segment);
+                    }
+                }
+                int base = -1;
+                for (int i = chain.size() - 1; i >= 0 && base < 0; i--) {
+                    if (chain.get(i).isBase()) {
+                        base = i;
+                    }
+                }
+                if (base < 0) {
+                    return;
+                }
+                long firstLive = chain.get(base).seq;
+                for (Segment segment : listSegments()) {
+                    if (segment.seq < firstLive) {
+                        deleteFile(segment.file);
+                    }
+                }
+                List<Segment> sealed = new ArrayList<>();
+                for (int i = base; i < chain.size() && chain.get(i).seq < checkpoint.seq; i++) {
+                    sealed.add(chain.get(i));
+                }
+                if (sealed.size() >= COMPACT_SEGMENTS) {
+                    compact(sealed, checkpoint);
+                }
+            } catch (IOException e) {
+                System.err.println("บีบอัด chat log ไม่สำเร็จ: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void compact(List<Segment> sealed, Checkpoint checkpoint) throws IOException {
+        Segment last = sealed.get(sealed.size() - 1);
+        Map<Integer, byte[]> requests = new LinkedHashMap<>();
+        int[] clearAt = {-1, -1};
+        for (int i = 0; i < sealed.size(); i++) {
+            int segmentIndex = i;
+            scan(sealed.get(i).file, (index, body) -> {
+                if (body[0] == RECORD_CLEAR) {
+                    requests.clear();
+                    clearAt[0] = segmentIndex;
+                    clearAt[1] = index;
+                } else if (body[0] == RECORD_REQUEST) {
+                    requests.put(readKey(body), body);
+                }
+            });
+        }
+
+        File target = last.file;
+        File merged = new File(folder, target.getName() + COMPACT_SUFFIX);
+        AtomicFiles.write(merged, out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checkpoint.logId);
+            out.writeLong(last.seq);
+            out.writeInt(FLAG_BASE);
+            for (byte[] body : requests.values()) {
+                writeRaw(out, body);
+            }
+            for (int i = Math.max(0, clearAt[0]); i < sealed.size(); i++) {
+                int skip = i == clearAt[0] ? clearAt[1] : -1;
+                scan(sealed.get(i).file, (index, body) -> {
+                    if (index > skip && body[0] == RECORD_MESSAGE) {
+                        writeRaw(out, body);
+                    }
+                });
+            }
+        });
+
+        synchronized (this) {
+            if (checkpoint != committed || logId != checkpoint.logId || baseSeq != sealed.get(0).seq) {
+                deleteFile(merged);
+                return;
+            }
+            AtomicFiles.move(merged, target);
+            baseSeq = last.seq;
+        }
+        for (int i = 0; i < sealed.size() - 1; i++) {
+            deleteFile(sealed.get(i).file);
+        }
+        System.out.println("บีบอัด chat log " + sealed.size() + " segment เป็น " + target.getName()
+                + " (" + target.length() + " bytes)");
+    }
+
+
+    private void replay(File file, long limit, Replay replay) throws IOException {
+        scan(file, limit, (index, body) -> replay.apply(body));
+    }
+
+    private static void scan(File file, RecordVisitor visitor) throws IOException {
+        scan(file, Long.MAX_VALUE, visitor);
+    }
+
+    private static void scan(File file, long limit, RecordVisitor visitor) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            in.skipNBytes(HEADER_BYTES);
+            long position = HEADER_BYTES;
+            int index = 0;
+            CRC32 crc = new CRC32();
+            while (position < limit) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    if (limit != Long.MAX_VALUE) {
+                        throw new IOException("Chat log " + file.getName() + " ends before " + limit);
+                    }
+                    return;
+                }
+                int expected = in.readInt();
+                if (length <= 0 || position + RECORD_HEADER_BYTES + length > limit
+                        && limit != Long.MAX_VALUE) {
+                    throw new IOException("Invalid record at " + position + " in " + file.getName());
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != expected) {
+                    throw new IOException("Chat log record at " + position + " in " + file.getName()
+                            + " is corrupted");
+                }
+                visitor.visit(index++, body);
+                position += RECORD_HEADER_BYTES + length;
+            }
+        }
+    }
+
+    private static void writeRaw(DataOutputStream out, byte[] body) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        out.writeInt(body.length);
+        out.writeInt((int) crc.getValue());
+        out.write(body);
+    }
+
+
+    private static byte[] encodeRequest(int key, CustomerRequest request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RECORD_REQUEST);
+        VarInts.writeVarInt(out, key);
+        GameStateCodec.writeRequest(request, out, new StringTable());
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeMessage(int key, ChatMessage message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(RECORD_MESSAGE);
+        VarInts.writeVarInt(out, key);
+        VarInts.writeOrdinal(out, message.getType());
+        BinaryFields.writeString(out, message.getContent());
+        VarInts.writeSignedVarLong(out, message.getTimestamp());
+        BinaryFields.writeValueMap(out, message.getMetadata(), new StringTable());
+        return bytes.toByteArray();
+    }
+
+    private static int readKey(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body, 1, body.length - 1));
+        return VarInts.readVarInt(in);
+    }
+
+
+    private List<Segment> listSegments() {
+        List<Segment> segments = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(prefix)
+                && name.length() == prefix.length() + SEQUENCE_DIGITS);
+        if (files == null) {
+            return segments;
+        }
+        for (File file : files) {
+            try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+                if (in.readInt() != MAGIC || in.readInt() > VERSION) {
+                    System.err.println("ข้าม chat log ที่ไม่รู้จัก: " + file.getName());
+                    continue;
+                }
+                long id = in.readLong();
+                long seq = in.readLong();
+                int flags = in.readInt();
+                segments.add(new Segment(file, id, seq, flags));
+            } catch (IOException e) {
+                System.err.println("อ่านหัว chat log ไม่สำเร็จ: " + file.getName() + " " + e.getMessage());
+            }
+        }
+        segments.sort((a, b) -> Long.compare(a.seq, b.seq));
+        return segments;
+    }
+
+    private File segmentFile(long seq) {
+        return new File(folder, prefix + String.format("%0" + SEQUENCE_DIGITS + "d", seq));
+    }
+
+    private static long newLogId() {
+        long id = 0;
+        while (id == 0) {
+            id = ThreadLocalRandom.current().nextLong();
+        }
+        return id;
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            System.err.println("ไม่สามารถลบไฟล์ chat log: " + file.getAbsolutePath());
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+
+    private interface RecordVisitor {
+        void visit(int index, byte[] body) throws IOException;
+    }
+
+    private static final class Segment {
+        private final File file;
+        private final long logId;
+        private final long seq;
+        private final int flags;
+
+        private Segment(File file, long logId, long seq, int flags) {
+            this.file = file;
+            this.logId = logId;
+            this.seq = seq;
+            this.flags = flags;
+        }
+
+        private boolean isBase() {
+            return (flags & FLAG_BASE) != 0;
+        }
+    }
+
+    private static final class Checkpoint {
+        private final long logId;
+        private final long seq;
+        private final long offset;
+
+        private Checkpoint(long logId, long seq, long offset) {
+            this.logId = logId;
+            this.seq = seq;
+            this.offset = offset;
+        }
+
+        private byte[] encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_BYTES);
+            buffer.putLong(logId);
+            buffer.putLong(seq);
+            buffer.putLong(offset);
+            return buffer.array();
+        }
+
+        private static Checkpoint decode(ByteBuffer payload) throws IOException {
+            if (payload.remaining() < CHECKPOINT_BYTES) {
+                throw new IOException("Chat log checkpoint is truncated");
+            }
+            return new Checkpoint(payload.getLong(), payload.getLong(), payload.getLong());
+        }
+    }
+
+    private static final class Replay {
+        private final Map<Integer, CustomerRequest> requests = new LinkedHashMap<>();
+        private final Map<Integer, List<ChatMessage>> messages = new HashMap<>();
+        private final Map<String, String> contents = new HashMap<>();
+        private final StringTable strings = new StringTable();
+        private int maxKey = 0;
+
+        private void apply(byte[] body) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body, 1, body.length - 1));
+            strings.clear();
+            switch (body[0]) {
+                case RECORD_REQUEST: {
+                    int key = VarInts.readVarInt(in);
+                    requests.put(key, GameStateCodec.readRequest(in, strings));
+                    maxKey = Math.max(maxKey, key);
+                    break;
+                }
+                case RECORD_MESSAGE: {
+                    int key = VarInts.readVarInt(in);
+                    MessageType type = VarInts.readOrdinal(in, MessageType.values());
+                    String content = BinaryFields.readString(in);
+                    if (content != null) {
+                        content = contents.computeIfAbsent(content, c -> c);
+                    }
+                    long timestamp = VarInts.readSignedVarLong(in);
+                    Map<String, Object> metadata = new HashMap<>();
+                    BinaryFields.readValueMap(in, metadata, strings);
+                    messages.computeIfAbsent(key, k -> new ArrayList<>())
+                            .add(new ChatMessage(type, content, timestamp, metadata));
+                    break;
+                }
+                case RECORD_CLEAR:
+                    requests.clear();
+                    messages.clear();
+                    break;
+                default:
+                    throw new IOException("Unknown chat log record " + body[0]);
+            }
+        }
+
+        private Map<CustomerRequest, List<ChatMessage>> resolve(GameState state,
+                                                               Map<CustomerRequest, Integer> keys) {
+            Map<Integer, CustomerRequest> known = GameStateCodec.requestsById(state.getPendingRequests(),
+                    state.getCompletedRequests());
+            Map<CustomerRequest, List<ChatMessage>> history = new ChatHistory();
+            for (Map.Entry<Integer, CustomerRequest> entry : requests.entrySet()) {
+                CustomerRequest stored = entry.getValue();
+                CustomerRequest request = stored.getId() != 0 ? known.getOrDefault(stored.getId(), stored) : stored;
+                List<ChatMessage> logged = messages.remove(entry.getKey());
+                List<ChatMessage> list = history.computeIfAbsent(request, k -> new ArrayList<>());
+                if (logged != null) {
+                    list.addAll(logged);
+                }
+                keys.put(request, entry.getKey());
+            }
+            if (!messages.isEmpty()) {
+                System.err.println("ChatLog: ข้ามข้อความ " + messages.size() + " บทสนทนาที่ไม่พบ request");
+            }
+            return history;
+        }
+    }
+}
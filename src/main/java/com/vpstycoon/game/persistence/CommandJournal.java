@@ -0,0 +1,268 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.company.SkillPointsSystem;
+import com.vpstycoon.game.customer.enums.CustomerType;
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.vps.enums.RackProduct;
+import com.vpstycoon.game.vps.enums.RequestType;
+import com.vpstycoon.game.vps.enums.VPSProduct;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+
+public class CommandJournal implements Closeable {
+    public static final int MAGIC = 0x56504A4C;
+    public static final int VERSION = 1;
+
+    private static volatile CommandJournal active;
+
+    private final File file;
+    private final DataOutputStream out;
+    private final LongSupplier gameClock;
+    private long commandCount = 0;
+    private boolean closed = false;
+
+    private CommandJournal(File file, LongSupplier gameClock) throws IOException {
+        this.file = file;
+        this.gameClock = gameClock;
+        boolean fresh = !file.exists() || file.length() == 0;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        if (fresh) {
+            out.writeInt(MAGIC);
+            VarInts.writeVarInt(out, VERSION);
+            out.flush();
+        }
+    }
+
+
+    public static CommandJournal open(File file, LongSupplier gameClock) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        return new CommandJournal(file, gameClock);
+    }
+
+    public static CommandJournal getActive() {
+        return active;
+    }
+
+    public static void setActive(CommandJournal journal) {
+        CommandJournal previous = active;
+        active = journal;
+        if (previous != null && previous != journal) {
+            previous.close();
+        }
+    }
+
+
+    public static void record(Factory factory) {
+        CommandJournal journal = active;
+        if (journal != null) {
+            journal.append(factory.create(journal.gameClock.getAsLong()));
+        }
+    }
+
+    public interface Factory {
+        JournalCommand create(long gameTimeMs);
+    }
+
+
+    public synchronized void append(JournalCommand command) {
+        if (closed || command == null) {
+            return;
+        }
+        try {
+            write(out, command);
+            out.flush();
+            commandCount++;
+        } catch (IOException e) {
+            System.err.println("Failed to append " + command.getType() + " to command journal: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized long getCommandCount() {
+        return commandCount;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close command journal: " + e.getMessage());
+        }
+    }
+
+
+    public static List<JournalCommand> read(File file) throws IOException {
+        List<JournalCommand> commands = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a command journal: " + file);
+            }
+            int version = VarInts.readVarInt(in);
+            if (version > VERSION) {
+                throw new IOException("Unsupported command journal version " + version);
+            }
+            while (true) {
+                int typeCode;
+                try {
+                    typeCode = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    commands.add(readBody(in, typeCode));
+                } catch (EOFException e) {
+                    System.err.println("Command journal truncated after " + commands.size() + " commands");
+                    break;
+                }
+            }
+        }
+        return commands;
+    }
+
+    private static void write(DataOutput out, JournalCommand command) throws IOException {
+        out.writeByte(command.getType().ordinal());
+        VarInts.writeVarLong(out, command.getGameTimeMs());
+        switch (command.getType()) {
+            case SESSION_START:
+                VarInts.writeSignedVarLong(out, command.amount);
+                out.writeDouble(command.value);
+                VarInts.writeVarInt(out, command.index);
+                break;
+            case REQUEST_ARRIVED:
+                VarInts.writeVarLong(out, command.requestId);
+                out.writeUTF(command.name != null ? command.name : "");
+                VarInts.writeOrdinal(out, command.customerType);
+                VarInts.writeOrdinal(out, command.requestType);
+                out.writeDouble(command.value);
+                VarInts.writeVarInt(out, command.duration);
+                writeSpecs(out, command);
+                VarInts.writeOrdinal(out, command.rentalPeriodType);
+                break;
+            case ACCEPT_REQUEST:
+                VarInts.writeVarLong(out, command.requestId);
+                out.writeUTF(command.serverId);
+                writeSpecs(out, command);
+                break;
+            case COMPLETE_REQUEST:
+                VarInts.writeVarLong(out, command.requestId);
+                break;
+            case BUY_SERVER:
+                out.writeUTF(command.serverId);
+                VarInts.writeOrdinal(out, command.product);
+                writeSpecs(out, command);
+                VarInts.writeVarLong(out, command.amount);
+                break;
+            case INSTALL_SERVER:
+                out.writeUTF(command.serverId);
+                VarInts.writeVarInt(out, command.index);
+                break;
+            case UNINSTALL_SERVER:
+                out.writeUTF(command.serverId);
+                break;
+            case BUY_RACK:
+                VarInts.writeOrdinal(out, command.rackProduct);
+                break;
+            case UPGRADE_RACK:
+                VarInts.writeVarInt(out, command.index);
+                break;
+            case UPGRADE_SKILL:
+                VarInts.writeOrdinal(out, command.skillType);
+                break;
+        }
+    }
+
+    private static JournalCommand readBody(DataInput in, int typeCode) throws IOException {
+        JournalCommand.Type[] types = JournalCommand.Type.values();
+        if (typeCode >= types.length) {
+            throw new IOException("Unknown journal command type " + typeCode);
+        }
+        JournalCommand command = new JournalCommand(types[typeCode], VarInts.readVarLong(in));
+        switch (command.getType()) {
+            case SESSION_START:
+                command.amount = VarInts.readSignedVarLong(in);
+                command.value = in.readDouble();
+                command.index = VarInts.readVarInt(in);
+                break;
+            case REQUEST_ARRIVED:
+                command.requestId = VarInts.readVarLong(in);
+                command.name = in.readUTF();
+                command.customerType = VarInts.readOrdinal(in, CustomerType.values());
+                command.requestType = VarInts.readOrdinal(in, RequestType.values());
+                command.value = in.readDouble();
+                command.duration = VarInts.readVarInt(in);
+                readSpecs(in, command);
+                command.rentalPeriodType = VarInts.readOrdinal(in, CustomerRequest.RentalPeriodType.values());
+                break;
+            case ACCEPT_REQUEST:
+                command.requestId = VarInts.readVarLong(in);
+                command.serverId = in.readUTF();
+                readSpecs(in, command);
+                break;
+            case COMPLETE_REQUEST:
+                command.requestId = VarInts.readVarLong(in);
+                break;
+            case BUY_SERVER:
+                command.serverId = in.readUTF();
+                command.product = VarInts.readOrdinal(in, VPSProduct.values());
+                readSpecs(in, command);
+                command.amount = VarInts.readVarLong(in);
+                break;
+            case INSTALL_SERVER:
+                command.serverId = in.readUTF();
+                command.index = VarInts.readVarInt(in);
+                break;
+            case UNINSTALL_SERVER:
+                command.serverId = in.readUTF();
+                break;
+            case BUY_RACK:
+                command.rackProduct = VarInts.readOrdinal(in, RackProduct.values());
+                break;
+            case UPGRADE_RACK:
+                command.index = VarInts.readVarInt(in);
+                break;
+            case UPGRADE_SKILL:
+                command.skillType = VarInts.readOrdinal(in, SkillPointsSystem.SkillType.values());
+                break;
+        }
+        return command;
+    }
+
+    private static void writeSpecs(DataOutput out, JournalCommand command) throws IOException {
+        VarInts.writeVarInt(out, command.vcpus);
+        VarInts.writeVarInt(out, command.ramGB);
+        VarInts.writeVarInt(out, command.diskGB);
+    }
+
+    private static void readSpecs(DataInput in, JournalCommand command) throws IOException {
+        command.vcpus = VarInts.readVarInt(in);
+        command.ramGB = VarInts.readVarInt(in);
+        command.diskGB = VarInts.readVarInt(in);
+    }
+}
@@ -0,0 +1,719 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameObject;
+import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.company.Company;
+import com.vpstycoon.game.company.SkillPointsSystem.SkillType;
+import com.vpstycoon.game.customer.enums.CustomerType;
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RequestType;
+import com.vpstycoon.game.vps.enums.VPSProduct;
+import com.vpstycoon.game.vps.enums.VPSSize;
+import com.vpstycoon.game.vps.enums.VPSStatus;
+import com.vpstycoon.ui.game.desktop.messenger.MessageType;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistory;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public final class GameStateCodec {
+    public static final int SCHEMA_VERSION = 2;
+    public static final int SECTION_FORMAT = 1;
+
+    public static final int SECTION_COMPANY = 1;
+    public static final int SECTION_TIME = 2;
+    public static final int SECTION_OBJECTS = 3;
+    public static final int SECTION_REQUESTS = 4;
+    public static final int SECTION_RACK = 5;
+    public static final int SECTION_INVENTORY = 6;
+    public static final int SECTION_SKILLS = 7;
+    public static final int SECTION_CHAT = 8;
+    public static final int SECTION_COMPLETED = 9;
+
+    private static final int OBJECT_BASE = 0;
+    private static final int OBJECT_VPS = 1;
+    private static final int OBJECT_SERIALIZED = 2;
+
+    private GameStateCodec() {
+    }
+
+
+    public static byte[] encodeSection(GameState state, SaveSection section) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 12);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            StringTable strings = new StringTable();
+            switch (section) {
+                case COMPANY:
+                    writeCompany(state, out, strings);
+                    break;
+                case TIME:
+                    writeTime(state, out, strings);
+                    break;
+                case SKILLS:
+                    writeSkills(state, out, strings);
+                    break;
+                case OBJECTS:
+                    writeObjects(state, out, strings);
+                    break;
+                case REQUESTS:
+                    writeRequests(state, out, strings);
+                    break;
+                case COMPLETED:
+                    writeCompleted(state, out, strings);
+                    break;
+                case RACK:
+                    writeRack(state, out, strings);
+                    break;
+                case INVENTORY:
+                    writeInventory(state, out, strings);
+                    break;
+                case CHAT:
+                    writeChat(state, out, strings);
+                    break;
+                default:
+                    throw new IOException("Unknown section " + section);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+
+    public static void decodeSection(GameState state, SaveSection section, int format, ByteBuffer payload)
+            throws IOException {
+        if (format > SECTION_FORMAT) {
+            System.err.println("GameStateCodec: ข้าม section " + section + " รูปแบบ " + format + " ที่ไม่รองรับ");
+            return;
+        }
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(payload));
+        StringTable strings = new StringTable();
+        switch (section) {
+            case COMPANY:
+                readCompany(state, in, strings);
+                break;
+            case TIME:
+                readTime(state, in, strings);
+                break;
+            case SKILLS:
+                readSkills(state, in, strings);
+                break;
+            case OBJECTS:
+                readObjects(state, in, strings);
+                break;
+            case REQUESTS:
+                readRequests(state, in, strings);
+                break;
+            case COMPLETED:
+                readCompleted(state, in, strings);
+                break;
+            case RACK:
+                readRack(state, in, strings);
+                break;
+            case INVENTORY:
+                readInventory(state, in, strings);
+                break;
+            case CHAT:
+                readChat(state, in, strings);
+                break;
+            default:
+                System.err.println("GameStateCodec: ข้าม section ที่ไม่รู้จัก " + section);
+                break;
+        }
+    }
+
+
+    private static void writeCompany(GameState state, DataOutput out, StringTable strings) throws IOException {
+        Company company = state.getCompany();
+        out.writeBoolean(company != null);
+        if (company != null) {
+            strings.write(out, company.getName());
+            out.writeDouble(company.getRating());
+            VarInts.writeSignedVarLong(out, company.getMarketingPoints());
+            VarInts.writeSignedVarLong(out, company.getSkillPointsAvailable());
+            VarInts.writeSignedVarLong(out, company.getAvailableVMs());
+            VarInts.writeSignedVarLong(out, company.getMoney());
+            VarInts.writeSignedVarLong(out, company.getTotalRevenue());
+            VarInts.writeSignedVarLong(out, company.getTotalExpenses());
+            VarInts.writeSignedVarLong(out, company.getCustomerSatisfaction());
+            VarInts.writeSignedVarLong(out, company.getCompletedRequests());
+            VarInts.writeSignedVarLong(out, company.getFailedRequests());
+        }
+
+        VarInts.writeVarInt(out, state.getResources().size());
+        for (Map.Entry<String, Integer> entry : state.getResources().entrySet()) {
+            strings.write(out, entry.getKey());
+            VarInts.writeSignedVarLong(out, entry.getValue() != null ? entry.getValue() : 0);
+        }
+        VarInts.writeVarInt(out, state.getUpgrades().size());
+        for (Map.Entry<String, Boolean> entry : state.getUpgrades().entrySet()) {
+            strings.write(out, entry.getKey());
+            out.writeBoolean(Boolean.TRUE.equals(entry.getValue()));
+        }
+    }
+
+    private static void readCompany(GameState state, DataInput in, StringTable strings) throws IOException {
+        Company company = null;
+        if (in.readBoolean()) {
+            company = new Company(strings.read(in), in.readDouble(),
+                    (int) VarInts.readSignedVarLong(in), (int) VarInts.readSignedVarLong(in),
+                    (int) VarInts.readSignedVarLong(in), VarInts.readSignedVarLong(in),
+                    VarInts.readSignedVarLong(in), VarInts.readSignedVarLong(in),
+                    (int) VarInts.readSignedVarLong(in), (int) VarInts.readSignedVarLong(in),
+                    (int) VarInts.readSignedVarLong(in));
+        }
+        state.setCompany(company);
+        if (company != null && state.getGameObjects() != null) {
+            for (GameObject obj : state.getGameObjects()) {
+                obj.setCompany(company);
+            }
+        }
+
+        state.getResources().clear();
+        state.getUpgrades().clear();
+        int resources = VarInts.readVarInt(in);
+        for (int i = 0; i < resources; i++) {
+            String key = strings.read(in);
+            state.getResources().put(key, (int) VarInts.readSignedVarLong(in));
+        }
+        int upgrades = VarInts.readVarInt(in);
+        for (int i = 0; i < upgrades; i++) {
+            String key = strings.read(in);
+            state.getUpgrades().put(key, in.readBoolean());
+        }
+    }
+
+
+    private static void writeTime(GameState state, DataOutput out, StringTable strings) throws IOException {
+        VarInts.writeSignedVarLong(out, state.getGameTimeMs());
+        BinaryFields.writeDateTime(out, state.getLocalDateTime());
+        VarInts.writeSignedVarLong(out, state.getLastSaveTime());
+        VarInts.writeSignedVarLong(out, state.getFreeVmCount());
+        BinaryFields.writeLongMap(out, state.getTimerCheckpoint(), strings);
+        out.writeBoolean(state.getRandomSeed() != null);
+        if (state.getRandomSeed() != null) {
+            out.writeLong(state.getRandomSeed());
+        }
+        BinaryFields.writeLongMap(out, state.getRandomStreamPositions(), strings);
+    }
+
+    private static void readTime(GameState state, DataInput in, StringTable strings) throws IOException {
+        state.setGameTimeMs(VarInts.readSignedVarLong(in));
+        state.setLocalDateTime(BinaryFields.readDateTime(in));
+        state.setLastSaveTime(VarInts.readSignedVarLong(in));
+        state.setFreeVmCount((int) VarInts.readSignedVarLong(in));
+        state.setTimerCheckpoint(BinaryFields.readLongMap(in, strings));
+        state.setRandomSeed(in.readBoolean() ? in.readLong() : null);
+        state.setRandomStreamPositions(BinaryFields.readLongMap(in, strings));
+    }
+
+
+    private static void writeSkills(GameState state, DataOutput out, StringTable strings) throws IOException {
+        Map<SkillType, Integer> skills = state.getSkillLevels();
+        VarInts.writeVarInt(out, skills != null ? skills.size() : 0);
+        if (skills != null) {
+            for (Map.Entry<SkillType, Integer> entry : skills.entrySet()) {
+                strings.write(out, entry.getKey().name());
+                VarInts.writeVarInt(out, entry.getValue() != null ? entry.getValue() : 0);
+            }
+        }
+    }
+
+    private static void readSkills(GameState state, DataInput in, StringTable strings) throws IOException {
+        Map<SkillType, Integer> skills = new HashMap<>();
+        int count = VarInts.readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            String name = strings.read(in);
+            int level = VarInts.readVarInt(in);
+            try {
+                skills.put(SkillType.valueOf(name), level);
+            } catch (IllegalArgumentException e) {
+                System.err.println("GameStateCodec: ข้าม skill ที่ไม่รู้จัก " + name);
+            }
+        }
+        state.setSkillLevels(skills);
+    }
+
+
+    private static void writeObjects(GameState state, DataOutput out, StringTable strings) throws IOException {
+        List<GameObject> objects = state.getGameObjects();
+        int count = objects != null ? objects.size() : 0;
+        VarInts.writeVarInt(out, count);
+        for (int i = 0; i < count; i++) {
+            GameObject obj = objects.get(i);
+            if (obj != null && obj.getClass() == VPSOptimization.class) {
+                VPSOptimization vps = (VPSOptimization) obj;
+                out.writeByte(OBJECT_VPS);
+                writeObjectFields(state, obj, out, strings);
+                writeVps(vps, out, strings);
+            } else if (obj != null && obj.getClass() == GameObject.class) {
+                out.writeByte(OBJECT_BASE);
+                strings.write(out, obj.getId());
+                strings.write(out, obj.getType());
+                writeObjectFields(state, obj, out, strings);
+            } else {
+                out.writeByte(OBJECT_SERIALIZED);
+                BinaryFields.writeValue(out, obj, strings);
+            }
+        }
+    }
+
+    private static void writeObjectFields(GameState state, GameObject obj, DataOutput out,
+                                          StringTable strings) throws IOException {
+        strings.write(out, obj.getName());
+        VarInts.writeSignedVarLong(out, obj.getLevel());
+        strings.write(out, obj.getStatus());
+        out.writeBoolean(obj.isActive());
+        VarInts.writeSignedVarLong(out, obj.getGridX());
+        VarInts.writeSignedVarLong(out, obj.getGridY());
+        BinaryFields.writeValueMap(out, obj.getProperties(), strings);
+        out.writeBoolean(state.getCompany() != null);
+    }
+
+    private static void writeVps(VPSOptimization vps, DataOutput out, StringTable strings) throws IOException {
+        strings.write(out, vps.getVpsId());
+        VarInts.writeOrdinal(out, vps.getVPSStatus());
+        VarInts.writeVarInt(out, vps.getMaxVMs());
+        VarInts.writeVarInt(out, vps.getVCPUs());
+        VarInts.writeVarInt(out, vps.getRamInGB());
+        VarInts.writeVarInt(out, vps.getDiskInGB());
+        VarInts.writeOrdinal(out, vps.getSize());
+        VarInts.writeOrdinal(out, vps.getProduct());
+        VarInts.writeVarInt(out, vps.getOptimizationLevel());
+        out.writeByte((vps.isInstalled() ? 1 : 0)
+                | (vps.hasBackupSystem() ? 2 : 0)
+                | (vps.hasMonitoringSystem() ? 4 : 0)
+                | (vps.hasAutoScaling() ? 8 : 0));
+
+        List<VPSOptimization.VM> vms = vps.getVms();
+        VarInts.writeVarInt(out, vms.size());
+        for (VPSOptimization.VM vm : vms) {
+            strings.write(out, vm.getId());
+            strings.write(out, vm.getName());
+            VarInts.writeVarInt(out, vm.getVcpu());
+            VarInts.writeVarInt(out, vm.getRamInGB());
+            VarInts.writeVarInt(out, vm.getDiskInGB());
+            strings.write(out, vm.getStatus());
+            strings.write(out, vm.getIp());
+            strings.write(out, vm.getCustomerId());
+            strings.write(out, vm.getCustomerName());
+            VarInts.writeSignedVarLong(out, vm.getAssignedTime());
+        }
+    }
+
+    private static void readObjects(GameState state, DataInput in, StringTable strings) throws IOException {
+        int count = VarInts.readVarInt(in);
+        List<GameObject> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = in.readUnsignedByte();
+            GameObject obj;
+            switch (kind) {
+                case OBJECT_VPS: {
+                    VPSOptimization vps = new VPSOptimization();
+                    readObjectFields(state, vps, in, strings);
+                    readVps(vps, in, strings);
+                    obj = vps;
+                    break;
+                }
+                case OBJECT_BASE: {
+                    String id = strings.read(in);
+                    String type = strings.read(in);
+                    obj = new GameObject(id, type, 0, 0);
+                    readObjectFields(state, obj, in, strings);
+                    break;
+                }
+                case OBJECT_SERIALIZED:
+                    obj = (GameObject) BinaryFields.readValue(in, strings);
+                    break;
+                default:
+                    throw new IOException("Unknown object kind " + kind);
+            }
+            objects.add(obj);
+        }
+        state.setGameObjects(objects);
+    }
+
+    private static void readObjectFields(GameState state, GameObject obj, DataInput in,
+                                         StringTable strings) throws IOException {
+        obj.setName(strings.read(in));
+        obj.setLevel((int) VarInts.readSignedVarLong(in));
+        obj.setStatus(strings.read(in));
+        obj.setActive(in.readBoolean());
+        int gridX = (int) VarInts.readSignedVarLong(in);
+        int gridY = (int) VarInts.readSignedVarLong(in);
+        obj.setGridPosition(gridX, gridY);
+        BinaryFields.readValueMap(in, obj.getProperties(), strings);
+        if (in.readBoolean()) {
+            obj.setCompany(state.getCompany());
+        }
+    }
+
+    private static void readVps(VPSOptimization vps, DataInput in, StringTable strings) throws IOException {
+        vps.setVpsId(strings.read(in));
+        vps.setStatus(VarInts.readOrdinal(in, VPSStatus.values()));
+        vps.setMaxVMs(VarInts.readVarInt(in));
+        vps.setVCPUs(VarInts.readVarInt(in));
+        vps.setRamInGB(VarInts.readVarInt(in));
+        vps.setDiskInGB(VarInts.readVarInt(in));
+        vps.setSize(VarInts.readOrdinal(in, VPSSize.values()));
+        vps.setProduct(VarInts.readOrdinal(in, VPSProduct.values()));
+        vps.setOptimizationLevel(VarInts.readVarInt(in));
+        int flags = in.readUnsignedByte();
+        vps.setInstalled((flags & 1) != 0);
+        vps.setBackupSystem((flags & 2) != 0);
+        vps.setMonitoringSystem((flags & 4) != 0);
+        vps.setAutoScaling((flags & 8) != 0);
+
+        int vmCount = VarInts.readVarInt(in);
+        List<VPSOptimization.VM> vms = vps.getVms();
+        for (int i = 0; i < vmCount; i++) {
+            vms.add(new VPSOptimization.VM(strings.read(in), strings.read(in),
+                    VarInts.readVarInt(in), VarInts.readVarInt(in), VarInts.readVarInt(in),
+                    strings.read(in), strings.read(in),
+                    strings.read(in), strings.read(in),
+                    VarInts.readSignedVarLong(in)));
+        }
+    }
+
+
+    private static void writeRequests(GameState state, DataOutput out, StringTable strings) throws IOException {
+        writeRequestList(state.getPendingRequests(), out, strings);
+
+        Map<String, String> assignments = state.getVmAssignments();
+        VarInts.writeVarInt(out, assignments != null ? assignments.size() : 0);
+        if (assignments != null) {
+            for (Map.Entry<String, String> entry : assignments.entrySet()) {
+                strings.write(out, entry.getKey());
+                strings.write(out, entry.getValue());
+            }
+        }
+    }
+
+    private static void readRequests(GameState state, DataInput in, StringTable strings) throws IOException {
+        state.setPendingRequests(readRequestList(in, strings, requestsById(state.getCompletedRequests())));
+
+        Map<String, String> assignments = new HashMap<>();
+        int assignmentCount = VarInts.readVarInt(in);
+        for (int i = 0; i < assignmentCount; i++) {
+            String vmId = strings.read(in);
+            assignments.put(vmId, strings.read(in));
+        }
+        state.setVmAssignments(assignments);
+    }
+
+
+    private static void writeCompleted(GameState state, DataOutput out, StringTable strings) throws IOException {
+        writeRequestList(state.getCompletedRequests(), out, strings);
+    }
+
+    private static void readCompleted(GameState state, DataInput in, StringTable strings) throws IOException {
+        state.setCompletedRequests(readRequestList(in, strings, requestsById(state.getPendingRequests())));
+    }
+
+    private static void writeRequestList(List<CustomerRequest> requests, DataOutput out, StringTable strings)
+            throws IOException {
+        VarInts.writeVarInt(out, requests != null ? requests.size() : 0);
+        if (requests != null) {
+            for (CustomerRequest request : requests) {
+                writeRequest(request, out, strings);
+            }
+        }
+    }
+
+    private static List<CustomerRequest> readRequestList(DataInput in, StringTable strings,
+                                                         Map<Integer, CustomerRequest> existing) throws IOException {
+        int count = VarInts.readVarInt(in);
+        List<CustomerRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CustomerRequest request = readRequest(in, strings);
+            requests.add(existing.getOrDefault(request.getId(), request));
+        }
+        return requests;
+    }
+
+    static void writeRequest(CustomerRequest request, DataOutput out, StringTable strings)
+            throws IOException {
+        VarInts.writeVarInt(out, request.getId());
+        strings.write(out, request.getName());
+        VarInts.writeOrdinal(out, request.getCustomerType());
+        VarInts.writeOrdinal(out, request.getRequestType());
+        out.writeDouble(request.getBudget());
+        VarInts.writeSignedVarLong(out, request.getDuration());
+        VarInts.writeVarInt(out, request.getRequiredVCPUs());
+        VarInts.writeVarInt(out, request.getRequiredRamGB());
+        VarInts.writeVarInt(out, request.getRequiredDiskGB());
+        VarInts.writeOrdinal(out, request.getRentalPeriodType());
+        out.writeDouble(request.getMonthlyPayment());
+        out.writeByte((request.isActive() ? 1 : 0) | (request.isExpired() ? 2 : 0));
+        VarInts.writeSignedVarLong(out, request.getCreationTime());
+        VarInts.writeSignedVarLong(out, request.getLastPaymentTime());
+        strings.write(out, request.getAssignedVmId());
+    }
+
+    static CustomerRequest readRequest(DataInput in, StringTable strings) throws IOException {
+        int id = VarInts.readVarInt(in);
+        String name = strings.read(in);
+        CustomerType customerType = VarInts.readOrdinal(in, CustomerType.values());
+        RequestType requestType = VarInts.readOrdinal(in, RequestType.values());
+        double budget = in.readDouble();
+        int duration = (int) VarInts.readSignedVarLong(in);
+        int vcpus = VarInts.readVarInt(in);
+        int ramGB = VarInts.readVarInt(in);
+        int diskGB = VarInts.readVarInt(in);
+        CustomerRequest.RentalPeriodType rentalPeriod =
+                VarInts.readOrdinal(in, CustomerRequest.RentalPeriodType.values());
+        double monthlyPayment = in.readDouble();
+        int flags = in.readUnsignedByte();
+        long creationTime = VarInts.readSignedVarLong(in);
+        long lastPaymentTime = VarInts.readSignedVarLong(in);
+        String vmId = strings.read(in);
+        return new CustomerRequest(id, name, customerType, requestType, budget, duration,
+                vcpus, ramGB, diskGB, rentalPeriod, monthlyPayment, (flags & 1) != 0, (flags & 2) != 0,
+                creationTime, lastPaymentTime, vmId);
+    }
+
+    @SafeVarargs
+    static Map<Integer, CustomerRequest> requestsById(List<CustomerRequest>... sources) {
+        Map<Integer, CustomerRequest> byId = new HashMap<>();
+        for (List<CustomerRequest> source : sources) {
+            if (source == null) {
+                continue;
+            }
+            for (CustomerRequest request : source) {
+                if (request != null && request.getId() != 0) {
+                    byId.putIfAbsent(request.getId(), request);
+                }
+            }
+        }
+        return byId;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static void writeRack(GameState state, DataOutput out, StringTable strings) throws IOException {
+        Map<String, Object> config = state.getRackConfiguration();
+        if (config == null || config.isEmpty()) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        VarInts.writeVarInt(out, intValue(config.get("maxRacks")));
+        VarInts.writeVarInt(out, intValue(config.get("currentRackIndex")));
+
+        List<Map<String, Object>> racks = (List<Map<String, Object>>) config.get("allRacksData");
+        VarInts.writeVarInt(out, racks != null ? racks.size() : 0);
+        if (racks != null) {
+            for (Map<String, Object> rackData : racks) {
+                VarInts.writeVarInt(out, intValue(rackData.get("rackIndex")));
+                VarInts.writeVarInt(out, intValue(rackData.get("maxSlotUnits")));
+                VarInts.writeVarInt(out, intValue(rackData.get("unlockedSlotUnits")));
+                VarInts.writeVarInt(out, intValue(rackData.get("occupiedSlotUnits")));
+                VarInts.writeVarInt(out, intValue(rackData.get("availableSlotUnits")));
+                writeStringList((List<String>) rackData.get("installedVpsIds"), out, strings);
+            }
+        }
+        writeIntList((List<Integer>) config.get("slotCounts"), out);
+        writeIntList((List<Integer>) config.get("unlockedSlotUnitsList"), out);
+        BinaryFields.writeValue(out, config.get("rackProducts"), strings);
+        writeStringList((List<String>) config.get("installedVpsIds"), out, strings);
+    }
+
+    private static void readRack(GameState state, DataInput in, StringTable strings) throws IOException {
+        Map<String, Object> config = new HashMap<>();
+        state.setRackConfiguration(config);
+        if (!in.readBoolean()) {
+            return;
+        }
+        config.put("maxRacks", VarInts.readVarInt(in));
+        config.put("currentRackIndex", VarInts.readVarInt(in));
+
+        int rackCount = VarInts.readVarInt(in);
+        List<Map<String, Object>> racks = new ArrayList<>(rackCount);
+        for (int i = 0; i < rackCount; i++) {
+            Map<String, Object> rackData = new HashMap<>();
+            rackData.put("rackIndex", VarInts.readVarInt(in));
+            rackData.put("maxSlotUnits", VarInts.readVarInt(in));
+            rackData.put("unlockedSlotUnits", VarInts.readVarInt(in));
+            rackData.put("occupiedSlotUnits", VarInts.readVarInt(in));
+            rackData.put("availableSlotUnits", VarInts.readVarInt(in));
+            rackData.put("installedVpsIds", readStringList(in, strings));
+            racks.add(rackData);
+        }
+        config.put("allRacksData", racks);
+        config.put("slotCounts", readIntList(in));
+        config.put("unlockedSlotUnitsList", readIntList(in));
+        Object rackProducts = BinaryFields.readValue(in, strings);
+        if (rackProducts != null) {
+            config.put("rackProducts", rackProducts);
+        }
+        config.put("installedVpsIds", readStringList(in, strings));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static void writeInventory(GameState state, DataOutput out, StringTable strings) throws IOException {
+        Map<String, Object> inventory = state.getVpsInventoryData();
+        List<String> vpsIds = inventory != null ? (List<String>) inventory.get("vpsIds") : null;
+        out.writeBoolean(vpsIds != null);
+        if (vpsIds == null) {
+            return;
+        }
+        Map<String, Map<String, Object>> vpsDetails = (Map<String, Map<String, Object>>) inventory.get("vpsDetails");
+        VarInts.writeVarInt(out, vpsIds.size());
+        for (String vpsId : vpsIds) {
+            strings.write(out, vpsId);
+            Map<String, Object> details = vpsDetails != null ? vpsDetails.get(vpsId) : null;
+            BinaryFields.writeValueMap(out, details != null ? details : Map.of(), strings);
+        }
+    }
+
+    private static void readInventory(GameState state, DataInput in, StringTable strings) throws IOException {
+        Map<String, Object> inventory = new HashMap<>();
+        state.setVpsInventoryData(inventory);
+        if (!in.readBoolean()) {
+            return;
+        }
+        int count = VarInts.readVarInt(in);
+        List<String> vpsIds = new ArrayList<>(count);
+        Map<String, Map<String, Object>> vpsDetails = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String vpsId = strings.read(in);
+            Map<String, Object> details = new HashMap<>();
+            BinaryFields.readValueMap(in, details, strings);
+            vpsIds.add(vpsId);
+            if (!details.isEmpty()) {
+                vpsDetails.put(vpsId, details);
+            }
+        }
+        inventory.put("vpsIds", vpsIds);
+        inventory.put("vpsDetails", vpsDetails);
+    }
+
+
+    private static void writeChat(GameState state, DataOutput out, StringTable strings) throws IOException {
+        Map<CustomerRequest, List<ChatMessage>> chat = state.getChatHistory();
+        VarInts.writeVarInt(out, chat != null ? chat.size() : 0);
+        if (chat == null) {
+            return;
+        }
+        for (Map.Entry<CustomerRequest, List<ChatMessage>> entry : chat.entrySet()) {
+            writeRequest(entry.getKey(), out, strings);
+            List<ChatMessage> messages = entry.getValue() != null ? entry.getValue() : List.of();
+            VarInts.writeVarInt(out, messages.size());
+            long previous = 0;
+            for (ChatMessage message : messages) {
+                VarInts.writeOrdinal(out, message.getType());
+                strings.write(out, message.getContent());
+                VarInts.writeSignedVarLong(out, message.getTimestamp() - previous);
+                previous = message.getTimestamp();
+                BinaryFields.writeValueMap(out, message.getMetadata(), strings);
+            }
+        }
+    }
+
+    private static void readChat(GameState state, DataInput in, StringTable strings) throws IOException {
+        Map<Integer, CustomerRequest> known = requestsById(state.getPendingRequests(), state.getCompletedRequests());
+        int count = VarInts.readVarInt(in);
+        Map<CustomerRequest, List<ChatMessage>> chat = new ChatHistory();
+        for (int i = 0; i < count; i++) {
+            CustomerRequest stored = readRequest(in, strings);
+            CustomerRequest request = known.getOrDefault(stored.getId(), stored);
+            int messageCount = VarInts.readVarInt(in);
+            List<ChatMessage> messages = new ArrayList<>(messageCount);
+            long timestamp = 0;
+            for (int m = 0; m < messageCount; m++) {
+                MessageType type = VarInts.readOrdinal(in, MessageType.values());
+                String content = strings.read(in);
+                timestamp += VarInts.readSignedVarLong(in);
+                Map<String, Object> metadata = new HashMap<>();
+                BinaryFields.readValueMap(in, metadata, strings);
+                messages.add(new ChatMessage(type, content, timestamp, metadata));
+            }
+            chat.put(request, messages);
+        }
+        state.setChatHistory(chat);
+    }
+
+
+    private static void writeStringList(List<String> values, DataOutput out, StringTable strings)
+            throws IOException {
+        VarInts.writeVarInt(out, values != null ? values.size() : 0);
+        if (values != null) {
+            for (String value : values) {
+                strings.write(out, value);
+            }
+        }
+    }
+
+    private static List<String> readStringList(DataInput in, StringTable strings) throws IOException {
+        int count = VarInts.readVarInt(in);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(strings.read(in));
+        }
+        return values;
+    }
+
+    private static void writeIntList(List<Integer> values, DataOutput out) throws IOException {
+        VarInts.writeVarInt(out, values != null ? values.size() : 0);
+        if (values != null) {
+            for (Integer value : values) {
+                VarInts.writeVarInt(out, intValue(value));
+            }
+        }
+    }
+
+    private static List<Integer> readIntList(DataInput in) throws IOException {
+        int count = VarInts.readVarInt(in);
+        List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(VarInts.readVarInt(in));
+        }
+        return values;
+    }
+
+    private static int intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.company.SkillPointsSystem;
+import com.vpstycoon.game.customer.enums.CustomerType;
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RackProduct;
+import com.vpstycoon.game.vps.enums.RequestType;
+import com.vpstycoon.game.vps.enums.VPSProduct;
+
+
+public class JournalCommand {
+
+    public enum Type {
+        SESSION_START,
+        REQUEST_ARRIVED,
+        ACCEPT_REQUEST,
+        COMPLETE_REQUEST,
+        BUY_SERVER,
+        INSTALL_SERVER,
+        UNINSTALL_SERVER,
+        BUY_RACK,
+        UPGRADE_RACK,
+        UPGRADE_SKILL
+    }
+
+    private final Type type;
+    private final long gameTimeMs;
+
+    long requestId;
+    String serverId;
+    String name;
+    int vcpus;
+    int ramGB;
+    int diskGB;
+    int index = -1;
+    long amount;
+    double value;
+    int duration;
+    CustomerType customerType;
+    RequestType requestType;
+    CustomerRequest.RentalPeriodType rentalPeriodType;
+    VPSProduct product;
+    RackProduct rackProduct;
+    SkillPointsSystem.SkillType skillType;
+
+    JournalCommand(Type type, long gameTimeMs) {
+        this.type = type;
+        this.gameTimeMs = gameTimeMs;
+    }
+
+
+    public static JournalCommand sessionStart(long gameTimeMs, long money, double rating, int skillPoints) {
+        JournalCommand command = new JournalCommand(Type.SESSION_START, gameTimeMs);
+        command.amount = money;
+        command.value = rating;
+        command.index = skillPoints;
+        return command;
+    }
+
+    public static JournalCommand requestArrived(long gameTimeMs, CustomerRequest request) {
+        JournalCommand command = new JournalCommand(Type.REQUEST_ARRIVED, gameTimeMs);
+        command.requestId = request.getId();
+        command.name = request.getName();
+        command.customerType = request.getCustomerType();
+        command.requestType = request.getRequestType();
+        command.value = request.getBudget();
+        command.duration = request.getDuration();
+        command.vcpus = request.getRequiredVCPUs();
+        command.ramGB = request.getRequiredRamGB();
+        command.diskGB = request.getRequiredDiskGB();
+        command.rentalPeriodType = request.getRentalPeriodType();
+        return command;
+    }
+
+    public static JournalCommand acceptRequest(long gameTimeMs, CustomerRequest request, VPSOptimization vps,
+                                               int vcpus, int ramGB, int diskGB) {
+        JournalCommand command = new JournalCommand(Type.ACCEPT_REQUEST, gameTimeMs);
+        command.requestId = request.getId();
+        command.serverId = vps != null ? vps.getVpsId() : "";
+        command.vcpus = vcpus;
+        command.ramGB = ramGB;
+        command.diskGB = diskGB;
+        return command;
+    }
+
+    public static JournalCommand completeRequest(long gameTimeMs, CustomerRequest request) {
+        JournalCommand command = new JournalCommand(Type.COMPLETE_REQUEST, gameTimeMs);
+        command.requestId = request.getId();
+        return command;
+    }
+
+    public static JournalCommand buyServer(long gameTimeMs, VPSOptimization vps, long price) {
+        JournalCommand command = new JournalCommand(Type.BUY_SERVER, gameTimeMs);
+        command.serverId = vps.getVpsId();
+        command.product = vps.getProduct();
+        command.vcpus = vps.getVCPUs();
+        command.ramGB = vps.getRamInGB();
+        command.diskGB = vps.getDiskInGB();
+        command.amount = price;
+        return command;
+    }
+
+    public static JournalCommand installServer(long gameTimeMs, VPSOptimization vps, int rackIndex) {
+        JournalCommand command = new JournalCommand(Type.INSTALL_SERVER, gameTimeMs);
+        command.serverId = vps.getVpsId();
+        command.index = rackIndex;
+        return command;
+    }
+
+    public static JournalCommand uninstallServer(long gameTimeMs, VPSOptimization vps) {
+        JournalCommand command = new JournalCommand(Type.UNINSTALL_SERVER, gameTimeMs);
+        command.serverId = vps.getVpsId();
+        return command;
+    }
+
+    public static JournalCommand buyRack(long gameTimeMs, RackProduct product) {
+        JournalCommand command = new JournalCommand(Type.BUY_RACK, gameTimeMs);
+        command.rackProduct = product;
+        return command;
+    }
+
+    public static JournalCommand upgradeRack(long gameTimeMs, int rackIndex) {
+        JournalCommand command = new JournalCommand(Type.UPGRADE_RACK, gameTimeMs);
+        command.index = rackIndex;
+        return command;
+    }
+
+    public static JournalCommand upgradeSkill(long gameTimeMs, SkillPointsSystem.SkillType skillType) {
+        JournalCommand command = new JournalCommand(Type.UPGRADE_SKILL, gameTimeMs);
+        command.skillType = skillType;
+        return command;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getGameTimeMs() {
+        return gameTimeMs;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public String getServerId() {
+        return serverId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getVcpus() {
+        return vcpus;
+    }
+
+    public int getRamGB() {
+        return ramGB;
+    }
+
+    public int getDiskGB() {
+        return diskGB;
+    }
+
+    public int getRackIndex() {
+        return index;
+    }
+
+    public long getMoney() {
+        return amount;
+    }
+
+    public long getPrice() {
+        return amount;
+    }
+
+    public double getRating() {
+        return value;
+    }
+
+    public double getBudget() {
+        return value;
+    }
+
+    public int getSkillPoints() {
+        return index;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public CustomerType getCustomerType() {
+        return customerType;
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    public CustomerRequest.RentalPeriodType getRentalPeriodType() {
+        return rentalPeriodType;
+    }
+
+    public VPSProduct getProduct() {
+        return product;
+    }
+
+    public RackProduct getRackProduct() {
+        return rackProduct;
+    }
+
+    public SkillPointsSystem.SkillType getSkillType() {
+        return skillType;
+    }
+
+    @Override
+    public String toString() {
+        return type + "@" + gameTimeMs;
+    }
+}
@@ -0,0 +1,221 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameSaveManager;
+import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.resource.ResourceManager;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistoryManager;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+
+public class PersistenceBenchmark {
+    private static Boolean toolkitAvailable;
+
+    private final File folder;
+    private int runs = 3;
+    private long seed = 42L;
+
+    public PersistenceBenchmark(File folder) {
+        this.folder = folder;
+    }
+
+
+    public PersistenceBenchmarkResult run(SaveCorpus.Scale scale) throws IOException {
+        List<PersistenceBenchmarkResult.Measurement> measurements = new ArrayList<>();
+
+        long start = System.nanoTime();
+        GameState corpus = SaveCorpus.generate(scale, seed);
+        long corpusNanos = System.nanoTime() - start;
+
+        File codecFile = new File(folder, "codec-" + scale.name().toLowerCase() + SaveSlots.EXTENSION);
+        SaveStore codecStore = SaveStore.forFile(codecFile);
+        GameState snapshot = corpus;
+        measurements.add(measure("SaveStore", "snapshot", codecFile, () -> codecStore.writeSnapshot(snapshot)));
+        measurements.add(measure("SaveStore", "chat", codecFile,
+                () -> codecStore.write(snapshot, EnumSet.of(SaveSection.CHAT))));
+        measurements.add(measure("SaveStore", "load", codecFile, codecStore::load));
+        measurements.add(measure("SaveStore", "load-all", codecFile, () -> resolve(codecStore.load())));
+        codecStore.close();
+
+        boolean managersMeasured = startToolkit() && usesBenchmarkFolder();
+        long backupBytes = 0;
+        if (managersMeasured) {
+            PersistenceService service = PersistenceService.getInstance();
+            File saveFile = service.getSaveFile();
+            SaveStore.forFile(saveFile).writeSnapshot(corpus);
+            corpus = null;
+            measureManagers(measurements, saveFile);
+            backupBytes = BackupStore.forDirectory(service.getBackupDirectory()).getStoredBytes();
+        }
+        return new PersistenceBenchmarkResult(scale, corpusNanos, measurements, backupBytes, managersMeasured);
+    }
+
+    private void measureManagers(List<PersistenceBenchmarkResult.Measurement> measurements, File saveFile)
+            throws IOException {
+        ResourceManager resourceManager = ResourceManager.getInstance();
+        GameSaveManager saveManager = new GameSaveManager();
+
+        measurements.add(measure("GameSaveManager.loadGame", "load", saveFile,
+                () -> resolve(saveManager.loadGame())));
+        measurements.add(measure("ResourceManager.loadGameState", "load", saveFile, () -> {
+            ChatHistoryManager.resetInstance();
+            resolve(resourceManager.loadGameState());
+            ChatHistoryManager.getInstance().getChatHistory(null);
+        }));
+
+        GameState state = resourceManager.getCurrentState();
+        measurements.add(measure("ResourceManager.saveGameState", "save", saveFile,
+                () -> resourceManager.saveGameState(state)));
+        measurements.add(measure("ChatHistoryManager.saveChatHistory", "save", saveFile, () -> {
+            ChatHistoryManager.getInstance().saveChatHistory();
+            SaveWriter.getInstance().flush();
+        }));
+        measurements.add(measure("GameSaveManager.saveGame", "save", saveFile, () -> saveManager.saveGame(state)));
+    }
+
+
+    private PersistenceBenchmarkResult.Measurement measure(String path, String operation, File file, Action action)
+            throws IOException {
+        long[] times = new long[runs];
+        long peak = 0;
+        for (int i = 0; i < runs; i++) {
+            System.gc();
+            resetPeakHeap();
+            long start = System.nanoTime();
+            action.run();
+            times[i] = System.nanoTime() - start;
+            peak = Math.max(peak, getPeakHeap());
+        }
+        Arrays.sort(times);
+        System.err.println("[benchmark] " + path + " " + operation + ": " + times[runs / 2] / 1_000_000 + " ms");
+        return new PersistenceBenchmarkResult.Measurement(path, operation, times[runs / 2], peak, file.length());
+    }
+
+    private static void resolve(GameState state) {
+        if (state != null) {
+            state.getChatHistory();
+            state.getCompletedRequests();
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private boolean usesBenchmarkFolder() {
+        File serviceFolder = PersistenceService.getInstance().getGameFolder();
+        if (!serviceFolder.getAbsoluteFile().equals(folder.getAbsoluteFile())) {
+            System.err.println("ข้าม benchmark ของ manager: โฟลเดอร์เกมไม่ใช่โฟลเดอร์ทดสอบ " + serviceFolder);
+            return false;
+        }
+        return true;
+    }
+
+    private static synchronized boolean startToolkit() {
+        if (toolkitAvailable == null) {
+            try {
+                Platform.startup(() -> {
+                });
+                toolkitAvailable = true;
+            } catch (IllegalStateException e) {
+                toolkitAvailable = true;
+            } catch (RuntimeException e) {
+                System.err.println("ไม่สามารถเริ่ม JavaFX toolkit: " + e.getMessage());
+                toolkitAvailable = false;
+            }
+        }
+        return toolkitAvailable;
+    }
+
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("runs must be positive");
+        }
+        this.runs = runs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public File getFolder() {
+        return folder;
+    }
+
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+
+    public static void main(String[] args) throws IOException {
+        String folderName = System.getProperty(PersistenceService.GAME_FOLDER_PROPERTY);
+        if (folderName == null) {
+            folderName = Files.createTempDirectory("vpstycoon-benchmark").toString();
+            System.setProperty(PersistenceService.GAME_FOLDER_PROPERTY, folderName);
+        }
+        File folder = new File(folderName);
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Cannot create benchmark folder " + folder);
+        }
+
+        List<SaveCorpus.Scale> scales = new ArrayList<>();
+        if (args.length > 0 && !args[0].equalsIgnoreCase("all")) {
+            for (String name : args[0].split(",")) {
+                scales.add(SaveCorpus.Scale.valueOf(name.trim().toUpperCase()));
+            }
+        } else {
+            scales.addAll(EnumSet.allOf(SaveCorpus.Scale.class));
+        }
+        PersistenceBenchmark benchmark = new PersistenceBenchmark(folder);
+        if (args.length > 1) {
+            benchmark.setRuns(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            benchmark.setSeed(Long.parseLong(args[2]));
+        }
+
+        List<PersistenceBenchmarkResult> results = new ArrayList<>();
+        for (SaveCorpus.Scale scale : scales) {
+            results.add(benchmark.run(scale));
+        }
+        System.out.println("Benchmark folder: " + folder.getAbsolutePath());
+        for (PersistenceBenchmarkResult result : results) {
+            System.out.println(result);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,124 @@
+package com.vpstycoon.game.persistence;
+
+import java.util.Collections;
+import java.util.List;
+
+
+public class PersistenceBenchmarkResult {
+    private final SaveCorpus.Scale scale;
+    private final long corpusNanos;
+    private final List<Measurement> measurements;
+    private final long backupBytes;
+    private final boolean managersMeasured;
+
+    public PersistenceBenchmarkResult(SaveCorpus.Scale scale, long corpusNanos, List<Measurement> measurements,
+                                      long backupBytes, boolean managersMeasured) {
+        this.scale = scale;
+        this.corpusNanos = corpusNanos;
+        this.measurements = Collections.unmodifiableList(measurements);
+        this.backupBytes = backupBytes;
+        this.managersMeasured = managersMeasured;
+    }
+
+    public SaveCorpus.Scale getScale() {
+        return scale;
+    }
+
+    public long getCorpusNanos() {
+        return corpusNanos;
+    }
+
+    public List<Measurement> getMeasurements() {
+        return measurements;
+    }
+
+    public Measurement find(String path, String operation) {
+        for (Measurement measurement : measurements) {
+            if (measurement.getPath().equals(path) && measurement.getOperation().equals(operation)) {
+                return measurement;
+            }
+        }
+        return null;
+    }
+
+    public long getBackupBytes() {
+        return backupBytes;
+    }
+
+    public boolean isManagersMeasured() {
+        return managersMeasured;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Persistence benchmark: %s, corpus built in %.1fs%n", scale, corpusNanos / 1e9));
+        sb.append(String.format("  %-36s %-10s %10s %12s %12s%n", "path", "operation", "time", "peak heap", "file"));
+        for (Measurement measurement : measurements) {
+            sb.append("  ").append(measurement).append(System.lineSeparator());
+        }
+        if (managersMeasured) {
+            sb.append("  backup store ").append(formatBytes(backupBytes));
+        } else {
+            sb.append("  manager paths skipped (JavaFX toolkit unavailable)");
+        }
+        return sb.toString();
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+
+    public static class Measurement {
+        private final String path;
+        private final String operation;
+        private final long nanos;
+        private final long peakHeapBytes;
+        private final long fileBytes;
+
+        public Measurement(String path, String operation, long nanos, long peakHeapBytes, long fileBytes) {
+            this.path = path;
+            this.operation = operation;
+            this.nanos = nanos;
+            this.peakHeapBytes = peakHeapBytes;
+            this.fileBytes = fileBytes;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getMillis() {
+            return nanos / 1e6;
+        }
+
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        public long getFileBytes() {
+            return fileBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-36s %-10s %8.1fms %12s %12s", path, operation, getMillis(),
+                    formatBytes(peakHeapBytes), formatBytes(fileBytes));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.resource.ResourceManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+
+public class PersistenceService {
+    public static final String GAME_FOLDER_PROPERTY = "vpstycoon.gameFolder";
+    public static final String GAME_FOLDER = System.getProperty(GAME_FOLDER_PROPERTY,
+            System.getProperty("user.home") + File.separator + "Documents" + File.separator + "VpsTycoon");
+
+    private static final PersistenceService INSTANCE = new PersistenceService(new File(GAME_FOLDER));
+
+    private final Object transactionLock = new Object();
+    private final Object captureLock = new Object();
+    private final File gameFolder;
+    private volatile int slot;
+    private volatile File saveFile;
+    private volatile File legacyChatFile;
+    private volatile File journalFile;
+    private volatile File backupDirectory;
+    private long commitCount = 0;
+    private GameState captured;
+
+    public PersistenceService(File gameFolder) {
+        this.gameFolder = gameFolder;
+        useSlot(SaveSlots.DEFAULT_SLOT);
+    }
+
+    public static PersistenceService getInstance() {
+        return INSTANCE;
+    }
+
+
+    public GameState commit(GameState state, Set<SaveSection> sections) throws IOException {
+        return commit(state, sections, false);
+    }
+
+
+    public GameState commitSnapshot(GameState state) throws IOException {
+        return commit(state, EnumSet.allOf(SaveSection.class), true);
+    }
+
+
+    public void capture(Set<SaveSection> sections) {
+        capture(ResourceManager.getInstance().getCurrentState(), sections);
+    }
+
+    private GameState capture(GameState state, Set<SaveSection> sections) {
+        ResourceManager resourceManager = ResourceManager.getInstance();
+        synchronized (captureLock) {
+            resourceManager.captureGameState(state, sections);
+            captured = state.snapshot();
+            return captured;
+        }
+    }
+
+    void discardCaptured() {
+        synchronized (captureLock) {
+            captured = null;
+        }
+    }
+
+    void commitCaptured(Set<SaveSection> sections) throws IOException {
+        write(sections, false);
+    }
+
+    private GameState commit(GameState state, Set<SaveSection> sections, boolean snapshot) throws IOException {
+        ResourceManager resourceManager = ResourceManager.getInstance();
+        GameState target = state != null ? state : resourceManager.getCurrentState();
+        capture(target, sections);
+        write(sections, snapshot);
+
+        resourceManager.onStateCommitted(target);
+        if (sections.contains(SaveSection.CHAT) && resourceManager.isChatCaptured()
+                && legacyChatFile != null && legacyChatFile.exists() && !legacyChatFile.delete()) {
+            System.err.println("ไม่สามารถลบไฟล์แชทเดิม: " + legacyChatFile.getAbsolutePath());
+        }
+        return target;
+    }
+
+    private void write(Set<SaveSection> sections, boolean snapshot) throws IOException {
+        synchronized (transactionLock) {
+            GameState copy;
+            synchronized (captureLock) {
+                copy = captured;
+            }
+            if (copy == null) {
+                copy = capture(ResourceManager.getInstance().getCurrentState(), sections);
+            }
+            SaveStore store = SaveStore.forFile(saveFile);
+            if (snapshot) {
+                backup(store);
+                store.writeSnapshot(copy);
+            } else {
+                store.write(copy, sections);
+            }
+            commitCount++;
+        }
+    }
+
+
+    public void selectSlot(int slot) {
+        if (slot < SaveSlots.DEFAULT_SLOT) {
+            throw new IllegalArgumentException("Invalid save slot " + slot);
+        }
+        SaveWriter.getInstance().flush();
+        synchronized (transactionLock) {
+            if (slot != this.slot) {
+                SaveWriter.getInstance().discardPending();
+                useSlot(slot);
+                System.out.println("เปลี่ยนช่องบันทึกเป็น " + slot + ": " + saveFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private void useSlot(int slot) {
+        this.slot = slot;
+        this.saveFile = SaveSlots.slotFile(gameFolder, slot);
+        if (slot == SaveSlots.DEFAULT_SLOT) {
+            this.legacyChatFile = new File(gameFolder, "save.dat");
+            this.journalFile = new File(gameFolder, "journal.bin");
+            this.backupDirectory = new File(gameFolder, "backups");
+        } else {
+            this.legacyChatFile = null;
+            this.journalFile = new File(gameFolder, "journal_" + slot + ".bin");
+            this.backupDirectory = new File(new File(gameFolder, "backups"), "slot-" + slot);
+        }
+    }
+
+
+    public List<SaveSlotInfo> listSlots() {
+        return SaveSlots.list(gameFolder);
+    }
+
+    public SaveSlotInfo getSlotInfo(int slot) {
+        File file = SaveSlots.slotFile(gameFolder, slot);
+        return file.exists() ? SaveSlots.read(file, slot) : null;
+    }
+
+    public void setThumbnail(SaveThumbnail thumbnail) {
+        synchronized (transactionLock) {
+            SaveStore.forFile(saveFile).setThumbnail(thumbnail);
+        }
+    }
+
+
+    public void delete() {
+        synchronized (transactionLock) {
+            SaveStore.forFile(saveFile).delete();
+            CommandJournal journal = CommandJournal.getActive();
+            if (journal != null && journal.getFile().getAbsoluteFile().equals(journalFile.getAbsoluteFile())) {
+                CommandJournal.setActive(null);
+            }
+            deleteFile(journalFile);
+            if (legacyChatFile != null) {
+                deleteFile(legacyChatFile);
+            }
+        }
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            System.err.println("ไม่สามารถลบไฟล์: " + file.getAbsolutePath());
+        }
+    }
+
+    private void backup(SaveStore store) {
+        if (!saveFile.exists() || saveFile.length() == 0) {
+            return;
+        }
+        try {
+            List<File> files = new ArrayList<>();
+            files.add(saveFile);
+            if (legacyChatFile != null && legacyChatFile.exists()) {
+                files.add(legacyChatFile);
+            }
+            BackupStore backupStore = BackupStore.forDirectory(backupDirectory);
+            ChatLog chatLog = ChatLog.forSave(saveFile);
+            ChatArchive chatArchive = ChatArchive.forSave(saveFile);
+            BackupStore.Backup backup;
+            synchronized (store) {
+                synchronized (chatLog.getCompactionLock()) {
+                    synchronized (chatArchive) {
+                        files.addAll(chatLog.getSegmentFiles());
+                        if (chatArchive.getFile().exists()) {
+                            files.add(chatArchive.getFile());
+                        }
+                        backup = backupStore.backup(files);
+                    }
+                }
+            }
+            int pruned = backupStore.prune();
+            System.out.println("สำรองข้อมูลสำเร็จ: " + backup.getTimestamp() + " (chunk ใหม่ "
+                    + backupStore.getLastNewChunks() + ", " + backupStore.getLastNewBytes() + " bytes, ลบ "
+                    + pruned + " ชุดเก่า)");
+        } catch (IOException e) {
+            System.err.println("สำรองข้อมูลล้มเหลว: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public Object getTransactionLock() {
+        return transactionLock;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public File getSaveFile() {
+        return saveFile;
+    }
+
+    public File getLegacyChatFile() {
+        return legacyChatFile;
+    }
+
+    public File getJournalFile() {
+        return journalFile;
+    }
+
+    public File getBackupDirectory() {
+        return backupDirectory;
+    }
+
+    public File getGameFolder() {
+        return gameFolder;
+    }
+
+    public long getCommitCount() {
+        synchronized (transactionLock) {
+            return commitCount;
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.company.Company;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+
+public class SaveContainer {
+    public static final int MAGIC = 0x56505443;
+    public static final int VERSION = 2;
+    public static final Set<SaveSection> LAZY_SECTIONS = EnumSet.of(SaveSection.COMPLETED, SaveSection.CHAT);
+
+    private static final int LEGACY_VERSION = 1;
+    private static final int LEGACY_SLOT_BYTES = 64;
+    private static final int LEGACY_HEADER_BYTES = LEGACY_SLOT_BYTES * 2;
+    private static final int SLOT_BASE_BYTES = 32;
+    private static final int SLOT_BYTES = 4096;
+    private static final int SLOT_RECORD_BYTES = SLOT_BASE_BYTES + SaveSlotInfo.BYTES + 4;
+    private static final int HEADER_BYTES = SLOT_BYTES * 2;
+    private static final int ENTRY_BYTES = 24;
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    private final File file;
+    private final EnumMap<SaveSection, Entry> entries = new EnumMap<>(SaveSection.class);
+    private final EnumSet<SaveSection> damaged = EnumSet.noneOf(SaveSection.class);
+    private boolean open = false;
+    private long generation = 0;
+    private long tableOffset = 0;
+    private int tableLength = 0;
+    private long fileLength = 0;
+    private long epoch = 0;
+    private int layoutVersion = VERSION;
+    private SaveThumbnail thumbnail;
+    private SaveSlotInfo slotInfo;
+
+    public SaveContainer(File file) {
+        this.file = file;
+    }
+
+
+    public static boolean isContainer(File file) throws IOException {
+        if (file.length() < LEGACY_HEADER_BYTES) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        }
+    }
+
+
+    public synchronized void writeFull(GameState state) throws IOException {
+        EnumMap<SaveSection, byte[]> payloads = new EnumMap<>(SaveSection.class);
+        EnumMap<SaveSection, Integer> formats = new EnumMap<>(SaveSection.class);
+        for (SaveSection section : SaveSection.values()) {
+            byte[] raw = isDeferredHere(state, section) ? readRaw(entries.get(section)) : null;
+            if (raw != null && checksum(raw) == entries.get(section).crc) {
+                payloads.put(section, raw);
+                formats.put(section, entries.get(section).format);
+            } else {
+                payloads.put(section, encodeSection(state, section));
+                formats.put(section, formatOf(section));
+            }
+        }
+
+        EnumMap<SaveSection, Entry> layout = new EnumMap<>(SaveSection.class);
+        long offset = HEADER_BYTES;
+        for (Map.Entry<SaveSection, byte[]> payload : payloads.entrySet()) {
+            layout.put(payload.getKey(), new Entry(payload.getKey(), formats.get(payload.getKey()), offset,
+                    payload.getValue().length, checksum(payload.getValue())));
+            offset += payload.getValue().length;
+        }
+        byte[] table = encodeTable(layout);
+        SaveSlotInfo info = SaveSlotInfo.capture(state, thumbnail);
+        ByteBuffer slot = encodeSlot(1, offset, table, info);
+
+        AtomicFiles.write(file, out -> {
+            out.write(slot.array());
+            out.write(new byte[HEADER_BYTES - SLOT_RECORD_BYTES]);
+            for (byte[] payload : payloads.values()) {
+                out.write(payload);
+            }
+            out.write(table);
+        });
+
+        epoch++;
+        entries.clear();
+        entries.putAll(layout);
+        damaged.clear();
+        generation = 1;
+        tableOffset = offset;
+        tableLength = table.length;
+        fileLength = offset + table.length;
+        layoutVersion = VERSION;
+        slotInfo = info;
+        open = true;
+        if (formats.get(SaveSection.CHAT) == ChatLog.FORMAT) {
+            chatLog().committed();
+            ChatIndex.forSave(file).committed();
+        }
+    }
+
+
+    public synchronized void writeSections(GameState state, Set<SaveSection> sections) throws IOException {
+        if (!open) {
+            throw new IOException("Save container is not open: " + file.getAbsolutePath());
+        }
+        if (layoutVersion != VERSION) {
+            throw new IOException("Save container layout " + layoutVersion + " needs a full rewrite");
+        }
+        EnumSet<SaveSection> dirty = EnumSet.copyOf(damaged);
+        dirty.addAll(sections);
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        EnumMap<SaveSection, Entry> layout = new EnumMap<>(entries);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            long offset = fileLength;
+            for (SaveSection section : dirty) {
+                if (isDeferredHere(state, section)) {
+                    continue;
+                }
+                byte[] payload = encodeSection(state, section);
+                writeFully(channel, ByteBuffer.wrap(payload), offset);
+                layout.put(section, new Entry(section, formatOf(section), offset,
+                        payload.length, checksum(payload)));
+                offset += payload.length;
+            }
+            byte[] table = encodeTable(layout);
+            writeFully(channel, ByteBuffer.wrap(table), offset);
+            channel.force(false);
+
+            long nextGeneration = generation + 1;
+            SaveSlotInfo info = SaveSlotInfo.capture(state, thumbnail);
+            writeFully(channel, encodeSlot(nextGeneration, offset, table, info), slotOffset(nextGeneration));
+            channel.force(false);
+
+            entries.clear();
+            entries.putAll(layout);
+            damaged.clear();
+            generation = nextGeneration;
+            tableOffset = offset;
+            tableLength = table.length;
+            fileLength = offset + table.length;
+            slotInfo = info;
+        }
+        if (dirty.contains(SaveSection.CHAT) && !isDeferredHere(state, SaveSection.CHAT)) {
+            chatLog().committed();
+            ChatIndex.forSave(file).committed();
+        }
+    }
+
+
+    public synchronized GameState read() throws IOException {
+        open = false;
+        entries.clear();
+        damaged.clear();
+        GameState state = new GameState((Company) null);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            readHeader(channel);
+            fileLength = tableOffset + tableLength;
+            if (channel.size() > fileLength) {
+                System.out.println("ตัดข้อมูลบันทึกที่เขียนไม่สมบูรณ์ท้ายไฟล์: "
+                        + (channel.size() - fileLength) + " bytes");
+                channel.truncate(fileLength);
+            }
+
+            for (Entry entry : entries.values()) {
+                if (LAZY_SECTIONS.contains(entry.section)) {
+                    state.deferSection(entry.section, new DeferredSection(entry, epoch));
+                    continue;
+                }
+                ByteBuffer payload = readSection(channel, entry);
+                if (checksum(payload.duplicate()) != entry.crc) {
+                    if (entry.section == SaveSection.COMPANY || entry.section == SaveSection.TIME) {
+                        throw new IOException("Section " + entry.section + " is corrupted");
+                    }
+                    System.err.println("ส่วน " + entry.section + " ของไฟล์บันทึกเสียหาย ข้ามการโหลดส่วนนี้");
+                    damaged.add(entry.section);
+                    continue;
+                }
+                decodeSection(state, entry.section, entry.format, payload);
+            }
+        }
+        open = true;
+        return state;
+    }
+
+
+    private synchronized void loadDeferred(GameState state, DeferredSection deferred, SaveSection section)
+            throws IOException {
+        Entry entry = deferred.entry;
+        Entry current = entries.get(section);
+        if (deferred.epoch != epoch) {
+            if (current == null || current.crc != entry.crc || current.length != entry.length) {
+                throw new IOException("Section " + section + " was rewritten before it was read");
+            }
+            entry = current;
+        }
+        ByteBuffer payload;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (entry.offset + entry.length > channel.size()) {
+                throw new IOException("Section " + section + " is beyond the end of the save file");
+            }
+            payload = readSection(channel, entry);
+        }
+        if (checksum(payload.duplicate()) != entry.crc) {
+            if (entry == current) {
+                damaged.add(section);
+            }
+            throw new IOException("Section " + section + " is corrupted");
+        }
+        decodeSection(state, section, entry.format, payload);
+    }
+
+    private byte[] encodeSection(GameState state, SaveSection section) throws IOException {
+        if (section == SaveSection.CHAT) {
+            return chatLog().checkpoint(state);
+        }
+        return GameStateCodec.encodeSection(state, section);
+    }
+
+    private void decodeSection(GameState state, SaveSection section, int format, ByteBuffer payload)
+            throws IOException {
+        if (section == SaveSection.CHAT && format == ChatLog.FORMAT) {
+            chatLog().load(state, payload);
+            return;
+        }
+        GameStateCodec.decodeSection(state, section, format, payload);
+    }
+
+    private static int formatOf(SaveSection section) {
+        return section == SaveSection.CHAT ? ChatLog.FORMAT : GameStateCodec.SECTION_FORMAT;
+    }
+
+    private ChatLog chatLog() {
+        return ChatLog.forSave(file);
+    }
+
+    private boolean isDeferredHere(GameState state, SaveSection section) {
+        Entry current = entries.get(section);
+        return open && current != null
+                && state.getDeferredLoader(section) instanceof DeferredSection deferred
+                && deferred.owner() == this
+                && deferred.entry.crc == current.crc && deferred.entry.length == current.length;
+    }
+
+    private static ByteBuffer readSection(FileChannel channel, Entry entry) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(entry.length);
+        readFully(channel, payload, entry.offset);
+        payload.flip();
+        return payload;
+    }
+
+    private byte[] readRaw(Entry entry) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(entry.length);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            readFully(channel, payload, entry.offset);
+        }
+        return payload.array();
+    }
+
+    private void readHeader(FileChannel channel) throws IOException {
+        for (ByteBuffer record : readSlots(channel)) {
+            long offset = record.getLong(16);
+            int length = record.getInt(24);
+            ByteBuffer table = ByteBuffer.allocate(length);
+            readFully(channel, table, offset);
+            table.flip();
+            if (checksum(table.duplicate()) != (record.getInt(28) & 0xFFFFFFFFL)) {
+                System.err.println("ตารางตำแหน่งของ generation " + record.getLong(8) + " เสียหาย ลองใช้ฉบับก่อนหน้า");
+                continue;
+            }
+            decodeTable(table);
+            generation = record.getLong(8);
+            tableOffset = offset;
+            tableLength = length;
+            layoutVersion = record.getInt(4);
+            slotInfo = layoutVersion >= VERSION ? SaveSlotInfo.read(record.position(SLOT_BASE_BYTES)) : null;
+            if (slotInfo != null && thumbnail == null) {
+                thumbnail = slotInfo.getThumbnail();
+            }
+            return;
+        }
+        throw new IOException("No valid save header in " + file.getAbsolutePath());
+    }
+
+
+    public static SaveSlotInfo readSlotInfo(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            for (ByteBuffer record : readSlots(channel)) {
+                if (record.getInt(4) >= VERSION) {
+                    return SaveSlotInfo.read(record.position(SLOT_BASE_BYTES));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<ByteBuffer> readSlots(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate((int) Math.min(channel.size(), HEADER_BYTES));
+        readFully(channel, header, 0);
+        List<ByteBuffer> slots = new ArrayList<>(2);
+        for (int position : new int[]{0, LEGACY_SLOT_BYTES, SLOT_BYTES}) {
+            if (position + SLOT_BASE_BYTES + 4 > header.capacity() || header.getInt(position) != MAGIC) {
+                continue;
+            }
+            int version = header.getInt(position + 4);
+            boolean legacy = version == LEGACY_VERSION;
+            int crcOffset = legacy ? SLOT_BASE_BYTES : SLOT_RECORD_BYTES - 4;
+            if (version < LEGACY_VERSION || version > VERSION
+                    || position == (legacy ? SLOT_BYTES : LEGACY_SLOT_BYTES)
+                    || position + crcOffset + 4 > header.capacity()) {
+                continue;
+            }
+            ByteBuffer record = header.slice(position, crcOffset + 4);
+            if (record.getInt(crcOffset) == (int) checksum(record.slice(0, crcOffset))) {
+                slots.add(record);
+            }
+        }
+        slots.sort((a, b) -> Long.compare(b.getLong(8), a.getLong(8)));
+        return slots;
+    }
+
+    public synchronized void close() {
+        open = false;
+        epoch++;
+        entries.clear();
+        damaged.clear();
+        fileLength = 0;
+    }
+
+
+    public synchronized boolean needsCompaction() {
+        return open && getGarbageBytes() > Math.max(MIN_COMPACT_BYTES, getLiveBytes());
+    }
+
+    public synchronized long getLiveBytes() {
+        long live = (layoutVersion == LEGACY_VERSION ? LEGACY_HEADER_BYTES : HEADER_BYTES) + tableLength;
+        for (Entry entry : entries.values()) {
+            live += entry.length;
+        }
+        return live;
+    }
+
+    public synchronized long getGarbageBytes() {
+        return Math.max(0, fileLength - getLiveBytes());
+    }
+
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    public synchronized int getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    public synchronized SaveSlotInfo getSlotInfo() {
+        return slotInfo;
+    }
+
+    public synchronized void setThumbnail(SaveThumbnail thumbnail) {
+        this.thumbnail = thumbnail;
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+
+    private byte[] encodeTable(EnumMap<SaveSection, Entry> layout) {
+        ByteBuffer table = ByteBuffer.allocate(8 + layout.size() * ENTRY_BYTES);
+        table.putInt(GameStateCodec.SCHEMA_VERSION);
+        table.putInt(layout.size());
+        for (Entry entry : layout.values()) {
+            table.putInt(entry.section.getId());
+            table.putInt(entry.format);
+            table.putLong(entry.offset);
+            table.putInt(entry.length);
+            table.putInt((int) entry.crc);
+        }
+        return table.array();
+    }
+
+    private void decodeTable(ByteBuffer table) throws IOException {
+        int schema = table.getInt();
+        if (schema > GameStateCodec.SCHEMA_VERSION) {
+            throw new IOException("Save schema " + schema + " is newer than supported "
+                    + GameStateCodec.SCHEMA_VERSION);
+        }
+        int count = table.getInt();
+        entries.clear();
+        for (int i = 0; i < count; i++) {
+            int id = table.getInt();
+            int format = table.getInt();
+            long offset = table.getLong();
+            int length = table.getInt();
+            long crc = table.getInt() & 0xFFFFFFFFL;
+            SaveSection section = SaveSection.fromId(id);
+            if (section == null) {
+                System.err.println("SaveContainer: ข้าม section ที่ไม่รู้จัก " + id);
+                continue;
+            }
+            entries.put(section, new Entry(section, format, offset, length, crc));
+        }
+    }
+
+    private ByteBuffer encodeSlot(long slotGeneration, long offset, byte[] table, SaveSlotInfo info) {
+        ByteBuffer slot = ByteBuffer.allocate(SLOT_RECORD_BYTES);
+        slot.putInt(MAGIC);
+        slot.putInt(VERSION);
+        slot.putLong(slotGeneration);
+        slot.putLong(offset);
+        slot.putInt(table.length);
+        slot.putInt((int) checksum(table));
+        info.write(slot);
+        slot.putInt((int) checksum(slot.slice(0, SLOT_RECORD_BYTES - 4)));
+        slot.flip();
+        return slot;
+    }
+
+    private static long slotOffset(long slotGeneration) {
+        return (slotGeneration % 2 == 1) ? 0 : SLOT_BYTES;
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static long checksum(ByteBuffer bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of save file at " + position);
+            }
+            position += read;
+        }
+    }
+
+
+    private final class DeferredSection implements SectionLoader {
+        private final Entry entry;
+        private final long epoch;
+
+        private DeferredSection(Entry entry, long epoch) {
+            this.entry = entry;
+            this.epoch = epoch;
+        }
+
+        private SaveContainer owner() {
+            return SaveContainer.this;
+        }
+
+        @Override
+        public void load(GameState state, SaveSection section) throws IOException {
+            loadDeferred(state, this, section);
+        }
+    }
+
+    public static final class Entry {
+        private final SaveSection section;
+        private final int format;
+        private final long offset;
+        private final int length;
+        private final long crc;
+
+        private Entry(SaveSection section, int format, long offset, int length, long crc) {
+            this.section = section;
+            this.format = format;
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+        }
+
+        public SaveSection getSection() {
+            return section;
+        }
+
+        public int getFormat() {
+            return format;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public long getCrc() {
+            return crc;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.company.Company;
+import com.vpstycoon.game.customer.enums.CustomerType;
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.thread.GameTimeManager;
+import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RackProduct;
+import com.vpstycoon.game.vps.enums.RequestType;
+import com.vpstycoon.game.vps.enums.VPSSize;
+import com.vpstycoon.ui.game.desktop.messenger.MessageType;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistory;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+
+public class SaveCorpus {
+    private static final LocalDateTime START_DATE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final long START_MILLIS = 1_735_689_600_000L;
+    private static final int MAX_VMS_PER_SERVER = 5;
+
+    private static final String[] FIRST_NAMES = {
+            "Somchai", "Suda", "Anan", "Kanya", "Niran", "Pim", "Arthit", "Malee", "Chai", "Ploy",
+            "John", "Emma", "Liam", "Olivia", "Noah", "Ava", "Lucas", "Mia", "Ethan", "Sophia"
+    };
+    private static final String[] LAST_NAMES = {
+            "Srisuk", "Wongsa", "Chaiyaphum", "Rattanakosin", "Thongdee", "Boonmee", "Saetang", "Kittisak",
+            "Smith", "Johnson", "Brown", "Garcia", "Miller", "Davis", "Wilson", "Moore"
+    };
+    private static final String[] COMPANY_SUFFIXES = {"Co., Ltd.", "Studio", "Labs", "Trading", "Cloud", "Group"};
+
+    private static final String[] CUSTOMER_LINES = {
+            "Hi, I need a VM for my project. Can you help?",
+            "Thanks for your response! Can you help me with my VM request?",
+            "Thank you! I'll wait for the setup to complete.",
+            "Thank you! I've received the VM details and will start using it right away.",
+            "Thank you for checking in! The VM is working great.",
+            "The server feels a bit slow today, is everything okay?",
+            "Can I upgrade the RAM later if traffic grows?"
+    };
+    private static final String[] USER_LINES = {
+            "Hello! Welcome to our hosting service.",
+            "I'll assign your VM right away. Please wait while we set it up for you.",
+            "Everything looks fine on our side, let me know if anything changes.",
+            "Sure, we can scale your VM whenever you need."
+    };
+
+    private final int racks;
+    private final int servers;
+    private final int requests;
+    private final int messages;
+    private final SplittableRandom random;
+
+    private SaveCorpus(int racks, int servers, int requests, int messages, long seed) {
+        if (racks <= 0 || servers < 0 || requests < 0 || messages < 0) {
+            throw new IllegalArgumentException("Corpus sizes must not be negative and need at least one rack");
+        }
+        this.racks = racks;
+        this.servers = servers;
+        this.requests = requests;
+        this.messages = messages;
+        this.random = new SplittableRandom(seed);
+    }
+
+
+    public static GameState generate(Scale scale, long seed) {
+        return generate(scale.getRacks(), scale.getServers(), scale.getRequests(), scale.getMessages(), seed);
+    }
+
+    public static GameState generate(int racks, int servers, int requests, int messages, long seed) {
+        return new SaveCorpus(racks, servers, requests, messages, seed).build();
+    }
+
+
+    private GameState build() {
+        Company company = new Company("Veteran Hosting", 4.5, 120, 3, 0,
+                25_000_000L, 180_000_000L, 155_000_000L, 87, requests, requests / 20);
+        GameState state = new GameState(company);
+        state.setLocalDateTime(START_DATE.plusDays(Math.max(1, requests / 10)));
+        state.setGameTimeMs(Math.max(1, requests / 10) * GameTimeManager.GAME_DAY_MS);
+
+        List<VPSOptimization> fleet = createServers(state);
+        List<VPSOptimization.VM> runningVms = installServers(state, fleet);
+        List<CustomerRequest> all = createRequests(state, runningVms);
+        createChat(state, all);
+
+        state.setFreeVmCount(Math.max(0, runningVms.size() - state.getPendingRequests().size()));
+        company.setAvailableVMs(state.getFreeVmCount());
+        return state;
+    }
+
+    private List<VPSOptimization> createServers(GameState state) {
+        List<VPSOptimization> fleet = new ArrayList<>(servers);
+        for (int i = 0; i < servers; i++) {
+            VPSSize size = random.nextInt(5) == 0 ? VPSSize.SIZE_2U : VPSSize.SIZE_1U;
+            int vcpus = 2 << random.nextInt(4);
+            VPSOptimization vps = new VPSOptimization(String.format("vps-%05d", i), vcpus, vcpus * 2, size);
+            vps.setMaxVMs(MAX_VMS_PER_SERVER);
+            int vmCount = 1 + random.nextInt(MAX_VMS_PER_SERVER);
+            for (int j = 0; j < vmCount; j++) {
+                vps.addVM(new VPSOptimization.VM(vps.getVpsId() + "-vm-" + j, "VM-" + i + "-" + j,
+                        Math.max(1, vcpus / vmCount), Math.max(1, vcpus * 2 / vmCount), 20,
+                        "Running", "10." + (i >> 8 & 0xFF) + "." + (i & 0xFF) + "." + (j + 10),
+                        null, null, 0));
+            }
+            fleet.add(vps);
+            state.addGameObject(vps);
+        }
+        return fleet;
+    }
+
+    private List<VPSOptimization.VM> installServers(GameState state, List<VPSOptimization> fleet) {
+        RackProduct product = RackProduct.LARGE_RACK;
+        List<Map<String, Object>> allRacksData = new ArrayList<>();
+        List<Integer> slotCounts = new ArrayList<>();
+        List<Integer> unlocked = new ArrayList<>();
+        List<String> rackProducts = new ArrayList<>();
+        List<String> installedVpsIds = new ArrayList<>();
+        List<VPSOptimization.VM> runningVms = new ArrayList<>();
+
+        int next = 0;
+        for (int rackIndex = 0; rackIndex < racks; rackIndex++) {
+            int occupied = 0;
+            List<String> rackVpsIds = new ArrayList<>();
+            while (next < fleet.size() && occupied + fleet.get(next).getSlotsRequired() <= product.getSlots()) {
+                VPSOptimization vps = fleet.get(next++);
+                vps.setInstalled(true);
+                occupied += vps.getSlotsRequired();
+                rackVpsIds.add(vps.getVpsId());
+                runningVms.addAll(vps.getVms());
+            }
+            installedVpsIds.addAll(rackVpsIds);
+
+            Map<String, Object> rackData = new HashMap<>();
+            rackData.put("rackIndex", rackIndex);
+            rackData.put("maxSlotUnits", product.getSlots());
+            rackData.put("unlockedSlotUnits", product.getSlots());
+            rackData.put("occupiedSlotUnits", occupied);
+            rackData.put("availableSlotUnits", product.getSlots() - occupied);
+            rackData.put("installedVpsIds", rackVpsIds);
+            allRacksData.add(rackData);
+            slotCounts.add(product.getSlots());
+            unlocked.add(product.getSlots());
+            rackProducts.add(product.name());
+        }
+
+        Map<String, Object> rackConfig = new HashMap<>();
+        rackConfig.put("maxRacks", racks);
+        rackConfig.put("currentRackIndex", 0);
+        rackConfig.put("allRacksData", allRacksData);
+        rackConfig.put("slotCounts", slotCounts);
+        rackConfig.put("rackProducts", rackProducts);
+        rackConfig.put("unlockedSlotUnitsList", unlocked);
+        rackConfig.put("installedVpsIds", installedVpsIds);
+        state.setRackConfiguration(rackConfig);
+
+        List<String> inventoryIds = new ArrayList<>();
+        Map<String, Map<String, Object>> vpsDetails = new HashMap<>();
+        for (int i = next; i < fleet.size(); i++) {
+            VPSOptimization vps = fleet.get(i);
+            inventoryIds.add(vps.getVpsId());
+            Map<String, Object> details = new HashMap<>();
+            details.put("vCPUs", vps.getVCPUs());
+            details.put("ramInGB", vps.getRamInGB());
+            details.put("diskInGB", vps.getDiskInGB());
+            details.put("size", vps.getSize().toString());
+            details.put("name", vps.getName());
+            vpsDetails.put(vps.getVpsId(), details);
+        }
+        Map<String, Object> inventoryData = new HashMap<>();
+        inventoryData.put("vpsIds", inventoryIds);
+        inventoryData.put("vpsDetails", vpsDetails);
+        state.setVpsInventoryData(inventoryData);
+        return runningVms;
+    }
+
+    private List<CustomerRequest> createRequests(GameState state, List<VPSOptimization.VM> runningVms) {
+        CustomerType[] customerTypes = CustomerType.values();
+        RequestType[] requestTypes = RequestType.values();
+        CustomerRequest.RentalPeriodType[] periods = CustomerRequest.RentalPeriodType.values();
+
+        int pending = Math.min(requests, Math.max(1, requests / 10));
+        int completed = requests - pending;
+        long stepMs = GameTimeManager.GAME_DAY_MS / 10;
+
+        List<CustomerRequest> all = new ArrayList<>(requests);
+        ArrayList<CustomerRequest> pendingRequests = new ArrayList<>(pending);
+        ArrayList<CustomerRequest> completedRequests = new ArrayList<>(completed);
+        Map<String, String> vmAssignments = new HashMap<>();
+        for (int i = 0; i < requests; i++) {
+            boolean done = i < completed;
+            CustomerType customerType = customerTypes[random.nextInt(customerTypes.length)];
+            int vcpus = 1 + random.nextInt(8);
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                    + (customerType == CustomerType.INDIVIDUAL ? ""
+                            : " " + COMPANY_SUFFIXES[random.nextInt(COMPANY_SUFFIXES.length)]);
+            String vmId = null;
+            int vmIndex = i - completed;
+            if (!done && vmIndex < runningVms.size()) {
+                VPSOptimization.VM vm = runningVms.get(vmIndex);
+                vmId = vm.getId();
+                vm.assignToCustomer(String.valueOf(i + 1), name, i * stepMs);
+                vmAssignments.put(vmId, name);
+            }
+            CustomerRequest request = new CustomerRequest(i + 1, name, customerType,
+                    requestTypes[random.nextInt(requestTypes.length)], 1_000 + random.nextInt(50_000),
+                    1 + random.nextInt(365), vcpus, vcpus * 2, vcpus * 20, periods[random.nextInt(periods.length)],
+                    vcpus * 650.0, !done && vmId != null, done, START_MILLIS + i * stepMs, i * stepMs, vmId);
+            all.add(request);
+            if (done) {
+                completedRequests.add(request);
+            } else {
+                pendingRequests.add(request);
+            }
+        }
+        state.setPendingRequests(pendingRequests);
+        state.setCompletedRequests(completedRequests);
+        state.setVmAssignments(vmAssignments);
+        return all;
+    }
+
+    private void createChat(GameState state, List<CustomerRequest> all) {
+        Map<CustomerRequest, List<ChatMessage>> history = new ChatHistory();
+        if (all.isEmpty()) {
+            state.setChatHistory(history);
+            return;
+        }
+        int[] counts = new int[all.size()];
+        int base = messages / all.size();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = base;
+        }
+        for (int i = base * all.size(); i < messages; i++) {
+            counts[random.nextInt(counts.length)]++;
+        }
+
+        for (int i = 0; i < all.size(); i++) {
+            CustomerRequest request = all.get(i);
+            List<ChatMessage> conversation = new ArrayList<>(counts[i]);
+            long timestamp = request.getCreationTime();
+            for (int j = 0; j < counts[i]; j++) {
+                timestamp += 1_000 + random.nextInt(60_000);
+                conversation.add(createMessage(request, j, timestamp));
+            }
+            history.put(request, conversation);
+        }
+        state.setChatHistory(history);
+    }
+
+    private ChatMessage createMessage(CustomerRequest request, int index, long timestamp) {
+        switch (index % 6) {
+            case 0:
+                return new ChatMessage(MessageType.CUSTOMER, CUSTOMER_LINES[random.nextInt(CUSTOMER_LINES.length)],
+                        timestamp, null);
+            case 2:
+                if (index == 2 && request.getAssignedVmId() != null) {
+                    return new ChatMessage(MessageType.USER, "Your VM has been assigned successfully! "
+                            + "Here are your access details:\n\nIP Address: 10.0." + (request.getId() & 0xFF)
+                            + "." + (request.getId() >> 8 & 0xFF) + "\nUsername: user_" + request.getId()
+                            + "\nPassword: " + Long.toHexString(random.nextLong()), timestamp, null);
+                }
+                return new ChatMessage(MessageType.USER, USER_LINES[random.nextInt(USER_LINES.length)],
+                        timestamp, null);
+            case 4:
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("startTime", request.getLastPaymentTime());
+                return new ChatMessage(MessageType.SYSTEM, "VM assigned for "
+                        + request.getRentalPeriodType().getDisplayName() + " rental period", timestamp, metadata);
+            case 5:
+                return new ChatMessage(MessageType.SYSTEM, "Received payment of $"
+                        + String.format("%.2f", request.getMonthlyPayment()), timestamp, null);
+            default:
+                return new ChatMessage(MessageType.CUSTOMER, CUSTOMER_LINES[random.nextInt(CUSTOMER_LINES.length)],
+                        timestamp, null);
+        }
+    }
+
+
+    public enum Scale {
+        SMALL(1, 50, 500, 5_000),
+        MEDIUM(4, 500, 5_000, 50_000),
+        VETERAN(10, 2_000, 20_000, 500_000);
+
+        private final int racks;
+        private final int servers;
+        private final int requests;
+        private final int messages;
+
+        Scale(int racks, int servers, int requests, int messages) {
+            this.racks = racks;
+            this.servers = servers;
+            this.requests = requests;
+            this.messages = messages;
+        }
+
+        public int getRacks() {
+            return racks;
+        }
+
+        public int getServers() {
+            return servers;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public int getMessages() {
+            return messages;
+        }
+
+        @Override
+        public String toString() {
+            return name() + " (" + racks + " racks, " + servers + " VPS, " + requests + " requests, "
+                    + messages + " messages)";
+        }
+    }
+}
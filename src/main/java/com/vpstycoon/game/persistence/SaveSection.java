@@ -0,0 +1,32 @@
+package com.vpstycoon.game.persistence;
+
+public enum SaveSection {
+    COMPANY(GameStateCodec.SECTION_COMPANY),
+    TIME(GameStateCodec.SECTION_TIME),
+    OBJECTS(GameStateCodec.SECTION_OBJECTS),
+    REQUESTS(GameStateCodec.SECTION_REQUESTS),
+    COMPLETED(GameStateCodec.SECTION_COMPLETED),
+    RACK(GameStateCodec.SECTION_RACK),
+    INVENTORY(GameStateCodec.SECTION_INVENTORY),
+    SKILLS(GameStateCodec.SECTION_SKILLS),
+    CHAT(GameStateCodec.SECTION_CHAT);
+
+    private final int id;
+
+    SaveSection(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public static SaveSection fromId(int id) {
+        for (SaveSection section : values()) {
+            if (section.id == id) {
+                return section;
+            }
+        }
+        return null;
+    }
+}
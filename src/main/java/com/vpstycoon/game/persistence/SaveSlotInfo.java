@@ -0,0 +1,157 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.company.Company;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+
+public final class SaveSlotInfo {
+    public static final int NAME_BYTES = 94;
+    public static final int BYTES = 8 + 8 + 8 + 8 + 8 + 4 + 2 + NAME_BYTES + SaveThumbnail.BYTES;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final int slot;
+    private final File file;
+    private final String companyName;
+    private final long money;
+    private final double rating;
+    private final LocalDateTime gameDate;
+    private final long playTimeMs;
+    private final int saveVersion;
+    private final long savedAt;
+    private final SaveThumbnail thumbnail;
+
+    public SaveSlotInfo(int slot, File file, String companyName, long money, double rating, LocalDateTime gameDate,
+                        long playTimeMs, int saveVersion, long savedAt, SaveThumbnail thumbnail) {
+        this.slot = slot;
+        this.file = file;
+        this.companyName = companyName;
+        this.money = money;
+        this.rating = rating;
+        this.gameDate = gameDate;
+        this.playTimeMs = playTimeMs;
+        this.saveVersion = saveVersion;
+        this.savedAt = savedAt;
+        this.thumbnail = thumbnail;
+    }
+
+
+    public static SaveSlotInfo capture(GameState state, SaveThumbnail thumbnail) {
+        Company company = state.getCompany();
+        return new SaveSlotInfo(-1, null,
+                company != null ? company.getName() : null,
+                company != null ? company.getMoney() : 0,
+                company != null ? company.getRating() : 0,
+                state.getLocalDateTime(),
+                state.getGameTimeMs(),
+                GameStateCodec.SCHEMA_VERSION,
+                System.currentTimeMillis(),
+                thumbnail);
+    }
+
+
+    public static SaveSlotInfo unknown(int slot, File file) {
+        return new SaveSlotInfo(slot, file, null, 0, 0, null, 0, 0, file.lastModified(), null);
+    }
+
+    public SaveSlotInfo withFile(int slot, File file) {
+        return new SaveSlotInfo(slot, file, companyName, money, rating, gameDate, playTimeMs, saveVersion, savedAt,
+                thumbnail);
+    }
+
+
+    void write(ByteBuffer buffer) {
+        buffer.putLong(savedAt);
+        buffer.putLong(money);
+        buffer.putDouble(rating);
+        buffer.putLong(gameDate != null ? gameDate.toEpochSecond(ZoneOffset.UTC) : NO_DATE);
+        buffer.putLong(playTimeMs);
+        buffer.putInt(saveVersion);
+
+        byte[] name = companyName != null ? companyName.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int nameLength = Math.min(name.length, NAME_BYTES);
+        while (nameLength > 0 && nameLength < name.length && (name[nameLength] & 0xC0) == 0x80) {
+            nameLength--;
+        }
+        buffer.putShort((short) (companyName != null ? nameLength : -1));
+        buffer.put(name, 0, nameLength);
+        buffer.put(new byte[NAME_BYTES - nameLength]);
+
+        if (thumbnail != null) {
+            thumbnail.write(buffer);
+        } else {
+            buffer.put(new byte[SaveThumbnail.BYTES]);
+        }
+    }
+
+    static SaveSlotInfo read(ByteBuffer buffer) {
+        long savedAt = buffer.getLong();
+        long money = buffer.getLong();
+        double rating = buffer.getDouble();
+        long gameEpoch = buffer.getLong();
+        long playTimeMs = buffer.getLong();
+        int saveVersion = buffer.getInt();
+
+        int nameLength = buffer.getShort();
+        byte[] name = new byte[NAME_BYTES];
+        buffer.get(name);
+        String companyName = nameLength >= 0
+                ? new String(name, 0, Math.min(nameLength, NAME_BYTES), StandardCharsets.UTF_8) : null;
+
+        SaveThumbnail thumbnail = SaveThumbnail.read(buffer);
+        LocalDateTime gameDate = gameEpoch != NO_DATE ? LocalDateTime.ofEpochSecond(gameEpoch, 0, ZoneOffset.UTC) : null;
+        return new SaveSlotInfo(-1, null, companyName, money, rating, gameDate, playTimeMs, saveVersion, savedAt,
+                thumbnail);
+    }
+
+
+    public boolean hasDetails() {
+        return saveVersion > 0;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public long getMoney() {
+        return money;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public LocalDateTime getGameDate() {
+        return gameDate;
+    }
+
+    public long getPlayTimeMs() {
+        return playTimeMs;
+    }
+
+    public int getSaveVersion() {
+        return saveVersion;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public SaveThumbnail getThumbnail() {
+        return thumbnail;
+    }
+}
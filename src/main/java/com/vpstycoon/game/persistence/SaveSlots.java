@@ -0,0 +1,80 @@
+package com.vpstycoon.game.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public final class SaveSlots {
+    public static final String BASE_NAME = "savegame";
+    public static final String EXTENSION = ".dat";
+    public static final int DEFAULT_SLOT = 0;
+
+    private SaveSlots() {
+    }
+
+
+    public static File slotFile(File folder, int slot) {
+        if (slot == DEFAULT_SLOT) {
+            return new File(folder, BASE_NAME + EXTENSION);
+        }
+        return new File(folder, BASE_NAME + "_" + slot + EXTENSION);
+    }
+
+    public static int slotOf(File file) {
+        String name = file.getName();
+        if (name.equals(BASE_NAME + EXTENSION)) {
+            return DEFAULT_SLOT;
+        }
+        if (!name.startsWith(BASE_NAME + "_") || !name.endsWith(EXTENSION)) {
+            return -1;
+        }
+        try {
+            int slot = Integer.parseInt(name.substring(BASE_NAME.length() + 1, name.length() - EXTENSION.length()));
+            return slot > DEFAULT_SLOT ? slot : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    public static List<SaveSlotInfo> list(File folder) {
+        List<SaveSlotInfo> slots = new ArrayList<>();
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(BASE_NAME) && name.endsWith(EXTENSION));
+        if (files == null) {
+            return slots;
+        }
+        for (File file : files) {
+            int slot = slotOf(file);
+            if (slot >= 0 && file.length() > 0) {
+                slots.add(read(file, slot));
+            }
+        }
+        slots.sort((a, b) -> Integer.compare(a.getSlot(), b.getSlot()));
+        return slots;
+    }
+
+
+    public static SaveSlotInfo read(File file, int slot) {
+        try {
+            if (SaveContainer.isContainer(file)) {
+                SaveSlotInfo info = SaveContainer.readSlotInfo(file);
+                if (info != null) {
+                    return info.withFile(slot, file);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("อ่านข้อมูลช่องบันทึกไม่สำเร็จ " + file.getName() + ": " + e.getMessage());
+        }
+        return SaveSlotInfo.unknown(slot, file);
+    }
+
+    public static int nextFreeSlot(File folder) {
+        int slot = DEFAULT_SLOT;
+        while (slotFile(folder, slot).exists()) {
+            slot++;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,97 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameState;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+public class SaveStore {
+    private static final Map<String, SaveStore> STORES = new ConcurrentHashMap<>();
+
+    private final File saveFile;
+    private final SaveContainer container;
+
+    public SaveStore(File saveFile) {
+        this.saveFile = saveFile;
+        this.container = new SaveContainer(saveFile);
+    }
+
+
+    public static SaveStore forFile(File saveFile) {
+        return STORES.computeIfAbsent(saveFile.getAbsolutePath(), path -> new SaveStore(new File(path)));
+    }
+
+
+    public synchronized void writeSnapshot(GameState state) throws IOException {
+        container.writeFull(state);
+    }
+
+
+    public synchronized void write(GameState state, Set<SaveSection> dirtySections) throws IOException {
+        if (!container.isOpen() || !saveFile.exists() || container.needsCompaction()
+                || container.getLayoutVersion() != SaveContainer.VERSION
+                || dirtySections.containsAll(EnumSet.allOf(SaveSection.class))) {
+            writeSnapshot(state);
+            return;
+        }
+        container.writeSections(state, dirtySections);
+    }
+
+
+    public synchronized GameState load() throws IOException {
+        AtomicFiles.deleteStaleTemp(saveFile);
+        container.close();
+        ChatLog.forSave(saveFile).close();
+        ChatIndex.forSave(saveFile).close();
+
+        if (!SaveContainer.isContainer(saveFile)) {
+            try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(saveFile)))) {
+                return (GameState) ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Legacy save contains unknown class: " + e.getMessage(), e);
+            }
+        }
+        return container.read();
+    }
+
+
+    public synchronized void delete() {
+        container.close();
+        ChatLog.forSave(saveFile).delete();
+        ChatArchive.forSave(saveFile).delete();
+        ChatIndex.forSave(saveFile).delete();
+        if (saveFile.exists() && !saveFile.delete()) {
+            System.err.println("ไม่สามารถลบไฟล์บันทึก: " + saveFile.getAbsolutePath());
+        }
+    }
+
+    public void setThumbnail(SaveThumbnail thumbnail) {
+        container.setThumbnail(thumbnail);
+    }
+
+    public SaveSlotInfo readSlotInfo() {
+        return SaveSlots.read(saveFile, SaveSlots.slotOf(saveFile));
+    }
+
+    public synchronized void close() {
+        container.close();
+        ChatLog.forSave(saveFile).close();
+        ChatIndex.forSave(saveFile).close();
+    }
+
+    public File getSaveFile() {
+        return saveFile;
+    }
+
+    public SaveContainer getContainer() {
+        return container;
+    }
+}
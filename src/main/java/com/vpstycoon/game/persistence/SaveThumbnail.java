@@ -0,0 +1,84 @@
+package com.vpstycoon.game.persistence;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.nio.ByteBuffer;
+
+
+public final class SaveThumbnail {
+    public static final int WIDTH = 40;
+    public static final int HEIGHT = 24;
+    public static final int BYTES = WIDTH * HEIGHT * 2;
+
+    private final short[] pixels;
+
+    public SaveThumbnail(short[] pixels) {
+        if (pixels.length != WIDTH * HEIGHT) {
+            throw new IllegalArgumentException("Thumbnail needs " + (WIDTH * HEIGHT) + " pixels");
+        }
+        this.pixels = pixels;
+    }
+
+
+    public static SaveThumbnail fromImage(Image image) {
+        if (image == null || image.getPixelReader() == null || image.getWidth() < 1 || image.getHeight() < 1) {
+            return null;
+        }
+        PixelReader reader = image.getPixelReader();
+        int sourceWidth = (int) image.getWidth();
+        int sourceHeight = (int) image.getHeight();
+        short[] pixels = new short[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            int sourceY = Math.min(sourceHeight - 1, (y * sourceHeight + sourceHeight / 2) / HEIGHT);
+            for (int x = 0; x < WIDTH; x++) {
+                int sourceX = Math.min(sourceWidth - 1, (x * sourceWidth + sourceWidth / 2) / WIDTH);
+                int argb = reader.getArgb(sourceX, sourceY);
+                int r = (argb >> 19) & 0x1F;
+                int g = (argb >> 10) & 0x3F;
+                int b = (argb >> 3) & 0x1F;
+                pixels[y * WIDTH + x] = (short) ((r << 11) | (g << 5) | b);
+            }
+        }
+        return new SaveThumbnail(pixels);
+    }
+
+
+    public Image toImage() {
+        WritableImage image = new WritableImage(WIDTH, HEIGHT);
+        PixelWriter writer = image.getPixelWriter();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                writer.setArgb(x, y, getArgb(x, y));
+            }
+        }
+        return image;
+    }
+
+    public int getArgb(int x, int y) {
+        int pixel = pixels[y * WIDTH + x] & 0xFFFF;
+        int r = (pixel >> 11) & 0x1F;
+        int g = (pixel >> 5) & 0x3F;
+        int b = pixel & 0x1F;
+        return 0xFF000000 | ((r << 3 | r >> 2) << 16) | ((g << 2 | g >> 4) << 8) | (b << 3 | b >> 2);
+    }
+
+
+    void write(ByteBuffer buffer) {
+        for (short pixel : pixels) {
+            buffer.putShort(pixel);
+        }
+    }
+
+    static SaveThumbnail read(ByteBuffer buffer) {
+        short[] pixels = new short[WIDTH * HEIGHT];
+        boolean blank = true;
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = buffer.getShort();
+            blank &= pixels[i] == 0;
+        }
+        return blank ? null : new SaveThumbnail(pixels);
+    }
+}
@@ -0,0 +1,173 @@
+package com.vpstycoon.game.persistence;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+
+public class SaveWriter {
+    public static final long DEFAULT_WINDOW_MS = 5_000;
+
+    private static final SaveWriter INSTANCE = new SaveWriter();
+
+    private final EnumSet<SaveSection> dirty = EnumSet.noneOf(SaveSection.class);
+    private ScheduledExecutorService executor;
+    private volatile Thread writerThread;
+    private ScheduledFuture<?> pendingWrite;
+    private long windowMs = DEFAULT_WINDOW_MS;
+    private long lastWriteNanos;
+    private boolean written = false;
+    private long requestCount = 0;
+    private long writeCount = 0;
+
+    public SaveWriter() {
+    }
+
+    public static SaveWriter getInstance() {
+        return INSTANCE;
+    }
+
+
+    public void markDirty(SaveSection... sections) {
+        capture(sections);
+        synchronized (this) {
+            Collections.addAll(dirty, sections);
+        }
+    }
+
+
+    public void requestSave(SaveSection... sections) {
+        capture(sections);
+        synchronized (this) {
+            Collections.addAll(dirty, sections);
+            requestCount++;
+            scheduleLocked();
+        }
+    }
+
+    private void capture(SaveSection... sections) {
+        if (sections.length == 0) {
+            return;
+        }
+        try {
+            PersistenceService.getInstance().capture(EnumSet.copyOf(Arrays.asList(sections)));
+        } catch (Exception e) {
+            System.err.println("เก็บข้อมูลเกมสำหรับการบันทึกไม่สำเร็จ: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+
+    public void flush() {
+        if (Thread.currentThread() == writerThread) {
+            writePending();
+            return;
+        }
+        Future<?> write;
+        synchronized (this) {
+            if (pendingWrite != null) {
+                pendingWrite.cancel(false);
+                pendingWrite = null;
+            }
+            write = executor().submit(this::writePending);
+        }
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("บันทึกเกมเบื้องหลังล้มเหลว: " + e.getCause());
+        }
+    }
+
+    public synchronized void discardPending() {
+        if (pendingWrite != null) {
+            pendingWrite.cancel(false);
+            pendingWrite = null;
+        }
+        dirty.clear();
+        PersistenceService.getInstance().discardCaptured();
+    }
+
+    private void scheduleLocked() {
+        if (pendingWrite != null || dirty.isEmpty()) {
+            return;
+        }
+        long delayMs = 0;
+        if (written) {
+            long sinceLastWriteMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastWriteNanos);
+            delayMs = Math.max(0, windowMs - sinceLastWriteMs);
+        }
+        pendingWrite = executor().schedule(this::writePending, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void writePending() {
+        Set<SaveSection> sections;
+        synchronized (this) {
+            pendingWrite = null;
+            if (dirty.isEmpty()) {
+                return;
+            }
+            sections = EnumSet.copyOf(dirty);
+            dirty.clear();
+        }
+
+        try {
+            PersistenceService.getInstance().commitCaptured(sections);
+            synchronized (this) {
+                writeCount++;
+            }
+        } catch (Exception e) {
+            System.err.println("บันทึกเกมเบื้องหลังล้มเหลว จะลองใหม่ในรอบถัดไป: " + e.getMessage());
+            e.printStackTrace();
+            synchronized (this) {
+                dirty.addAll(sections);
+            }
+        } finally {
+            synchronized (this) {
+                lastWriteNanos = System.nanoTime();
+                written = true;
+                scheduleLocked();
+            }
+        }
+    }
+
+    private synchronized ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "Save-Writer");
+                thread.setDaemon(true);
+                writerThread = thread;
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    public synchronized long getWindowMs() {
+        return windowMs;
+    }
+
+    public synchronized void setWindowMs(long windowMs) {
+        this.windowMs = Math.max(0, windowMs);
+    }
+
+    public synchronized Set<SaveSection> getDirtySections() {
+        return EnumSet.copyOf(dirty);
+    }
+
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+}
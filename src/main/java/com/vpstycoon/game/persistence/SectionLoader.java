@@ -0,0 +1,9 @@
+package com.vpstycoon.game.persistence;
+
+import com.vpstycoon.game.GameState;
+
+import java.io.IOException;
+
+public interface SectionLoader {
+    void load(GameState state, SaveSection section) throws IOException;
+}
@@ -0,0 +1,61 @@
+package com.vpstycoon.game.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public final class StringTable {
+    private static final int NULL = 0;
+    private static final int LITERAL = 1;
+    private static final int FIRST_REF = 2;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+
+    public void write(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            VarInts.writeVarInt(out, NULL);
+            return;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            VarInts.writeVarInt(out, id + FIRST_REF);
+            return;
+        }
+        ids.put(value, ids.size());
+        VarInts.writeVarInt(out, LITERAL);
+        BinaryFields.writeString(out, value);
+    }
+
+    public String read(DataInput in) throws IOException {
+        int code = VarInts.readVarInt(in);
+        if (code == NULL) {
+            return null;
+        }
+        if (code == LITERAL) {
+            String value = BinaryFields.readString(in);
+            strings.add(value);
+            return value;
+        }
+        int id = code - FIRST_REF;
+        if (id >= strings.size()) {
+            throw new IOException("Invalid string reference " + id);
+        }
+        return strings.get(id);
+    }
+
+    public void clear() {
+        ids.clear();
+        strings.clear();
+    }
+
+    public int size() {
+        return Math.max(ids.size(), strings.size());
+    }
+}
@@ -0,0 +1,66 @@
+package com.vpstycoon.game.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+public final class VarInts {
+
+    private VarInts() {
+    }
+
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(DataInput in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    public static int readVarInt(DataInput in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+
+    public static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    public static long readSignedVarLong(DataInput in) throws IOException {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+
+    public static void writeOrdinal(DataOutput out, Enum<?> value) throws IOException {
+        writeVarInt(out, value == null ? 0 : value.ordinal() + 1);
+    }
+
+    public static <E extends Enum<E>> E readOrdinal(DataInput in, E[] values) throws IOException {
+        int raw = readVarInt(in);
+        if (raw == 0) {
+            return null;
+        }
+        if (raw > values.length) {
+            throw new IOException("Unknown ordinal " + (raw - 1));
+        }
+        return values[raw - 1];
+    }
+}
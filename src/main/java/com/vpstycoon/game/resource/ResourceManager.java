@@ -3,16 +3,27 @@ package com.vpstycoon.game.resource;
 import com.vpstycoon.audio.AudioManager;
 import com.vpstycoon.game.GameManager;
 import com.vpstycoon.game.GameObject;
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.company.SkillPointsSystem;
+import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.manager.RequestManager;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
+import com.vpstycoon.game.persistence.PersistenceService;
+import com.vpstycoon.game.persistence.SaveSection;
+import com.vpstycoon.game.persistence.SaveStore;
+import com.vpstycoon.game.persistence.SaveWriter;
 import com.vpstycoon.game.thread.GameEvent;
 import com.vpstycoon.game.thread.GameTimeController;
+import com.vpstycoon.game.thread.HierarchicalTimingWheel;
 import com.vpstycoon.game.thread.GameTimeManager;
 import com.vpstycoon.game.thread.RequestGenerator;
+import com.vpstycoon.game.vps.KeepUpLedger;
 import com.vpstycoon.game.vps.VPSInventory;
 import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RackProduct;
 import com.vpstycoon.ui.game.GameplayContentPane;
 import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistoryManager;
 import com.vpstycoon.ui.game.notification.NotificationController;
@@ -35,9 +46,11 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class ResourceManager implements Serializable {
@@ -48,8 +61,7 @@ public class ResourceManager implements Serializable {
     private static final String SOUNDS_PATH = "/sounds/";
     private static final String MUSIC_PATH = "/music/";
     private static final String TEXT_PATH = "/text/";
-    private static final String GAME_FOLDER = System.getProperty("user.home") + File.separator + "Documents" + File.separator + "VpsTycoon";
-    private static final String SAVE_FILE = GAME_FOLDER + File.separator + "savegame.dat";
+    private static final String GAME_FOLDER = PersistenceService.GAME_FOLDER;
     private static final String BACKUP_DIR = GAME_FOLDER + File.separator + "backups";
 
     private final Map<String, Image> imageCache = new ConcurrentHashMap<>();
@@ -222,9 +234,30 @@ public class ResourceManager implements Serializable {
                     this.rack,
                     currentState.getLocalDateTime()
             );
+            this.gameTimeController.getGameTimeManager().getTimingWheel()
+                    .restore(currentState.getTimerCheckpoint());
             
             System.out.println("เริ่มการทำงานของ GameTimeController หลังจากสร้างใหม่");
             gameTimeController.startTime();
+            openCommandJournal();
+        }
+    }
+
+    private void openCommandJournal() {
+        try {
+            File journalFile = PersistenceService.getInstance().getJournalFile();
+            CommandJournal journal = CommandJournal.open(journalFile,
+                    () -> gameTimeController.getGameTimeManager().getGameTimeMs());
+            CommandJournal.setActive(journal);
+            if (company != null) {
+                journal.append(JournalCommand.sessionStart(
+                        gameTimeController.getGameTimeManager().getGameTimeMs(),
+                        company.getMoney(), company.getRating(), company.getSkillPointsAvailable()));
+            }
+            System.out.println("เปิด Command Journal: " + journalFile.getAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("ไม่สามารถเปิด Command Journal: " + e.getMessage());
+            e.printStackTrace();
         }
     }
 
@@ -264,32 +297,69 @@ public class ResourceManager implements Serializable {
     }
 
     public void saveGameState(GameState state) {
+        saveGameState(state, EnumSet.allOf(SaveSection.class));
+    }
+
+    
+    public void saveGameState(GameState state, Set<SaveSection> dirtySections) {
+        try {
+            PersistenceService.getInstance().commit(state, dirtySections);
+            System.out.println("Game saved successfully to: " + PersistenceService.getInstance().getSaveFile());
+        } catch (IOException e) {
+            System.err.println("Failed to save game: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public void captureGameState(GameState state, Set<SaveSection> dirtySections) {
         initiaizeGameTimeController();
         state.setLocalDateTime(gameTimeController.getGameTimeManager().getGameDateTime());
         state.setGameTimeMs(gameTimeController.getGameTimeManager().getGameTimeMs());
+        state.setTimerCheckpoint(gameTimeController.getGameTimeManager().getTimingWheel().checkpoint());
+        state.setRandomSeed(GameRandom.getGlobal().getSeed());
+        state.setRandomStreamPositions(GameRandom.getGlobal().getStreamPositions());
         
         if (this.company != null) {
             System.out.println("กำลังบันทึกข้อมูล Free VM count: " + this.company.getAvailableVMs());
             state.setFreeVmCount(this.company.getAvailableVMs());
         }
 
-        if (this.skillPointsSystem != null) {
+        if (this.skillPointsSystem != null && dirtySections.contains(SaveSection.SKILLS)) {
             System.out.println("กำลังบันทึกข้อมูล Skill Points...");
             state.setSkillLevels(this.skillPointsSystem.getSkillLevelsMap());
         }
         
         try {
-            if (requestManager != null) {
+            if (requestManager != null && dirtySections.contains(SaveSection.REQUESTS)) {
                 if (requestManager.getRequests() != null) {
                     state.setPendingRequests(new ArrayList<>(requestManager.getRequests()));
                     System.out.println("บันทึกข้อมูล pendingRequests: " + requestManager.getRequests().size() + " รายการ");
                 }
-                
+            }
+
+            if (requestManager != null && dirtySections.contains(SaveSection.COMPLETED)) {
                 if (requestManager.getCompletedRequests() != null) {
                     state.setCompletedRequests(new ArrayList<>(requestManager.getCompletedRequests()));
                     System.out.println("บันทึกข้อมูล completedRequests: " + requestManager.getCompletedRequests().size() + " รายการ");
                 }
             }
+
+            if (dirtySections.contains(SaveSection.REQUESTS)) {
+                Map<String, String> vmAssignments = new HashMap<>();
+                List<CustomerRequest> assignedRequests = new ArrayList<>();
+                if (state.getPendingRequests() != null) {
+                    assignedRequests.addAll(state.getPendingRequests());
+                }
+                if (!state.isDeferred(SaveSection.COMPLETED) && state.getCompletedRequests() != null) {
+                    assignedRequests.addAll(state.getCompletedRequests());
+                }
+                for (CustomerRequest request : assignedRequests) {
+                    if (request != null && request.isAssignedToVM()) {
+                        vmAssignments.put(request.getAssignedVmId(), request.getName());
+                    }
+                }
+                state.setVmAssignments(vmAssignments);
+            }
         } catch (Exception e) {
             System.err.println("เกิดข้อผิดพลาดในการบันทึกข้อมูล Requests: " + e.getMessage());
             e.printStackTrace();
@@ -297,18 +367,19 @@ public class ResourceManager implements Serializable {
         
         try {
             ChatHistoryManager chatManager = getChatHistory();
-            if (chatManager != null) {
+            if (chatManager != null && dirtySections.contains(SaveSection.CHAT)) {
                 System.out.println("กำลังบันทึกข้อมูล Chat History ลงใน GameState...");
                 
-                chatManager.saveChatHistory();
+                chatManager.captureChatHistory(state);
             }
         } catch (Exception e) {
             System.err.println("เกิดข้อผิดพลาดในการบันทึกข้อมูล Chat History: " + e.getMessage());
             e.printStackTrace();
         }
         
-        System.out.println("กำลังบันทึกข้อมูล Rack...");
-        if (rack != null) {
+        boolean rackCaptured = state.getRackConfiguration() != null && !state.getRackConfiguration().isEmpty();
+        if (rack != null && (dirtySections.contains(SaveSection.RACK) || !rackCaptured)) {
+            System.out.println("กำลังบันทึกข้อมูล Rack...");
             try {
                 Map<String, Object> rackConfig = new HashMap<>();
                 rackConfig.put("maxRacks", rack.getMaxRacks());
@@ -320,30 +391,18 @@ public class ResourceManager implements Serializable {
                 
                 List<Integer> slotCounts = new ArrayList<>();
                 for (int i = 0; i < totalRacks; i++) {
-                    int currentIndex = rack.getCurrentRackIndex();
-                    
-                    rack.setRackIndex(i);
-                    
                     Map<String, Object> rackData = new HashMap<>();
                     rackData.put("rackIndex", i);
-                    rackData.put("maxSlotUnits", rack.getMaxSlotUnits());
-                    rackData.put("unlockedSlotUnits", rack.getUnlockedSlotUnits());
-                    rackData.put("occupiedSlotUnits", rack.getOccupiedSlotUnits());
-                    rackData.put("availableSlotUnits", rack.getAvailableSlotUnits());
+                    rackData.put("maxSlotUnits", rack.getMaxSlotUnits(i));
+                    rackData.put("unlockedSlotUnits", rack.getUnlockedSlotUnits(i));
+                    rackData.put("occupiedSlotUnits", rack.getOccupiedSlotUnits(i));
+                    rackData.put("availableSlotUnits", rack.getAvailableSlotUnits(i));
                     
                     List<String> rackInstalledVpsIds = new ArrayList<>();
-                    for (VPSOptimization vps : rack.getInstalledVPS()) {
+                    for (VPSOptimization vps : rack.getInstalledVPS(i)) {
                         rackInstalledVpsIds.add(vps.getVpsId());
                         
-                        boolean found = false;
-                        for (GameObject obj : state.getGameObjects()) {
-                            if (obj instanceof VPSOptimization && ((VPSOptimization) obj).getVpsId().equals(vps.getVpsId())) {
-                                found = true;
-                                break;
-                            }
-                        }
-                        
-                        if (!found) {
+                        if (!state.containsVps(vps.getVpsId())) {
                             state.addGameObject(vps);
                         }
                     }
@@ -351,13 +410,12 @@ public class ResourceManager implements Serializable {
                     
                     allRacksData.add(rackData);
                     
-                    slotCounts.add(rack.getMaxSlotUnits());
-                    
-                    rack.setRackIndex(currentIndex);
+                    slotCounts.add(rack.getMaxSlotUnits(i));
                 }
                 
                 rackConfig.put("allRacksData", allRacksData);
                 rackConfig.put("slotCounts", slotCounts);
+                rackConfig.put("rackProducts", rack.getKeepUpLedger().getRackProductNames());
                 
                 rackConfig.put("unlockedSlotUnitsList", rack.getUnlockedSlotUnitsList());
                 
@@ -376,6 +434,11 @@ public class ResourceManager implements Serializable {
             }
         }
         
+        boolean inventoryCaptured = state.getVpsInventoryData() != null && !state.getVpsInventoryData().isEmpty();
+        if (!dirtySections.contains(SaveSection.INVENTORY) && inventoryCaptured) {
+            return;
+        }
+
         System.out.println("กำลังบันทึกข้อมูล VPS Inventory...");
         try {
             VPSInventory vpsInventory = null;
@@ -385,6 +448,22 @@ public class ResourceManager implements Serializable {
                 System.out.println("พบ VPSInventory จาก GameplayContentPane: " + 
                     (vpsInventory != null ? vpsInventory.getSize() + " รายการ" : "ไม่พบ"));
             }
+
+            VPSInventory managerInventory = gameManager != null ? gameManager.getVpsInventory() : null;
+            if (managerInventory != null && managerInventory != vpsInventory && !managerInventory.isEmpty()) {
+                VPSInventory merged = new VPSInventory();
+                if (vpsInventory != null) {
+                    for (String vpsId : vpsInventory.getAllVPSIds()) {
+                        merged.addVPS(vpsId, vpsInventory.getVPS(vpsId));
+                    }
+                }
+                for (String vpsId : managerInventory.getAllVPSIds()) {
+                    if (merged.getVPS(vpsId) == null) {
+                        merged.addVPS(vpsId, managerInventory.getVPS(vpsId));
+                    }
+                }
+                vpsInventory = merged;
+            }
             
             if (vpsInventory == null || vpsInventory.isEmpty()) {
                 vpsInventory = new VPSInventory();
@@ -401,16 +480,7 @@ public class ResourceManager implements Serializable {
             }
             
             for (VPSOptimization vps : vpsInventory.getAllVPS()) {
-                boolean found = false;
-                for (GameObject obj : state.getGameObjects()) {
-                    if (obj instanceof VPSOptimization && 
-                        ((VPSOptimization) obj).getVpsId() != null && 
-                        ((VPSOptimization) obj).getVpsId().equals(vps.getVpsId())) {
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
+                if (!state.containsVps(vps.getVpsId())) {
                     state.addGameObject(vps);
                     System.out.println("เพิ่ม VPS จาก Inventory เข้า GameObjects: " + vps.getVpsId());
                 }
@@ -440,29 +510,33 @@ public class ResourceManager implements Serializable {
             System.err.println("เกิดข้อผิดพลาดในการบันทึกข้อมูล VPS Inventory: " + e.getMessage());
             e.printStackTrace();
         }
+    }
 
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SAVE_FILE))) {
-            oos.writeObject(state);
-            System.out.println("Game saved successfully to: " + SAVE_FILE);
-            this.currentState = state;
-            this.company = state.getCompany();
-        } catch (IOException e) {
-            System.err.println("Failed to save game: " + e.getMessage());
-            e.printStackTrace();
-        }
+    public void onStateCommitted(GameState state) {
+        this.currentState = state;
+        this.company = state.getCompany();
+    }
+
+    public boolean isChatCaptured() {
+        return ChatHistoryManager.getInstance().isLoaded();
     }
 
     public GameState loadGameState() {
         GameState state = null;
-        File saveFile = new File(SAVE_FILE);
+        File saveFile = PersistenceService.getInstance().getSaveFile();
         
         if (!saveFile.exists() || saveFile.length() == 0) {
             System.out.println("ไม่พบไฟล์เซฟเกม หรือไฟล์เซฟว่างเปล่า");
             return new GameState();
         }
         
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(saveFile))) {
-            state = (GameState) ois.readObject();
+        try {
+            state = SaveStore.forFile(saveFile).load();
+            
+            if (state.getRandomSeed() != null) {
+                GameRandom.getGlobal().restore(state.getRandomSeed(), state.getRandomStreamPositions());
+                System.out.println("โหลด Random seed: " + state.getRandomSeed());
+            }
             
             if (state.getFreeVmCount() > 0) {
                 System.out.println("โหลดข้อมูล Free VM Count: " + state.getFreeVmCount());
@@ -560,13 +634,26 @@ public class ResourceManager implements Serializable {
                 System.out.println("พบข้อมูลขนาด slot ของ Rack: " + slotCounts);
             }
             
+            List<String> rackProducts = new ArrayList<>();
+            if (rackConfig.get("rackProducts") instanceof List<?> products) {
+                for (Object product : products) {
+                    if (product instanceof String name) {
+                        rackProducts.add(name);
+                    }
+                }
+            }
+            
             for (int i = 0; i < maxRacks; i++) {
                 int slotCount = 10; 
                 if (slotCounts != null && i < slotCounts.size()) {
                     slotCount = slotCounts.get(i);
                 }
+                RackProduct rackProduct = null;
+                if (i < rackProducts.size()) {
+                    rackProduct = KeepUpLedger.parseRackProduct(rackProducts.get(i));
+                }
                 
-                this.rack.addRack(slotCount);
+                this.rack.addRack(slotCount, rackProduct);
                 System.out.println("สร้าง Rack #" + (i+1) + " พร้อม " + slotCount + " slots");
             }
             
@@ -589,18 +676,13 @@ public class ResourceManager implements Serializable {
                         for (String vpsId : rackInstalledVpsIds) {
                             boolean found = false;
                             
-                            for (GameObject obj : state.getGameObjects()) {
-                                if (obj instanceof VPSOptimization) {
-                                    VPSOptimization vps = (VPSOptimization) obj;
-                                    if (vps.getVpsId().equals(vpsId)) {
-                                        if (this.rack.installVPS(vps)) {
-                                            found = true;
-                                            System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack #" + (rackIndex + 1));
-                                        } else {
-                                            System.out.println("ไม่สามารถติดตั้ง VPS " + vpsId + " ใน Rack #" + (rackIndex + 1) + " ได้");
-                                        }
-                                        break;
-                                    }
+                            VPSOptimization vps = state.getObjectRegistry().findVps(vpsId);
+                            if (vps != null) {
+                                if (this.rack.installVPS(vps)) {
+                                    found = true;
+                                    System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack #" + (rackIndex + 1));
+                                } else {
+                                    System.out.println("ไม่สามารถติดตั้ง VPS " + vpsId + " ใน Rack #" + (rackIndex + 1) + " ได้");
                                 }
                             }
                             
@@ -619,18 +701,13 @@ public class ResourceManager implements Serializable {
                     for (String vpsId : installedVpsIds) {
                         boolean found = false;
                         
-                        for (GameObject obj : state.getGameObjects()) {
-                            if (obj instanceof VPSOptimization) {
-                                VPSOptimization vps = (VPSOptimization) obj;
-                                if (vps.getVpsId().equals(vpsId)) {
-                                    if (this.rack.installVPS(vps)) {
-                                        found = true;
-                                        System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack ตามข้อมูลเก่า");
-                                    } else {
-                                        System.out.println("ไม่สามารถติดตั้ง VPS " + vpsId + " ใน Rack ตามข้อมูลเก่าได้");
-                                    }
-                                    break;
-                                }
+                        VPSOptimization vps = state.getObjectRegistry().findVps(vpsId);
+                        if (vps != null) {
+                            if (this.rack.installVPS(vps)) {
+                                found = true;
+                                System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack ตามข้อมูลเก่า");
+                            } else {
+                                System.out.println("ไม่สามารถติดตั้ง VPS " + vpsId + " ใน Rack ตามข้อมูลเก่าได้");
                             }
                         }
                         
@@ -766,6 +843,10 @@ public class ResourceManager implements Serializable {
         return gameTimeController.getGameTimeManager();
     }
 
+    public HierarchicalTimingWheel getTimingWheel() {
+        return getGameTimeController().getGameTimeManager().getTimingWheel();
+    }
+
     public GameTimeController getGameTimeController() {
         initiaizeGameTimeController();
         return gameTimeController;
@@ -781,9 +862,14 @@ public class ResourceManager implements Serializable {
     }
 
     public void deleteSaveFile() {
-        File saveFile = new File(SAVE_FILE);
-        if (saveFile.exists()) {
-            boolean deleted = saveFile.delete();
+        SaveWriter.getInstance().discardPending();
+        CommandJournal.setActive(null);
+        
+        File saveFile = PersistenceService.getInstance().getSaveFile();
+        boolean existed = saveFile.exists();
+        PersistenceService.getInstance().delete();
+        if (existed) {
+            boolean deleted = !saveFile.exists();
             if (deleted) {
                 System.out.println("Deleted game save: " + saveFile.getAbsolutePath());
             } else {
@@ -793,7 +879,7 @@ public class ResourceManager implements Serializable {
     }
 
     public boolean hasSaveFile() {
-        return new File(SAVE_FILE).exists();
+        return PersistenceService.getInstance().getSaveFile().exists();
     }
 
     private void createBackupDirectory() {
@@ -0,0 +1,105 @@
+package com.vpstycoon.game.simulation;
+
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RackProduct;
+import com.vpstycoon.game.vps.enums.VPSProduct;
+
+import java.util.List;
+
+
+public class AutoAssignPolicy implements SimulationEngine.PlayerPolicy {
+    private final VPSProduct serverProduct;
+    private final RackProduct rackProduct;
+    private final long cashReserve;
+
+    public AutoAssignPolicy() {
+        this(VPSProduct.STANDARD_VPS, RackProduct.SMALL_RACK, 2_000);
+    }
+
+    public AutoAssignPolicy(VPSProduct serverProduct, RackProduct rackProduct, long cashReserve) {
+        this.serverProduct = serverProduct;
+        this.rackProduct = rackProduct;
+        this.cashReserve = cashReserve;
+    }
+
+    @Override
+    public void onTick(SimulationEngine engine) {
+        List<CustomerRequest> waiting = engine.getUnassignedRequests();
+        if (waiting.isEmpty()) {
+            return;
+        }
+
+        for (CustomerRequest request : waiting) {
+            VPSOptimization target = findServerWithCapacity(engine);
+            if (target == null) {
+                target = expandCapacity(engine);
+            }
+            if (target == null) {
+                return;
+            }
+            engine.acceptRequest(request, target,
+                    request.getRequiredVCPUs(), request.getRequiredRamGB(), request.getRequiredDiskGB());
+        }
+    }
+
+    private VPSOptimization findServerWithCapacity(SimulationEngine engine) {
+        for (VPSOptimization vps : engine.getRack().getAllInstalledVPS()) {
+            if (engine.getFreeVMSlots(vps) > 0) {
+                return vps;
+            }
+        }
+        return null;
+    }
+
+    private VPSOptimization expandCapacity(SimulationEngine engine) {
+        SimulationRack rack = engine.getRack();
+        int requiredSlots = serverProduct.getSize().getSlotsRequired();
+
+        int rackIndex = findRackWithRoom(rack, requiredSlots);
+        if (rackIndex < 0) {
+            rackIndex = unlockSlots(engine, requiredSlots);
+        }
+        if (rackIndex < 0 && canAfford(engine, rackProduct.getPrice()) && engine.buyRack(rackProduct)) {
+            rackIndex = unlockSlots(engine, requiredSlots);
+        }
+        if (rackIndex < 0 || !canAfford(engine, serverProduct.getPrice())) {
+            return null;
+        }
+
+        VPSOptimization vps = engine.buyServer(serverProduct);
+        if (vps != null && engine.installServer(vps)) {
+            return vps;
+        }
+        return null;
+    }
+
+    private int findRackWithRoom(SimulationRack rack, int requiredSlots) {
+        for (int i = 0; i < rack.getRackCount(); i++) {
+            if (rack.getAvailableSlotUnits(i) >= requiredSlots) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int unlockSlots(SimulationEngine engine, int requiredSlots) {
+        SimulationRack rack = engine.getRack();
+        for (int i = 0; i < rack.getRackCount(); i++) {
+            while (rack.getAvailableSlotUnits(i) < requiredSlots
+                    && canAfford(engine, engine.getRackUpgradeCost(i))) {
+                if (!engine.upgradeRack(i)) {
+                    break;
+                }
+            }
+            if (rack.getAvailableSlotUnits(i) >= requiredSlots) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean canAfford(SimulationEngine engine, long cost) {
+        return engine.getCompany().getMoney() - cost >= cashReserve;
+    }
+}
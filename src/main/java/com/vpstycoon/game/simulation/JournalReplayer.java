@@ -0,0 +1,150 @@
+package com.vpstycoon.game.simulation;
+
+import com.vpstycoon.game.company.Company;
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
+import com.vpstycoon.game.vps.VPSOptimization;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class JournalReplayer {
+    private final SimulationEngine engine;
+    private final Map<Long, CustomerRequest> requests = new HashMap<>();
+    private final Map<String, VPSOptimization> servers = new HashMap<>();
+    private final Map<JournalCommand.Type, Integer> skipped = new EnumMap<>(JournalCommand.Type.class);
+    private int appliedCount = 0;
+    private long elapsedNanos = 0;
+
+    public JournalReplayer(long seed) {
+        this(new SimulationEngine(seed));
+    }
+
+    public JournalReplayer(SimulationEngine engine) {
+        this.engine = engine;
+        this.engine.setPolicy(null);
+        this.engine.setRequestGenerationEnabled(false);
+    }
+
+
+    public static JournalReplayer replay(File journalFile, long seed) throws IOException {
+        JournalReplayer replayer = new JournalReplayer(seed);
+        replayer.replay(CommandJournal.read(journalFile));
+        return replayer;
+    }
+
+
+    public void replay(List<JournalCommand> commands) {
+        replay(commands, 0);
+    }
+
+
+    public void replay(List<JournalCommand> commands, long untilGameTimeMs) {
+        long start = System.nanoTime();
+        for (JournalCommand command : commands) {
+            if (command.getGameTimeMs() > engine.getGameTimeMs()) {
+                engine.advanceTo(command.getGameTimeMs());
+            }
+            if (apply(command)) {
+                appliedCount++;
+            } else {
+                skipped.merge(command.getType(), 1, Integer::sum);
+            }
+        }
+        if (untilGameTimeMs > engine.getGameTimeMs()) {
+            engine.advanceTo(untilGameTimeMs);
+        }
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    private boolean apply(JournalCommand command) {
+        switch (command.getType()) {
+            case SESSION_START: {
+                Company company = engine.getCompany();
+                company.setMoney(command.getMoney());
+                company.setRating(command.getRating());
+                company.setSkillPointsAvailable(command.getSkillPoints());
+                return true;
+            }
+            case REQUEST_ARRIVED: {
+                CustomerRequest request = new CustomerRequest(command.getCustomerType(), command.getRequestType(),
+                        command.getBudget(), command.getDuration(), command.getVcpus(), command.getRamGB(),
+                        command.getDiskGB(), command.getRentalPeriodType());
+                request.setName(command.getName());
+                requests.put(command.getRequestId(), request);
+                engine.addRequest(request);
+                return true;
+            }
+            case ACCEPT_REQUEST: {
+                CustomerRequest request = requests.get(command.getRequestId());
+                VPSOptimization vps = servers.get(command.getServerId());
+                if (request == null || vps == null) {
+                    return false;
+                }
+                return !engine.acceptRequest(request, vps,
+                        command.getVcpus(), command.getRamGB(), command.getDiskGB()).isCompletedExceptionally();
+            }
+            case COMPLETE_REQUEST: {
+                CustomerRequest request = requests.get(command.getRequestId());
+                return request != null && engine.completeRequest(request);
+            }
+            case BUY_SERVER: {
+                if (command.getProduct() == null) {
+                    return false;
+                }
+                VPSOptimization vps = engine.buyServer(command.getProduct());
+                if (vps == null) {
+                    return false;
+                }
+                servers.put(command.getServerId(), vps);
+                return true;
+            }
+            case INSTALL_SERVER: {
+                VPSOptimization vps = servers.get(command.getServerId());
+                return vps != null && engine.installServer(vps, command.getRackIndex());
+            }
+            case UNINSTALL_SERVER: {
+                VPSOptimization vps = servers.get(command.getServerId());
+                return vps != null && engine.uninstallServer(vps);
+            }
+            case BUY_RACK:
+                return command.getRackProduct() != null && engine.buyRack(command.getRackProduct());
+            case UPGRADE_RACK:
+                return engine.upgradeRack(command.getRackIndex());
+            case UPGRADE_SKILL:
+                return command.getSkillType() != null && engine.upgradeSkill(command.getSkillType());
+            default:
+                return false;
+        }
+    }
+
+    public SimulationEngine getEngine() {
+        return engine;
+    }
+
+    public int getAppliedCount() {
+        return appliedCount;
+    }
+
+    public int getSkippedCount() {
+        int total = 0;
+        for (int count : skipped.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    public Map<JournalCommand.Type, Integer> getSkippedByType() {
+        return new EnumMap<>(skipped);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,225 @@
+package com.vpstycoon.game.simulation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+public class MonteCarloResult {
+    private final List<RunResult> runs;
+    private final int years;
+    private final long elapsedNanos;
+    private final Distribution revenue;
+    private final Distribution finalMoney;
+    private final Distribution rating;
+    private final int[] bankruptciesByYear;
+    private final int bankruptCount;
+
+    public MonteCarloResult(List<RunResult> runs, int years, long elapsedNanos) {
+        this.runs = Collections.unmodifiableList(runs);
+        this.years = years;
+        this.elapsedNanos = elapsedNanos;
+
+        double[] revenueValues = new double[runs.size()];
+        double[] moneyValues = new double[runs.size()];
+        double[] ratingValues = new double[runs.size()];
+        this.bankruptciesByYear = new int[Math.max(1, years)];
+        int bankrupt = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            RunResult run = runs.get(i);
+            revenueValues[i] = run.getTotalRevenue();
+            moneyValues[i] = run.getFinalMoney();
+            ratingValues[i] = run.getRating();
+            if (run.isBankrupt()) {
+                bankrupt++;
+                int year = Math.min(bankruptciesByYear.length - 1, run.getMonthsSurvived() / 12);
+                bankruptciesByYear[year]++;
+            }
+        }
+        this.bankruptCount = bankrupt;
+        this.revenue = new Distribution(revenueValues);
+        this.finalMoney = new Distribution(moneyValues);
+        this.rating = new Distribution(ratingValues);
+    }
+
+    public List<RunResult> getRuns() {
+        return runs;
+    }
+
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRunsPerMinute() {
+        return elapsedNanos > 0 ? runs.size() * 60_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    public Distribution getRevenue() {
+        return revenue;
+    }
+
+    public Distribution getFinalMoney() {
+        return finalMoney;
+    }
+
+    public Distribution getRating() {
+        return rating;
+    }
+
+    public int getBankruptCount() {
+        return bankruptCount;
+    }
+
+    public double getBankruptcyRate() {
+        return runs.isEmpty() ? 0 : (double) bankruptCount / runs.size();
+    }
+
+
+    public int[] getBankruptciesByYear() {
+        return bankruptciesByYear.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Monte Carlo: %d runs x %d years in %.1fs (%.0f runs/min)%n",
+                runs.size(), years, elapsedNanos / 1e9, getRunsPerMinute()));
+        sb.append("  revenue     ").append(revenue).append(System.lineSeparator());
+        sb.append("  final money ").append(finalMoney).append(System.lineSeparator());
+        sb.append("  rating      ").append(rating).append(System.lineSeparator());
+        sb.append(String.format("  bankrupt    %d (%.1f%%) by year %s",
+                bankruptCount, getBankruptcyRate() * 100, Arrays.toString(bankruptciesByYear)));
+        return sb.toString();
+    }
+
+
+    public static class RunResult {
+        private final int index;
+        private final long seed;
+        private final long finalMoney;
+        private final long totalRevenue;
+        private final long totalExpenses;
+        private final double rating;
+        private final int completedRequests;
+        private final int serverCount;
+        private final boolean bankrupt;
+        private final int monthsSurvived;
+
+        public RunResult(int index, long seed, long finalMoney, long totalRevenue, long totalExpenses, double rating,
+                         int completedRequests, int serverCount, boolean bankrupt, int monthsSurvived) {
+            this.index = index;
+            this.seed = seed;
+            this.finalMoney = finalMoney;
+            this.totalRevenue = totalRevenue;
+            this.totalExpenses = totalExpenses;
+            this.rating = rating;
+            this.completedRequests = completedRequests;
+            this.serverCount = serverCount;
+            this.bankrupt = bankrupt;
+            this.monthsSurvived = monthsSurvived;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public long getFinalMoney() {
+            return finalMoney;
+        }
+
+        public long getTotalRevenue() {
+            return totalRevenue;
+        }
+
+        public long getTotalExpenses() {
+            return totalExpenses;
+        }
+
+        public double getRating() {
+            return rating;
+        }
+
+        public int getCompletedRequests() {
+            return completedRequests;
+        }
+
+        public int getServerCount() {
+            return serverCount;
+        }
+
+        public boolean isBankrupt() {
+            return bankrupt;
+        }
+
+        public int getMonthsSurvived() {
+            return monthsSurvived;
+        }
+    }
+
+
+    public static class Distribution {
+        private final double[] sorted;
+        private final double mean;
+        private final double stdDev;
+
+        public Distribution(double[] values) {
+            this.sorted = values.clone();
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (double value : sorted) {
+                sum += value;
+            }
+            this.mean = sorted.length > 0 ? sum / sorted.length : 0;
+            double squares = 0;
+            for (double value : sorted) {
+                squares += (value - mean) * (value - mean);
+            }
+            this.stdDev = sorted.length > 1 ? Math.sqrt(squares / (sorted.length - 1)) : 0;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getStdDev() {
+            return stdDev;
+        }
+
+        public double getMin() {
+            return sorted.length > 0 ? sorted[0] : 0;
+        }
+
+        public double getMax() {
+            return sorted.length > 0 ? sorted[sorted.length - 1] : 0;
+        }
+
+
+        public double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            double rank = Math.max(0, Math.min(1, p)) * (sorted.length - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = (int) Math.ceil(rank);
+            return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mean=%.2f sd=%.2f min=%.2f p5=%.2f p50=%.2f p95=%.2f max=%.2f",
+                    mean, stdDev, getMin(), percentile(0.05), percentile(0.5), percentile(0.95), getMax());
+        }
+    }
+}
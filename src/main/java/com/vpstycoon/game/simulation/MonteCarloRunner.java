@@ -0,0 +1,182 @@
+package com.vpstycoon.game.simulation;
+
+import com.vpstycoon.game.company.Company;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+
+public class MonteCarloRunner {
+    private static final int DEFAULT_BATCH_SIZE = 4;
+
+    private final int simulations;
+    private final int years;
+    private long baseSeed = 42L;
+    private long tickMs = SimulationEngine.DEFAULT_TICK_MS;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean stopOnBankruptcy = true;
+    private Supplier<Company> companyFactory = Company::new;
+    private Supplier<SimulationEngine.PlayerPolicy> policyFactory = AutoAssignPolicy::new;
+
+    public MonteCarloRunner(int simulations, int years) {
+        if (simulations <= 0 || years <= 0) {
+            throw new IllegalArgumentException("simulations and years must be positive");
+        }
+        this.simulations = simulations;
+        this.years = years;
+    }
+
+
+    public MonteCarloResult run() {
+        long[] seeds = new long[simulations];
+        SplittableRandom seedSource = new SplittableRandom(baseSeed);
+        for (int i = 0; i < simulations; i++) {
+            seeds[i] = seedSource.nextLong();
+        }
+
+        MonteCarloResult.RunResult[] results = new MonteCarloResult.RunResult[simulations];
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RunBatch(seeds, results, 0, simulations));
+        } finally {
+            pool.shutdown();
+        }
+        return new MonteCarloResult(Arrays.asList(results), years, System.nanoTime() - start);
+    }
+
+
+    public MonteCarloResult.RunResult runSingle(int index, long seed) {
+        SimulationEngine engine = new SimulationEngine(companyFactory.get(), seed, tickMs);
+        engine.setPolicy(policyFactory.get());
+
+        LocalDateTime start = engine.getGameDateTime();
+        int totalMonths = years * 12;
+        int monthsSurvived = 0;
+        boolean bankrupt = false;
+        for (int month = 1; month <= totalMonths; month++) {
+            engine.runUntil(start.plusMonths(month));
+            if (!bankrupt && engine.isBankrupt()) {
+                bankrupt = true;
+                if (stopOnBankruptcy) {
+                    break;
+                }
+            }
+            if (!bankrupt) {
+                monthsSurvived = month;
+            }
+        }
+
+        Company company = engine.getCompany();
+        return new MonteCarloResult.RunResult(index, seed, company.getMoney(), company.getTotalRevenue(),
+                company.getTotalExpenses(), company.getRating(),
+                engine.getRequestManager().getCompletedRequests().size(),
+                engine.getRack().getAllInstalledVPS().size() + engine.getInventory().getSize(),
+                bankrupt, monthsSurvived);
+    }
+
+    public int getSimulations() {
+        return simulations;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public long getBaseSeed() {
+        return baseSeed;
+    }
+
+    public void setBaseSeed(long baseSeed) {
+        this.baseSeed = baseSeed;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    public void setTickMs(long tickMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        this.tickMs = tickMs;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public boolean isStopOnBankruptcy() {
+        return stopOnBankruptcy;
+    }
+
+    public void setStopOnBankruptcy(boolean stopOnBankruptcy) {
+        this.stopOnBankruptcy = stopOnBankruptcy;
+    }
+
+    public void setCompanyFactory(Supplier<Company> companyFactory) {
+        this.companyFactory = companyFactory;
+    }
+
+
+    public void setPolicyFactory(Supplier<SimulationEngine.PlayerPolicy> policyFactory) {
+        this.policyFactory = policyFactory;
+    }
+
+
+    // Fork/join task only, never serialized.
+    @SuppressWarnings("serial")
+    private class RunBatch extends RecursiveAction {
+        private final long[] seeds;
+        private final MonteCarloResult.RunResult[] results;
+        private final int from;
+        private final int to;
+
+        private RunBatch(long[] seeds, MonteCarloResult.RunResult[] results, int from, int to) {
+            this.seeds = seeds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = runSingle(i, seeds[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RunBatch(seeds, results, from, mid), new RunBatch(seeds, results, mid, to));
+        }
+    }
+
+
+    public static void main(String[] args) {
+        int simulations = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int years = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        MonteCarloRunner runner = new MonteCarloRunner(simulations, years);
+        if (args.length > 2) {
+            runner.setBaseSeed(Long.parseLong(args[2]));
+        }
+        System.out.println(runner.run());
+    }
+}
@@ -0,0 +1,455 @@
+package com.vpstycoon.game.simulation;
+
+import com.vpstycoon.game.GameRandom;
+import com.vpstycoon.game.company.Company;
+import com.vpstycoon.game.company.SkillPointsSystem;
+import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.manager.RequestManager;
+import com.vpstycoon.game.thread.GameTimeManager;
+import com.vpstycoon.game.vps.VPSInventory;
+import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RackProduct;
+import com.vpstycoon.game.vps.enums.VPSProduct;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
+
+
+public class SimulationEngine {
+    public static final long DEFAULT_TICK_MS = GameTimeManager.GAME_DAY_MS / 24;
+
+    private static final int MIN_REQUEST_DELAY_MS = 30_000;
+    private static final int MAX_REQUEST_DELAY_MS = 120_000;
+    private static final int MAX_PENDING_REQUESTS = 20;
+    private static final int STARTING_RACK_SLOTS = 10;
+
+
+    public interface PlayerPolicy {
+        void onTick(SimulationEngine engine);
+    }
+
+    private final Company company;
+    private final SkillPointsSystem skillPointsSystem;
+    private final RequestManager requestManager;
+    private final SimulationRack rack;
+    private final VPSInventory inventory;
+    private final GameRandom gameRandom;
+    private final LocalDateTime startDateTime;
+    private final long tickMs;
+
+    private final PriorityQueue<PendingDeployment> deployments = new PriorityQueue<>();
+    private final Map<CustomerRequest, VPSOptimization> placements = new HashMap<>();
+    private final Map<VPSOptimization, Integer> reservedVMs = new HashMap<>();
+
+    private PlayerPolicy policy;
+    private boolean requestGenerationEnabled = true;
+    private LocalDateTime gameDateTime;
+    private long gameTimeMs = 0;
+    private long nextDailyCheckMs = GameTimeManager.GAME_DAY_MS;
+    private long nextRequestTimeMs;
+    private int lastProcessedMonth;
+    private long tickCount = 0;
+    private long deploymentSequence = 0;
+    private int serverSequence = 0;
+    private int missedKeepUpPayments = 0;
+
+    public SimulationEngine(long seed) {
+        this(new Company(), seed, DEFAULT_TICK_MS);
+    }
+
+    public SimulationEngine(Company company, long seed, long tickMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        this.gameRandom = new GameRandom(seed);
+        this.company = company;
+        this.company.setHeadless(true);
+        this.skillPointsSystem = new SkillPointsSystem(company);
+        this.requestManager = new RequestManager(company, skillPointsSystem);
+        this.rack = new SimulationRack();
+        this.inventory = new VPSInventory();
+        this.tickMs = tickMs;
+        this.startDateTime = LocalDateTime.of(2000, 1, 1, 0, 0, 0);
+        this.gameDateTime = startDateTime;
+        this.lastProcessedMonth = startDateTime.getMonthValue();
+        this.policy = new AutoAssignPolicy();
+
+
+        int firstRack = rack.addRack(STARTING_RACK_SLOTS);
+        rack.upgrade(firstRack);
+
+        this.nextRequestTimeMs = GameRandom.callWith(gameRandom, this::nextRequestDelay);
+    }
+
+
+    public void step() {
+        GameRandom.runWith(gameRandom, () -> tick(gameTimeMs + tickMs));
+    }
+
+
+    public void advanceTo(long targetGameTimeMs) {
+        GameRandom.runWith(gameRandom, () -> {
+            while (gameTimeMs < targetGameTimeMs) {
+                tick(Math.min(gameTimeMs + tickMs, targetGameTimeMs));
+            }
+        });
+    }
+
+    public void runDays(int days) {
+        advanceTo(gameTimeMs + days * GameTimeManager.GAME_DAY_MS);
+    }
+
+    public void runUntil(LocalDateTime dateTime) {
+        long millisBetween = ChronoUnit.MILLIS.between(startDateTime, dateTime);
+        advanceTo((long) Math.ceil(millisBetween / GameTimeManager.SCALE_FACTOR));
+    }
+
+    private void tick(long nextGameTimeMs) {
+        gameTimeMs = nextGameTimeMs;
+        gameDateTime = startDateTime.plus((long) (gameTimeMs * GameTimeManager.SCALE_FACTOR), ChronoUnit.MILLIS);
+
+        completeDueDeployments();
+        generateDueRequests();
+
+        while (nextDailyCheckMs <= gameTimeMs) {
+            LocalDateTime checkDate = startDateTime.plus(
+                    (long) (nextDailyCheckMs * GameTimeManager.SCALE_FACTOR), ChronoUnit.MILLIS);
+            if (checkDate.getMonthValue() != lastProcessedMonth) {
+                processMonthlyKeepUp();
+                lastProcessedMonth = checkDate.getMonthValue();
+            }
+            processDailyChecks(nextDailyCheckMs);
+            nextDailyCheckMs += GameTimeManager.GAME_DAY_MS;
+        }
+
+        if (policy != null) {
+            policy.onTick(this);
+        }
+        tickCount++;
+    }
+
+    private void completeDueDeployments() {
+        while (!deployments.isEmpty() && deployments.peek().dueTimeMs <= gameTimeMs) {
+            PendingDeployment deployment = deployments.poll();
+            releaseReservation(deployment.vps);
+            VPSOptimization.VM vm = requestManager.getVmProvisioningManager().completeProvisioning(
+                    deployment.request, deployment.vps,
+                    deployment.vcpus, deployment.ramGB, deployment.diskGB,
+                    deployment.dueTimeMs);
+            placements.put(deployment.request, deployment.vps);
+            deployment.future.complete(vm);
+        }
+    }
+
+    private void generateDueRequests() {
+        if (!requestGenerationEnabled) {
+            return;
+        }
+        while (nextRequestTimeMs <= gameTimeMs) {
+            if (requestManager.getRequests().size() < MAX_PENDING_REQUESTS) {
+                requestManager.addRequest(requestManager.generateRandomRequest());
+            }
+            nextRequestTimeMs += nextRequestDelay();
+        }
+    }
+
+    private long nextRequestDelay() {
+        double multiplier = 1.0 + (company.getRating() - 1.0) * 0.5;
+        multiplier = Math.max(0.5, Math.min(3.0, multiplier));
+        int adjustedMinDelay = (int) (MIN_REQUEST_DELAY_MS / multiplier);
+        int adjustedMaxDelay = (int) (MAX_REQUEST_DELAY_MS / multiplier);
+        return adjustedMinDelay + gameRandom.get(GameRandom.Stream.ARRIVALS).nextInt(adjustedMaxDelay - adjustedMinDelay);
+    }
+
+    private void processMonthlyKeepUp() {
+        long totalKeepUpCost = rack.getMonthlyKeepUp();
+
+        if (totalKeepUpCost > 0 && !company.spendMoney(totalKeepUpCost)) {
+            missedKeepUpPayments++;
+        }
+    }
+
+    private void processDailyChecks(long checkTimeMs) {
+        requestManager.processPayments(checkTimeMs);
+
+        for (CustomerRequest request : requestManager.checkRentalExpirations(checkTimeMs)) {
+            handleRentalExpiration(request, checkTimeMs);
+        }
+    }
+
+    private void handleRentalExpiration(CustomerRequest request, long checkTimeMs) {
+        double renewalProbability = Math.max(0.1, Math.min(0.95, 0.5 + company.getRating() * 0.1));
+        RandomGenerator random = gameRandom.get(GameRandom.Stream.RENTALS);
+
+        if (random.nextDouble() < renewalProbability && placements.containsKey(request)) {
+            if (random.nextBoolean()) {
+                CustomerRequest.RentalPeriodType[] periods = CustomerRequest.RentalPeriodType.values();
+                request.setRentalPeriodType(periods[random.nextInt(periods.length)]);
+            }
+            request.activate(checkTimeMs);
+            company.addMoney(request.getPaymentAmount());
+        } else {
+            completeRequest(request);
+        }
+    }
+
+
+    public CompletableFuture<VPSOptimization.VM> acceptRequest(
+            CustomerRequest request,
+            VPSOptimization vps,
+            int vcpus,
+            int ramGB,
+            int diskGB) {
+        return GameRandom.callWith(gameRandom, () -> deploy(request, vps, vcpus, ramGB, diskGB));
+    }
+
+    private CompletableFuture<VPSOptimization.VM> deploy(
+            CustomerRequest request,
+            VPSOptimization vps,
+            int vcpus,
+            int ramGB,
+            int diskGB) {
+        CompletableFuture<VPSOptimization.VM> future = new CompletableFuture<>();
+
+        if (!requestManager.getRequests().contains(request) || isAssigned(request)) {
+            future.completeExceptionally(new IllegalArgumentException("Request not found"));
+            return future;
+        }
+        if (!vps.isInstalled() || getFreeVMSlots(vps) <= 0) {
+            future.completeExceptionally(new IllegalStateException("No VM capacity on " + vps.getVpsId()));
+            return future;
+        }
+
+        long dueTimeMs = gameTimeMs + requestManager.getVmProvisioningManager().calculateProvisioningTimeMs();
+        reservedVMs.merge(vps, 1, Integer::sum);
+        deployments.add(new PendingDeployment(
+                dueTimeMs, deploymentSequence++, request, vps, vcpus, ramGB, diskGB, future));
+        return future;
+    }
+
+
+    public void addRequest(CustomerRequest request) {
+        GameRandom.runWith(gameRandom, () -> requestManager.addRequest(request));
+    }
+
+
+    public boolean completeRequest(CustomerRequest request) {
+        return GameRandom.callWith(gameRandom, () -> {
+            VPSOptimization vps = placements.remove(request);
+            boolean completed = vps != null && requestManager.completeRequest(request, vps);
+            requestManager.getRequests().remove(request);
+            return completed;
+        });
+    }
+
+    public VPSOptimization buyServer(VPSProduct product) {
+        if (!company.spendMoney(product.getPrice())) {
+            return null;
+        }
+        VPSOptimization vps = new VPSOptimization();
+        vps.setCompany(company);
+        vps.setVpsId("vps-sim-" + (++serverSequence));
+        vps.setName(product.getName());
+        vps.setVCPUs(product.getCpu());
+        vps.setRamInGB(product.getRam());
+        vps.setDiskInGB(product.getStorage());
+        vps.setSize(product.getSize());
+        vps.setProduct(product);
+        vps.setInstalled(false);
+        inventory.addVPS(vps.getVpsId(), vps);
+        return vps;
+    }
+
+    public boolean installServer(VPSOptimization vps) {
+        if (rack.installVPS(vps)) {
+            inventory.removeVPS(vps.getVpsId());
+            return true;
+        }
+        return false;
+    }
+
+    public boolean installServer(VPSOptimization vps, int rackIndex) {
+        if (rack.installVPS(rackIndex, vps)) {
+            inventory.removeVPS(vps.getVpsId());
+            return true;
+        }
+        return false;
+    }
+
+    public boolean uninstallServer(VPSOptimization vps) {
+        if (!vps.getVms().isEmpty() || reservedVMs.containsKey(vps)) {
+            return false;
+        }
+        if (rack.uninstallVPS(vps)) {
+            inventory.addVPS(vps.getVpsId(), vps);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean buyRack(RackProduct product) {
+        if (!company.spendMoney(product.getPrice())) {
+            return false;
+        }
+        rack.addRack(product);
+        return true;
+    }
+
+
+    public int getRackUpgradeCost(int rackIndex) {
+        int baseCost = rack.getUnlockedSlotUnits(rackIndex) * 100;
+        int discountPercent = skillPointsSystem.getRackSlotUpgradeDiscount();
+        if (discountPercent > 0) {
+            baseCost = (int) (baseCost * (1 - discountPercent / 100.0));
+        }
+        return baseCost;
+    }
+
+    public boolean upgradeRack(int rackIndex) {
+        if (rack.getUnlockedSlotUnits(rackIndex) >= rack.getMaxSlotUnits(rackIndex)) {
+            return false;
+        }
+        if (!company.spendMoney(getRackUpgradeCost(rackIndex))) {
+            return false;
+        }
+        return rack.upgrade(rackIndex);
+    }
+
+    public boolean upgradeSkill(SkillPointsSystem.SkillType skillType) {
+        return skillPointsSystem.upgradeSkill(skillType);
+    }
+
+    public boolean isAssigned(CustomerRequest request) {
+        if (placements.containsKey(request)) {
+            return true;
+        }
+        for (PendingDeployment deployment : deployments) {
+            if (deployment.request == request) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getFreeVMSlots(VPSOptimization vps) {
+        return vps.getMaxVMs() - vps.getVms().size() - reservedVMs.getOrDefault(vps, 0);
+    }
+
+    public List<CustomerRequest> getUnassignedRequests() {
+        List<CustomerRequest> unassigned = new ArrayList<>();
+        for (CustomerRequest request : requestManager.getRequests()) {
+            if (!request.isExpired() && !isAssigned(request)) {
+                unassigned.add(request);
+            }
+        }
+        return unassigned;
+    }
+
+    private void releaseReservation(VPSOptimization vps) {
+        reservedVMs.computeIfPresent(vps, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public Company getCompany() {
+        return company;
+    }
+
+    public SkillPointsSystem getSkillPointsSystem() {
+        return skillPointsSystem;
+    }
+
+    public RequestManager getRequestManager() {
+        return requestManager;
+    }
+
+    public SimulationRack getRack() {
+        return rack;
+    }
+
+    public VPSInventory getInventory() {
+        return inventory;
+    }
+
+    public GameRandom getGameRandom() {
+        return gameRandom;
+    }
+
+    public PlayerPolicy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(PlayerPolicy policy) {
+        this.policy = policy;
+    }
+
+    public boolean isRequestGenerationEnabled() {
+        return requestGenerationEnabled;
+    }
+
+    public void setRequestGenerationEnabled(boolean requestGenerationEnabled) {
+        this.requestGenerationEnabled = requestGenerationEnabled;
+    }
+
+    public long getGameTimeMs() {
+        return gameTimeMs;
+    }
+
+    public LocalDateTime getGameDateTime() {
+        return gameDateTime;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public int getPendingDeploymentCount() {
+        return deployments.size();
+    }
+
+    public int getMissedKeepUpPayments() {
+        return missedKeepUpPayments;
+    }
+
+    public boolean isBankrupt() {
+        return company.getMoney() < 0 || missedKeepUpPayments > 0;
+    }
+
+    private static final class PendingDeployment implements Comparable<PendingDeployment> {
+        private final long dueTimeMs;
+        private final long sequence;
+        private final CustomerRequest request;
+        private final VPSOptimization vps;
+        private final int vcpus;
+        private final int ramGB;
+        private final int diskGB;
+        private final CompletableFuture<VPSOptimization.VM> future;
+
+        private PendingDeployment(long dueTimeMs, long sequence, CustomerRequest request, VPSOptimization vps,
+                                  int vcpus, int ramGB, int diskGB, CompletableFuture<VPSOptimization.VM> future) {
+            this.dueTimeMs = dueTimeMs;
+            this.sequence = sequence;
+            this.request = request;
+            this.vps = vps;
+            this.vcpus = vcpus;
+            this.ramGB = ramGB;
+            this.diskGB = diskGB;
+            this.future = future;
+        }
+
+        @Override
+        public int compareTo(PendingDeployment other) {
+            int byTime = Long.compare(dueTimeMs, other.dueTimeMs);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.vpstycoon.game.simulation;
+
+import com.vpstycoon.game.vps.KeepUpLedger;
+import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RackProduct;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class SimulationRack implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final List<List<VPSOptimization>> rackVPS = new ArrayList<>();
+    private final List<Integer> slotsPerRack = new ArrayList<>();
+    private final List<Integer> unlockedSlotUnitsList = new ArrayList<>();
+    private final List<Integer> occupiedSlotUnitsList = new ArrayList<>();
+    private final KeepUpLedger keepUpLedger = new KeepUpLedger();
+
+
+    public int addRack(int slots) {
+        return addRack(slots, null);
+    }
+
+    public int addRack(RackProduct product) {
+        return addRack(product.getSlots(), product);
+    }
+
+    public int addRack(int slots, RackProduct product) {
+        slotsPerRack.add(slots);
+        keepUpLedger.addRack(product);
+        rackVPS.add(new ArrayList<>());
+        unlockedSlotUnitsList.add(1);
+        occupiedSlotUnitsList.add(0);
+        return rackVPS.size() - 1;
+    }
+
+    public int getRackCount() {
+        return rackVPS.size();
+    }
+
+    public int getMaxSlotUnits(int rackIndex) {
+        return isValidIndex(rackIndex) ? slotsPerRack.get(rackIndex) : 0;
+    }
+
+    public int getUnlockedSlotUnits(int rackIndex) {
+        return isValidIndex(rackIndex) ? unlockedSlotUnitsList.get(rackIndex) : 0;
+    }
+
+    public int getOccupiedSlotUnits(int rackIndex) {
+        return isValidIndex(rackIndex) ? occupiedSlotUnitsList.get(rackIndex) : 0;
+    }
+
+    public int getAvailableSlotUnits(int rackIndex) {
+        if (!isValidIndex(rackIndex)) {
+            return 0;
+        }
+        return unlockedSlotUnitsList.get(rackIndex) - occupiedSlotUnitsList.get(rackIndex);
+    }
+
+
+    public boolean upgrade(int rackIndex) {
+        if (!isValidIndex(rackIndex)) {
+            return false;
+        }
+        int currentUnlockedSlots = unlockedSlotUnitsList.get(rackIndex);
+        if (currentUnlockedSlots < slotsPerRack.get(rackIndex)) {
+            unlockedSlotUnitsList.set(rackIndex, currentUnlockedSlots + 1);
+            return true;
+        }
+        return false;
+    }
+
+
+    public boolean installVPS(int rackIndex, VPSOptimization vps) {
+        if (!isValidIndex(rackIndex) || getAvailableSlotUnits(rackIndex) < vps.getSlotsRequired()) {
+            return false;
+        }
+        rackVPS.get(rackIndex).add(vps);
+        occupiedSlotUnitsList.set(rackIndex, occupiedSlotUnitsList.get(rackIndex) + vps.getSlotsRequired());
+        vps.setInstalled(true);
+        keepUpLedger.addServer(vps);
+        return true;
+    }
+
+
+    public boolean installVPS(VPSOptimization vps) {
+        for (int i = 0; i < rackVPS.size(); i++) {
+            if (installVPS(i, vps)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean uninstallVPS(VPSOptimization vps) {
+        for (int i = 0; i < rackVPS.size(); i++) {
+            if (rackVPS.get(i).remove(vps)) {
+                occupiedSlotUnitsList.set(i, occupiedSlotUnitsList.get(i) - vps.getSlotsRequired());
+                vps.setInstalled(false);
+                keepUpLedger.removeServer(vps);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<VPSOptimization> getInstalledVPS(int rackIndex) {
+        if (!isValidIndex(rackIndex)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(rackVPS.get(rackIndex));
+    }
+
+    public List<VPSOptimization> getAllInstalledVPS() {
+        List<VPSOptimization> allVPS = new ArrayList<>();
+        for (List<VPSOptimization> rackVPSList : rackVPS) {
+            allVPS.addAll(rackVPSList);
+        }
+        return allVPS;
+    }
+
+
+    public KeepUpLedger getKeepUpLedger() {
+        return keepUpLedger;
+    }
+
+    public long getMonthlyKeepUp() {
+        return keepUpLedger.getMonthlyKeepUp();
+    }
+
+    public int getTotalAvailableSlotUnits() {
+        int total = 0;
+        for (int i = 0; i < rackVPS.size(); i++) {
+            total += getAvailableSlotUnits(i);
+        }
+        return total;
+    }
+
+    private boolean isValidIndex(int rackIndex) {
+        return rackIndex >= 0 && rackIndex < rackVPS.size();
+    }
+}
@@ -0,0 +1,99 @@
+package com.vpstycoon.game.thread;
+
+
+public class GameClock {
+    public static final double MIN_SPEED = 0.25;
+    public static final double MAX_SPEED = 16.0;
+
+    private static final GameClock INSTANCE = new GameClock();
+
+    private long baseTimeMs = 0;
+    private long baseNanos = System.nanoTime();
+    private double speed = 1.0;
+    private boolean paused = true;
+
+    public GameClock() {
+    }
+
+    public static GameClock getInstance() {
+        return INSTANCE;
+    }
+
+
+    public synchronized long getTimeMs() {
+        if (paused) {
+            return baseTimeMs;
+        }
+        return baseTimeMs + (long) ((System.nanoTime() - baseNanos) / 1_000_000.0 * speed);
+    }
+
+    public synchronized void setTimeMs(long timeMs) {
+        baseTimeMs = timeMs;
+        baseNanos = System.nanoTime();
+        notifyAll();
+    }
+
+    public synchronized void pause() {
+        if (paused) {
+            return;
+        }
+        rebase();
+        paused = true;
+        notifyAll();
+    }
+
+    public synchronized void resume() {
+        if (!paused) {
+            return;
+        }
+        baseNanos = System.nanoTime();
+        paused = false;
+        notifyAll();
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+
+    public synchronized void setSpeed(double speed) {
+        rebase();
+        this.speed = Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+        notifyAll();
+    }
+
+    public synchronized double getSpeed() {
+        return speed;
+    }
+
+
+    public void sleep(long gameMs) throws InterruptedException {
+        awaitTime(getTimeMs() + gameMs);
+    }
+
+
+    public synchronized void awaitTime(long deadlineMs) throws InterruptedException {
+        long now;
+        while ((now = getTimeMs()) < deadlineMs) {
+            if (paused) {
+                wait();
+            } else {
+                long wallMs = (long) Math.ceil((deadlineMs - now) / speed);
+                wait(Math.max(1, wallMs));
+            }
+        }
+    }
+
+
+    public synchronized void awaitRunning() throws InterruptedException {
+        while (paused) {
+            wait();
+        }
+    }
+
+
+    private void rebase() {
+        baseTimeMs = getTimeMs();
+        baseNanos = System.nanoTime();
+    }
+}
@@ -1,5 +1,6 @@
 package com.vpstycoon.game.thread;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.resource.ResourceManager;
@@ -46,6 +47,8 @@ public class GameEvent implements Runnable {
    private static final int MIN_TASK_INTERVAL = 2 * 60 * 1000; // Minimum 1 minute between tasks
    private static final int MAX_TASK_INTERVAL = 10 * 60 * 1000; // Maximum 2 minutes between tasks
    private static final int DEBUG_INTERVAL = 5 * 1000; // Debug output every 5 seconds
+   private static final int TASK_RECHECK_INTERVAL = 500; // Re-check while a task is still active
+   public static final String TASK_TIMER = "game-event-task";
 
     private final GameplayContentPane gameplayContentPane;
     private final ResourceManager resourceManager;
@@ -56,8 +59,8 @@ public class GameEvent implements Runnable {
     private volatile boolean isRunning;
     private int completedTaskCount = 0;
     private int failedTaskCount = 0;
-    private long nextTaskTime = 0;
-    private long lastDebugTime = 0;
+    private volatile HierarchicalTimingWheel.GameTimer nextTaskTimer;
+    private volatile HierarchicalTimingWheel.GameTimer debugTimer;
     
 
     private final AtomicBoolean taskActive = new AtomicBoolean(false);
@@ -76,10 +79,10 @@ public class GameEvent implements Runnable {
     @SuppressWarnings("unchecked")
     private final Supplier<GameTask>[] taskFactories = new Supplier[] {
 
-        () -> new WireTask(random.nextInt(3) + 3), // Makufff check leaw jaa
+        () -> new WireTask(GameRandom.stream(GameRandom.Stream.EVENTS).nextInt(3) + 3), // Makufff check leaw jaa
 
 
-        () -> new DataDecryptionTask(random.nextInt(3) + 3), // Makufff check leaw jaa
+        () -> new DataDecryptionTask(GameRandom.stream(GameRandom.Stream.EVENTS).nextInt(3) + 3), // Makufff check leaw jaa
 
 
         () -> new FirewallDefenseTask(), // Makufff check leaw jaa
@@ -281,8 +284,8 @@ public class GameEvent implements Runnable {
         
         try {
 
-            nextTaskTime = System.currentTimeMillis() + INITIAL_TASK_DELAY;
-            lastDebugTime = System.currentTimeMillis();
+            HierarchicalTimingWheel timingWheel = resourceManager.getTimingWheel();
+            nextTaskTimer = timingWheel.schedule(TASK_TIMER, INITIAL_TASK_DELAY, this::onTaskTimer);
             
 
             LOGGER.info("Task system started. First task in " + formatTime(INITIAL_TASK_DELAY));
@@ -290,30 +293,48 @@ public class GameEvent implements Runnable {
             
 
             updateDebugLabel();
+            scheduleDebugRefresh();
+        } catch (Exception e) {
+            isRunning = false;
+            LOGGER.warning("GameEvent could not register timers: " + e.getMessage());
+            System.err.println("[GAMEEVENT] Error registering timers: " + e.getMessage());
+        }
+    }
+    
 
-            while (isRunning) {
-                long currentTime = System.currentTimeMillis();
-                
+    private void onTaskTimer() {
+        if (!isRunning) {
+            return;
+        }
 
-                if (debugMode && (currentTime - lastDebugTime) >= DEBUG_INTERVAL) {
-                    lastDebugTime = currentTime;
-                    updateDebugLabel();
-                }
-                
+        if (taskActive.get()) {
+            nextTaskTimer = resourceManager.getTimingWheel().schedule(TASK_TIMER, TASK_RECHECK_INTERVAL, this::onTaskTimer);
+            return;
+        }
 
-                if (currentTime >= nextTaskTime && !taskActive.get()) {
-                    triggerRandomTask();
+        triggerRandomTask();
 
-                    updateDebugLabel();
-                }
-                
+        updateDebugLabel();
+    }
+    
 
-                Thread.sleep(500);
-            }
-        } catch (InterruptedException e) {
-            isRunning = false;
-            LOGGER.warning("GameEvent thread interrupted: " + e.getMessage());
-            Thread.currentThread().interrupt();
+    private void scheduleDebugRefresh() {
+        if (!isRunning || !debugMode) {
+            return;
+        }
+        debugTimer = resourceManager.getTimingWheel().schedule(DEBUG_INTERVAL, () -> {
+            updateDebugLabel();
+            scheduleDebugRefresh();
+        });
+    }
+    
+
+    private void cancelTimers() {
+        if (nextTaskTimer != null) {
+            nextTaskTimer.cancel();
+        }
+        if (debugTimer != null) {
+            debugTimer.cancel();
         }
     }
     
@@ -453,7 +474,7 @@ public class GameEvent implements Runnable {
         taskActive.set(true);
         
 
-        int taskIndex = random.nextInt(taskFactories.length);
+        int taskIndex = GameRandom.stream(GameRandom.Stream.EVENTS).nextInt(taskFactories.length);
         GameTask task = taskFactories[taskIndex].get();
         
         if (task == null) {
@@ -602,7 +623,7 @@ public class GameEvent implements Runnable {
 
                 Thread bonusThread = new Thread(() -> {
                     try {
-                        Thread.sleep(3000);
+                        GameClock.getInstance().sleep(3000);
                         Platform.runLater(() -> {
                             resourceManager.pushCenterNotificationAutoClose(
                                 "TASK MILESTONE ACHIEVED",
@@ -660,12 +681,12 @@ public class GameEvent implements Runnable {
 
             int interval;
             if (MAX_TASK_INTERVAL > MIN_TASK_INTERVAL) {
-                interval = MIN_TASK_INTERVAL + random.nextInt(MAX_TASK_INTERVAL - MIN_TASK_INTERVAL);
+                interval = MIN_TASK_INTERVAL + GameRandom.stream(GameRandom.Stream.EVENTS).nextInt(MAX_TASK_INTERVAL - MIN_TASK_INTERVAL);
             } else {
 
                 interval = MIN_TASK_INTERVAL;
             }
-            nextTaskTime = System.currentTimeMillis() + interval;
+            nextTaskTimer = resourceManager.getTimingWheel().schedule(TASK_TIMER, interval, this::onTaskTimer);
             
             LOGGER.info("Task completed/failed. Next task in " + formatTime(interval));
             System.out.println("[GAMEEVENT] Task completed/failed. Next task in " + formatTime(interval));
@@ -719,18 +740,19 @@ public class GameEvent implements Runnable {
     public void stopEvent() {
         System.out.println("[GAMEEVENT] Stopping game event system");
         this.isRunning = false;
+        cancelTimers();
     }
 
     public void pauseEvent() {
         System.out.println("[GAMEEVENT] Pausing game event system");
         this.isRunning = false;
+        cancelTimers();
     }
 
     public void resumeEvent() {
         System.out.println("[GAMEEVENT] Resuming game event system");
         if (!this.isRunning) {
-            this.isRunning = true;
-            new Thread(this).start();
+            run();
         }
     }
 
@@ -746,6 +768,10 @@ public class GameEvent implements Runnable {
 
     public void setDebugMode(boolean enabled) {
         this.debugMode = enabled;
+        if (debugTimer != null) {
+            debugTimer.cancel();
+        }
+        scheduleDebugRefresh();
         LOGGER.setLevel(enabled ? Level.INFO : Level.WARNING);
         LOGGER.info("Debug mode " + (enabled ? "enabled" : "disabled"));
         System.out.println("[GAMEEVENT] Debug mode " + (enabled ? "enabled" : "disabled"));
@@ -777,7 +803,8 @@ public class GameEvent implements Runnable {
     
 
     public long getTimeUntilNextTask() {
-        return Math.max(0, nextTaskTime - System.currentTimeMillis());
+        HierarchicalTimingWheel.GameTimer timer = nextTaskTimer;
+        return timer != null && timer.isPending() ? timer.getRemainingMs() : 0;
     }
     
 
@@ -73,6 +73,34 @@ public class GameTimeController {
         }
     }
 
+    
+    public synchronized void shutdownTime() {
+        stopTime();
+        timeManager.getClock().resume();
+    }
+
+    public void pauseTime() {
+        timeManager.getClock().pause();
+    }
+
+    public void resumeTime() {
+        timeManager.getClock().resume();
+    }
+
+    public boolean isPaused() {
+        return timeManager.getClock().isPaused();
+    }
+
+    
+    public void setSpeed(double speed) {
+        timeManager.getClock().setSpeed(speed);
+        System.out.println("GameTimeController: ปรับความเร็วเวลาเกมเป็น x" + timeManager.getClock().getSpeed());
+    }
+
+    public double getSpeed() {
+        return timeManager.getClock().getSpeed();
+    }
+
     public void addTimeListener(GameTimeManager.GameTimeListener listener) {
         timeManager.addTimeListener(listener);
     }
@@ -4,7 +4,6 @@ import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.manager.RequestManager;
 import com.vpstycoon.game.vps.VPSOptimization;
-import com.vpstycoon.game.vps.enums.VPSProduct;
 import com.vpstycoon.ui.game.rack.Rack;
 
 import java.time.LocalDateTime;
@@ -19,8 +18,9 @@ public class GameTimeManager {
     public static final long GAME_MONTH_MS = GAME_DAY_MS * 30;
     public static final long GAME_YEAR_MS = GAME_MONTH_MS * 12;
     public static final long TICK_INTERVAL_MS = 1000;
-    private static final long OVERHEAD_INTERVAL = GAME_MONTH_MS;
-    private static final double SCALE_FACTOR = 86400000.0 / GAME_DAY_MS;
+    public static final int DEFAULT_MAX_CATCH_UP_DAYS_PER_FRAME = 30;
+    public static final String DAILY_TIMER = "game-day";
+    public static final double SCALE_FACTOR = 86400000.0 / GAME_DAY_MS;
 
     private final Company company;
     private RequestManager requestManager;
@@ -30,8 +30,12 @@ public class GameTimeManager {
     private final AtomicLong realTimeMs = new AtomicLong(0);
     private volatile boolean running = true;
     private int lastProcessedMonth = -1;
+    private long nextDailyCheckMs = GAME_DAY_MS;
+    private volatile int maxCatchUpDaysPerFrame = DEFAULT_MAX_CATCH_UP_DAYS_PER_FRAME;
 
     private final List<GameTimeListener> timeListeners = new ArrayList<>();
+    private final HierarchicalTimingWheel timingWheel = new HierarchicalTimingWheel();
+    private final GameClock clock = GameClock.getInstance();
 
     public interface GameTimeListener {
         void onTimeChanged(LocalDateTime newTime, long gameTimeMs);
@@ -51,10 +55,9 @@ public class GameTimeManager {
 
         running = true;
         
-        long lastTickTime = System.currentTimeMillis();
-        long lastPaymentCheckTime = lastTickTime;
-        long lastOverheadTime = lastTickTime;
-        long lastRentalCheckTime = lastTickTime;
+        clock.setTimeMs(realTimeMs.get());
+        clock.resume();
+        scheduleNextDay((realTimeMs.get() / GAME_DAY_MS + 1) * GAME_DAY_MS);
 
         System.out.println("Thread TimeManager Initializing... running=" + running);
 
@@ -64,63 +67,20 @@ public class GameTimeManager {
         try {
             while (running) {
                 try {
-                    long currentTime = System.currentTimeMillis();
-                    long elapsedMs = currentTime - lastTickTime;
-                    lastTickTime = currentTime;
+                    if (clock.isPaused()) {
+                        clock.awaitRunning();
+                    }
 
-                    realTimeMs.addAndGet(elapsedMs);
+                    realTimeMs.set(Math.max(realTimeMs.get(), clock.getTimeMs()));
 
                     long gameMs = (long) (realTimeMs.get() * SCALE_FACTOR);
 
                     gameDateTime = startDateTime.plus(gameMs, ChronoUnit.MILLIS);
 
-
-                if (gameDateTime.getMonthValue() != lastProcessedMonth) {
-                    processMonthlyKeepUp();
-                    lastProcessedMonth = gameDateTime.getMonthValue();
-                }
+                    boolean caughtUp = processElapsedDays(realTimeMs.get());
 
                     notifyTimeListeners();
 
-                    if (currentTime - lastPaymentCheckTime >= GAME_DAY_MS) {
-                        if (requestManager != null) {
-                            requestManager.processPayments(realTimeMs.get());
-                        } else {
-                            System.err.println("Warning: requestManager is null, cannot process payments");
-                            
-                            if (company != null) {
-                                try {
-                                    
-                                    com.vpstycoon.game.resource.ResourceManager resourceManager = 
-                                        com.vpstycoon.game.resource.ResourceManager.getInstance();
-                                    RequestManager rm = resourceManager.getRequestManager();
-                                    
-                                    if (rm != null) {
-                                        System.out.println("พบ RequestManager จาก ResourceManager, นำมาใช้งาน");
-                                        requestManager = rm;
-                                    } else {
-                                        
-                                        requestManager = new com.vpstycoon.game.manager.RequestManager(company);
-                                        resourceManager.setRequestManager(requestManager);
-                                        System.out.println("สร้าง RequestManager ใหม่สำเร็จใน GameTimeManager และตั้งค่าให้ ResourceManager");
-                                    }
-                                } catch (Exception e) {
-                                    System.err.println("ไม่สามารถสร้าง RequestManager ใน GameTimeManager: " + e.getMessage());
-                                }
-                            }
-                        }
-                        lastPaymentCheckTime = currentTime;
-                    }
-
-                    if (currentTime - lastOverheadTime >= OVERHEAD_INTERVAL) {
-                        lastOverheadTime = currentTime;
-                    }
-
-                    if (currentTime - lastRentalCheckTime >= GAME_DAY_MS) {
-                        checkRentalExpirations(realTimeMs.get());
-                        lastRentalCheckTime = currentTime;
-                    }
-
                     tickCounter++;
                     if (tickCounter % 10 == 0) {
                         System.out.println("GameTime Update: " + gameDateTime + " (GameTimeMs: " + gameMs + ", RealTimeMs: " + realTimeMs.get() + ")");
@@ -132,7 +92,12 @@ public class GameTimeManager {
                         break;
                     }
 
-                    Thread.sleep(TICK_INTERVAL_MS);
+                    
+                    if (caughtUp) {
+                        Thread.sleep(TICK_INTERVAL_MS);
+                    } else {
+                        Thread.yield();
+                    }
                 } catch (InterruptedException e) {
                     running = false;
                     System.out.println("Thread TimeManager Interrupted");
@@ -146,58 +111,83 @@ public class GameTimeManager {
         }
     }
 
-    private void checkRentalExpirations(long currentGameTimeMs) {
-        if (requestManager == null) {
-            System.err.println("Warning: requestManager is null in checkRentalExpirations");
-            return;
+    
+    public boolean processElapsedDays(long currentRealTimeMs) {
+        boolean caughtUp = timingWheel.advanceTo(currentRealTimeMs, maxCatchUpDaysPerFrame * GAME_DAY_MS);
+        if (!caughtUp) {
+            System.out.println("GameTimeManager catch-up: " + getPendingCatchUpDays() + " game days still pending");
         }
-        
-        for (CustomerRequest request : requestManager.getRequests()) {
-            if (request.isActive()) {
-                long rentalStartTime = request.getLastPaymentTime();
-                CustomerRequest.RentalPeriodType period = request.getRentalPeriodType();
-                if (period != null && rentalStartTime > 0) {
-                    long durationMs = period.getDays() * GAME_DAY_MS;
-                    long timeSinceLastPaymentMs = currentGameTimeMs - rentalStartTime;
-
-
-                    if (request.isPaymentDue(currentGameTimeMs)) {
-                        double payment = request.getPaymentAmount();
-                        company.addMoney(payment);
-                        request.recordPayment(currentGameTimeMs);
-                        System.out.println("Payment received from " + request.getName() + ": $" + payment +
-                                " | Game time: " + currentGameTimeMs);
-                    }
+        return caughtUp;
+    }
 
-                    if (currentGameTimeMs >= rentalStartTime + durationMs) {
+    private void scheduleNextDay(long dayBoundaryMs) {
+        nextDailyCheckMs = dayBoundaryMs;
+        timingWheel.scheduleAt(DAILY_TIMER, dayBoundaryMs, () -> {
+            processDay(dayBoundaryMs);
+            scheduleNextDay(dayBoundaryMs + GAME_DAY_MS);
+        });
+    }
 
-                        request.markAsExpired();
+    private void processDay(long dayBoundaryMs) {
+        LocalDateTime boundaryDateTime = startDateTime.plus(
+                (long) (dayBoundaryMs * SCALE_FACTOR), ChronoUnit.MILLIS);
 
-                        for (GameTimeListener listener : timeListeners) {
-                            listener.onRentalPeriodCheck(request, period);
-                            System.out.println("Rental period check completed for " + request.getName());
-                        }
-                    }
+        if (boundaryDateTime.getMonthValue() != lastProcessedMonth) {
+            processMonthlyKeepUp();
+            lastProcessedMonth = boundaryDateTime.getMonthValue();
+        }
+
+        if (ensureRequestManager()) {
+            requestManager.processPayments(dayBoundaryMs);
+        }
+        checkRentalExpirations(dayBoundaryMs);
+    }
+
+    private boolean ensureRequestManager() {
+        if (requestManager != null) {
+            return true;
+        }
+        System.err.println("Warning: requestManager is null, cannot process payments");
+        
+        if (company != null) {
+            try {
+                
+                com.vpstycoon.game.resource.ResourceManager resourceManager = 
+                    com.vpstycoon.game.resource.ResourceManager.getInstance();
+                RequestManager rm = resourceManager.getRequestManager();
+                
+                if (rm != null) {
+                    System.out.println("พบ RequestManager จาก ResourceManager, นำมาใช้งาน");
+                    requestManager = rm;
+                } else {
+                    
+                    requestManager = new com.vpstycoon.game.manager.RequestManager(company);
+                    resourceManager.setRequestManager(requestManager);
+                    System.out.println("สร้าง RequestManager ใหม่สำเร็จใน GameTimeManager และตั้งค่าให้ ResourceManager");
                 }
+            } catch (Exception e) {
+                System.err.println("ไม่สามารถสร้าง RequestManager ใน GameTimeManager: " + e.getMessage());
             }
         }
+        return requestManager != null;
     }
 
-    private void processMonthlyKeepUp() {
-        long totalKeepUpCost = 0;
-        List<VPSOptimization> installedVPS = rack.getInstalledVPS();
-
-        for (VPSOptimization vps : installedVPS) {
-            for (VPSProduct product : VPSProduct.values()) {
-                if (product.getCpu() == vps.getVCPUs() &&
-                        product.getRam() == vps.getRamInGB() &&
-                        product.getStorage() == vps.getDiskInGB() &&
-                        product.getSize() == vps.getSize()) {
-                    totalKeepUpCost += product.getKeepUp();
-                    break;
-                }
+    private void checkRentalExpirations(long currentGameTimeMs) {
+        if (requestManager == null) {
+            System.err.println("Warning: requestManager is null in checkRentalExpirations");
+            return;
+        }
+        
+        for (CustomerRequest request : requestManager.checkRentalExpirations(currentGameTimeMs)) {
+            for (GameTimeListener listener : timeListeners) {
+                listener.onRentalPeriodCheck(request, request.getRentalPeriodType());
+                System.out.println("Rental period check completed for " + request.getName());
             }
         }
+    }
+
+    private void processMonthlyKeepUp() {
+        long totalKeepUpCost = rack.getMonthlyKeepUp();
 
         if (totalKeepUpCost > 0) {
             company.spendMoney(totalKeepUpCost);
@@ -238,6 +228,8 @@ public class GameTimeManager {
 
     public void stop() {
         running = false;
+        clock.pause();
+        realTimeMs.accumulateAndGet(clock.getTimeMs(), Math::max);
     }
 
 
@@ -261,6 +253,9 @@ public class GameTimeManager {
         }
         
         lastProcessedMonth = gameDateTime.getMonthValue();
+        clock.setTimeMs(realTimeMs.get());
+        timingWheel.rebase(realTimeMs.get());
+        scheduleNextDay((realTimeMs.get() / GAME_DAY_MS + 1) * GAME_DAY_MS);
         
         
         running = true;
@@ -269,6 +264,31 @@ public class GameTimeManager {
     }
 
 
+    public HierarchicalTimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    
+    public int getMaxCatchUpDaysPerFrame() {
+        return maxCatchUpDaysPerFrame;
+    }
+
+    
+    public void setMaxCatchUpDaysPerFrame(int maxCatchUpDaysPerFrame) {
+        this.maxCatchUpDaysPerFrame = Math.max(1, maxCatchUpDaysPerFrame);
+    }
+
+    
+    public long getPendingCatchUpDays() {
+        long pending = realTimeMs.get() - nextDailyCheckMs;
+        return pending < 0 ? 0 : pending / GAME_DAY_MS + 1;
+    }
+
+
     public boolean isRunning() {
         return running;
     }
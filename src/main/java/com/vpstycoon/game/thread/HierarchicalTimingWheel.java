@@ -0,0 +1,441 @@
+package com.vpstycoon.game.thread;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+
+public class HierarchicalTimingWheel {
+    public static final long DEFAULT_TICK_MS = 100;
+    public static final int DEFAULT_WHEEL_SIZE = 64;
+
+    private static final Comparator<GameTimer> FIRING_ORDER =
+            Comparator.comparingLong(GameTimer::getDeadlineMs).thenComparingLong(timer -> timer.sequence);
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Bucket[]> levels = new ArrayList<>();
+    private final Bucket dueNow = new Bucket();
+    private final Map<String, GameTimer> namedTimers = new HashMap<>();
+    private final Map<String, Long> restoredDelays = new HashMap<>();
+
+    private long currentTick;
+    private long lastObservedClockMs;
+    private long clockOffsetMs;
+    private long sequence = 0;
+    private int timerCount = 0;
+    private boolean paused = false;
+
+
+    public final class GameTimer {
+        private final String name;
+        private final long sequence;
+        private long deadlineMs;
+        private final Runnable task;
+        private Bucket bucket;
+        private GameTimer prev;
+        private GameTimer next;
+        private boolean cancelled;
+        private boolean fired;
+
+        private GameTimer(String name, long deadlineMs, long sequence, Runnable task) {
+            this.name = name;
+            this.deadlineMs = deadlineMs;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        public long getRemainingMs() {
+            return Math.max(0, deadlineMs - getCurrentTimeMs());
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isFired() {
+            return fired;
+        }
+
+        public boolean isPending() {
+            return !cancelled && !fired;
+        }
+
+        public boolean cancel() {
+            return HierarchicalTimingWheel.this.cancel(this);
+        }
+    }
+
+    private static final class Bucket {
+        private GameTimer head;
+        private GameTimer tail;
+
+        private void add(GameTimer timer) {
+            timer.bucket = this;
+            timer.prev = tail;
+            timer.next = null;
+            if (tail == null) {
+                head = timer;
+            } else {
+                tail.next = timer;
+            }
+            tail = timer;
+        }
+
+        private void remove(GameTimer timer) {
+            if (timer.prev == null) {
+                head = timer.next;
+            } else {
+                timer.prev.next = timer.next;
+            }
+            if (timer.next == null) {
+                tail = timer.prev;
+            } else {
+                timer.next.prev = timer.prev;
+            }
+            timer.bucket = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+
+        private List<GameTimer> drain() {
+            List<GameTimer> drained = new ArrayList<>();
+            GameTimer timer = head;
+            while (timer != null) {
+                GameTimer next = timer.next;
+                timer.bucket = null;
+                timer.prev = null;
+                timer.next = null;
+                drained.add(timer);
+                timer = next;
+            }
+            head = null;
+            tail = null;
+            return drained;
+        }
+
+        private boolean isEmpty() {
+            return head == null;
+        }
+    }
+
+    public HierarchicalTimingWheel() {
+        this(DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE, 0);
+    }
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startTimeMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(startTimeMs, tickMs);
+        this.lastObservedClockMs = startTimeMs;
+    }
+
+
+    public GameTimer schedule(long delayMs, Runnable task) {
+        return schedule(null, delayMs, task);
+    }
+
+
+    public synchronized GameTimer schedule(String name, long delayMs, Runnable task) {
+        if (name != null) {
+            Long restored = restoredDelays.remove(name);
+            if (restored != null) {
+                delayMs = restored;
+            }
+        }
+        return scheduleAt(name, getCurrentTimeMs() + Math.max(0, delayMs), task);
+    }
+
+
+    public synchronized GameTimer scheduleAt(String name, long deadlineMs, Runnable task) {
+        if (name != null) {
+            restoredDelays.remove(name);
+            GameTimer previous = namedTimers.remove(name);
+            if (previous != null) {
+                cancel(previous);
+            }
+        }
+
+        GameTimer timer = new GameTimer(name, deadlineMs, sequence++, task);
+        insert(timer);
+        timerCount++;
+        if (name != null) {
+            namedTimers.put(name, timer);
+        }
+        return timer;
+    }
+
+    public synchronized boolean cancel(GameTimer timer) {
+        if (timer == null || !timer.isPending()) {
+            return false;
+        }
+        timer.cancelled = true;
+        if (timer.bucket != null) {
+            timer.bucket.remove(timer);
+        }
+        timerCount--;
+        if (timer.name != null && namedTimers.get(timer.name) == timer) {
+            namedTimers.remove(timer.name);
+        }
+        return true;
+    }
+
+    public synchronized boolean cancel(String name) {
+        return cancel(namedTimers.get(name));
+    }
+
+    public synchronized GameTimer getTimer(String name) {
+        return namedTimers.get(name);
+    }
+
+
+    public void advanceTo(long clockMs) {
+        advanceTo(clockMs, Long.MAX_VALUE);
+    }
+
+
+    public boolean advanceTo(long clockMs, long maxAdvanceMs) {
+        long targetTick;
+        boolean caughtUp = true;
+        synchronized (this) {
+            long elapsed = clockMs - lastObservedClockMs;
+            lastObservedClockMs = clockMs;
+            if (paused) {
+                clockOffsetMs += elapsed;
+                return true;
+            }
+            targetTick = Math.floorDiv(clockMs - clockOffsetMs, tickMs);
+            if (maxAdvanceMs != Long.MAX_VALUE) {
+                long limitTick = currentTick + Math.max(1, maxAdvanceMs / tickMs);
+                if (targetTick > limitTick) {
+                    targetTick = limitTick;
+                    caughtUp = false;
+                }
+            }
+        }
+
+        fireDueNow();
+        while (true) {
+            synchronized (this) {
+                if (paused || currentTick >= targetTick) {
+                    break;
+                }
+                if (timerCount == 0) {
+                    currentTick = targetTick;
+                    break;
+                }
+                currentTick++;
+                cascade();
+                for (GameTimer timer : bucketAt(0, currentTick).drain()) {
+                    dueNow.add(timer);
+                }
+            }
+            fireDueNow();
+        }
+        return caughtUp;
+    }
+
+    private void fireDueNow() {
+        while (true) {
+            List<GameTimer> firing;
+            synchronized (this) {
+                if (dueNow.isEmpty()) {
+                    return;
+                }
+                firing = dueNow.drain();
+                firing.sort(FIRING_ORDER);
+                for (GameTimer timer : firing) {
+                    timer.fired = true;
+                    timerCount--;
+                    if (timer.name != null && namedTimers.get(timer.name) == timer) {
+                        namedTimers.remove(timer.name);
+                    }
+                }
+            }
+            for (GameTimer timer : firing) {
+                try {
+                    timer.task.run();
+                } catch (Exception e) {
+                    System.err.println("Error running game timer " +
+                            (timer.name != null ? timer.name : "#" + timer.sequence) + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void insert(GameTimer timer) {
+        long expiryTick = Math.floorDiv(timer.deadlineMs + tickMs - 1, tickMs);
+        long ticksAway = expiryTick - currentTick;
+        if (ticksAway <= 0) {
+            dueNow.add(timer);
+            return;
+        }
+
+        int level = 0;
+        long span = 1;
+        while (ticksAway >= span * wheelSize) {
+            span *= wheelSize;
+            level++;
+        }
+        bucketAt(level, expiryTick / span * span).add(timer);
+    }
+
+    private void cascade() {
+        long span = 1;
+        int highest = 0;
+        for (int level = 1; level < levels.size(); level++) {
+            span *= wheelSize;
+            if (currentTick % span != 0) {
+                break;
+            }
+            highest = level;
+        }
+        for (int level = highest; level >= 1; level--) {
+            for (GameTimer timer : bucketAt(level, currentTick).drain()) {
+                insert(timer);
+            }
+        }
+    }
+
+    private Bucket bucketAt(int level, long tick) {
+        while (levels.size() <= level) {
+            Bucket[] buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            levels.add(buckets);
+        }
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            span *= wheelSize;
+        }
+        return levels.get(level)[(int) Math.floorMod(tick / span, (long) wheelSize)];
+    }
+
+
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    public synchronized void resume() {
+        paused = false;
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+
+    public void fastForward(long deltaMs) {
+        long clockMs;
+        synchronized (this) {
+            clockOffsetMs -= deltaMs;
+            clockMs = lastObservedClockMs;
+        }
+        advanceTo(clockMs);
+    }
+
+
+    public synchronized Map<String, Long> checkpoint() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, GameTimer> entry : namedTimers.entrySet()) {
+            if (entry.getValue().isPending()) {
+                snapshot.put(entry.getKey(), entry.getValue().getRemainingMs());
+            }
+        }
+        for (Map.Entry<String, Long> entry : restoredDelays.entrySet()) {
+            snapshot.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return snapshot;
+    }
+
+
+    public synchronized void restore(Map<String, Long> snapshot) {
+        restoredDelays.clear();
+        if (snapshot == null) {
+            return;
+        }
+        for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+            GameTimer existing = namedTimers.get(entry.getKey());
+            if (existing != null && existing.isPending()) {
+                Runnable task = existing.task;
+                schedule(entry.getKey(), entry.getValue(), task);
+            } else {
+                restoredDelays.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+
+    public synchronized void rebase(long clockMs) {
+        long now = getCurrentTimeMs();
+        List<GameTimer> pending = new ArrayList<>();
+        for (Bucket[] buckets : levels) {
+            for (Bucket bucket : buckets) {
+                pending.addAll(bucket.drain());
+            }
+        }
+        pending.addAll(dueNow.drain());
+        pending.sort(FIRING_ORDER);
+
+        currentTick = Math.floorDiv(clockMs, tickMs);
+        lastObservedClockMs = clockMs;
+        clockOffsetMs = 0;
+        timerCount = 0;
+        namedTimers.clear();
+
+        for (GameTimer timer : pending) {
+            timer.deadlineMs = clockMs + Math.max(0, timer.deadlineMs - now);
+            insert(timer);
+            timerCount++;
+            if (timer.name != null) {
+                namedTimers.put(timer.name, timer);
+            }
+        }
+    }
+
+
+    public void awaitDelay(long delayMs) throws InterruptedException {
+        awaitDelay(null, delayMs);
+    }
+
+
+    public void awaitDelay(String name, long delayMs) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        GameTimer timer = schedule(name, delayMs, latch::countDown);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            cancel(timer);
+            throw e;
+        }
+    }
+
+    public synchronized long getCurrentTimeMs() {
+        return Math.max(currentTick * tickMs, lastObservedClockMs - clockOffsetMs);
+    }
+
+    public synchronized int getPendingTimerCount() {
+        return timerCount;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+}
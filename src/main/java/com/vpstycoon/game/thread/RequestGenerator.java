@@ -1,12 +1,17 @@
 package com.vpstycoon.game.thread;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.manager.RequestManager;
+import com.vpstycoon.game.persistence.SaveSection;
+import com.vpstycoon.game.persistence.SaveWriter;
 import com.vpstycoon.game.resource.ResourceManager;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class RequestGenerator extends Thread {
+    public static final String GENERATOR_TIMER = "request-generator";
+
     private final RequestManager requestManager;
     private volatile boolean running = true;
     private volatile boolean paused = false;
@@ -25,7 +30,7 @@ public class RequestGenerator extends Thread {
 
     @Override
     public void run() {
-        Random random = new Random();
+        RandomGenerator random = GameRandom.stream(GameRandom.Stream.ARRIVALS);
         System.out.println("===== RequestGenerator เริ่มทำงาน (Thread ID: " + this.getId() + ") =====");
         long startTime = System.currentTimeMillis();
         int generatedRequestCount = 0;
@@ -52,7 +57,7 @@ public class RequestGenerator extends Thread {
                 
                 if (requestManager.getRequests().size() >= maxPendingRequests) {
                     System.out.println("RequestGenerator: request limit reached (" + maxPendingRequests + ")");
-                    Thread.sleep(rateLimitSleepTime);
+                    sleepGameTime(rateLimitSleepTime);
                     continue;
                 }
 
@@ -63,7 +68,7 @@ public class RequestGenerator extends Thread {
                 int delay = adjustedMinDelay + random.nextInt(adjustedMaxDelay - adjustedMinDelay);
                 
                 
-                Thread.sleep(delay);
+                sleepGameTime(delay);
 
                 
                 CustomerRequest newRequest = requestManager.generateRandomRequest();
@@ -86,12 +91,7 @@ public class RequestGenerator extends Thread {
                 
                 
                 try {
-                    if (ResourceManager.getInstance().getCurrentState() != null) {
-                        ResourceManager.getInstance().saveGameState(ResourceManager.getInstance().getCurrentState());
-                        System.out.println("บันทึกข้อมูลเกมหลังจากได้รับคำขอใหม่");
-                    } else {
-                        System.out.println("ไม่พบ GameState สำหรับบันทึกข้อมูลหลังจากได้รับคำขอใหม่");
-                    }
+                    SaveWriter.getInstance().requestSave(SaveSection.REQUESTS, SaveSection.CHAT);
                 } catch (Exception e) {
                     System.err.println("เกิดข้อผิดพลาดในการบันทึกข้อมูลเกมหลังจากได้รับคำขอใหม่: " + e.getMessage());
                 }
@@ -112,6 +112,22 @@ public class RequestGenerator extends Thread {
     }
     
     
+    private void sleepGameTime(long delayMs) throws InterruptedException {
+        HierarchicalTimingWheel timingWheel = null;
+        try {
+            timingWheel = ResourceManager.getInstance().getTimingWheel();
+        } catch (Exception e) {
+            System.err.println("RequestGenerator: ไม่พบ timing wheel, ใช้ GameClock แทน: " + e.getMessage());
+        }
+
+        if (timingWheel != null) {
+            timingWheel.awaitDelay(GENERATOR_TIMER, delayMs);
+        } else {
+            GameClock.getInstance().sleep(delayMs);
+        }
+    }
+    
+    
     private void updateRequestRateMultiplier() {
         double companyRating = 1.0;
         try {
@@ -5,6 +5,7 @@ import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.company.SkillPointsSystem;
 import com.vpstycoon.game.resource.ResourceManager;
+import com.vpstycoon.game.thread.GameClock;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -523,7 +524,7 @@ public abstract class GameTask {
                 });
                 
                 try {
-                    Thread.sleep(1000);
+                    GameClock.getInstance().sleep(1000);
                     
                     
                     if (remainingTime <= 5) {
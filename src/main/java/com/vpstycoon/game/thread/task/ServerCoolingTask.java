@@ -2,6 +2,7 @@ package com.vpstycoon.game.thread.task;
 
 import com.vpstycoon.game.company.SkillPointsSystem;
 import com.vpstycoon.game.resource.ResourceManager;
+import com.vpstycoon.game.thread.GameClock;
 import javafx.animation.FadeTransition;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
@@ -256,7 +257,7 @@ public class ServerCoolingTask extends GameTask {
                         break;
                     }
 
-                    Thread.sleep(500);
+                    GameClock.getInstance().sleep(500);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -536,7 +537,7 @@ public class ServerCoolingTask extends GameTask {
                     }
                     
                     
-                    Thread.sleep(5000);
+                    GameClock.getInstance().sleep(5000);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
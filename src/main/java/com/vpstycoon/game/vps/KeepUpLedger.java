@@ -0,0 +1,94 @@
+package com.vpstycoon.game.vps;
+
+import com.vpstycoon.game.vps.enums.RackProduct;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class KeepUpLedger implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+
+    private final Map<VPSOptimization, Integer> serverCharges = new HashMap<>();
+    private final List<RackProduct> rackProducts = new ArrayList<>();
+    private long serverKeepUp = 0;
+    private long rackKeepUp = 0;
+
+
+    public synchronized void addServer(VPSOptimization vps) {
+        if (vps == null || serverCharges.containsKey(vps)) {
+            return;
+        }
+        int charge = vps.getKeepUpCost();
+        serverCharges.put(vps, charge);
+        serverKeepUp += charge;
+    }
+
+    public synchronized void removeServer(VPSOptimization vps) {
+        Integer charge = serverCharges.remove(vps);
+        if (charge != null) {
+            serverKeepUp -= charge;
+        }
+    }
+
+
+    public synchronized void addRack(RackProduct product) {
+        rackProducts.add(product);
+        if (product != null) {
+            rackKeepUp += product.getKeepUp();
+        }
+    }
+
+    public synchronized void clear() {
+        serverCharges.clear();
+        rackProducts.clear();
+        serverKeepUp = 0;
+        rackKeepUp = 0;
+    }
+
+    public synchronized long getMonthlyKeepUp() {
+        return serverKeepUp + rackKeepUp;
+    }
+
+    public synchronized long getServerKeepUp() {
+        return serverKeepUp;
+    }
+
+    public synchronized long getRackKeepUp() {
+        return rackKeepUp;
+    }
+
+    public synchronized int getServerCount() {
+        return serverCharges.size();
+    }
+
+    public synchronized RackProduct getRackProduct(int rackIndex) {
+        return rackIndex >= 0 && rackIndex < rackProducts.size() ? rackProducts.get(rackIndex) : null;
+    }
+
+
+    public synchronized List<String> getRackProductNames() {
+        List<String> names = new ArrayList<>();
+        for (RackProduct product : rackProducts) {
+            names.add(product != null ? product.name() : null);
+        }
+        return names;
+    }
+
+
+    public static RackProduct parseRackProduct(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return RackProduct.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown rack product: " + name);
+            return null;
+        }
+    }
+}
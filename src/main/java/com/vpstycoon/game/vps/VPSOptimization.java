@@ -1,15 +1,21 @@
 package com.vpstycoon.game.vps;
 
 import com.vpstycoon.game.GameObject;
+import com.vpstycoon.game.GameRandom;
+import com.vpstycoon.game.vps.enums.VPSProduct;
 import com.vpstycoon.game.vps.enums.VPSSize;
 import com.vpstycoon.game.vps.enums.VPSStatus;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class VPSOptimization extends GameObject implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -3184555696511140586L;
+
     private final List<VM> vms;
     private VPSStatus status;
     
@@ -33,6 +39,7 @@ public class VPSOptimization extends GameObject implements Serializable {
     private int optimizationLevel = 1; 
     private VPSSize size = VPSSize.SIZE_1U; 
     private boolean installed = false; 
+    private VPSProduct product;
 
     public VPSOptimization() {
         this.vms = new ArrayList<>();
@@ -154,6 +161,22 @@ public class VPSOptimization extends GameObject implements Serializable {
         return size.getSlotsRequired();
     }
     
+    public VPSProduct getProduct() {
+        if (product == null) {
+            product = VPSProduct.fromSpecs(vcpus, ramInGB, diskInGB, size);
+        }
+        return product;
+    }
+
+    public void setProduct(VPSProduct product) {
+        this.product = product;
+    }
+
+    public int getKeepUpCost() {
+        VPSProduct resolved = getProduct();
+        return resolved != null ? resolved.getKeepUp() : 0;
+    }
+
     public boolean isInstalled() {
         return installed;
     }
@@ -249,7 +272,7 @@ public class VPSOptimization extends GameObject implements Serializable {
     }
 
     private void updateResourceUsage() {
-        Random random = new Random();
+        RandomGenerator random = GameRandom.stream(GameRandom.Stream.RESOURCES);
         this.cpuUsage = random.nextDouble() * 100;
         this.ramUsage = random.nextDouble() * 100;
         this.diskUsage = random.nextDouble() * 100;
@@ -257,6 +280,9 @@ public class VPSOptimization extends GameObject implements Serializable {
     }
 
     public static class VM implements Serializable {
+        @Serial
+        private static final long serialVersionUID = -2610038039811719471L;
+
         private String name;
         private String id;
         private int vCPUs;
@@ -272,7 +298,7 @@ public class VPSOptimization extends GameObject implements Serializable {
 
         public VM(String name, int vCPUs, int ramInGB, int diskInGB) {
             this.name = name;
-            this.id = "vm-" + System.currentTimeMillis() + "-" + new Random().nextInt(1000);
+            this.id = "vm-" + System.currentTimeMillis() + "-" + GameRandom.stream(GameRandom.Stream.NETWORK).nextInt(1000);
             this.vCPUs = vCPUs;
             this.ramInGB = ramInGB;
             this.diskInGB = diskInGB;
@@ -284,9 +310,26 @@ public class VPSOptimization extends GameObject implements Serializable {
             this.customerName = null;
             this.assignedTime = 0;
         }
+
+        
+        public VM(String id, String name, int vCPUs, int ramInGB, int diskInGB, String status, String ipAddress,
+                  String customerId, String customerName, long assignedTime) {
+            this.id = id;
+            this.name = name;
+            this.vCPUs = vCPUs;
+            this.ramInGB = ramInGB;
+            this.diskInGB = diskInGB;
+            this.status = status;
+            this.ipAddress = ipAddress;
+            this.startTime = 0;
+            this.assignedToCustomer = false;
+            this.customerId = customerId;
+            this.customerName = customerName;
+            this.assignedTime = assignedTime;
+        }
         
         private String generateRandomIp() {
-            Random random = new Random();
+            RandomGenerator random = GameRandom.stream(GameRandom.Stream.NETWORK);
             return "192.168." + (random.nextInt(253) + 1) + "." + (random.nextInt(253) + 1);
         }
 
@@ -342,6 +385,14 @@ public class VPSOptimization extends GameObject implements Serializable {
             this.vCPUs = vcpu;
         }
 
+        public int getRamInGB() {
+            return ramInGB;
+        }
+
+        public int getDiskInGB() {
+            return diskInGB;
+        }
+
         public String getRam() {
             return Integer.toString(ramInGB) + "GB";
         }
@@ -74,6 +74,17 @@ public enum VPSProduct {
         return "$" + keepUp + "/month";
     }
 
+    
+    public static VPSProduct fromSpecs(int cpu, int ram, int storage, VPSSize size) {
+        for (VPSProduct product : values()) {
+            if (product.cpu == cpu && product.ram == ram
+                    && product.storage == storage && product.size == size) {
+                return product;
+            }
+        }
+        return null;
+    }
+
     public boolean isUnlocked(int marketingLevel) {
         
         if (this == BASIC_VPS) return true;
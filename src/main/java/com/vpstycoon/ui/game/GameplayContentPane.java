@@ -9,6 +9,8 @@ import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.company.SkillPointsSystem;
 import com.vpstycoon.game.manager.RequestManager;
 import com.vpstycoon.game.manager.VPSManager;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.game.thread.GameTimeController;
 import com.vpstycoon.game.vps.VPSInventory;
@@ -849,6 +851,7 @@ public class GameplayContentPane extends BorderPane {
         }
         
         if (rack.installVPS(vps)) {
+            CommandJournal.record(time -> JournalCommand.installServer(time, vps, rack.getCurrentRackIndex()));
             
             vpsInventory.removeVPS(vpsId);
             
@@ -885,6 +888,7 @@ public class GameplayContentPane extends BorderPane {
             return false;
         }
         if (rack.uninstallVPS(vps)) {
+            CommandJournal.record(time -> JournalCommand.uninstallServer(time, vps));
             
             vpsInventory.addVPS(vpsId, vps);
             
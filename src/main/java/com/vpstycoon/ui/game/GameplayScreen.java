@@ -279,7 +279,7 @@ public class GameplayScreen extends GameScreen {
             
             if (gameTimeController != null) {
                 try {
-                    gameTimeController.stopTime();
+                    gameTimeController.shutdownTime();
                 } catch (Exception e) {
                     System.err.println("Error stopping game time controller: " + e.getMessage());
                 }
@@ -2,9 +2,8 @@ package com.vpstycoon.ui.game;
 
 import com.vpstycoon.application.FontLoader;
 import com.vpstycoon.audio.AudioManager;
-import com.vpstycoon.game.GameObject;
-import com.vpstycoon.game.GameState;
-import com.vpstycoon.game.company.Company;
+import com.vpstycoon.game.persistence.PersistenceService;
+import com.vpstycoon.game.persistence.SaveThumbnail;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.ui.components.buttons.Menu.MenuButton;
 import com.vpstycoon.ui.components.buttons.Menu.MenuButtonType;
@@ -13,6 +12,7 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.effect.Glow;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
@@ -20,8 +20,6 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 
-import java.util.List;
-
 public class ResumeScreen extends StackPane {
     private final Navigator navigator;
     private final Runnable onResumeGame;
@@ -142,15 +140,8 @@ public class ResumeScreen extends StackPane {
                 stopAllGameThreads();
                 
 
-                Company company = ResourceManager.getInstance().getCompany();
-                List<GameObject> gameObjects = 
-                    ResourceManager.getInstance().getCurrentState().getGameObjects();
-                
-                GameState state = new GameState(company, gameObjects);
-                state.setLocalDateTime(ResourceManager.getInstance().getGameTimeController().getGameTimeManager().getGameDateTime());
-                
-
-                ResourceManager.getInstance().saveGameState(state);
+                captureSaveThumbnail();
+                PersistenceService.getInstance().commitSnapshot(null);
                 System.out.println("บันทึกเกมเรียบร้อยแล้ว");
             } catch (Exception ex) {
                 System.err.println("เกิดข้อผิดพลาดในการบันทึกเกม: " + ex.getMessage());
@@ -218,10 +209,25 @@ public class ResumeScreen extends StackPane {
         }
     }
 
+    private void captureSaveThumbnail() {
+        if (getScene() == null || getScene().getRoot() == null) {
+            return;
+        }
+        try {
+            setVisible(false);
+            WritableImage snapshot = getScene().getRoot().snapshot(null, null);
+            PersistenceService.getInstance().setThumbnail(SaveThumbnail.fromImage(snapshot));
+        } catch (Exception e) {
+            System.err.println("สร้างภาพตัวอย่างของไฟล์บันทึกไม่สำเร็จ: " + e.getMessage());
+        } finally {
+            setVisible(true);
+        }
+    }
+
     private void stopAllGameThreads() {
         if (ResourceManager.getInstance().getGameTimeController() != null) {
             System.out.println("หยุด GameTimeController อย่างถาวรก่อนออกไปเมนูหลัก");
-            ResourceManager.getInstance().getGameTimeController().stopTime();
+            ResourceManager.getInstance().getGameTimeController().shutdownTime();
         }
 
         if (ResourceManager.getInstance().getGameEvent() != null &&
@@ -3,6 +3,8 @@ package com.vpstycoon.ui.game.desktop;
 import com.vpstycoon.game.GameManager;
 import com.vpstycoon.game.company.SkillPointsSystem;
 import com.vpstycoon.game.manager.VPSManager;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.game.vps.VPSOptimization;
 import com.vpstycoon.game.vps.enums.RackProduct;
@@ -601,6 +603,7 @@ public class MarketWindow extends BorderPane {
             vps.setRamInGB(product.getRam());
             vps.setDiskInGB(product.getStorage());
             vps.setSize(product.getSize());
+            vps.setProduct(product);
             vps.setInstalled(false); 
 
             
@@ -610,6 +613,7 @@ public class MarketWindow extends BorderPane {
             
             GameManager.getInstance().getVpsInventory().addVPS(vpsId, vps);
             System.out.println("เพิ่ม VPS เข้า GameManager inventory: " + vpsId);
+            CommandJournal.record(time -> JournalCommand.buyServer(time, vps, actualPrice));
             
             
             GameManager.getInstance().saveState();
@@ -745,7 +749,8 @@ public class MarketWindow extends BorderPane {
             updateMoneyDisplay();
             
             
-            parent.getRack().addRack(product.getSlots());
+            parent.getRack().addRack(product);
+            CommandJournal.record(time -> JournalCommand.buyRack(time, product));
             
             
             parent.getRack().goToLatestRack();
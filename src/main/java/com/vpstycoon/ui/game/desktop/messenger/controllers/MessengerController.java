@@ -1,11 +1,17 @@
 package com.vpstycoon.ui.game.desktop.messenger.controllers;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.company.SkillPointsSystem;
 import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.manager.RequestManager;
 import com.vpstycoon.game.manager.VPSManager;
+import com.vpstycoon.game.persistence.ChatIndex;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
+import com.vpstycoon.game.persistence.SaveSection;
+import com.vpstycoon.game.persistence.SaveWriter;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.game.thread.GameTimeManager;
 import com.vpstycoon.game.vps.VPSOptimization;
@@ -28,7 +34,7 @@ import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.random.RandomGenerator;
 
 public class MessengerController {
     private final RequestManager requestManager;
@@ -78,9 +84,6 @@ public class MessengerController {
 
         
         chatHistoryManager.setMessengerController(this);
-        
-        
-        chatHistoryManager.updateCustomerRequestReferences();
 
         
         GameState currentState = ResourceManager.getInstance().getCurrentState();
@@ -116,10 +119,17 @@ public class MessengerController {
 
         
         loadActiveRequestsFromGameState();
+        applyChatRetention();
 
         System.out.println("Messenger Controller initialized: MessengerWindow created and listeners setup");
     }
 
+    private void applyChatRetention() {
+        if (gameTimeManager != null) {
+            chatHistoryManager.applyRetention(gameTimeManager.getGameTimeMs(), requestManager.getRequests());
+        }
+    }
+
     private void setupListeners() {
         requestManager.getRequests().addListener((ListChangeListener<CustomerRequest>) change -> {
             Platform.runLater(() -> {
@@ -294,12 +304,16 @@ public class MessengerController {
                 
                 
                 List<VPSOptimization.VM> allAvailableVMs = new ArrayList<>();
+                Map<VPSOptimization.VM, VPSOptimization> vmHosts = new HashMap<>();
                 for (VPSOptimization vps : vpsManager.getVPSMap().values()) {
-                    allAvailableVMs.addAll(vps.getVms().stream()
-                            .filter(vm -> "Running".equals(vm.getStatus()) && 
-                                    !vmAssignments.containsKey(vm) && 
-                                    !vm.isAssignedToCustomer())
-                            .collect(Collectors.toList()));
+                    for (VPSOptimization.VM vm : vps.getVms()) {
+                        if ("Running".equals(vm.getStatus()) && 
+                                !vmAssignments.containsKey(vm) && 
+                                !vm.isAssignedToCustomer()) {
+                            allAvailableVMs.add(vm);
+                            vmHosts.put(vm, vps);
+                        }
+                    }
                 }
                 
                 if (allAvailableVMs.isEmpty()) {
@@ -361,6 +375,9 @@ public class MessengerController {
                         
                         vmAssignments.put(selectedVM, selected); 
                         selected.activate(ResourceManager.getInstance().getGameTimeManager().getGameTimeMs());
+                        CommandJournal.record(time -> JournalCommand.acceptRequest(time, selected,
+                                vmHosts.get(selectedVM), selectedVM.getVcpu(),
+                                selectedVM.getRamInGB(), selectedVM.getDiskInGB()));
                         chatAreaView.addSystemMessage("VM selected and assigned to request.");
                         chatAreaView.getAssignVMButton().setDisable(true); 
                         
@@ -388,6 +405,43 @@ public class MessengerController {
         });
 
         chatAreaView.getArchiveButton().setOnAction(e -> archiveRequest(requestListView.getSelectedRequest()));
+
+        requestListView.getSearchField().setOnAction(e -> searchChats(requestListView.getSearchField().getText()));
+        requestListView.getSearchField().textProperty().addListener((obs, oldText, newText) -> {
+            if ((newText == null || newText.isBlank()) && requestListView.isShowingSearchResults()) {
+                requestListView.hideSearchResults();
+                updateChatWithRequestDetails(requestListView.getSelectedRequest());
+            }
+        });
+        requestListView.getSearchResultsView().getSelectionModel().selectedItemProperty().addListener(
+                (obs, oldHit, newHit) -> showSearchHit(newHit));
+    }
+
+
+    private void searchChats(String text) {
+        if (text == null || text.isBlank()) {
+            requestListView.hideSearchResults();
+            return;
+        }
+        long start = System.nanoTime();
+        List<ChatIndex.Hit> hits = chatHistoryManager.search(text);
+        System.out.println("ค้นหาแชท \"" + text + "\": พบ " + hits.size() + " ข้อความ ใน "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        requestListView.showSearchResults(hits, chatHistoryManager.getMessages(hits));
+    }
+
+    private void showSearchHit(ChatIndex.Hit hit) {
+        if (hit == null) {
+            return;
+        }
+        CustomerRequest request = hit.getRequest();
+        if (requestManager.getRequests().contains(request)) {
+            requestListView.getRequestView().getSelectionModel().select(request);
+        } else {
+            requestListView.getRequestView().getSelectionModel().clearSelection();
+            chatAreaView.updateChatHeader(request);
+        }
+        chatAreaView.loadChatHistory(request, hit.getPosition());
     }
 
     private void updateRequestList() {
@@ -1091,6 +1145,7 @@ public class MessengerController {
 
     private void archiveRequest(CustomerRequest selected) {
         if (selected != null && (selected.isActive() || selected.isExpired())) {
+            CommandJournal.record(time -> JournalCommand.completeRequest(time, selected));
             System.out.println("กำลัง archive คำขอ: " + selected.getName() + 
                               " (isActive: " + selected.isActive() + 
                               ", isExpired: " + selected.isExpired() + 
@@ -1182,6 +1237,7 @@ public class MessengerController {
             requestManager.getRequests().remove(selected);
             chatAreaView.clearMessages();
             chatAreaView.getAssignVMButton().setDisable(false);
+            applyChatRetention();
             
             
             updateRequestList();
@@ -1189,10 +1245,7 @@ public class MessengerController {
             
             
             try {
-                if (ResourceManager.getInstance().getCurrentState() != null) {
-                    ResourceManager.getInstance().saveGameState(ResourceManager.getInstance().getCurrentState());
-                    System.out.println("บันทึกข้อมูลเกมหลังจาก archive คำขอเรียบร้อยแล้ว");
-                }
+                SaveWriter.getInstance().requestSave(SaveSection.REQUESTS, SaveSection.CHAT);
             } catch (Exception e) {
                 System.err.println("เกิดข้อผิดพลาดในการบันทึกข้อมูลเกมหลังจาก archive คำขอ: " + e.getMessage());
             }
@@ -1285,8 +1338,7 @@ public class MessengerController {
                     
                     
                     try {
-                        ResourceManager.getInstance().saveGameState(ResourceManager.getInstance().getCurrentState());
-                        System.out.println("บันทึกข้อมูลเกมหลังจากคืน VM เรียบร้อยแล้ว");
+                        SaveWriter.getInstance().requestSave(SaveSection.COMPANY, SaveSection.OBJECTS);
                     } catch (Exception e) {
                         System.err.println("เกิดข้อผิดพลาดในการบันทึกข้อมูลเกมหลังจากคืน VM: " + e.getMessage());
                     }
@@ -1382,7 +1434,7 @@ public class MessengerController {
 
     private String generateRandomIp() {
         
-        Random random = new Random();
+        RandomGenerator random = GameRandom.stream(GameRandom.Stream.NETWORK);
         return "10." + 
                random.nextInt(255) + "." + 
                random.nextInt(255) + "." + 
@@ -1621,47 +1673,6 @@ public class MessengerController {
     }
 
     
-    public CustomerRequest findMatchingCustomerRequest(CustomerRequest historyChatRequest) {
-        if (historyChatRequest == null) return null;
-        
-        
-        int requestId = historyChatRequest.getId();
-        String requestName = historyChatRequest.getName();
-        
-        
-        for (CustomerRequest request : requestManager.getRequests()) {
-            if (request.getId() == requestId && request.getName().equals(requestName)) {
-                System.out.println("พบ CustomerRequest ตรงกันด้วย ID และชื่อ: " + requestId + ", " + requestName);
-                return request;
-            }
-        }
-        
-        
-        for (CustomerRequest request : requestManager.getRequests()) {
-            if (request.getName().equals(requestName)) {
-                System.out.println("พบ CustomerRequest ตรงกันด้วยชื่อ: " + requestName);
-                return request;
-            }
-        }
-        
-        
-        for (CustomerRequest request : requestManager.getRequests()) {
-            if (request.getCustomerType() == historyChatRequest.getCustomerType() &&
-                request.getRequestType() == historyChatRequest.getRequestType() &&
-                request.getRequiredVCPUs() == historyChatRequest.getRequiredVCPUs() &&
-                request.getRequiredRamGB() == historyChatRequest.getRequiredRamGB() &&
-                request.getRequiredDiskGB() == historyChatRequest.getRequiredDiskGB()) {
-                
-                System.out.println("พบ CustomerRequest ตรงกันด้วยคุณสมบัติ: " + request.getName());
-                return request;
-            }
-        }
-        
-        System.out.println("ไม่พบ CustomerRequest ที่ตรงกับ: " + requestName);
-        return null;
-    }
-
-    
     public RequestManager getRequestManager() {
         return requestManager;
     }
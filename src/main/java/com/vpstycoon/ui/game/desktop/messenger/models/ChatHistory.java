@@ -0,0 +1,205 @@
+package com.vpstycoon.ui.game.desktop.messenger.models;
+
+import com.vpstycoon.game.manager.CustomerRequest;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+
+public class ChatHistory extends AbstractMap<CustomerRequest, List<ChatMessage>> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 4718203944605512193L;
+
+    private final Map<Object, Conversation> conversations = new HashMap<>();
+    private transient Set<Map.Entry<CustomerRequest, List<ChatMessage>>> entries;
+
+    public ChatHistory() {
+    }
+
+    public ChatHistory(Map<CustomerRequest, List<ChatMessage>> history) {
+        if (history != null) {
+            putAll(history);
+        }
+    }
+
+
+    public static ChatHistory of(Map<CustomerRequest, List<ChatMessage>> history) {
+        return history instanceof ChatHistory chatHistory ? chatHistory : new ChatHistory(history);
+    }
+
+    public static long keyOf(CustomerRequest request) {
+        return request.getId();
+    }
+
+
+    public List<ChatMessage> getMessages(long requestId) {
+        Conversation conversation = conversations.get(requestId);
+        return conversation != null ? conversation.messages : null;
+    }
+
+    public CustomerRequest getRequest(long requestId) {
+        Conversation conversation = conversations.get(requestId);
+        return conversation != null ? conversation.request : null;
+    }
+
+
+    @Override
+    public List<ChatMessage> get(Object key) {
+        Conversation conversation = find(key);
+        return conversation != null ? conversation.messages : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public List<ChatMessage> put(CustomerRequest request, List<ChatMessage> messages) {
+        Conversation conversation = conversations.get(idOf(request));
+        if (conversation == null) {
+            conversations.put(idOf(request), new Conversation(request, messages));
+            return null;
+        }
+        List<ChatMessage> previous = conversation.messages;
+        conversation.request = request;
+        conversation.messages = messages;
+        return previous;
+    }
+
+
+    @Override
+    public List<ChatMessage> computeIfAbsent(CustomerRequest request,
+                                             Function<? super CustomerRequest, ? extends List<ChatMessage>> factory) {
+        Conversation conversation = conversations.get(idOf(request));
+        if (conversation != null) {
+            conversation.request = request;
+            if (conversation.messages == null) {
+                conversation.messages = factory.apply(request);
+            }
+            return conversation.messages;
+        }
+        List<ChatMessage> messages = factory.apply(request);
+        if (messages != null) {
+            conversations.put(idOf(request), new Conversation(request, messages));
+        }
+        return messages;
+    }
+
+    @Override
+    public List<ChatMessage> remove(Object key) {
+        if (!(key instanceof CustomerRequest request)) {
+            return null;
+        }
+        Conversation conversation = conversations.remove(idOf(request));
+        return conversation != null ? conversation.messages : null;
+    }
+
+    @Override
+    public int size() {
+        return conversations.size();
+    }
+
+    @Override
+    public void clear() {
+        conversations.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<CustomerRequest, List<ChatMessage>>> entrySet() {
+        if (entries == null) {
+            entries = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<CustomerRequest, List<ChatMessage>>> iterator() {
+                    Iterator<Conversation> iterator = conversations.values().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<CustomerRequest, List<ChatMessage>> next() {
+                            return iterator.next();
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return conversations.size();
+                }
+
+                @Override
+                public void clear() {
+                    conversations.clear();
+                }
+            };
+        }
+        return entries;
+    }
+
+
+    private Conversation find(Object key) {
+        return key instanceof CustomerRequest request ? conversations.get(idOf(request)) : null;
+    }
+
+    private static Object idOf(CustomerRequest request) {
+        return request.getId() != 0 ? Long.valueOf(keyOf(request)) : request;
+    }
+
+
+    private static final class Conversation implements Map.Entry<CustomerRequest, List<ChatMessage>>, Serializable {
+        @Serial
+        private static final long serialVersionUID = -2286418125036497021L;
+
+        private CustomerRequest request;
+        private List<ChatMessage> messages;
+
+        private Conversation(CustomerRequest request, List<ChatMessage> messages) {
+            this.request = request;
+            this.messages = messages;
+        }
+
+        @Override
+        public CustomerRequest getKey() {
+            return request;
+        }
+
+        @Override
+        public List<ChatMessage> getValue() {
+            return messages;
+        }
+
+        @Override
+        public List<ChatMessage> setValue(List<ChatMessage> value) {
+            List<ChatMessage> previous = messages;
+            messages = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Map.Entry<?, ?> entry && request.equals(entry.getKey())
+                    && (messages == null ? entry.getValue() == null : messages.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return request.hashCode() ^ (messages == null ? 0 : messages.hashCode());
+        }
+    }
+}
@@ -3,7 +3,14 @@ package com.vpstycoon.ui.game.desktop.messenger.models;
 import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.manager.RequestManager;
+import com.vpstycoon.game.persistence.ChatArchive;
+import com.vpstycoon.game.persistence.ChatIndex;
+import com.vpstycoon.game.persistence.ChatLog;
+import com.vpstycoon.game.persistence.PersistenceService;
+import com.vpstycoon.game.persistence.SaveSection;
+import com.vpstycoon.game.persistence.SaveWriter;
 import com.vpstycoon.game.resource.ResourceManager;
+import com.vpstycoon.game.thread.GameTimeManager;
 import com.vpstycoon.ui.game.desktop.messenger.controllers.MessengerController;
 
 import java.io.*;
@@ -11,24 +18,34 @@ import java.util.*;
 
 public class ChatHistoryManager implements Serializable{
     private static ChatHistoryManager instance;
-    private Map<CustomerRequest, List<ChatMessage>> customerChatHistory;
-    private static final String GAME_FOLDER = System.getProperty("user.home") + File.separator + "Documents" + File.separator + "VpsTycoon";
-    private static final String CHAT_HISTORY_FILE = GAME_FOLDER + File.separator + "save.dat";
+    private volatile ChatHistory customerChatHistory;
+    private static final String GAME_FOLDER = PersistenceService.GAME_FOLDER;
+    public static final int DEFAULT_RETENTION_MONTHS = 3;
+    private static final int MAX_RETENTION_BATCH = 500;
+    public static final int MAX_SEARCH_RESULTS = 200;
     private transient MessengerController messengerController;
+    private int retentionMonths = DEFAULT_RETENTION_MONTHS;
 
     public ChatHistoryManager() {
         createGameDirectory();
-        
-        customerChatHistory = loadChatHistoryFromGameState();
-        if (customerChatHistory.isEmpty()) {
-            customerChatHistory = loadChatHistoryFromFile();
-            
-            if (!customerChatHistory.isEmpty()) {
-                saveChatHistoryToGameState();
+    }
+
+
+    private synchronized ChatHistory history() {
+        if (customerChatHistory == null) {
+            customerChatHistory = ChatHistory.of(loadChatHistoryFromGameState());
+            if (customerChatHistory.isEmpty()) {
+                customerChatHistory = ChatHistory.of(loadChatHistoryFromFile());
                 
-                deleteChatHistoryFile();
+                if (!customerChatHistory.isEmpty()) {
+                    captureChatHistory(ResourceManager.getInstance().getCurrentState());
+                    
+                    SaveWriter.getInstance().requestSave(SaveSection.CHAT);
+                }
             }
+            chatIndex().synchronize(customerChatHistory);
         }
+        return customerChatHistory;
     }
 
     private void createGameDirectory() {
@@ -71,9 +88,10 @@ public class ChatHistoryManager implements Serializable{
     public void resetAllChatData() {
         
         if (customerChatHistory != null) {
-            customerChatHistory.clear();
+            chatLog().clear(customerChatHistory);
+            chatIndex().clear();
         } else {
-            customerChatHistory = new HashMap<>();
+            customerChatHistory = new ChatHistory();
         }
         
         
@@ -82,7 +100,7 @@ public class ChatHistoryManager implements Serializable{
         
         GameState currentState = ResourceManager.getInstance().getCurrentState();
         if (currentState != null) {
-            currentState.setChatHistory(new HashMap<>());
+            currentState.setChatHistory(new ChatHistory());
         }
         
         System.out.println("All chat data has been reset (memory, file, and GameState)");
@@ -94,113 +112,125 @@ public class ChatHistoryManager implements Serializable{
     }
 
     
-    public void updateCustomerRequestReferences() {
-        if (messengerController == null) {
-            System.err.println("ไม่สามารถปรับปรุงการอ้างอิง CustomerRequest เนื่องจากไม่ได้ตั้งค่า MessengerController");
-            return;
+    public List<ChatMessage> getChatHistory(CustomerRequest request) {
+        List<ChatMessage> messages = history().getOrDefault(request, new ArrayList<>());
+        if (!ChatArchive.isArchived(messages)) {
+            return messages;
         }
-        
-        Map<CustomerRequest, List<ChatMessage>> updatedHistory = new HashMap<>();
-        
-        
-        List<CustomerRequest> currentRequests = new ArrayList<>();
-        
-        
-        if (messengerController.getRequestManager() != null) {
-            RequestManager requestManager = messengerController.getRequestManager();
-            if (requestManager.getRequests() != null) {
-                currentRequests.addAll(requestManager.getRequests());
-            }
-            
-            if (requestManager.getCompletedRequests() != null) {
-                currentRequests.addAll(requestManager.getCompletedRequests());
-            }
+        try {
+            List<ChatMessage> restored = new ArrayList<>(chatArchive().load(messages.get(0)));
+            restored.addAll(messages.subList(1, messages.size()));
+            return restored;
+        } catch (IOException e) {
+            System.err.println("ไม่สามารถโหลดแชทที่เก็บถาวรได้: " + e.getMessage());
+            e.printStackTrace();
+            return messages;
         }
-        
-        System.out.println("กำลังปรับปรุงการอ้างอิง CustomerRequest...");
-        System.out.println("จำนวน CustomerRequest ปัจจุบันในเกม: " + currentRequests.size());
-        System.out.println("จำนวน CustomerRequest ในประวัติแชท: " + customerChatHistory.size());
-        
-        
-        Map<String, CustomerRequest> nameToCurrentRequest = new HashMap<>();
-        Map<Long, CustomerRequest> idToCurrentRequest = new HashMap<>();
-        
-        
-        for (CustomerRequest request : currentRequests) {
-            if (request.getName() != null && !request.getName().isEmpty()) {
-                nameToCurrentRequest.put(request.getName(), request);
-            }
-            if (request.getId() != 0) {
-                idToCurrentRequest.put(Long.valueOf(request.getId()), request);
-            }
+    }
+
+    public void addMessage(CustomerRequest request, ChatMessage message) {
+        ChatHistory history = history();
+        chatLog().append(history, request, message);
+        chatIndex().add(request, ChatIndex.viewSize(history.get(request)) - 1, message);
+    }
+
+
+    public List<ChatIndex.Hit> search(String query) {
+        return search(ChatIndex.Query.parse(query));
+    }
+
+    public List<ChatIndex.Hit> search(ChatIndex.Query query) {
+        if (query.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        
-        for (Map.Entry<CustomerRequest, List<ChatMessage>> entry : customerChatHistory.entrySet()) {
-            CustomerRequest historyChatRequest = entry.getKey();
+        return chatIndex().search(query, history(), MAX_SEARCH_RESULTS);
+    }
+
+    public List<ChatMessage> getMessages(List<ChatIndex.Hit> hits) {
+        Map<CustomerRequest, List<ChatMessage>> conversations = new HashMap<>();
+        List<ChatMessage> messages = new ArrayList<>(hits.size());
+        for (ChatIndex.Hit hit : hits) {
+            List<ChatMessage> conversation = conversations.computeIfAbsent(hit.getRequest(), this::getChatHistory);
+            messages.add(hit.getPosition() < conversation.size() ? conversation.get(hit.getPosition()) : null);
+        }
+        return messages;
+    }
+
+    private ChatLog chatLog() {
+        return ChatLog.forSave(PersistenceService.getInstance().getSaveFile());
+    }
+
+    private ChatIndex chatIndex() {
+        return ChatIndex.forSave(PersistenceService.getInstance().getSaveFile());
+    }
+
+    private ChatArchive chatArchive() {
+        return ChatArchive.forSave(PersistenceService.getInstance().getSaveFile());
+    }
+
+
+    public int applyRetention(long gameTimeMs, Collection<CustomerRequest> openRequests) {
+        long cutoff = gameTimeMs - retentionMonths * GameTimeManager.GAME_MONTH_MS;
+        if (retentionMonths <= 0 || cutoff <= 0) {
+            return 0;
+        }
+        ChatHistory history = history();
+        Set<CustomerRequest> open = openRequests != null ? new HashSet<>(openRequests) : Collections.emptySet();
+        Map<CustomerRequest, List<ChatMessage>> expired = new LinkedHashMap<>();
+        for (Map.Entry<CustomerRequest, List<ChatMessage>> entry : history.entrySet()) {
+            CustomerRequest request = entry.getKey();
             List<ChatMessage> messages = entry.getValue();
-            CustomerRequest matchedRequest = null;
-            
-            
-            if (historyChatRequest.getId() != 0 && idToCurrentRequest.containsKey(Long.valueOf(historyChatRequest.getId()))) {
-                matchedRequest = idToCurrentRequest.get(Long.valueOf(historyChatRequest.getId()));
-                System.out.println("พบ CustomerRequest ตรงกันโดยใช้ ID: " + matchedRequest.getId());
+            if (messages == null || messages.isEmpty() || ChatArchive.isArchived(messages) || open.contains(request)
+                    || (request.isActive() && !request.isExpired()) || request.getLastPaymentTime() > cutoff) {
+                continue;
             }
-            
-            else if (historyChatRequest.getName() != null && !historyChatRequest.getName().isEmpty() 
-                    && nameToCurrentRequest.containsKey(historyChatRequest.getName())) {
-                matchedRequest = nameToCurrentRequest.get(historyChatRequest.getName());
-                System.out.println("พบ CustomerRequest ตรงกันโดยใช้ชื่อ: " + matchedRequest.getName());
-            }
-            
-            else {
-                matchedRequest = messengerController.findMatchingCustomerRequest(historyChatRequest);
-                if (matchedRequest != null) {
-                    System.out.println("พบ CustomerRequest ตรงกันโดยใช้ findMatchingCustomerRequest(): " + matchedRequest.getName());
-                }
+            expired.put(request, new ArrayList<>(messages));
+            if (expired.size() >= MAX_RETENTION_BATCH) {
+                break;
             }
-            
-            
-            if (matchedRequest != null) {
-                
-                if (historyChatRequest.isAssignedToVM() && !matchedRequest.isAssignedToVM()) {
-                    matchedRequest.assignToVM(historyChatRequest.getAssignedVmId());
-                }
-                updatedHistory.put(matchedRequest, messages);
-            } else {
-                
-                System.out.println("ไม่พบ CustomerRequest ที่ตรงกับ: " + 
-                    (historyChatRequest.getName() != null ? historyChatRequest.getName() : "ไม่มีชื่อ") + 
-                    " - คงใช้ตัวเดิม");
-                updatedHistory.put(historyChatRequest, messages);
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            Map<CustomerRequest, List<ChatMessage>> replacements = new HashMap<>();
+            for (Map.Entry<CustomerRequest, ChatMessage> summary : chatArchive().store(expired).entrySet()) {
+                List<ChatMessage> messages = new ArrayList<>();
+                messages.add(summary.getValue());
+                replacements.put(summary.getKey(), messages);
             }
+            chatLog().replace(history, replacements);
+            SaveWriter.getInstance().requestSave(SaveSection.CHAT);
+            System.out.println("ย้ายแชทเก่า " + replacements.size() + " รายการไปเก็บถาวร");
+            return replacements.size();
+        } catch (IOException e) {
+            System.err.println("ไม่สามารถย้ายแชทเก่าไปเก็บถาวรได้: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
         }
-        
-        
-        customerChatHistory.clear();
-        customerChatHistory.putAll(updatedHistory);
-        
-        System.out.println("ปรับปรุงการอ้างอิง CustomerRequest เสร็จสิ้น");
-        System.out.println("จำนวน CustomerRequest หลังปรับปรุง: " + customerChatHistory.size());
     }
 
-    public List<ChatMessage> getChatHistory(CustomerRequest request) {
-        return customerChatHistory.getOrDefault(request, new ArrayList<>());
+    public int getRetentionMonths() {
+        return retentionMonths;
     }
 
-    public void addMessage(CustomerRequest request, ChatMessage message) {
-        customerChatHistory.computeIfAbsent(request, k -> new ArrayList<>()).add(message);
+    public void setRetentionMonths(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
     }
     
     
     public void clearChatHistory() {
-        customerChatHistory.clear();
+        customerChatHistory = new ChatHistory();
         System.out.println("Chat history cleared from memory");
     }
     
     
     public boolean deleteChatHistoryFile() {
-        File chatFile = new File(CHAT_HISTORY_FILE);
+        File chatFile = PersistenceService.getInstance().getLegacyChatFile();
+        if (chatFile == null) {
+            return true;
+        }
         if (chatFile.exists()) {
             boolean deleted = chatFile.delete();
             if (deleted) {
@@ -217,99 +247,25 @@ public class ChatHistoryManager implements Serializable{
 
     
     public void saveChatHistory() {
-        saveChatHistoryToGameState();
-        
-        saveChatHistoryToFile();
-    }
-    
-    
-    private void saveChatHistoryToGameState() {
-        try {
-            GameState currentState = ResourceManager.getInstance().getCurrentState();
-            if (currentState != null) {
-                currentState.setChatHistory(customerChatHistory);
-                
-                
-                if (messengerController != null && messengerController.getRequestManager() != null) {
-                    currentState.setPendingRequests(messengerController.getRequestManager().getRequests());
-                    currentState.setCompletedRequests(messengerController.getRequestManager().getCompletedRequests());
-                    
-                    
-                    Map<String, String> vmAssignments = new HashMap<>();
-                    for (CustomerRequest request : customerChatHistory.keySet()) {
-                        if (request.isAssignedToVM()) {
-                            vmAssignments.put(request.getAssignedVmId(), request.getName());
-                        }
-                    }
-                    
-                    currentState.setVmAssignments(vmAssignments);
-                }
-                
-                System.out.println("Chat history saved successfully to GameState with " + 
-                      customerChatHistory.size() + " conversations");
-            } else {
-                System.err.println("Cannot save chat history: GameState is null");
-                
-                saveChatHistoryToFile();
-            }
-        } catch (Exception e) {
-            System.err.println("Error saving chat history to GameState: " + e.getMessage());
-            e.printStackTrace();
-            
-            saveChatHistoryToFile();
+        if (customerChatHistory == null) {
+            return;
         }
+        captureChatHistory(ResourceManager.getInstance().getCurrentState());
+        SaveWriter.getInstance().requestSave(SaveSection.CHAT);
     }
-    
-    
-    private void saveChatHistoryToFile() {
-        try {
-            
-            ChatHistorySaveData saveData = new ChatHistorySaveData();
-            saveData.setChatHistory(customerChatHistory);
-            
-            
-            if (messengerController != null && messengerController.getRequestManager() != null) {
-                RequestManager requestManager = messengerController.getRequestManager();
-                
-                
-                if (requestManager.getRequests() != null) {
-                    List<CustomerRequest> pendingRequestsList = new ArrayList<>(requestManager.getRequests());
-                    saveData.setPendingRequests(pendingRequestsList);
-                }
-                
-                
-                if (requestManager.getCompletedRequests() != null) {
-                    List<CustomerRequest> completedRequestsList = new ArrayList<>(requestManager.getCompletedRequests());
-                    saveData.setCompletedRequests(completedRequestsList);
-                }
-                
-                
-                Map<String, String> vmAssignments = new HashMap<>();
-                for (CustomerRequest request : customerChatHistory.keySet()) {
-                    if (request != null && request.isAssignedToVM()) {
-                        String vmId = request.getAssignedVmId();
-                        String requestId = String.valueOf(request.getId());
-                        String requestName = request.getName();
-                        
-                        
-                        vmAssignments.put(vmId + "_id", requestId);
-                        vmAssignments.put(vmId + "_name", requestName);
-                    }
-                }
-                
-                saveData.setVmAssignments(vmAssignments);
-            }
-            
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(CHAT_HISTORY_FILE))) {
-                oos.writeObject(saveData);
-                System.out.println("บันทึกประวัติแชทสำเร็จลงไฟล์ " + new File(CHAT_HISTORY_FILE).getAbsolutePath() + 
-                      " มีการสนทนา " + customerChatHistory.size() + " รายการ");
-            }
-        } catch (IOException e) {
-            System.err.println("เกิดข้อผิดพลาดในการบันทึกประวัติแชทลงไฟล์: " + e.getMessage());
-            e.printStackTrace();
+
+
+    public boolean captureChatHistory(GameState state) {
+        Map<CustomerRequest, List<ChatMessage>> history = customerChatHistory;
+        if (history == null || state == null) {
+            return false;
         }
+        state.setChatHistory(history);
+        return true;
+    }
+
+    public boolean isLoaded() {
+        return customerChatHistory != null;
     }
 
     
@@ -367,7 +323,10 @@ public class ChatHistoryManager implements Serializable{
     
     @SuppressWarnings("unchecked")
     private Map<CustomerRequest, List<ChatMessage>> loadChatHistoryFromFile() {
-        File file = new File(CHAT_HISTORY_FILE);
+        File file = PersistenceService.getInstance().getLegacyChatFile();
+        if (file == null) {
+            return new HashMap<>();
+        }
         if (!file.exists()) {
             System.out.println("ไม่พบไฟล์ประวัติแชทที่: " + file.getAbsolutePath());
             return new HashMap<>();
@@ -461,7 +420,7 @@ public class ChatHistoryManager implements Serializable{
             
             
             if (file.exists()) {
-                File backupFile = new File(CHAT_HISTORY_FILE + ".bak");
+                File backupFile = new File(file.getPath() + ".bak");
                 boolean renamed = file.renameTo(backupFile);
                 if (renamed) {
                     System.out.println("ย้ายไฟล์ประวัติแชทที่เสียหายไปที่ " + backupFile.getAbsolutePath());
@@ -2,11 +2,15 @@ package com.vpstycoon.ui.game.desktop.messenger.models;
 
 import com.vpstycoon.ui.game.desktop.messenger.MessageType;
 
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
 public class ChatMessage implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 3690318821888239769L;
+
     private MessageType type;
     private String content;
     private long timestamp;
@@ -19,6 +23,14 @@ public class ChatMessage implements Serializable {
         this.metadata = metadata != null ? metadata : new HashMap<>();
     }
 
+    
+    public ChatMessage(MessageType type, String content, long timestamp, Map<String, Object> metadata) {
+        this.type = type;
+        this.content = content;
+        this.timestamp = timestamp;
+        this.metadata = metadata != null ? metadata : new HashMap<>();
+    }
+
     public MessageType getType() {
         return type;
     }
@@ -1,5 +1,6 @@
 package com.vpstycoon.ui.game.desktop.messenger.models;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.resource.ResourceManager;
@@ -12,14 +13,14 @@ import javafx.application.Platform;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class RentalManager {
     private final ChatHistoryManager chatHistoryManager;
     private final ChatAreaView chatAreaView;
     private final Company company;
     private final GameTimeManager gameTimeManager;
-    private final Random random = new Random();
+    private final RandomGenerator random = GameRandom.stream(GameRandom.Stream.RENTALS);
     private GameTimeManager.GameTimeListener timeListener;
     private Runnable onArchiveRequest; 
     private Map<VPSOptimization.VM, CustomerRequest> vmAssignments; 
@@ -1,9 +1,12 @@
 package com.vpstycoon.ui.game.desktop.messenger.models;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.company.SkillPointsSystem;
 import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.resource.ResourceManager;
+import com.vpstycoon.game.thread.GameClock;
+import com.vpstycoon.game.thread.HierarchicalTimingWheel;
 import com.vpstycoon.game.vps.VPSOptimization;
 import com.vpstycoon.ui.game.desktop.messenger.MessageType;
 import com.vpstycoon.ui.game.desktop.messenger.views.ChatAreaView;
@@ -16,8 +19,18 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class VMProvisioningManager {
+    private static final long PROGRESS_INTERVAL_MS = 100;
+    private static final Set<ProvisioningJob> ACTIVE_JOBS = ConcurrentHashMap.newKeySet();
+    private static final AtomicBoolean uiUpdatePending = new AtomicBoolean(false);
+    private static ScheduledExecutorService progressTicker;
+
     private final ChatHistoryManager chatHistoryManager;
     private final ChatAreaView chatAreaView;
     private final Map<CustomerRequest, ProgressBar> provisioningProgressBars;
@@ -49,8 +62,6 @@ public class VMProvisioningManager {
 
         
         int provisioningDelay = calculateProvisioningDelay();
-        final int[] progress = {0};
-        final int totalSteps = provisioningDelay * 10;
         final long startTime = System.currentTimeMillis();
 
         
@@ -73,7 +84,7 @@ public class VMProvisioningManager {
         progressBox.getChildren().addAll(timeRemainingLabel, progressBar);
         progressContainer.getChildren().add(progressBox);
 
-        Platform.runLater(() -> chatAreaView.getMessagesBox().getChildren().add(progressContainer));
+        Platform.runLater(() -> chatAreaView.addNode(progressContainer));
         provisioningProgressBars.put(request, progressBar);
 
         
@@ -84,35 +95,77 @@ public class VMProvisioningManager {
         chatHistoryManager.addMessage(request, new ChatMessage(MessageType.SYSTEM, "Starting VM provisioning...", metadata));
 
         
-        
-        Timer progressTimer = new Timer();
-        progressTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                long elapsedTime = System.currentTimeMillis() - startTime;
-                int remainingSeconds = (int) Math.max(0, provisioningDelay - (elapsedTime / 1000));
-                Platform.runLater(() -> {
-                    timeRemainingLabel.setText("Starting VM provisioning in " + remainingSeconds + " seconds...");
-                    progress[0]++;
-                    double progressValue = (double) progress[0] / totalSteps;
-                    progressBar.setProgress(progressValue);
+        long durationMs = provisioningDelay * 1000L;
+        ProvisioningJob job = new ProvisioningJob(timeRemainingLabel, progressBar, durationMs);
+        ACTIVE_JOBS.add(job);
+        job.timer = ResourceManager.getInstance().getTimingWheel().schedule(durationMs, () -> {
+            ACTIVE_JOBS.remove(job);
+            Platform.runLater(() -> {
+                provisioningProgressBars.remove(request);
+                progressBar.setProgress(1.0);
+
+                
+                sendVMDetails(request, vm);
+                timeRemainingLabel.setText("VM provisioning completed.");
+                chatHistoryManager.addMessage(request, new ChatMessage(MessageType.SYSTEM, "VM provisioning completed.", new HashMap<>()));
+                chatAreaView.addSystemMessage("VM provisioning completed.");
+                if (onComplete != null) {
+                    onComplete.run();
+                }
+            });
+        });
+        if (job.timer.isPending()) {
+            startProgressTicker();
+        } else {
+            ACTIVE_JOBS.remove(job);
+        }
+    }
+
+    
+    private static synchronized void startProgressTicker() {
+        if (progressTicker != null) {
+            return;
+        }
+        progressTicker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "VM-Provisioning-Progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progressTicker.scheduleAtFixedRate(() -> {
+            if (ACTIVE_JOBS.isEmpty() || GameClock.getInstance().isPaused()
+                    || !uiUpdatePending.compareAndSet(false, true)) {
+                return;
+            }
+            Platform.runLater(() -> {
+                uiUpdatePending.set(false);
+                for (ProvisioningJob job : ACTIVE_JOBS) {
+                    job.refresh();
+                }
+            });
+        }, PROGRESS_INTERVAL_MS, PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
 
-                    if (progress[0] >= totalSteps) {
-                        this.cancel();
-                        provisioningProgressBars.remove(request);
-                        
-                        
-                        sendVMDetails(request, vm);
-                        timeRemainingLabel.setText("VM provisioning completed.");
-                        chatHistoryManager.addMessage(request, new ChatMessage(MessageType.SYSTEM, "VM provisioning completed.", new HashMap<>()));
-                        chatAreaView.addSystemMessage("VM provisioning completed.");
-                        if (onComplete != null) {
-                            onComplete.run();
-                        }
-                    }
-                });
+    private static final class ProvisioningJob {
+        private final Label timeRemainingLabel;
+        private final ProgressBar progressBar;
+        private final long durationMs;
+        private volatile HierarchicalTimingWheel.GameTimer timer;
+
+        private ProvisioningJob(Label timeRemainingLabel, ProgressBar progressBar, long durationMs) {
+            this.timeRemainingLabel = timeRemainingLabel;
+            this.progressBar = progressBar;
+            this.durationMs = durationMs;
+        }
+
+        private void refresh() {
+            if (timer == null || !timer.isPending()) {
+                return;
             }
-        }, 0, 100); 
+            long remainingMs = Math.max(0, timer.getDeadlineMs() - GameClock.getInstance().getTimeMs());
+            int remainingSeconds = (int) Math.ceil(remainingMs / 1000.0);
+            timeRemainingLabel.setText("Starting VM provisioning in " + remainingSeconds + " seconds...");
+            progressBar.setProgress(1.0 - (double) remainingMs / durationMs);
+        }
     }
     
     
@@ -163,7 +216,7 @@ public class VMProvisioningManager {
         
         int minDelay = 5;
         int maxDelay = 30;
-        int provisioningDelay = minDelay + random.nextInt(maxDelay - minDelay + 1);
+        int provisioningDelay = minDelay + GameRandom.stream(GameRandom.Stream.PROVISIONING).nextInt(maxDelay - minDelay + 1);
         
         
         double reduction = skillPointsSystem.getDeploymentTimeReduction();
@@ -1,7 +1,9 @@
 package com.vpstycoon.ui.game.desktop.messenger.models;
 
+import com.vpstycoon.game.GameRandom;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.company.SkillPointsSystem;
+import com.vpstycoon.game.manager.ContractScheduler;
 import com.vpstycoon.game.manager.CustomerRequest;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.game.vps.VPSOptimization;
@@ -9,8 +11,8 @@ import com.vpstycoon.game.vps.VPSOptimization;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
 
 
 public class VMProvisioningManagerImpl implements Serializable {
@@ -26,10 +28,11 @@ public class VMProvisioningManagerImpl implements Serializable {
     private final Company company;
     
     
-    private final Random random = new Random();
 
     private final SkillPointsSystem skillPointsSystem;
-    private int deployLevel = 1;
+
+    
+    private transient ContractScheduler paymentSchedule;
 
     public VMProvisioningManagerImpl(Company company) {
         this.vmToRequestMap = new HashMap<>();
@@ -39,9 +42,21 @@ public class VMProvisioningManagerImpl implements Serializable {
     }
 
     
+    public VMProvisioningManagerImpl(Company company, SkillPointsSystem skillPointsSystem) {
+        this.vmToRequestMap = new HashMap<>();
+        this.activeRequests = new HashMap<>();
+        this.company = company;
+        this.skillPointsSystem = skillPointsSystem;
+    }
+
+    
     public Company getCompany() {
         return company;
     }
+
+    private boolean isInteractive() {
+        return company == null || !company.isHeadless();
+    }
     
     
     public CompletableFuture<VPSOptimization.VM> provisionVM(
@@ -54,90 +69,104 @@ public class VMProvisioningManagerImpl implements Serializable {
         
         CompletableFuture<VPSOptimization.VM> future = new CompletableFuture<>();
 
-        int baseTimeMs = 5000 + random.nextInt(55000);
+        long creationTimeMs = calculateProvisioningTimeMs();
 
+        System.out.println("Creating VM for " + request.getName() + 
+                " with " + vcpus + " vCPUs, " + ramGB + "GB RAM, " + 
+                diskGB + "GB disk. ETA: " + (creationTimeMs / 1000) + " seconds");
         
-        SkillPointsSystem skillSystem = ResourceManager.getInstance().getSkillPointsSystem();
-        int deployLevel = skillSystem.getSkillLevel(SkillPointsSystem.SkillType.DEPLOY);
-
         
-        double reductionRate = skillSystem.getDeploymentTimeReduction();
-
-        int creationTimeMs = (int)(baseTimeMs * (1.0 - reductionRate));
-
-        
-        Thread vmCreationThread = new Thread(() -> {
+        ResourceManager.getInstance().getTimingWheel().schedule(creationTimeMs, () -> {
             try {
-                System.out.println("Creating VM for " + request.getName() + 
-                        " with " + vcpus + " vCPUs, " + ramGB + "GB RAM, " + 
-                        diskGB + "GB disk. ETA: " + (creationTimeMs / 1000) + " seconds");
-                
-                
-                Thread.sleep(creationTimeMs);
-                
-                
-                String vmName = "vm-" + request.getName().toLowerCase().replace(" ", "-");
-                VPSOptimization.VM vm = new VPSOptimization.VM(
-                        vmName, 
-                        vcpus, 
-                        ramGB, 
-                        diskGB
-                );
-                
-                
-                vm.setIp(generateRandomIp());
-                vm.setStatus("Running");
-                
-                
-                vps.addVM(vm);
-                
-                
-                double ratingChange = calculateRatingChange(request, vcpus, ramGB, diskGB);
-                
-                
-                company.setRating(company.getRating() + ratingChange);
-                
-                
-                String vmKey = vm.getIp() + ":" + vm.getName();
-                vmToRequestMap.put(vmKey, request);
-                activeRequests.put(request, vm);
-                
-                
-                request.activate(ResourceManager.getInstance().getGameTimeManager().getGameTimeMs());
-                
-                
-                double paymentAmount = request.getPaymentAmount();
-                
-                
-                double securityBonus = skillPointsSystem.getSecurityPaymentBonus();
-                if (securityBonus > 0) {
-                    double bonusAmount = paymentAmount * securityBonus;
-                    paymentAmount += bonusAmount;
-                    System.out.println("Security bonus applied: +" + String.format("%.2f", bonusAmount) + 
-                            " (" + (securityBonus * 100) + "%)");
-                }
-                
-                
-                company.addMoney(paymentAmount);
-                
-                System.out.println("Received initial payment of " + String.format("%.2f", paymentAmount) + 
-                        " from " + request.getName() + " (" + request.getRentalPeriodType().getDisplayName() + ")");
+                VPSOptimization.VM vm = completeProvisioning(request, vps, vcpus, ramGB, diskGB,
+                        ResourceManager.getInstance().getGameTimeManager().getGameTimeMs());
                 
                 
                 future.complete(vm);
-                
-                System.out.println("VM created successfully for " + request.getName() + 
-                        ". Rating change: " + String.format("%.2f", ratingChange));
-                
-            } catch (InterruptedException e) {
+            } catch (Exception e) {
                 future.completeExceptionally(e);
             }
         });
-        vmCreationThread.setDaemon(true);
-        vmCreationThread.start();
         
         return future;
     }
+
+    
+    public long calculateProvisioningTimeMs() {
+        int baseTimeMs = 5000 + GameRandom.stream(GameRandom.Stream.PROVISIONING).nextInt(55000);
+
+        
+        double reductionRate = skillPointsSystem.getDeploymentTimeReduction();
+
+        return (long) (baseTimeMs * (1.0 - reductionRate));
+    }
+
+    
+    public VPSOptimization.VM completeProvisioning(
+            CustomerRequest request,
+            VPSOptimization vps,
+            int vcpus,
+            int ramGB,
+            int diskGB,
+            long currentGameTimeMs) {
+        
+        String vmName = "vm-" + request.getName().toLowerCase().replace(" ", "-");
+        VPSOptimization.VM vm = new VPSOptimization.VM(
+                vmName, 
+                vcpus, 
+                ramGB, 
+                diskGB
+        );
+        
+        
+        vm.setIp(generateRandomIp());
+        vm.setStatus("Running");
+        
+        
+        vps.addVM(vm);
+        
+        
+        double ratingChange = calculateRatingChange(request, vcpus, ramGB, diskGB);
+        
+        
+        company.setRating(company.getRating() + ratingChange);
+        
+        
+        String vmKey = vm.getIp() + ":" + vm.getName();
+        vmToRequestMap.put(vmKey, request);
+        activeRequests.put(request, vm);
+        
+        
+        request.activate(currentGameTimeMs);
+        getPaymentSchedule().schedule(request);
+        
+        
+        double paymentAmount = request.getPaymentAmount();
+        
+        
+        double securityBonus = skillPointsSystem.getSecurityPaymentBonus();
+        if (securityBonus > 0) {
+            double bonusAmount = paymentAmount * securityBonus;
+            paymentAmount += bonusAmount;
+            if (isInteractive()) {
+                System.out.println("Security bonus applied: +" + String.format("%.2f", bonusAmount) + 
+                        " (" + (securityBonus * 100) + "%)");
+            }
+        }
+        
+        
+        company.addMoney(paymentAmount);
+        
+        if (isInteractive()) {
+            System.out.println("Received initial payment of " + String.format("%.2f", paymentAmount) + 
+                    " from " + request.getName() + " (" + request.getRentalPeriodType().getDisplayName() + ")");
+            
+            System.out.println("VM created successfully for " + request.getName() + 
+                    ". Rating change: " + String.format("%.2f", ratingChange));
+        }
+        
+        return vm;
+    }
     
     
     private double calculateRatingChange(
@@ -185,8 +214,11 @@ public class VMProvisioningManagerImpl implements Serializable {
     public double processPayments(long currentTime) {
         double totalPayment = 0.0;
         
-        for (Map.Entry<CustomerRequest, VPSOptimization.VM> entry : activeRequests.entrySet()) {
-            CustomerRequest request = entry.getKey();
+        ContractScheduler schedule = getPaymentSchedule();
+        for (CustomerRequest request : schedule.pollDue(currentTime)) {
+            if (!activeRequests.containsKey(request)) {
+                continue;
+            }
             
             
             if (request.isPaymentDue(currentTime)) {
@@ -198,8 +230,10 @@ public class VMProvisioningManagerImpl implements Serializable {
                 if (securityBonus > 0) {
                     double bonusAmount = paymentAmount * securityBonus;
                     paymentAmount += bonusAmount;
-                    System.out.println("Security bonus applied: +" + String.format("%.2f", bonusAmount) + 
-                            " (" + (securityBonus * 100) + "%)");
+                    if (isInteractive()) {
+                        System.out.println("Security bonus applied: +" + String.format("%.2f", bonusAmount) + 
+                                " (" + (securityBonus * 100) + "%)");
+                    }
                 }
                 
                 
@@ -208,9 +242,13 @@ public class VMProvisioningManagerImpl implements Serializable {
                 
                 request.recordPayment(currentTime);
                 
-                System.out.println("Received payment of " + String.format("%.2f", paymentAmount) + 
-                        " from " + request.getName() + " (" + request.getRentalPeriodType().getDisplayName() + ")");
+                if (isInteractive()) {
+                    System.out.println("Received payment of " + String.format("%.2f", paymentAmount) + 
+                            " from " + request.getName() + " (" + request.getRentalPeriodType().getDisplayName() + ")");
+                }
             }
+            
+            schedule.schedule(request);
         }
         
         
@@ -236,8 +274,11 @@ public class VMProvisioningManagerImpl implements Serializable {
             
             vmToRequestMap.remove(vmKey);
             activeRequests.remove(request);
+            getPaymentSchedule().remove(request);
             
-            System.out.println("Terminated VM for " + request.getName());
+            if (isInteractive()) {
+                System.out.println("Terminated VM for " + request.getName());
+            }
             return true;
         }
         
@@ -245,6 +286,17 @@ public class VMProvisioningManagerImpl implements Serializable {
     }
     
     
+    private ContractScheduler getPaymentSchedule() {
+        if (paymentSchedule == null) {
+            paymentSchedule = new ContractScheduler(ContractScheduler::nextPaymentTime);
+            for (CustomerRequest request : activeRequests.keySet()) {
+                paymentSchedule.schedule(request);
+            }
+        }
+        return paymentSchedule;
+    }
+    
+    
     public CustomerRequest getRequestForVM(VPSOptimization.VM vm) {
         if (vm == null) {
             return null;
@@ -280,7 +332,7 @@ public class VMProvisioningManagerImpl implements Serializable {
     
     
     private String generateRandomIp() {
-        Random r = new Random();
+        RandomGenerator r = GameRandom.stream(GameRandom.Stream.NETWORK);
         return r.nextInt(256) + "." + r.nextInt(256) + "." + r.nextInt(256) + "." + r.nextInt(256);
     }
 
@@ -292,6 +344,7 @@ public class VMProvisioningManagerImpl implements Serializable {
         }
         
         if (activeRequests != null) {
+            getPaymentSchedule().clear();
             activeRequests.clear();
             System.out.println("รีเซ็ต activeRequests เรียบร้อย");
         }
@@ -1,11 +1,18 @@
 package com.vpstycoon.ui.game.desktop.messenger.views;
 
 import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.ui.game.desktop.messenger.MessageType;
 import com.vpstycoon.ui.game.desktop.messenger.models.ChatHistoryManager;
 import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.effect.Glow;
 import javafx.scene.layout.HBox;
@@ -15,16 +22,31 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
 
+import java.time.Instant;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
 
 public class ChatAreaView extends VBox {
-    private VBox messagesBox;
+    private static final int PAGE_SIZE = 50;
+
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+    private final Map<ChatMessage, Node> attachedNodes = new IdentityHashMap<>();
+    private final Set<MessageCell> progressCells = new HashSet<>();
+    private final Timeline progressTicker;
+    private ListView<ChatMessage> messageList;
+    private List<ChatMessage> source;
+    private int loadedFrom = 0;
+    private boolean pagingArmed = false;
+    private Color customerColor = Color.rgb(100, 50, 200);
     private TextField messageInput;
     private Button sendButton;
     private Button assignVMButton;
@@ -97,20 +119,19 @@ public class ChatAreaView extends VBox {
         chatHeader.getChildren().add(statusArea);
 
         
-        ScrollPane messagesScroll = new ScrollPane();
-        messagesScroll.setFitToWidth(true);
-        messagesScroll.getStyleClass().add("messages-scroll");
-        VBox.setVgrow(messagesScroll, Priority.ALWAYS);
+        messageList = new ListView<>(messages);
+        messageList.getStyleClass().addAll("messages-scroll", "messages-list");
+        messageList.setFocusTraversable(false);
+        messageList.setCellFactory(param -> new MessageCell());
+        VBox.setVgrow(messageList, Priority.ALWAYS);
 
         
         String digitalBorderStyle = "-fx-border-color: #9e33ff; -fx-border-width: 1; " +
                                     "-fx-border-radius: 5; -fx-effect: dropshadow(gaussian, #9e33ff, 5, 0.3, 0, 0);";
-        messagesScroll.setStyle(messagesScroll.getStyle() + digitalBorderStyle);
+        messageList.setStyle(messageList.getStyle() + digitalBorderStyle);
 
-        messagesBox = new VBox(10);
-        messagesBox.setPadding(new Insets(10));
-        messagesBox.getStyleClass().add("messages-box");
-        messagesScroll.setContent(messagesBox);
+        progressTicker = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshProgress()));
+        progressTicker.setCycleCount(Animation.INDEFINITE);
 
         
         HBox inputArea = new HBox(10);
@@ -139,10 +160,7 @@ public class ChatAreaView extends VBox {
         
         inputArea.setStyle(inputArea.getStyle() + digitalBorderStyle);
 
-        getChildren().addAll(chatHeader, messagesScroll, inputArea);
-
-        
-        messagesBox.heightProperty().addListener((obs, oldVal, newVal) -> messagesScroll.setVvalue(1.0));
+        getChildren().addAll(chatHeader, messageList, inputArea);
     }
 
     public void updateChatHeader(CustomerRequest request) {
@@ -185,15 +203,20 @@ public class ChatAreaView extends VBox {
     }
 
     public void loadChatHistory(CustomerRequest request) {
-        messagesBox.getChildren().clear(); 
-        
+        loadChatHistory(request, -1);
+    }
+
+    public void loadChatHistory(CustomerRequest request, int focusIndex) {
+        clearMessages();
+
         if (request == null) {
             addSystemMessageFromHistory("กรุณาเลือกลูกค้าจากรายการเพื่อดูการสนทนา");
             return;
         }
+        customerColor = colorOf(request);
 
         List<ChatMessage> history = chatHistoryManager.getChatHistory(request);
-        
+
         if (history == null || history.isEmpty()) {
             System.out.println("ไม่พบประวัติแชทสำหรับ: " + request.getName());
             addSystemMessageFromHistory("ยินดีต้อนรับ " + request.getName() + " เริ่มการสนทนาใหม่");
@@ -202,186 +225,289 @@ public class ChatAreaView extends VBox {
             addSystemMessageFromHistory("ระยะเวลา: " + request.getRentalPeriodType().getDisplayName() + " | มูลค่าสัญญา: $" + String.format("%.2f", request.getMonthlyPayment()));
             return;
         }
-        
+
         System.out.println("โหลดประวัติแชทสำหรับ: " + request.getName() + " จำนวน " + history.size() + " ข้อความ");
-        
-        for (ChatMessage message : history) {
-            try {
-                switch (message.getType()) {
-                    case CUSTOMER:
-                        addCustomerMessageFromHistory(request, message.getContent());
-                        break;
-                    case USER:
-                        addUserMessageFromHistory(message.getContent());
-                        break;
-                    case SYSTEM:
-                        if (message.getContent() != null && message.getContent().startsWith("Starting VM provisioning...")) {
-                            Map<String, Object> metadata = message.getMetadata();
-                            if (metadata != null && metadata.containsKey("isProvisioning") && 
-                                (boolean) metadata.get("isProvisioning")) {
-                                
-                                long startTime = (long) metadata.get("startTime");
-                                int provisioningDelay = (int) metadata.get("provisioningDelay");
-                                long elapsedTime = System.currentTimeMillis() - startTime;
-                                int remainingSeconds = (int) Math.max(0, provisioningDelay - (elapsedTime / 1000));
-
-                                HBox progressContainer = new HBox();
-                                progressContainer.setAlignment(Pos.CENTER);
-                                progressContainer.setPadding(new Insets(10, 0, 10, 0));
-                                progressContainer.getStyleClass().add("message-container");
-
-                                VBox progressBox = new VBox(5);
-                                progressBox.setAlignment(Pos.CENTER);
-                                progressBox.setPadding(new Insets(10));
-                                progressBox.setStyle("-fx-background-color: rgba(52, 152, 219, 0.2); -fx-padding: 10px; -fx-border-radius: 5px; -fx-background-radius: 5px;");
-
-                                Label timeRemainingLabel = new Label("Starting VM provisioning in " + remainingSeconds + " seconds...");
-                                timeRemainingLabel.setStyle("-fx-text-fill: white;");
-                                ProgressBar progressBar = new ProgressBar((double) elapsedTime / (provisioningDelay * 1000));
-                                progressBar.setPrefWidth(200);
-                                progressBar.setStyle("-fx-accent: #3498db;");
-
-                                progressBox.getChildren().addAll(timeRemainingLabel, progressBar);
-                                progressContainer.getChildren().add(progressBox);
-
-                                Platform.runLater(() -> messagesBox.getChildren().add(progressContainer));
-
-                                Timer timer = new Timer();
-                                timer.scheduleAtFixedRate(new TimerTask() {
-                                    @Override
-                                    public void run() {
-                                        long currentElapsed = System.currentTimeMillis() - startTime;
-                                        int currentRemaining = (int) Math.max(0, provisioningDelay - (currentElapsed / 1000));
-                                        double progressValue = (double) currentElapsed / (provisioningDelay * 1000);
-                                        Platform.runLater(() -> {
-                                            timeRemainingLabel.setText("Starting VM provisioning in " + currentRemaining + " seconds...");
-                                            progressBar.setProgress(progressValue);
-                                            if (currentRemaining <= 0) {
-                                                timeRemainingLabel.setText("VM provisioning completed.");
-                                                timer.cancel();
-                                            }
-                                        });
-                                    }
-                                }, 0, 1000); 
-                            } else {
-                                addSystemMessageFromHistory(message.getContent());
-                            }
-                        } else {
-                            addSystemMessageFromHistory(message.getContent());
-                        }
-                        break;
-                }
-            } catch (Exception e) {
-                System.err.println("เกิดข้อผิดพลาดในการแสดงข้อความ: " + e.getMessage());
-                addSystemMessageFromHistory("ไม่สามารถแสดงข้อความบางส่วนได้");
-            }
+
+        source = history;
+        loadedFrom = Math.max(0, history.size() - PAGE_SIZE);
+        if (focusIndex >= 0 && focusIndex < loadedFrom) {
+            loadedFrom = Math.max(0, focusIndex - PAGE_SIZE / 2);
+        }
+        messages.setAll(history.subList(loadedFrom, history.size()));
+        if (focusIndex >= 0 && focusIndex < history.size()) {
+            messageList.scrollTo(focusIndex - loadedFrom);
+        } else {
+            scrollToEnd();
         }
+        Platform.runLater(() -> pagingArmed = true);
     }
 
-    private void addCustomerMessageFromHistory(CustomerRequest request, String message) {
-        HBox messageContainer = new HBox();
-        messageContainer.setAlignment(Pos.CENTER_LEFT);
-        messageContainer.setPadding(new Insets(5, 0, 5, 0));
-        messageContainer.getStyleClass().add("message-container");
 
-        
-        Rectangle avatar = new Rectangle(30, 30);
-        avatar.setArcWidth(5);
-        avatar.setArcHeight(5);
-        
-        int nameHash = request.getName().hashCode();
-        int r = Math.abs(nameHash % 100) + 100;
-        int g = Math.abs((nameHash / 100) % 100);
-        int b = Math.abs((nameHash / 10000) % 100) + 100;
-        Color customerColor = Color.rgb(r, g, b);
-        avatar.setFill(customerColor);
-        avatar.setStroke(Color.web("#9e33ff"));
-        avatar.setStrokeWidth(1);
-
-        VBox messageBox = new VBox(3);
-        Label messageLabel = new Label(message);
-        messageLabel.setWrapText(true);
-        messageLabel.getStyleClass().add("customer-message");
-        messageLabel.setMinHeight(Region.USE_PREF_SIZE);
-
-        
-        Label timeLabel = new Label("[" + LocalTime.now().format(timeFormatter) + "]");
-        timeLabel.setStyle("-fx-text-fill: rgba(0, 255, 255, 0.8); -fx-font-size: 10px; -fx-font-family: 'Monospace', 'Courier New', monospace;");
-        timeLabel.setPadding(new Insets(0, 0, 0, 5));
+    private void loadOlderPage() {
+        if (!pagingArmed || source == null || loadedFrom <= 0 || loadedFrom > source.size()) {
+            return;
+        }
+        pagingArmed = false;
+        int from = Math.max(0, loadedFrom - PAGE_SIZE);
+        List<ChatMessage> older = new ArrayList<>(source.subList(from, loadedFrom));
+        loadedFrom = from;
+        messages.addAll(0, older);
+        messageList.scrollTo(older.size());
+        Platform.runLater(() -> pagingArmed = true);
+    }
 
-        messageBox.getChildren().addAll(messageLabel, timeLabel);
-        messageContainer.getChildren().addAll(avatar, messageBox);
-        HBox.setMargin(messageBox, new Insets(0, 0, 0, 10));
+    private void append(ChatMessage message) {
+        messages.add(message);
+        scrollToEnd();
+    }
 
-        Platform.runLater(() -> messagesBox.getChildren().add(messageContainer));
+    private void scrollToEnd() {
+        if (!messages.isEmpty()) {
+            messageList.scrollTo(messages.size() - 1);
+        }
     }
 
-    private void addUserMessageFromHistory(String message) {
-        HBox messageContainer = new HBox();
-        messageContainer.setAlignment(Pos.CENTER_RIGHT);
-        messageContainer.setPadding(new Insets(5, 0, 5, 0));
-        messageContainer.getStyleClass().add("message-container");
+    private void refreshProgress() {
+        if (progressCells.isEmpty()) {
+            progressTicker.stop();
+            return;
+        }
+        for (MessageCell cell : new ArrayList<>(progressCells)) {
+            cell.updateProgress();
+        }
+    }
 
-        VBox messageBox = new VBox(3);
-        messageBox.setAlignment(Pos.CENTER_RIGHT);
+    private static boolean isProvisioning(ChatMessage message) {
+        if (message.getContent() == null || !message.getContent().startsWith("Starting VM provisioning...")) {
+            return false;
+        }
+        Map<String, Object> metadata = message.getMetadata();
+        return metadata != null && Boolean.TRUE.equals(metadata.get("isProvisioning"))
+                && metadata.get("startTime") instanceof Number && metadata.get("provisioningDelay") instanceof Number;
+    }
 
-        Label messageLabel = new Label(message);
-        messageLabel.setWrapText(true);
-        messageLabel.getStyleClass().add("user-message");
-        messageLabel.setMinHeight(Region.USE_PREF_SIZE);
+    private static Color colorOf(CustomerRequest request) {
+        int nameHash = request.getName().hashCode();
+        int r = Math.abs(nameHash % 100) + 100;
+        int g = Math.abs((nameHash / 100) % 100);
+        int b = Math.abs((nameHash / 10000) % 100) + 100;
+        return Color.rgb(r, g, b);
+    }
 
-        
-        Label timeLabel = new Label("[" + LocalTime.now().format(timeFormatter) + "]");
-        timeLabel.setAlignment(Pos.CENTER_RIGHT);
+    private Label createTimeLabel() {
+        Label timeLabel = new Label();
         timeLabel.setStyle("-fx-text-fill: rgba(0, 255, 255, 0.8); -fx-font-size: 10px; -fx-font-family: 'Monospace', 'Courier New', monospace;");
-        timeLabel.setPadding(new Insets(0, 5, 0, 0));
-
-        messageBox.getChildren().addAll(messageLabel, timeLabel);
-        
-        
-        Rectangle avatar = new Rectangle(30, 30);
-        avatar.setArcWidth(5);
-        avatar.setArcHeight(5);
-        avatar.setFill(Color.web("#9e33ff"));
-        avatar.setStroke(Color.web("#00c3ff"));
-        avatar.setStrokeWidth(1);
-
-        messageContainer.getChildren().addAll(messageBox, avatar);
-        HBox.setMargin(messageBox, new Insets(0, 10, 0, 0));
+        return timeLabel;
+    }
 
-        Platform.runLater(() -> messagesBox.getChildren().add(messageContainer));
+    private String formatTime(ChatMessage message) {
+        LocalTime time = Instant.ofEpochMilli(message.getTimestamp()).atZone(ZoneId.systemDefault()).toLocalTime();
+        return "[" + time.format(timeFormatter) + "]";
     }
 
     private void addSystemMessageFromHistory(String message) {
-        HBox messageContainer = new HBox();
-        messageContainer.setAlignment(Pos.CENTER);
-        messageContainer.setPadding(new Insets(10, 0, 10, 0));
-        messageContainer.getStyleClass().add("message-container");
-
-        Label messageLabel = new Label(message);
-        messageLabel.setWrapText(true);
-        messageLabel.getStyleClass().add("system-message");
-        messageLabel.setTextAlignment(TextAlignment.CENTER);
-        messageLabel.setMinHeight(Region.USE_PREF_SIZE);
-
-        messageContainer.getChildren().add(messageLabel);
-        Platform.runLater(() -> messagesBox.getChildren().add(messageContainer));
+        messages.add(new ChatMessage(MessageType.SYSTEM, message, null));
     }
 
     public void addCustomerMessage(CustomerRequest request, String message) {
-        addCustomerMessageFromHistory(request, message);
+        Platform.runLater(() -> append(new ChatMessage(MessageType.CUSTOMER, message, null)));
     }
 
     public void addUserMessage(String message) {
-        addUserMessageFromHistory(message);
+        Platform.runLater(() -> append(new ChatMessage(MessageType.USER, message, null)));
     }
 
     public void addSystemMessage(String message) {
-        addSystemMessageFromHistory(message);
+        Platform.runLater(() -> append(new ChatMessage(MessageType.SYSTEM, message, null)));
+    }
+
+    public void addNode(Node node) {
+        ChatMessage placeholder = new ChatMessage(MessageType.SYSTEM, null, null);
+        attachedNodes.put(placeholder, node);
+        append(placeholder);
     }
 
     public void clearMessages() {
-        messagesBox.getChildren().clear();
+        messages.clear();
+        attachedNodes.clear();
+        source = null;
+        loadedFrom = 0;
+        pagingArmed = false;
+    }
+
+
+    private final class MessageCell extends ListCell<ChatMessage> {
+        private HBox customerRow;
+        private Rectangle customerAvatar;
+        private Label customerLabel;
+        private Label customerTime;
+        private HBox userRow;
+        private Label userLabel;
+        private Label userTime;
+        private HBox systemRow;
+        private Label systemLabel;
+        private HBox progressRow;
+        private Label progressLabel;
+        private ProgressBar progressBar;
+
+        private MessageCell() {
+            setPrefWidth(0);
+            setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+        }
+
+        @Override
+        protected void updateItem(ChatMessage message, boolean empty) {
+            super.updateItem(message, empty);
+            progressCells.remove(this);
+            setText(null);
+            if (empty || message == null) {
+                setGraphic(null);
+                return;
+            }
+            Node attached = attachedNodes.get(message);
+            if (attached != null) {
+                setGraphic(attached);
+            } else if (message.getType() == MessageType.CUSTOMER) {
+                setGraphic(customerRow(message));
+            } else if (message.getType() == MessageType.USER) {
+                setGraphic(userRow(message));
+            } else if (isProvisioning(message)) {
+                setGraphic(progressRow());
+                progressCells.add(this);
+                updateProgress();
+                progressTicker.play();
+            } else {
+                setGraphic(systemRow(message));
+            }
+            if (getIndex() == 0 && pagingArmed && loadedFrom > 0) {
+                Platform.runLater(ChatAreaView.this::loadOlderPage);
+            }
+        }
+
+        private HBox customerRow(ChatMessage message) {
+            if (customerRow == null) {
+                customerRow = new HBox();
+                customerRow.setAlignment(Pos.CENTER_LEFT);
+                customerRow.setPadding(new Insets(5, 0, 5, 0));
+                customerRow.getStyleClass().add("message-container");
+
+                customerAvatar = new Rectangle(30, 30);
+                customerAvatar.setArcWidth(5);
+                customerAvatar.setArcHeight(5);
+                customerAvatar.setStroke(Color.web("#9e33ff"));
+                customerAvatar.setStrokeWidth(1);
+
+                VBox messageBox = new VBox(3);
+                customerLabel = new Label();
+                customerLabel.setWrapText(true);
+                customerLabel.getStyleClass().add("customer-message");
+                customerLabel.setMinHeight(Region.USE_PREF_SIZE);
+                customerTime = createTimeLabel();
+                customerTime.setPadding(new Insets(0, 0, 0, 5));
+
+                messageBox.getChildren().addAll(customerLabel, customerTime);
+                customerRow.getChildren().addAll(customerAvatar, messageBox);
+                HBox.setMargin(messageBox, new Insets(0, 0, 0, 10));
+            }
+            customerAvatar.setFill(customerColor);
+            customerLabel.setText(message.getContent());
+            customerTime.setText(formatTime(message));
+            return customerRow;
+        }
+
+        private HBox userRow(ChatMessage message) {
+            if (userRow == null) {
+                userRow = new HBox();
+                userRow.setAlignment(Pos.CENTER_RIGHT);
+                userRow.setPadding(new Insets(5, 0, 5, 0));
+                userRow.getStyleClass().add("message-container");
+
+                VBox messageBox = new VBox(3);
+                messageBox.setAlignment(Pos.CENTER_RIGHT);
+                userLabel = new Label();
+                userLabel.setWrapText(true);
+                userLabel.getStyleClass().add("user-message");
+                userLabel.setMinHeight(Region.USE_PREF_SIZE);
+                userTime = createTimeLabel();
+                userTime.setAlignment(Pos.CENTER_RIGHT);
+                userTime.setPadding(new Insets(0, 5, 0, 0));
+                messageBox.getChildren().addAll(userLabel, userTime);
+
+                Rectangle avatar = new Rectangle(30, 30);
+                avatar.setArcWidth(5);
+                avatar.setArcHeight(5);
+                avatar.setFill(Color.web("#9e33ff"));
+                avatar.setStroke(Color.web("#00c3ff"));
+                avatar.setStrokeWidth(1);
+
+                userRow.getChildren().addAll(messageBox, avatar);
+                HBox.setMargin(messageBox, new Insets(0, 10, 0, 0));
+            }
+            userLabel.setText(message.getContent());
+            userTime.setText(formatTime(message));
+            return userRow;
+        }
+
+        private HBox systemRow(ChatMessage message) {
+            if (systemRow == null) {
+                systemRow = new HBox();
+                systemRow.setAlignment(Pos.CENTER);
+                systemRow.setPadding(new Insets(10, 0, 10, 0));
+                systemRow.getStyleClass().add("message-container");
+
+                systemLabel = new Label();
+                systemLabel.setWrapText(true);
+                systemLabel.getStyleClass().add("system-message");
+                systemLabel.setTextAlignment(TextAlignment.CENTER);
+                systemLabel.setMinHeight(Region.USE_PREF_SIZE);
+                systemRow.getChildren().add(systemLabel);
+            }
+            systemLabel.setText(message.getContent());
+            return systemRow;
+        }
+
+        private HBox progressRow() {
+            if (progressRow == null) {
+                progressRow = new HBox();
+                progressRow.setAlignment(Pos.CENTER);
+                progressRow.setPadding(new Insets(10, 0, 10, 0));
+                progressRow.getStyleClass().add("message-container");
+
+                VBox progressBox = new VBox(5);
+                progressBox.setAlignment(Pos.CENTER);
+                progressBox.setPadding(new Insets(10));
+                progressBox.setStyle("-fx-background-color: rgba(52, 152, 219, 0.2); -fx-padding: 10px; -fx-border-radius: 5px; -fx-background-radius: 5px;");
+
+                progressLabel = new Label();
+                progressLabel.setStyle("-fx-text-fill: white;");
+                progressBar = new ProgressBar(0);
+                progressBar.setPrefWidth(200);
+                progressBar.setStyle("-fx-accent: #3498db;");
+
+                progressBox.getChildren().addAll(progressLabel, progressBar);
+                progressRow.getChildren().add(progressBox);
+            }
+            return progressRow;
+        }
+
+        private void updateProgress() {
+            ChatMessage message = getItem();
+            if (message == null || !isProvisioning(message)) {
+                progressCells.remove(this);
+                return;
+            }
+            long startTime = ((Number) message.getMetadata().get("startTime")).longValue();
+            int provisioningDelay = ((Number) message.getMetadata().get("provisioningDelay")).intValue();
+            long elapsedTime = System.currentTimeMillis() - startTime;
+            int remainingSeconds = (int) Math.max(0, provisioningDelay - (elapsedTime / 1000));
+            progressBar.setProgress(Math.min(1.0, (double) elapsedTime / (provisioningDelay * 1000)));
+            if (remainingSeconds <= 0) {
+                progressLabel.setText("VM provisioning completed.");
+                progressCells.remove(this);
+            } else {
+                progressLabel.setText("Starting VM provisioning in " + remainingSeconds + " seconds...");
+            }
+        }
     }
 
     
@@ -389,6 +515,5 @@ public class ChatAreaView extends VBox {
     public Button getAssignVMButton() { return assignVMButton; }
     public Button getArchiveButton() { return archiveButton; }
     public TextField getMessageInput() { return messageInput; }
-    public VBox getMessagesBox() { return messagesBox; }
+    public ListView<ChatMessage> getMessageList() { return messageList; }
 }
-
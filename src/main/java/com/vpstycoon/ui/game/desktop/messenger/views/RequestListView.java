@@ -1,11 +1,14 @@
 package com.vpstycoon.ui.game.desktop.messenger.views;
 
 import com.vpstycoon.game.manager.CustomerRequest;
+import com.vpstycoon.game.persistence.ChatIndex;
+import com.vpstycoon.ui.game.desktop.messenger.models.ChatMessage;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.effect.Glow;
 import javafx.scene.layout.HBox;
@@ -18,10 +21,19 @@ import javafx.scene.paint.Stop;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RequestListView extends VBox {
     private ListView<CustomerRequest> requestView;
+    private final TextField searchField;
+    private final ListView<ChatIndex.Hit> searchResultsView;
+    private final Map<ChatIndex.Hit, ChatMessage> searchMessages = new IdentityHashMap<>();
+    private final DateTimeFormatter searchTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     public RequestListView() {
         setPadding(new Insets(10));
@@ -170,8 +182,76 @@ public class RequestListView extends VBox {
             }
         });
 
-        getChildren().addAll(headerBox, requestView);
+        searchField = new TextField();
+        searchField.setPromptText("| SEARCH: keyword name:... vm:... from:yyyy-MM-dd to:yyyy-MM-dd |");
+        searchField.getStyleClass().add("chat-search-field");
+        VBox.setMargin(searchField, new Insets(0, 0, 10, 0));
+
+        searchResultsView = new ListView<>();
+        searchResultsView.getStyleClass().add("request-list-view");
+        searchResultsView.setStyle(searchResultsView.getStyle() + digitalBorderStyle);
+        searchResultsView.setPlaceholder(new Label("ไม่พบข้อความที่ตรงกับการค้นหา"));
+        searchResultsView.setVisible(false);
+        searchResultsView.setManaged(false);
+        searchResultsView.setCellFactory(param -> new ListCell<ChatIndex.Hit>() {
+            @Override
+            protected void updateItem(ChatIndex.Hit hit, boolean empty) {
+                super.updateItem(hit, empty);
+                if (empty || hit == null) {
+                    setText(null);
+                    setGraphic(null);
+                    return;
+                }
+                VBox content = new VBox(3);
+                Label nameLabel = new Label(hit.getRequest().getName().toUpperCase() + "  " + searchTimeFormatter.format(
+                        Instant.ofEpochMilli(hit.getTimestamp()).atZone(ZoneId.systemDefault())));
+                nameLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: #E0FFFF; -fx-font-family: 'Monospace', 'Courier New', monospace;");
+                ChatMessage message = searchMessages.get(hit);
+                Label snippetLabel = new Label(message != null && message.getContent() != null
+                        ? message.getContent().replace('\n', ' ') : "");
+                snippetLabel.setStyle("-fx-text-fill: #00ffff; -fx-font-size: 11px; -fx-font-family: 'Monospace', 'Courier New', monospace;");
+                snippetLabel.setMaxWidth(380);
+                content.getChildren().addAll(nameLabel, snippetLabel);
+                setGraphic(content);
+                setText(null);
+            }
+        });
+
+        getChildren().addAll(headerBox, searchField, requestView, searchResultsView);
         VBox.setVgrow(requestView, Priority.ALWAYS);
+        VBox.setVgrow(searchResultsView, Priority.ALWAYS);
+    }
+
+
+    public void showSearchResults(List<ChatIndex.Hit> hits, List<ChatMessage> messages) {
+        searchMessages.clear();
+        for (int i = 0; i < hits.size(); i++) {
+            searchMessages.put(hits.get(i), messages.get(i));
+        }
+        searchResultsView.getItems().setAll(hits);
+        searchResultsView.setVisible(true);
+        searchResultsView.setManaged(true);
+        requestView.setVisible(false);
+        requestView.setManaged(false);
+
+        Label countLabel = (Label) ((HBox) getChildren().get(0)).getChildren().get(2);
+        countLabel.setText("[ " + hits.size() + " ]");
+    }
+
+    public void hideSearchResults() {
+        searchMessages.clear();
+        searchResultsView.getItems().clear();
+        searchResultsView.setVisible(false);
+        searchResultsView.setManaged(false);
+        requestView.setVisible(true);
+        requestView.setManaged(true);
+
+        Label countLabel = (Label) ((HBox) getChildren().get(0)).getChildren().get(2);
+        countLabel.setText("[ " + requestView.getItems().size() + " ]");
+    }
+
+    public boolean isShowingSearchResults() {
+        return searchResultsView.isVisible();
     }
 
     public void updateRequestList(List<CustomerRequest> requests) {
@@ -222,5 +302,13 @@ public class RequestListView extends VBox {
     public ListView<CustomerRequest> getRequestView() {
         return requestView;
     }
+
+    public TextField getSearchField() {
+        return searchField;
+    }
+
+    public ListView<ChatIndex.Hit> getSearchResultsView() {
+        return searchResultsView;
+    }
 }
 
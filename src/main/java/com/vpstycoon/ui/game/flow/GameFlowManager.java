@@ -2,7 +2,6 @@ package com.vpstycoon.ui.game.flow;
 
 import com.vpstycoon.game.GameObject;
 import com.vpstycoon.game.GameSaveManager;
-import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.Company;
 import com.vpstycoon.game.resource.ResourceManager;
 
@@ -25,15 +24,7 @@ public class GameFlowManager {
             System.out.println("กำลังบันทึกเกม... เงินปัจจุบัน: $" + company.getMoney());
             
             
-            GameState state = new GameState(company, gameObjects);
-            
-            
-            if (ResourceManager.getInstance().getGameTimeController() != null) {
-                state.setLocalDateTime(ResourceManager.getInstance().getGameTimeController().getGameTimeManager().getGameDateTime());
-            }
-            
-            
-            ResourceManager.getInstance().saveGameState(state);
+            saveManager.saveGame(ResourceManager.getInstance().getCurrentState());
             
             System.out.println("บันทึกเกมสำเร็จ! จำนวน GameObject: " + (gameObjects != null ? gameObjects.size() : 0));
         } else {
@@ -2,6 +2,7 @@ package com.vpstycoon.ui.game.notification.center;
 
 import com.vpstycoon.application.FontLoader;
 import com.vpstycoon.audio.AudioManager;
+import com.vpstycoon.game.thread.GameClock;
 import javafx.animation.FadeTransition;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -380,7 +381,7 @@ public class CenterNotificationView extends StackPane {
                 
                 Thread autoCloseThread = new Thread(() -> {
                     try {
-                        Thread.sleep(autoCloseMillis);
+                        GameClock.getInstance().sleep(autoCloseMillis);
                         if (overlay == currentOverlay) { 
                             Platform.runLater(() -> fadeOutAndRemove(overlay));
                         }
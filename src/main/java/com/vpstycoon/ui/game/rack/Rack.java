@@ -1,9 +1,10 @@
 package com.vpstycoon.ui.game.rack;
 
-import com.vpstycoon.game.GameObject;
 import com.vpstycoon.game.GameState;
+import com.vpstycoon.game.vps.KeepUpLedger;
 import com.vpstycoon.game.vps.VPSInventory;
 import com.vpstycoon.game.vps.VPSOptimization;
+import com.vpstycoon.game.vps.enums.RackProduct;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -14,6 +15,7 @@ import javafx.scene.layout.VBox;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 
 public class Rack extends StackPane implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 9183366545433556971L;
 
     private transient List<VBox> racks;
     private transient Button prevButton;
@@ -37,6 +41,7 @@ public class Rack extends StackPane implements Serializable {
     private int occupiedSlotUnits;
     
     private List<Integer> slotsPerRack;
+    private KeepUpLedger keepUpLedger;
 
     public Rack() {
         initializeTransientFields();
@@ -44,6 +49,7 @@ public class Rack extends StackPane implements Serializable {
         unlockedSlotUnitsList = new ArrayList<>();
         occupiedSlotUnitsList = new ArrayList<>();
         slotsPerRack = new ArrayList<>();
+        keepUpLedger = new KeepUpLedger();
         
         currentRackIndex = -1;
         maxSlotUnits = 0;
@@ -122,6 +128,19 @@ public class Rack extends StackPane implements Serializable {
         initializeTransientFields();
         
         
+        if (keepUpLedger == null) {
+            keepUpLedger = new KeepUpLedger();
+            for (int i = 0; i < slotsPerRack.size(); i++) {
+                keepUpLedger.addRack(null);
+            }
+            for (List<VPSOptimization> rackVPSList : rackVPS) {
+                for (VPSOptimization vps : rackVPSList) {
+                    keepUpLedger.addServer(vps);
+                }
+            }
+        }
+        
+        
         for (int i = 0; i < slotsPerRack.size(); i++) {
             
             VBox newRack = createRackUI(slotsPerRack.get(i));
@@ -157,6 +176,14 @@ public class Rack extends StackPane implements Serializable {
     }
 
     public void addRack(int slots) {
+        addRack(slots, null);
+    }
+
+    public void addRack(RackProduct product) {
+        addRack(product.getSlots(), product);
+    }
+
+    public void addRack(int slots, RackProduct product) {
         
         VBox newRack = createRackUI(slots);
         racks.add(newRack);
@@ -168,6 +195,7 @@ public class Rack extends StackPane implements Serializable {
         rackVPS.add(new ArrayList<>()); 
         unlockedSlotUnitsList.add(1); 
         occupiedSlotUnitsList.add(0); 
+        keepUpLedger.addRack(product);
         
         
         maxSlotUnits = slots;
@@ -435,6 +463,7 @@ public class Rack extends StackPane implements Serializable {
         occupiedSlotUnits = occupiedSlotUnitsList.get(currentRackIndex);
         
         vps.setInstalled(true);
+        keepUpLedger.addServer(vps);
 
         
         if (currentRackIndex >= 0 && currentRackIndex < racks.size()) {
@@ -457,6 +486,7 @@ public class Rack extends StackPane implements Serializable {
             occupiedSlotUnits = occupiedSlotUnitsList.get(currentRackIndex);
             
             vps.setInstalled(false);
+            keepUpLedger.removeServer(vps);
 
             if (currentRackIndex >= 0 && currentRackIndex < racks.size()) {
                 updateVPSDisplay(racks.get(currentRackIndex));
@@ -473,10 +503,42 @@ public class Rack extends StackPane implements Serializable {
         return new ArrayList<>(rackVPS.get(currentRackIndex));
     }
 
+    public List<VPSOptimization> getInstalledVPS(int rackIndex) {
+        if (rackIndex < 0 || rackIndex >= rackVPS.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(rackVPS.get(rackIndex));
+    }
+
     public int getMaxSlotUnits() {
         return maxSlotUnits;
     }
 
+    public int getMaxSlotUnits(int rackIndex) {
+        if (rackIndex < 0 || rackIndex >= slotsPerRack.size()) {
+            return 0;
+        }
+        return slotsPerRack.get(rackIndex);
+    }
+
+    public int getUnlockedSlotUnits(int rackIndex) {
+        if (rackIndex < 0 || rackIndex >= unlockedSlotUnitsList.size()) {
+            return 0;
+        }
+        return unlockedSlotUnitsList.get(rackIndex);
+    }
+
+    public int getOccupiedSlotUnits(int rackIndex) {
+        if (rackIndex < 0 || rackIndex >= occupiedSlotUnitsList.size()) {
+            return 0;
+        }
+        return occupiedSlotUnitsList.get(rackIndex);
+    }
+
+    public int getAvailableSlotUnits(int rackIndex) {
+        return getUnlockedSlotUnits(rackIndex) - getOccupiedSlotUnits(rackIndex);
+    }
+
     public int getUnlockedSlotUnits() {
         if (currentRackIndex < 0 || currentRackIndex >= unlockedSlotUnitsList.size()) {
             return 0; 
@@ -531,6 +593,16 @@ public class Rack extends StackPane implements Serializable {
     }
     
     
+    public KeepUpLedger getKeepUpLedger() {
+        return keepUpLedger;
+    }
+
+    
+    public long getMonthlyKeepUp() {
+        return keepUpLedger.getMonthlyKeepUp();
+    }
+
+    
     public List<Integer> getUnlockedSlotUnitsList() {
         return new ArrayList<>(unlockedSlotUnitsList);
     }
@@ -565,6 +637,7 @@ public class Rack extends StackPane implements Serializable {
             this.unlockedSlotUnitsList.clear();
             this.occupiedSlotUnitsList.clear();
             this.slotsPerRack.clear();
+            this.keepUpLedger.clear();
             
             
             int maxRacks = rackConfig.containsKey("maxRacks") ? (Integer) rackConfig.get("maxRacks") : 0;
@@ -575,6 +648,8 @@ public class Rack extends StackPane implements Serializable {
                 slotCounts = (List<Integer>) rackConfig.get("slotCounts");
             }
             
+            List<String> rackProducts = toStringList(rackConfig.get("rackProducts"));
+            
             
             for (int i = 0; i < maxRacks; i++) {
                 int slotCount = 10; 
@@ -586,6 +661,8 @@ public class Rack extends StackPane implements Serializable {
                 this.racks.add(newRack);
                 this.slotsPerRack.add(slotCount);
                 this.rackVPS.add(new ArrayList<>());
+                this.keepUpLedger.addRack(i < rackProducts.size()
+                        ? KeepUpLedger.parseRackProduct(rackProducts.get(i)) : null);
                 
                 
                 this.unlockedSlotUnitsList.add(1); 
@@ -615,45 +692,18 @@ public class Rack extends StackPane implements Serializable {
             }
             
             
-            if (rackConfig.containsKey("installedVpsIds")) {
-                List<String> installedVpsIds = (List<String>) rackConfig.get("installedVpsIds");
-                
-                
-                for (String vpsId : installedVpsIds) {
-                    boolean found = false;
-                    
-                    for (GameObject obj : gameState.getGameObjects()) {
-                        if (obj instanceof VPSOptimization) {
-                            VPSOptimization vps = (VPSOptimization) obj;
-                            if (vps.getVpsId().equals(vpsId)) {
-                                
-                                int rackIndex = 0; 
-                                
-                                
-                                
-                                
-                                
-                                if (rackIndex >= 0 && rackIndex < this.rackVPS.size()) {
-                                    this.rackVPS.get(rackIndex).add(vps);
-                                    
-                                    
-                                    int currentOccupied = this.occupiedSlotUnitsList.get(rackIndex);
-                                    this.occupiedSlotUnitsList.set(rackIndex, currentOccupied + vps.getSlotsRequired());
-                                    
-                                    
-                                    vps.setInstalled(true);
-                                    
-                                    found = true;
-                                    System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack #" + (rackIndex + 1));
-                                    break;
-                                }
-                            }
+            if (rackConfig.get("allRacksData") instanceof List<?> allRacksData && !allRacksData.isEmpty()) {
+                for (Object entry : allRacksData) {
+                    if (entry instanceof Map<?, ?> rackData && rackData.get("rackIndex") instanceof Integer rackIndex) {
+                        for (String vpsId : toStringList(rackData.get("installedVpsIds"))) {
+                            restoreInstalledVps(gameState, rackIndex, vpsId);
                         }
                     }
-                    
-                    if (!found) {
-                        System.out.println("ไม่พบ VPS " + vpsId + " ใน GameObjects");
-                    }
+                }
+            } else if (rackConfig.containsKey("installedVpsIds")) {
+                List<String> installedVpsIds = (List<String>) rackConfig.get("installedVpsIds");
+                for (String vpsId : installedVpsIds) {
+                    restoreInstalledVps(gameState, 0, vpsId);
                 }
             }
             
@@ -685,6 +735,35 @@ public class Rack extends StackPane implements Serializable {
         }
     }
 
+    private static List<String> toStringList(Object value) {
+        List<String> values = new ArrayList<>();
+        if (value instanceof List<?> list) {
+            for (Object element : list) {
+                if (element instanceof String string) {
+                    values.add(string);
+                }
+            }
+        }
+        return values;
+    }
+
+    private void restoreInstalledVps(GameState gameState, int rackIndex, String vpsId) {
+        VPSOptimization vps = gameState.getObjectRegistry().findVps(vpsId);
+        if (vps == null) {
+            System.out.println("ไม่พบ VPS " + vpsId + " ใน GameObjects");
+            return;
+        }
+        if (rackIndex < 0 || rackIndex >= this.rackVPS.size()) {
+            System.out.println("ไม่สามารถติดตั้ง VPS " + vpsId + " ใน Rack #" + (rackIndex + 1) + " ได้");
+            return;
+        }
+        this.rackVPS.get(rackIndex).add(vps);
+        this.occupiedSlotUnitsList.set(rackIndex, this.occupiedSlotUnitsList.get(rackIndex) + vps.getSlotsRequired());
+        vps.setInstalled(true);
+        this.keepUpLedger.addServer(vps);
+        System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack #" + (rackIndex + 1));
+    }
+
     
     public void syncRackWithGameState(GameState gameState) {
         if (gameState == null) {
@@ -701,23 +780,7 @@ public class Rack extends StackPane implements Serializable {
                 
                 for (VPSOptimization vps : installedVPS) {
                     
-                    boolean found = false;
-                    for (GameObject obj : gameState.getGameObjects()) {
-                        if (obj instanceof VPSOptimization) {
-                            VPSOptimization stateVPS = (VPSOptimization) obj;
-                            if (stateVPS.getVpsId().equals(vps.getVpsId())) {
-                                found = true;
-                                
-                                
-                                
-                                
-                                break;
-                            }
-                        }
-                    }
-                    
-                    
-                    if (!found) {
+                    if (!gameState.containsVps(vps.getVpsId())) {
                         System.out.println("ลบ VPS " + vps.getVpsId() + " จาก Rack เนื่องจากไม่พบใน GameState");
                         uninstallVPS(vps);
                     }
@@ -744,25 +807,17 @@ public class Rack extends StackPane implements Serializable {
                     }
                     
                     
-                    if (!alreadyInstalled) {
-                        for (GameObject obj : gameState.getGameObjects()) {
-                            if (obj instanceof VPSOptimization) {
-                                VPSOptimization vps = (VPSOptimization) obj;
-                                if (vps.getVpsId().equals(vpsId)) {
-                                    
-                                    if (getAvailableSlotUnits() >= vps.getSlotsRequired()) {
-                                        if (installVPS(vps)) {
-                                            System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack ระหว่างการซิงค์");
-                                        }
-                                    } else {
-                                        System.out.println("ไม่สามารถติดตั้ง VPS " + vpsId + 
-                                                          " ได้เนื่องจากไม่มีพื้นที่พอ (ต้องการ " + 
-                                                          vps.getSlotsRequired() + " slots, มี " + 
-                                                          getAvailableSlotUnits() + " slots)");
-                                    }
-                                    break;
-                                }
+                    VPSOptimization vps = alreadyInstalled ? null : gameState.getObjectRegistry().findVps(vpsId);
+                    if (vps != null) {
+                        if (getAvailableSlotUnits() >= vps.getSlotsRequired()) {
+                            if (installVPS(vps)) {
+                                System.out.println("ติดตั้ง VPS " + vpsId + " ใน Rack ระหว่างการซิงค์");
                             }
+                        } else {
+                            System.out.println("ไม่สามารถติดตั้ง VPS " + vpsId + 
+                                              " ได้เนื่องจากไม่มีพื้นที่พอ (ต้องการ " + 
+                                              vps.getSlotsRequired() + " slots, มี " + 
+                                              getAvailableSlotUnits() + " slots)");
                         }
                     }
                 }
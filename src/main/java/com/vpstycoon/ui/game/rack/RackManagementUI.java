@@ -3,6 +3,8 @@ package com.vpstycoon.ui.game.rack;
 import com.vpstycoon.game.GameObject;
 import com.vpstycoon.game.GameState;
 import com.vpstycoon.game.company.SkillPointsSystem;
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.game.resource.ResourceManager.RackUIUpdateListener;
 import com.vpstycoon.game.vps.VPSOptimization;
@@ -221,6 +223,7 @@ public class RackManagementUI extends VBox implements RackUIUpdateListener {
                 parent.getCompany().setMoney(parent.getCompany().getMoney() - currentUpgradeCost);
                 
                 if (parent.getRack().upgrade()) {
+                    CommandJournal.record(time -> JournalCommand.upgradeRack(time, parent.getRack().getCurrentRackIndex()));
                     Timeline pulseAnimation = new Timeline();
                     pulseAnimation.getKeyFrames().addAll(
                         new KeyFrame(Duration.ZERO, 
@@ -1082,6 +1085,7 @@ public class RackManagementUI extends VBox implements RackUIUpdateListener {
                     parent.getCompany().setMoney(parent.getCompany().getMoney() - currentUpgradeCost);
                     
                     if (parent.getRack().upgrade()) {
+                        CommandJournal.record(time -> JournalCommand.upgradeRack(time, parent.getRack().getCurrentRackIndex()));
                         Timeline pulseAnimation = new Timeline();
                         pulseAnimation.getKeyFrames().addAll(
                             new KeyFrame(Duration.ZERO, 
@@ -1564,6 +1568,7 @@ public class RackManagementUI extends VBox implements RackUIUpdateListener {
                     parent.getCompany().setMoney(parent.getCompany().getMoney() - currentUpgradeCost);
                     
                     if (parent.getRack().upgrade()) {
+                        CommandJournal.record(time -> JournalCommand.upgradeRack(time, parent.getRack().getCurrentRackIndex()));
                         Timeline pulseAnimation = new Timeline();
                         pulseAnimation.getKeyFrames().addAll(
                             new KeyFrame(Duration.ZERO, 
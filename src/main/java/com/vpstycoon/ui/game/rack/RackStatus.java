@@ -1,5 +1,7 @@
 package com.vpstycoon.ui.game.rack;
 
+import com.vpstycoon.game.persistence.CommandJournal;
+import com.vpstycoon.game.persistence.JournalCommand;
 import com.vpstycoon.game.vps.VPSOptimization;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -156,6 +158,7 @@ public class RackStatus extends VBox {
 
         upgradeButton.setOnAction(e -> {
             if (rack.upgrade()) {
+                CommandJournal.record(time -> JournalCommand.upgradeRack(time, rack.getCurrentRackIndex()));
                 updateUI();
             }
         });
@@ -1,8 +1,11 @@
 package com.vpstycoon.ui.menu;
 
+import com.vpstycoon.application.FontLoader;
 import com.vpstycoon.audio.AudioManager;
 import com.vpstycoon.config.GameConfig;
 import com.vpstycoon.game.GameSaveManager;
+import com.vpstycoon.game.persistence.SaveSlotInfo;
+import com.vpstycoon.game.persistence.SaveThumbnail;
 import com.vpstycoon.game.resource.ResourceManager;
 import com.vpstycoon.screen.ScreenManager;
 import com.vpstycoon.ui.base.GameScreen;
@@ -13,10 +16,16 @@ import com.vpstycoon.ui.settings.SettingsScreen;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+
+import java.time.format.DateTimeFormatter;
 
 public class MainMenuScreen extends GameScreen {
     private SettingsScreen settingsScreen;
@@ -91,6 +100,11 @@ public class MainMenuScreen extends GameScreen {
                 audioManager.playSoundEffect("click.wav");
             });
             root.getChildren().add(continueButton);
+
+            SaveSlotInfo saveInfo = saveManager.getSaveInfo();
+            if (saveInfo != null && saveInfo.hasDetails()) {
+                root.getChildren().add(createSaveSummary(saveInfo));
+            }
         }
         
         root.getChildren().addAll(newGameButton, settingsButton, quitButton, deleteButton);
@@ -140,5 +154,32 @@ public class MainMenuScreen extends GameScreen {
         
         return stackPane;
     }
+
+    private HBox createSaveSummary(SaveSlotInfo saveInfo) {
+        HBox summary = new HBox(12);
+        summary.setAlignment(Pos.CENTER);
+
+        if (saveInfo.getThumbnail() != null) {
+            ImageView thumbnail = new ImageView(saveInfo.getThumbnail().toImage());
+            thumbnail.setFitWidth(SaveThumbnail.WIDTH * 3);
+            thumbnail.setFitHeight(SaveThumbnail.HEIGHT * 3);
+            thumbnail.setSmooth(false);
+            summary.getChildren().add(thumbnail);
+        }
+
+        long playMinutes = saveInfo.getPlayTimeMs() / 60_000;
+        String gameDate = saveInfo.getGameDate() != null
+                ? saveInfo.getGameDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) : "-";
+        Text details = new Text(
+                (saveInfo.getCompanyName() != null ? saveInfo.getCompanyName() : "-") + "\n"
+                + "$" + saveInfo.getMoney() + "  |  Rating " + String.format("%.1f", saveInfo.getRating()) + "\n"
+                + gameDate + "  |  " + (playMinutes / 60) + "h " + (playMinutes % 60) + "m");
+        details.setFill(Color.WHITE);
+        if (FontLoader.LABEL_FONT != null) {
+            details.setFont(FontLoader.LABEL_FONT);
+        }
+        summary.getChildren().add(details);
+        return summary;
+    }
 } 
 